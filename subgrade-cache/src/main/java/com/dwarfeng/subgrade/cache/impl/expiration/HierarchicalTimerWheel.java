@@ -0,0 +1,310 @@
+package com.dwarfeng.subgrade.cache.impl.expiration;
+
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessageKey;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessages;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分层时间轮。
+ *
+ * <p>
+ * 用于在指定的时间戳到达后执行过期任务，可以被多个本地缓存处理器共享。
+ *
+ * <p>
+ * 时间轮由多层组成，每层包含 64 个槽位，第 0 层每个槽位跨越一个时间刻度，第 n 层每个槽位跨越 64<sup>n</sup> 个时间刻度。
+ * 任务根据剩余时间放入对应层级的槽位，当低层时间轮转完一圈时，高层对应槽位中的任务被重新分配到低层。
+ * 因此，每个任务的调度、取消与执行的均摊时间复杂度均为 O(1)，每个时间刻度只处理到期槽位中的任务，
+ * 不需要扫描全部缓存项。
+ *
+ * <p>
+ * 时间轮使用一个 {@link ScheduledExecutorService} 周期性推进，无论服务多少个处理器，都只占用一个周期任务。
+ * 到期的任务在时间轮的锁之外、于调度器的线程中逐个执行，任务应当短小，且不应阻塞。
+ *
+ * <p>
+ * 本类实现线程安全。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class HierarchicalTimerWheel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HierarchicalTimerWheel.class);
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 5;
+    private static final long MAXIMUM_SPAN = 1L << (WHEEL_BITS * LEVELS);
+
+    @NotNull
+    private final ScheduledExecutorService scheduler;
+
+    private final long tickDuration;
+
+    private final Lock lock = new ReentrantLock();
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+
+    private long currentTick;
+    private ScheduledFuture<?> tickTaskFuture;
+
+    /**
+     * 构造一个分层时间轮，并立即开始推进。
+     *
+     * @param scheduler    用于推进时间轮的调度器。
+     * @param tickDuration 时间刻度的长度，单位为毫秒，同时也是过期精度。
+     */
+    public HierarchicalTimerWheel(@NotNull ScheduledExecutorService scheduler, long tickDuration) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("时间刻度必须为正数: " + tickDuration);
+        }
+        this.scheduler = scheduler;
+        this.tickDuration = tickDuration;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int index = 0; index < WHEEL_SIZE; index++) {
+                wheels[level][index] = new Bucket();
+            }
+        }
+        currentTick = System.currentTimeMillis() / tickDuration;
+        tickTaskFuture = scheduler.scheduleAtFixedRate(this::advance, tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 调度一个任务，使其在指定的时间戳到达后执行。
+     *
+     * @param expireTimestamp 过期时间戳，单位为毫秒。
+     * @param task            到期后执行的任务。
+     * @return 调度生成的超时句柄，可用于取消任务。
+     */
+    @NotNull
+    public Timeout schedule(long expireTimestamp, @NotNull Runnable task) {
+        Timeout timeout = new Timeout(this, Math.ceilDiv(expireTimestamp, tickDuration), task);
+        lock.lock();
+        try {
+            place(timeout);
+        } finally {
+            lock.unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * 停止推进时间轮。
+     *
+     * <p>
+     * 停止后，尚未执行的任务不会再被执行。
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (Objects.nonNull(tickTaskFuture)) {
+                tickTaskFuture.cancel(false);
+                tickTaskFuture = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 将时间轮推进到当前时间，并执行所有到期的任务。
+     */
+    private void advance() {
+        List<Timeout> expiredTimeouts = new ArrayList<>();
+        lock.lock();
+        try {
+            long targetTick = System.currentTimeMillis() / tickDuration;
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                Bucket bucket = wheels[0][(int) (currentTick & WHEEL_MASK)];
+                Timeout timeout;
+                while (Objects.nonNull(timeout = bucket.poll())) {
+                    if (timeout.expireTick <= currentTick) {
+                        expiredTimeouts.add(timeout);
+                    } else {
+                        place(timeout);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Timeout timeout : expiredTimeouts) {
+            try {
+                timeout.task.run();
+            } catch (Exception e) {
+                LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_TIMER_WHEEL_TASK_FAILED), e);
+            }
+        }
+    }
+
+    /**
+     * 当低层时间轮转完一圈时，将高层对应槽位中的任务重新分配到低层。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            Bucket bucket = wheels[level][(int) ((currentTick >>> shift) & WHEEL_MASK)];
+            Timeout timeout;
+            while (Objects.nonNull(timeout = bucket.poll())) {
+                place(timeout);
+            }
+        }
+    }
+
+    /**
+     * 根据剩余的时间刻度将超时句柄放入对应层级的槽位。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     *
+     * @param timeout 超时句柄。
+     */
+    private void place(Timeout timeout) {
+        // 已经到期的任务放入下一个时间刻度的槽位，超出时间轮跨度的任务先放入最高层，待重新分配时再调整。
+        long placementTick = Math.min(
+                Math.max(timeout.expireTick, currentTick + 1), currentTick + MAXIMUM_SPAN - 1
+        );
+        long delta = placementTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((placementTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        wheels[level][index].add(timeout);
+    }
+
+    /**
+     * 取消指定的超时句柄。
+     *
+     * @param timeout 超时句柄。
+     * @return 是否成功取消。
+     */
+    private boolean cancel(Timeout timeout) {
+        lock.lock();
+        try {
+            if (Objects.isNull(timeout.bucket)) {
+                return false;
+            }
+            timeout.bucket.remove(timeout);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @NotNull
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    @Override
+    public String toString() {
+        return "HierarchicalTimerWheel{" +
+                "scheduler=" + scheduler +
+                ", tickDuration=" + tickDuration +
+                ", currentTick=" + currentTick +
+                '}';
+    }
+
+    /**
+     * 超时句柄。
+     *
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    public static final class Timeout {
+
+        private final HierarchicalTimerWheel timerWheel;
+        private final long expireTick;
+        private final Runnable task;
+
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HierarchicalTimerWheel timerWheel, long expireTick, Runnable task) {
+            this.timerWheel = timerWheel;
+            this.expireTick = expireTick;
+            this.task = task;
+        }
+
+        /**
+         * 取消该超时句柄对应的任务。
+         *
+         * @return 是否成功取消，如果任务已经执行或已经被取消，返回 <code>false</code>。
+         */
+        public boolean cancel() {
+            return timerWheel.cancel(this);
+        }
+    }
+
+    /**
+     * 时间轮槽位，使用双向链表保存超时句柄，以支持 O(1) 的取消。
+     *
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private static final class Bucket {
+
+        private Timeout first;
+        private Timeout last;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = last;
+            timeout.next = null;
+            if (Objects.isNull(last)) {
+                first = timeout;
+            } else {
+                last.next = timeout;
+            }
+            last = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (Objects.isNull(timeout.prev)) {
+                first = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (Objects.isNull(timeout.next)) {
+                last = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        private Timeout poll() {
+            Timeout timeout = first;
+            if (Objects.nonNull(timeout)) {
+                remove(timeout);
+            }
+            return timeout;
+        }
+    }
+}
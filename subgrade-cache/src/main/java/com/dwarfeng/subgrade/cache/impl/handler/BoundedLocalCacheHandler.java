@@ -0,0 +1,917 @@
+package com.dwarfeng.subgrade.cache.impl.handler;
+
+import com.dwarfeng.subgrade.basic.sdk.exception.HandlerExceptionHelper;
+import com.dwarfeng.subgrade.basic.stack.exception.HandlerException;
+import com.dwarfeng.subgrade.cache.impl.stats.ConcurrentStatsCounter;
+import com.dwarfeng.subgrade.cache.internal.eviction.FrequencySketch;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessageKey;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessages;
+import com.dwarfeng.subgrade.cache.internal.loader.FetcherUtil;
+import com.dwarfeng.subgrade.cache.stack.eviction.Weigher;
+import com.dwarfeng.subgrade.cache.stack.handler.LocalCacheHandler;
+import com.dwarfeng.subgrade.cache.stack.loader.FetchResult;
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界的本地缓存处理器。
+ *
+ * <p>
+ * 本处理器实现线程安全，并限制缓存项的权重之和不超过最大权重。
+ * 未指定权重计算器时，每个缓存项的权重为 1，此时最大权重即为最大缓存项数量。
+ * 已确认不存在的键同样作为缓存项参与容量限制，其权重固定为 1。
+ *
+ * <p>
+ * 本处理器使用 W-TinyLFU 淘汰策略：
+ * <ul>
+ *     <li>新写入的缓存项首先进入容量约为 1% 的窗口区，窗口区内按 LRU 顺序淘汰。</li>
+ *     <li>从窗口区淘汰的缓存项作为候选者，与主区试用段中最久未访问的缓存项比较访问频率，
+ *     只有频率更高的候选者才会被接纳，否则候选者被直接淘汰。</li>
+ *     <li>主区分为试用段与保护段，试用段中被再次访问的缓存项晋升至保护段。</li>
+ * </ul>
+ * 访问频率由 Count-Min Sketch 估计并随时间衰减，一次性的扫描访问无法挤出频繁访问的热点数据。
+ *
+ * <p>
+ * {@link Fetcher} 的调用不在锁内进行，同一个键的并发未命中只会触发一次 {@link Fetcher} 调用。
+ *
+ * <p>
+ * 命中时不获取锁：访问记录先写入按线程分段的读缓冲区，在缓冲区接近写满或其它操作获取锁时，
+ * 再批量应用到频率草图与队列中。缓冲区已满且锁被占用时，访问记录会被丢弃，这只影响淘汰的精度，不影响正确性。
+ *
+ * <p>
+ * 本处理器不支持 <code>null</code> 键。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class BoundedLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedLocalCacheHandler.class);
+
+    /**
+     * 窗口区占最大权重的比例。
+     */
+    private static final double WINDOW_PERCENT = 0.01;
+
+    /**
+     * 保护段占主区权重的比例。
+     */
+    private static final double PROTECTED_PERCENT = 0.8;
+
+    /**
+     * 频率草图的初始容量上限。
+     */
+    private static final long INITIAL_SKETCH_CAPACITY_LIMIT = 1L << 16;
+
+    /**
+     * 每个读缓冲区的容量。
+     */
+    private static final int READ_BUFFER_SIZE = 64;
+
+    /**
+     * 读缓冲区中的访问记录达到该数量时，尝试获取锁并应用访问记录。
+     */
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+    @NotNull
+    private volatile Fetcher<K, V> fetcher;
+
+    @NotNull
+    private volatile StatsCounter statsCounter = StatsCounter.disabled();
+
+    @NotNull
+    private final Weigher<K, V> weigher;
+
+    private long maximumWeight;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<K, Node<K, V>> dataMap = new ConcurrentHashMap<>();
+    private final NodeDeque<K, V> windowDeque = new NodeDeque<>();
+    private final NodeDeque<K, V> probationDeque = new NodeDeque<>();
+    private final NodeDeque<K, V> protectedDeque = new NodeDeque<>();
+    private final FrequencySketch<K> sketch = new FrequencySketch<>();
+    private final ConcurrentMap<K, CompletableFuture<Node<K, V>>> loadingMap = new ConcurrentHashMap<>();
+    private final ArrayBlockingQueue<Node<K, V>>[] readBuffers = newReadBuffers();
+
+    private long windowMaximum;
+    private long protectedMaximum;
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+
+    /**
+     * 构造一个限制最大缓存项数量的处理器。
+     *
+     * @param fetcher     抓取器。
+     * @param maximumSize 最大缓存项数量。
+     */
+    public BoundedLocalCacheHandler(@NotNull Fetcher<K, V> fetcher, long maximumSize) {
+        this(fetcher, maximumSize, (key, value) -> 1);
+    }
+
+    /**
+     * 构造一个限制最大权重的处理器。
+     *
+     * @param fetcher       抓取器。
+     * @param maximumWeight 最大权重。
+     * @param weigher       权重计算器。
+     */
+    public BoundedLocalCacheHandler(
+            @NotNull Fetcher<K, V> fetcher, long maximumWeight, @NotNull Weigher<K, V> weigher
+    ) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("最大权重不能为负数: " + maximumWeight);
+        }
+        this.fetcher = fetcher;
+        this.weigher = weigher;
+        this.maximumWeight = maximumWeight;
+        refreshMaximum();
+        sketch.ensureCapacity(Math.min(maximumWeight, INITIAL_SKETCH_CAPACITY_LIMIT));
+    }
+
+    @Override
+    public boolean exists(K key) throws HandlerException {
+        try {
+            return obtain(key).exists;
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public V get(K key) throws HandlerException {
+        try {
+            return obtain(key).value;
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) throws HandlerException {
+        try {
+            Map<K, Node<K, V>> hitMap = new HashMap<>();
+            Set<K> missingKeys = new LinkedHashSet<>();
+            for (K key : keys) {
+                Node<K, V> node = dataMap.get(key);
+                if (Objects.nonNull(node)) {
+                    afterRead(node);
+                    recordHit(node);
+                    hitMap.put(key, node);
+                } else {
+                    missingKeys.add(key);
+                }
+            }
+            Map<K, CompletableFuture<Node<K, V>>> pendingFutureMap = new LinkedHashMap<>();
+            Map<K, CompletableFuture<Node<K, V>>> ownedFutureMap = new LinkedHashMap<>();
+            if (!missingKeys.isEmpty()) {
+                lock.lock();
+                try {
+                    drainReadBuffers();
+                    for (K key : missingKeys) {
+                        sketch.increment(key);
+                        // 未命中之后、获取锁之前，该键可能已经加载完成。
+                        Node<K, V> node = dataMap.get(key);
+                        if (Objects.nonNull(node)) {
+                            onAccess(node);
+                            recordHit(node);
+                            hitMap.put(key, node);
+                            continue;
+                        }
+                        CompletableFuture<Node<K, V>> future = loadingMap.get(key);
+                        if (Objects.isNull(future)) {
+                            future = new CompletableFuture<>();
+                            loadingMap.put(key, future);
+                            ownedFutureMap.put(key, future);
+                        }
+                        pendingFutureMap.put(key, future);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            // 当前线程负责加载的键合并为一次批量抓取。
+            if (!ownedFutureMap.isEmpty()) {
+                statsCounter.recordMisses(ownedFutureMap.size());
+                loadAll(ownedFutureMap);
+            }
+            for (Map.Entry<K, CompletableFuture<Node<K, V>>> entry : pendingFutureMap.entrySet()) {
+                Node<K, V> node = await(entry.getValue());
+                if (!ownedFutureMap.containsKey(entry.getKey())) {
+                    recordHit(node);
+                }
+                hitMap.put(entry.getKey(), node);
+            }
+            Map<K, V> result = new LinkedHashMap<>();
+            for (K key : keys) {
+                Node<K, V> node = hitMap.get(key);
+                if (Objects.nonNull(node) && node.exists) {
+                    result.put(key, node.value);
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            Node<K, V> node = dataMap.remove(key);
+            if (Objects.nonNull(node)) {
+                unlink(node);
+            }
+            boolean flag = Objects.nonNull(node);
+            flag |= Objects.nonNull(loadingMap.remove(key));
+
+            // 记录日志。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEY, key, flag));
+
+            return flag;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<K> keys) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            boolean flag = false;
+            for (K key : keys) {
+                Node<K, V> node = dataMap.remove(key);
+                if (Objects.nonNull(node)) {
+                    unlink(node);
+                    flag = true;
+                }
+                flag |= Objects.nonNull(loadingMap.remove(key));
+            }
+
+            // 记录日志。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEYS, keys, flag));
+
+            return flag;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            dataMap.clear();
+            windowDeque.clear();
+            probationDeque.clear();
+            protectedDeque.clear();
+            sketch.clear();
+            loadingMap.clear();
+            for (ArrayBlockingQueue<Node<K, V>> readBuffer : readBuffers) {
+                readBuffer.clear();
+            }
+            windowWeight = 0;
+            protectedWeight = 0;
+            totalWeight = 0;
+
+            // 记录日志。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_ALL));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取指定的键对应的缓存节点。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的缓存节点。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private Node<K, V> obtain(K key) throws Exception {
+        Node<K, V> node = dataMap.get(key);
+        if (Objects.nonNull(node)) {
+            afterRead(node);
+            recordHit(node);
+            return node;
+        }
+        CompletableFuture<Node<K, V>> future;
+        boolean owned = false;
+        lock.lock();
+        try {
+            drainReadBuffers();
+            sketch.increment(key);
+            // 未命中之后、获取锁之前，该键可能已经加载完成。加载完成时移除 future 与写入缓存在同一次加锁中进行，
+            // 因此在锁内检查缓存与 future，不会为同一个键启动两次加载。
+            node = dataMap.get(key);
+            if (Objects.nonNull(node)) {
+                onAccess(node);
+                recordHit(node);
+                return node;
+            }
+            future = loadingMap.get(key);
+            if (Objects.isNull(future)) {
+                future = new CompletableFuture<>();
+                loadingMap.put(key, future);
+                owned = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (owned) {
+            statsCounter.recordMisses(1);
+            return load(key, future);
+        }
+        node = await(future);
+        recordHit(node);
+        return node;
+    }
+
+    /**
+     * 记录对指定的缓存节点的一次无锁命中。
+     *
+     * <p>
+     * 访问记录写入当前线程对应的读缓冲区；缓冲区接近写满时，尝试获取锁并应用所有的访问记录。
+     *
+     * @param node 命中的缓存节点。
+     */
+    private void afterRead(Node<K, V> node) {
+        ArrayBlockingQueue<Node<K, V>> readBuffer = readBuffers[
+                (int) Thread.currentThread().threadId() & (readBuffers.length - 1)
+                ];
+        boolean offered = readBuffer.offer(node);
+        if ((!offered || readBuffer.size() >= READ_BUFFER_DRAIN_THRESHOLD) && lock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 将读缓冲区中的访问记录应用到频率草图与队列中。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     */
+    private void drainReadBuffers() {
+        for (ArrayBlockingQueue<Node<K, V>> readBuffer : readBuffers) {
+            Node<K, V> node;
+            while (Objects.nonNull(node = readBuffer.poll())) {
+                sketch.increment(node.key);
+                // 记录写入缓冲区之后，节点可能已被移除或替换。
+                if (dataMap.get(node.key) == node) {
+                    onAccess(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * 记录对指定的缓存节点的命中。
+     *
+     * @param node 指定的缓存节点。
+     */
+    private void recordHit(Node<K, V> node) {
+        if (node.exists) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordNegativeHits(1);
+        }
+    }
+
+    /**
+     * 等待指定的 future 完成，并返回其结果。
+     *
+     * @param future 指定的 future。
+     * @return future 的结果。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private Node<K, V> await(CompletableFuture<Node<K, V>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 加载指定的键对应的缓存节点，并完成对应的 future。
+     *
+     * @param key    指定的键。
+     * @param future 当前线程负责完成的 future。
+     * @return 加载得到的缓存节点。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private Node<K, V> load(K key, CompletableFuture<Node<K, V>> future) throws Exception {
+        try {
+            FetchResult<V> fetchResult = FetcherUtil.fetch(fetcher, key, statsCounter);
+            Node<K, V> node;
+            if (fetchResult.exists()) {
+                V value = fetchResult.value();
+
+                // 日志记录。
+                LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
+
+                node = newDataNode(key, value);
+            } else {
+                node = new Node<>(key, null, false, 1);
+            }
+            lock.lock();
+            try {
+                drainReadBuffers();
+                // 加载期间该键可能已被移除，此时不写入缓存，保证移除操作的语义。
+                if (loadingMap.remove(key, future)) {
+                    putNode(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+            future.complete(node);
+            return node;
+        } catch (Throwable e) {
+            loadingMap.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量加载指定的键对应的缓存节点，并完成对应的 future。
+     *
+     * @param ownedFutureMap 当前线程负责加载的键与 future 组成的映射。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private void loadAll(Map<K, CompletableFuture<Node<K, V>>> ownedFutureMap) throws Exception {
+        try {
+            Map<K, V> fetchedMap = FetcherUtil.fetchAll(fetcher, ownedFutureMap.keySet(), statsCounter);
+
+            // 日志记录。
+            LOGGER.info(CacheMessages.message(
+                    CacheMessageKey.LOG_BATCH_FETCH_SUCCEEDED, ownedFutureMap.size(), fetchedMap.size()
+            ));
+
+            Map<K, Node<K, V>> nodeMap = new LinkedHashMap<>();
+            for (K key : ownedFutureMap.keySet()) {
+                if (fetchedMap.containsKey(key)) {
+                    nodeMap.put(key, newDataNode(key, fetchedMap.get(key)));
+                } else {
+                    nodeMap.put(key, new Node<>(key, null, false, 1));
+                }
+            }
+            // 所有的缓存节点在一次加锁中写入。
+            lock.lock();
+            try {
+                drainReadBuffers();
+                for (Map.Entry<K, Node<K, V>> entry : nodeMap.entrySet()) {
+                    if (loadingMap.remove(entry.getKey(), ownedFutureMap.get(entry.getKey()))) {
+                        putNode(entry.getValue());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (Map.Entry<K, Node<K, V>> entry : nodeMap.entrySet()) {
+                ownedFutureMap.get(entry.getKey()).complete(entry.getValue());
+            }
+        } catch (Throwable e) {
+            for (Map.Entry<K, CompletableFuture<Node<K, V>>> entry : ownedFutureMap.entrySet()) {
+                loadingMap.remove(entry.getKey(), entry.getValue());
+                entry.getValue().completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 创建存在的数据对应的缓存节点。
+     *
+     * @param key   指定的键。
+     * @param value 指定的值。
+     * @return 缓存节点。
+     */
+    private Node<K, V> newDataNode(K key, V value) {
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalStateException("缓存项的权重不能为负数: " + weight);
+        }
+        return new Node<>(key, value, true, weight);
+    }
+
+    /**
+     * 写入缓存节点，并在必要时淘汰缓存项。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     *
+     * @param node 缓存节点。
+     */
+    private void putNode(Node<K, V> node) {
+        Node<K, V> oldNode = dataMap.put(node.key, node);
+        if (Objects.nonNull(oldNode)) {
+            unlink(oldNode);
+        }
+        node.queueType = QueueType.WINDOW;
+        windowDeque.addLast(node);
+        windowWeight += node.weight;
+        totalWeight += node.weight;
+        sketch.ensureCapacity(dataMap.size());
+        evictEntries();
+    }
+
+    /**
+     * 记录对缓存节点的访问，调整其在队列中的位置。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     *
+     * @param node 缓存节点。
+     */
+    private void onAccess(Node<K, V> node) {
+        switch (node.queueType) {
+            case WINDOW -> windowDeque.moveToLast(node);
+            case PROBATION -> {
+                probationDeque.remove(node);
+                node.queueType = QueueType.PROTECTED;
+                protectedDeque.addLast(node);
+                protectedWeight += node.weight;
+                demoteProtected();
+            }
+            case PROTECTED -> protectedDeque.moveToLast(node);
+        }
+    }
+
+    /**
+     * 保护段超出限制时，将保护段中最久未访问的缓存项降级至试用段。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     */
+    private void demoteProtected() {
+        while (protectedWeight > protectedMaximum) {
+            Node<K, V> demoted = protectedDeque.peekFirst();
+            if (Objects.isNull(demoted)) {
+                return;
+            }
+            protectedDeque.remove(demoted);
+            protectedWeight -= demoted.weight;
+            demoted.queueType = QueueType.PROBATION;
+            probationDeque.addLast(demoted);
+        }
+    }
+
+    /**
+     * 淘汰缓存项，直至窗口区与总权重均不超出限制。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     */
+    private void evictEntries() {
+        // 窗口区溢出的缓存项作为候选者，经过准入过滤后进入主区。
+        while (windowWeight > windowMaximum) {
+            Node<K, V> candidate = windowDeque.peekFirst();
+            if (Objects.isNull(candidate)) {
+                break;
+            }
+            windowDeque.remove(candidate);
+            windowWeight -= candidate.weight;
+            admit(candidate);
+        }
+        // 最大权重被调小时，主区与窗口区可能仍然超出限制，此时按试用段、保护段、窗口区的顺序淘汰。
+        while (totalWeight > maximumWeight) {
+            Node<K, V> victim = probationDeque.peekFirst();
+            if (Objects.isNull(victim)) {
+                victim = protectedDeque.peekFirst();
+            }
+            if (Objects.isNull(victim)) {
+                victim = windowDeque.peekFirst();
+            }
+            if (Objects.isNull(victim)) {
+                break;
+            }
+            evict(victim);
+        }
+    }
+
+    /**
+     * 对候选者执行准入过滤。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁，且候选者不在任何队列中。
+     *
+     * @param candidate 候选者。
+     */
+    private void admit(Node<K, V> candidate) {
+        if (candidate.weight > maximumWeight) {
+            evictDetached(candidate);
+            return;
+        }
+        int candidateFrequency = sketch.frequency(candidate.key);
+        while (totalWeight > maximumWeight) {
+            Node<K, V> victim = probationDeque.peekFirst();
+            if (Objects.isNull(victim)) {
+                victim = protectedDeque.peekFirst();
+            }
+            if (Objects.isNull(victim)) {
+                break;
+            }
+            if (candidateFrequency > sketch.frequency(victim.key)) {
+                evict(victim);
+            } else {
+                evictDetached(candidate);
+                return;
+            }
+        }
+        candidate.queueType = QueueType.PROBATION;
+        probationDeque.addLast(candidate);
+    }
+
+    /**
+     * 淘汰位于队列中的缓存项。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     *
+     * @param node 缓存节点。
+     */
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        dataMap.remove(node.key);
+        statsCounter.recordEvictions(1);
+    }
+
+    /**
+     * 淘汰不在任何队列中的缓存项。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     *
+     * @param node 缓存节点。
+     */
+    private void evictDetached(Node<K, V> node) {
+        totalWeight -= node.weight;
+        dataMap.remove(node.key);
+        statsCounter.recordEvictions(1);
+    }
+
+    /**
+     * 将缓存节点从其所在的队列中移除，并扣除其权重。
+     *
+     * <p>
+     * 调用该方法时，必须持有锁。
+     *
+     * @param node 缓存节点。
+     */
+    private void unlink(Node<K, V> node) {
+        switch (node.queueType) {
+            case WINDOW -> {
+                windowDeque.remove(node);
+                windowWeight -= node.weight;
+            }
+            case PROBATION -> probationDeque.remove(node);
+            case PROTECTED -> {
+                protectedDeque.remove(node);
+                protectedWeight -= node.weight;
+            }
+        }
+        totalWeight -= node.weight;
+    }
+
+    /**
+     * 根据最大权重刷新窗口区与保护段的限制。
+     */
+    private void refreshMaximum() {
+        windowMaximum = Math.max(1L, (long) (maximumWeight * WINDOW_PERCENT));
+        protectedMaximum = (long) (Math.max(0L, maximumWeight - windowMaximum) * PROTECTED_PERCENT);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 缓存项数量包括已确认不存在的键的记录，被准入过滤拒绝的候选者同样计入淘汰数量。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public CacheStats stats() {
+        return statsCounter.snapshot(size());
+    }
+
+    @NotNull
+    public Fetcher<K, V> getFetcher() {
+        return fetcher;
+    }
+
+    public void setFetcher(@NotNull Fetcher<K, V> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    @NotNull
+    public StatsCounter getStatsCounter() {
+        return statsCounter;
+    }
+
+    /**
+     * 设置统计计数器。
+     *
+     * <p>
+     * 默认的统计计数器不记录任何统计信息，需要统计信息时，可以设置为 {@link ConcurrentStatsCounter}。
+     *
+     * @param statsCounter 统计计数器。
+     */
+    public void setStatsCounter(@NotNull StatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+    }
+
+    @NotNull
+    public Weigher<K, V> getWeigher() {
+        return weigher;
+    }
+
+    public long getMaximumWeight() {
+        lock.lock();
+        try {
+            return maximumWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("最大权重不能为负数: " + maximumWeight);
+        }
+        lock.lock();
+        try {
+            drainReadBuffers();
+            this.maximumWeight = maximumWeight;
+            refreshMaximum();
+            demoteProtected();
+            evictEntries();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取当前缓存项的数量。
+     *
+     * @return 当前缓存项的数量。
+     */
+    public long size() {
+        return dataMap.size();
+    }
+
+    /**
+     * 获取当前缓存项的权重之和。
+     *
+     * @return 当前缓存项的权重之和。
+     */
+    public long weightedSize() {
+        lock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedLocalCacheHandler{" +
+                "fetcher=" + fetcher +
+                ", weigher=" + weigher +
+                ", maximumWeight=" + maximumWeight +
+                ", windowWeight=" + windowWeight +
+                ", protectedWeight=" + protectedWeight +
+                ", totalWeight=" + totalWeight +
+                '}';
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> ArrayBlockingQueue<Node<K, V>>[] newReadBuffers() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        ArrayBlockingQueue<Node<K, V>>[] readBuffers = new ArrayBlockingQueue[count];
+        for (int i = 0; i < count; i++) {
+            readBuffers[i] = new ArrayBlockingQueue<>(READ_BUFFER_SIZE);
+        }
+        return readBuffers;
+    }
+
+    /**
+     * 缓存节点所在的队列。
+     *
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private enum QueueType {
+        WINDOW, PROBATION, PROTECTED
+    }
+
+    /**
+     * 缓存节点。
+     *
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+        private final V value;
+        private final boolean exists;
+        private final int weight;
+
+        private QueueType queueType;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, boolean exists, int weight) {
+            this.key = key;
+            this.value = value;
+            this.exists = exists;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 缓存节点的双向链表，头部为最久未访问的节点。
+     *
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private static final class NodeDeque<K, V> {
+
+        private Node<K, V> first;
+        private Node<K, V> last;
+
+        private Node<K, V> peekFirst() {
+            return first;
+        }
+
+        private void addLast(Node<K, V> node) {
+            node.prev = last;
+            node.next = null;
+            if (Objects.isNull(last)) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (Objects.isNull(node.prev)) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (Objects.isNull(node.next)) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        private void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        private void clear() {
+            first = null;
+            last = null;
+        }
+    }
+}
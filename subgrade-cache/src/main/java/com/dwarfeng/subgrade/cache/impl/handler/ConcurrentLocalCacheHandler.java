@@ -0,0 +1,347 @@
+package com.dwarfeng.subgrade.cache.impl.handler;
+
+import com.dwarfeng.subgrade.basic.sdk.exception.HandlerExceptionHelper;
+import com.dwarfeng.subgrade.basic.stack.exception.HandlerException;
+import com.dwarfeng.subgrade.cache.impl.stats.ConcurrentStatsCounter;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessageKey;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessages;
+import com.dwarfeng.subgrade.cache.internal.loader.FetcherUtil;
+import com.dwarfeng.subgrade.cache.stack.handler.LocalCacheHandler;
+import com.dwarfeng.subgrade.cache.stack.loader.FetchResult;
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 基于并发映射的本地缓存处理器。
+ *
+ * <p>
+ * 本处理器实现线程安全。与 {@link GeneralLocalCacheHandler} 使用全局读写锁不同，
+ * 本处理器为每个键维护一个加载中的 {@link CompletableFuture}：
+ * <ul>
+ *     <li>命中的键直接从并发映射中读取，不会被任何其它键的加载过程阻塞。</li>
+ *     <li>同一个键的并发未命中只会触发一次 {@link Fetcher} 调用，其余调用者等待并共享该次调用的结果。</li>
+ *     <li>{@link Fetcher} 的调用不在任何锁内进行，某个键的慢加载不会影响其它键的读取。</li>
+ * </ul>
+ *
+ * <p>
+ * 加载失败时，异常会传递给所有等待该键的调用者，且失败结果不会被缓存，下一次访问将重新加载。
+ *
+ * <p>
+ * 由于内部使用 {@link ConcurrentHashMap}，本处理器不支持 <code>null</code> 键。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class ConcurrentLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentLocalCacheHandler.class);
+
+    @NotNull
+    private volatile Fetcher<K, V> fetcher;
+
+    @NotNull
+    private volatile StatsCounter statsCounter = StatsCounter.disabled();
+
+    private final ConcurrentMap<K, CompletableFuture<CacheEntry<V>>> futureMap = new ConcurrentHashMap<>();
+
+    public ConcurrentLocalCacheHandler(@NotNull Fetcher<K, V> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    @Override
+    public boolean exists(K key) throws HandlerException {
+        try {
+            return obtain(key).exists();
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public V get(K key) throws HandlerException {
+        try {
+            return obtain(key).value();
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) throws HandlerException {
+        try {
+            Map<K, CompletableFuture<CacheEntry<V>>> pendingFutureMap = new LinkedHashMap<>();
+            Map<K, CompletableFuture<CacheEntry<V>>> ownedFutureMap = new LinkedHashMap<>();
+            for (K key : keys) {
+                if (pendingFutureMap.containsKey(key)) {
+                    continue;
+                }
+                CompletableFuture<CacheEntry<V>> future = futureMap.get(key);
+                if (Objects.isNull(future)) {
+                    CompletableFuture<CacheEntry<V>> newFuture = new CompletableFuture<>();
+                    future = futureMap.putIfAbsent(key, newFuture);
+                    if (Objects.isNull(future)) {
+                        future = newFuture;
+                        ownedFutureMap.put(key, newFuture);
+                    }
+                }
+                pendingFutureMap.put(key, future);
+            }
+            // 当前线程负责加载的键合并为一次批量抓取。
+            if (!ownedFutureMap.isEmpty()) {
+                statsCounter.recordMisses(ownedFutureMap.size());
+                loadAll(ownedFutureMap);
+            }
+            Map<K, V> result = new LinkedHashMap<>();
+            for (Map.Entry<K, CompletableFuture<CacheEntry<V>>> entry : pendingFutureMap.entrySet()) {
+                K key = entry.getKey();
+                CompletableFuture<CacheEntry<V>> future = entry.getValue();
+                CacheEntry<V> cacheEntry;
+                if (future.isCompletedExceptionally()) {
+                    // 其它线程的加载失败时，退化为单键获取，由其重新加载。
+                    cacheEntry = obtain(key);
+                } else {
+                    cacheEntry = await(future);
+                    if (!ownedFutureMap.containsKey(key)) {
+                        recordHit(cacheEntry);
+                    }
+                }
+                if (cacheEntry.exists()) {
+                    result.put(key, cacheEntry.value());
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        boolean flag = Objects.nonNull(futureMap.remove(key));
+
+        // 记录日志。
+        LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEY, key, flag));
+
+        return flag;
+    }
+
+    @Override
+    public boolean removeAll(Collection<K> keys) {
+        boolean flag = false;
+        for (K key : keys) {
+            flag |= Objects.nonNull(futureMap.remove(key));
+        }
+
+        // 记录日志。
+        LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEYS, keys, flag));
+
+        return flag;
+    }
+
+    @Override
+    public void clear() {
+        futureMap.clear();
+
+        // 记录日志。
+        LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_ALL));
+    }
+
+    /**
+     * 获取指定的键对应的缓存项。
+     *
+     * <p>
+     * 如果缓存项已经加载完成，直接返回；如果其它线程正在加载该键，等待其完成并共享结果；
+     * 否则由当前线程发起加载。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的缓存项。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private CacheEntry<V> obtain(K key) throws Exception {
+        CompletableFuture<CacheEntry<V>> future = futureMap.get(key);
+        if (Objects.isNull(future)) {
+            CompletableFuture<CacheEntry<V>> newFuture = new CompletableFuture<>();
+            future = futureMap.putIfAbsent(key, newFuture);
+            if (Objects.isNull(future)) {
+                statsCounter.recordMisses(1);
+                return load(key, newFuture);
+            }
+        }
+        CacheEntry<V> entry = await(future);
+        recordHit(entry);
+        return entry;
+    }
+
+    /**
+     * 记录对指定的缓存项的命中。
+     *
+     * @param entry 指定的缓存项。
+     */
+    private void recordHit(CacheEntry<V> entry) {
+        if (entry.exists()) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordNegativeHits(1);
+        }
+    }
+
+    /**
+     * 等待指定的 future 完成，并返回其结果。
+     *
+     * @param future 指定的 future。
+     * @return future 的结果。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private CacheEntry<V> await(CompletableFuture<CacheEntry<V>> future) throws Exception {
+        // 快速路径：已加载完成的缓存项直接返回，不发生任何阻塞。
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            return future.getNow(null);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            // 加载失败的 future 已由加载线程移除，此处直接向调用者传递原始异常。
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 加载指定的键对应的缓存项，并完成对应的 future。
+     *
+     * @param key    指定的键。
+     * @param future 当前线程负责完成的 future。
+     * @return 加载得到的缓存项。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private CacheEntry<V> load(K key, CompletableFuture<CacheEntry<V>> future) throws Exception {
+        try {
+            FetchResult<V> fetchResult = FetcherUtil.fetch(fetcher, key, statsCounter);
+            CacheEntry<V> entry;
+            if (fetchResult.exists()) {
+                V value = fetchResult.value();
+
+                // 日志记录。
+                LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
+
+                entry = new CacheEntry<>(true, value);
+            } else {
+                entry = new CacheEntry<>(false, null);
+            }
+            future.complete(entry);
+            return entry;
+        } catch (Throwable e) {
+            // 失败结果不缓存，先移除再通知等待者，使后续访问能够重新加载。
+            futureMap.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量加载指定的键对应的缓存项，并完成对应的 future。
+     *
+     * @param ownedFutureMap 当前线程负责加载的键与 future 组成的映射。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private void loadAll(Map<K, CompletableFuture<CacheEntry<V>>> ownedFutureMap) throws Exception {
+        try {
+            Map<K, V> fetchedMap = FetcherUtil.fetchAll(fetcher, ownedFutureMap.keySet(), statsCounter);
+
+            // 日志记录。
+            LOGGER.info(CacheMessages.message(
+                    CacheMessageKey.LOG_BATCH_FETCH_SUCCEEDED, ownedFutureMap.size(), fetchedMap.size()
+            ));
+
+            for (Map.Entry<K, CompletableFuture<CacheEntry<V>>> entry : ownedFutureMap.entrySet()) {
+                K key = entry.getKey();
+                if (fetchedMap.containsKey(key)) {
+                    entry.getValue().complete(new CacheEntry<>(true, fetchedMap.get(key)));
+                } else {
+                    entry.getValue().complete(new CacheEntry<>(false, null));
+                }
+            }
+        } catch (Throwable e) {
+            for (Map.Entry<K, CompletableFuture<CacheEntry<V>>> entry : ownedFutureMap.entrySet()) {
+                futureMap.remove(entry.getKey(), entry.getValue());
+                entry.getValue().completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 缓存项数量包括已确认不存在的键的记录，以及正在加载中的键。
+     */
+    @Override
+    public CacheStats stats() {
+        return statsCounter.snapshot(futureMap.size());
+    }
+
+    @NotNull
+    public Fetcher<K, V> getFetcher() {
+        return fetcher;
+    }
+
+    public void setFetcher(@NotNull Fetcher<K, V> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    @NotNull
+    public StatsCounter getStatsCounter() {
+        return statsCounter;
+    }
+
+    /**
+     * 设置统计计数器。
+     *
+     * <p>
+     * 默认的统计计数器不记录任何统计信息，需要统计信息时，可以设置为 {@link ConcurrentStatsCounter}。
+     *
+     * @param statsCounter 统计计数器。
+     */
+    public void setStatsCounter(@NotNull StatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentLocalCacheHandler{" +
+                "fetcher=" + fetcher +
+                ", futureMap=" + futureMap +
+                '}';
+    }
+
+    /**
+     * 缓存项。
+     *
+     * @param exists 指定的键对应的值是否存在。
+     * @param value  指定的键对应的值，不存在时为 <code>null</code>。
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private record CacheEntry<V>(boolean exists, V value) {
+    }
+}
@@ -2,15 +2,29 @@ package com.dwarfeng.subgrade.cache.impl.handler;
 
 import com.dwarfeng.subgrade.basic.sdk.exception.HandlerExceptionHelper;
 import com.dwarfeng.subgrade.basic.stack.exception.HandlerException;
+import com.dwarfeng.subgrade.cache.impl.expiration.HierarchicalTimerWheel;
+import com.dwarfeng.subgrade.cache.impl.negative.BloomNegativeCache;
+import com.dwarfeng.subgrade.cache.impl.negative.BoundedNegativeCache;
+import com.dwarfeng.subgrade.cache.impl.stats.ConcurrentStatsCounter;
 import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessageKey;
 import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessages;
+import com.dwarfeng.subgrade.cache.internal.loader.FetcherUtil;
 import com.dwarfeng.subgrade.cache.stack.handler.LocalCacheHandler;
+import com.dwarfeng.subgrade.cache.stack.loader.FetchResult;
 import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import com.dwarfeng.subgrade.cache.stack.negative.NegativeCache;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -23,6 +37,22 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * <p>
  * 本处理器实现线程安全，并为缓存数据提供过期时间（TTL）功能。
  *
+ * <p>
+ * 过期数据的主动清理有两种方式：
+ * <ul>
+ *     <li>定期扫描：按照 <code>cleanupInterval</code> 周期性地扫描全部缓存项，适用于缓存项较少的场景。</li>
+ *     <li>时间轮：每个缓存项写入时向 {@link HierarchicalTimerWheel} 注册过期任务，到期后逐个移除，
+ *     不需要扫描全部缓存项，且每次移除只短暂持有写锁。一个时间轮可以被多个处理器共享。</li>
+ * </ul>
+ *
+ * <p>
+ * 本处理器支持提前刷新模式：设置刷新执行器与刷新阈值后，缓存数据写入超过刷新阈值的时间后被访问时，
+ * 处理器在刷新执行器中异步地重新抓取该数据，刷新完成之前，调用者继续获得旧值，即使旧值在此期间已经过期。
+ * 刷新阈值应当小于 <code>ttl</code>，这样被频繁访问的数据总是在过期前完成刷新，调用者不会因为过期而同步等待抓取。
+ * 刷新失败时，旧值继续保留至其过期时间，此后的访问将同步地重新抓取；旧值未过期时，
+ * 刷新失败后需要再经过一个刷新阈值的时间才会再次发起刷新，不会在每次访问时重复提交失败的刷新。
+ * 刷新任务在释放锁之后提交，刷新执行器可以是在调用者线程中直接执行任务的执行器。
+ *
  * @author DwArFeng
  * @since 1.6.1
  */
@@ -36,13 +66,31 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
     @NotNull
     private ScheduledExecutorService scheduler;
 
+    @Nullable
+    private final HierarchicalTimerWheel timerWheel;
+
     private long ttl;
     private long cleanupInterval;
 
+    @Nullable
+    private Executor refreshExecutor;
+
+    private long refreshThreshold;
+
+    @NotNull
+    private volatile StatsCounter statsCounter = StatsCounter.disabled();
+
+    @NotNull
+    private NegativeCache<K> negativeCache;
+
+    private boolean defaultNegativeCache = true;
+
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private final Map<K, V> dataMap = new HashMap<>();
-    private final Set<K> notExistsKeys = new HashSet<>();
     private final Map<K, Long> expireTimestampMap = new HashMap<>();
+    private final Map<K, HierarchicalTimerWheel.Timeout> timeoutMap = new HashMap<>();
+    private final Map<K, Long> refreshTimestampMap = new HashMap<>();
+    private final ConcurrentMap<K, Object> refreshingMap = new ConcurrentHashMap<>();
 
     private ScheduledFuture<?> cleanupTaskFuture;
 
@@ -51,110 +99,208 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
     ) {
         this.fetcher = fetcher;
         this.scheduler = scheduler;
+        this.timerWheel = null;
         this.ttl = ttl;
         this.cleanupInterval = cleanupInterval;
+        this.negativeCache = newDefaultNegativeCache(ttl);
         refreshCleanupTask();
     }
 
+    /**
+     * 构造一个使用时间轮清理过期数据的处理器。
+     *
+     * <p>
+     * 使用该构造器时，处理器不会启动定期扫描任务，<code>cleanupInterval</code> 不再生效。
+     *
+     * @param fetcher    抓取器。
+     * @param timerWheel 时间轮，可以被多个处理器共享。
+     * @param ttl        缓存过期时间，单位为毫秒。
+     * @since 2.0.0
+     */
+    public ExpirableLocalCacheHandler(
+            @NotNull Fetcher<K, V> fetcher, @NotNull HierarchicalTimerWheel timerWheel, long ttl
+    ) {
+        this.fetcher = fetcher;
+        this.scheduler = timerWheel.getScheduler();
+        this.timerWheel = timerWheel;
+        this.ttl = ttl;
+        this.cleanupInterval = 0;
+        this.negativeCache = newDefaultNegativeCache(ttl);
+    }
+
     @Override
     public boolean exists(K key) throws HandlerException {
         try {
-            lock.readLock().lock();
-            try {
-                if (dataMap.containsKey(key) && !isExpired(key)) {
-                    return true;
-                }
-                if (notExistsKeys.contains(key) && !isExpired(key)) {
-                    return false;
-                }
-            } finally {
-                lock.readLock().unlock();
-            }
-            lock.writeLock().lock();
-            try {
-                // 双重检查。
-                if (dataMap.containsKey(key)) {
-                    if (isExpired(key)) {
-                        removeData(key);
-                    } else {
-                        return true;
-                    }
-                }
-                if (notExistsKeys.contains(key)) {
-                    if (isExpired(key)) {
-                        removeNotExistsKey(key);
-                    } else {
-                        return false;
-                    }
-                }
-                if (fetcher.exists(key)) {
-                    V value = fetcher.fetch(key);
+            return obtain(key).exists();
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
 
-                    // 日志记录。
-                    LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
+    @Override
+    public V get(K key) throws HandlerException {
+        try {
+            return obtain(key).value();
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
 
-                    putData(key, value);
-                    return true;
+    /**
+     * 获取指定的键对应的抓取结果。
+     *
+     * <p>
+     * 需要提前刷新的数据在持有锁时登记，在释放锁之后提交刷新任务。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的抓取结果。
+     * @throws Exception 抓取过程中出现的任何异常。
+     */
+    private FetchResult<V> obtain(K key) throws Exception {
+        Map<K, Object> claimedRefreshMap = new HashMap<>(1);
+        try {
+            return obtainLocked(key, claimedRefreshMap);
+        } finally {
+            submitRefreshes(claimedRefreshMap);
+        }
+    }
+
+    /**
+     * 在锁内获取指定的键对应的抓取结果，并登记需要提前刷新的数据。
+     *
+     * @param key               指定的键。
+     * @param claimedRefreshMap 登记的键与刷新令牌组成的映射。
+     * @return 指定的键对应的抓取结果。
+     * @throws Exception 抓取过程中出现的任何异常。
+     */
+    private FetchResult<V> obtainLocked(K key, Map<K, Object> claimedRefreshMap) throws Exception {
+        lock.readLock().lock();
+        try {
+            if (dataMap.containsKey(key) && isServable(key)) {
+                statsCounter.recordHits(1);
+                claimRefresh(key, claimedRefreshMap);
+                return FetchResult.present(dataMap.get(key));
+            }
+            if (negativeCache.contains(key)) {
+                statsCounter.recordNegativeHits(1);
+                return FetchResult.absent();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            // 双重检查。
+            if (dataMap.containsKey(key)) {
+                if (isServable(key)) {
+                    statsCounter.recordHits(1);
+                    claimRefresh(key, claimedRefreshMap);
+                    return FetchResult.present(dataMap.get(key));
                 } else {
-                    putNotExistsKey(key);
-                    return false;
+                    removeData(key);
+                    statsCounter.recordEvictions(1);
                 }
-            } finally {
-                lock.writeLock().unlock();
             }
-        } catch (Exception e) {
-            throw HandlerExceptionHelper.parse(e);
+            if (negativeCache.contains(key)) {
+                statsCounter.recordNegativeHits(1);
+                return FetchResult.absent();
+            }
+            statsCounter.recordMisses(1);
+            FetchResult<V> fetchResult = FetcherUtil.fetch(fetcher, key, statsCounter);
+            if (fetchResult.exists()) {
+                V value = fetchResult.value();
+
+                // 日志记录。
+                LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
+
+                putData(key, value);
+            } else {
+                negativeCache.add(key);
+            }
+            return fetchResult;
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
     @Override
-    public V get(K key) throws HandlerException {
+    public Map<K, V> getAll(Collection<K> keys) throws HandlerException {
+        Map<K, Object> claimedRefreshMap = new HashMap<>();
         try {
+            Map<K, V> hitMap = new HashMap<>();
+            Set<K> missingKeys = new LinkedHashSet<>();
             lock.readLock().lock();
             try {
-                if (dataMap.containsKey(key) && !isExpired(key)) {
-                    return dataMap.get(key);
-                }
-                if (notExistsKeys.contains(key) && !isExpired(key)) {
-                    return null;
+                for (K key : keys) {
+                    if (dataMap.containsKey(key) && isServable(key)) {
+                        statsCounter.recordHits(1);
+                        claimRefresh(key, claimedRefreshMap);
+                        hitMap.put(key, dataMap.get(key));
+                    } else if (negativeCache.contains(key)) {
+                        statsCounter.recordNegativeHits(1);
+                    } else {
+                        missingKeys.add(key);
+                    }
                 }
             } finally {
                 lock.readLock().unlock();
             }
-            lock.writeLock().lock();
-            try {
-                // 双重检查。
-                if (dataMap.containsKey(key)) {
-                    if (isExpired(key)) {
-                        removeData(key);
-                    } else {
-                        return dataMap.get(key);
+            if (!missingKeys.isEmpty()) {
+                lock.writeLock().lock();
+                try {
+                    // 双重检查。
+                    List<K> fetchKeys = new ArrayList<>();
+                    for (K key : missingKeys) {
+                        if (dataMap.containsKey(key)) {
+                            if (isServable(key)) {
+                                statsCounter.recordHits(1);
+                                claimRefresh(key, claimedRefreshMap);
+                                hitMap.put(key, dataMap.get(key));
+                                continue;
+                            }
+                            removeData(key);
+                            statsCounter.recordEvictions(1);
+                        }
+                        if (negativeCache.contains(key)) {
+                            statsCounter.recordNegativeHits(1);
+                            continue;
+                        }
+                        fetchKeys.add(key);
                     }
-                }
-                if (notExistsKeys.contains(key)) {
-                    if (isExpired(key)) {
-                        removeNotExistsKey(key);
-                    } else {
-                        return null;
+                    if (!fetchKeys.isEmpty()) {
+                        statsCounter.recordMisses(fetchKeys.size());
+                        Map<K, V> fetchedMap = FetcherUtil.fetchAll(fetcher, fetchKeys, statsCounter);
+
+                        // 日志记录。
+                        LOGGER.info(CacheMessages.message(
+                                CacheMessageKey.LOG_BATCH_FETCH_SUCCEEDED, fetchKeys.size(), fetchedMap.size()
+                        ));
+
+                        for (K key : fetchKeys) {
+                            if (fetchedMap.containsKey(key)) {
+                                V value = fetchedMap.get(key);
+                                putData(key, value);
+                                hitMap.put(key, value);
+                            } else {
+                                negativeCache.add(key);
+                            }
+                        }
                     }
+                } finally {
+                    lock.writeLock().unlock();
                 }
-                if (fetcher.exists(key)) {
-                    V value = fetcher.fetch(key);
-
-                    // 日志记录。
-                    LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
-
-                    putData(key, value);
-                    return value;
-                } else {
-                    putNotExistsKey(key);
-                    return null;
+            }
+            Map<K, V> result = new LinkedHashMap<>();
+            for (K key : keys) {
+                if (hitMap.containsKey(key)) {
+                    result.put(key, hitMap.get(key));
                 }
-            } finally {
-                lock.writeLock().unlock();
             }
+            return result;
         } catch (Exception e) {
             throw HandlerExceptionHelper.parse(e);
+        } finally {
+            submitRefreshes(claimedRefreshMap);
         }
     }
 
@@ -163,8 +309,11 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
         lock.writeLock().lock();
         try {
             boolean flag = Objects.nonNull(dataMap.remove(key));
-            flag |= notExistsKeys.remove(key);
+            flag |= negativeCache.remove(key);
             expireTimestampMap.remove(key);
+            refreshTimestampMap.remove(key);
+            refreshingMap.remove(key);
+            cancelExpiration(key);
 
             // 记录日志。
             LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEY, key, flag));
@@ -175,13 +324,40 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
         }
     }
 
+    @Override
+    public boolean removeAll(Collection<K> keys) {
+        lock.writeLock().lock();
+        try {
+            boolean flag = false;
+            for (K key : keys) {
+                flag |= Objects.nonNull(dataMap.remove(key));
+                flag |= negativeCache.remove(key);
+                expireTimestampMap.remove(key);
+                refreshTimestampMap.remove(key);
+                refreshingMap.remove(key);
+                cancelExpiration(key);
+            }
+
+            // 记录日志。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEYS, keys, flag));
+
+            return flag;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     @Override
     public void clear() {
         lock.writeLock().lock();
         try {
             dataMap.clear();
-            notExistsKeys.clear();
+            negativeCache.clear();
             expireTimestampMap.clear();
+            refreshTimestampMap.clear();
+            refreshingMap.clear();
+            timeoutMap.values().forEach(HierarchicalTimerWheel.Timeout::cancel);
+            timeoutMap.clear();
 
             // 记录日志。
             LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_ALL));
@@ -190,6 +366,25 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 缓存项数量包括已确认不存在的键的记录，以及已过期但尚未被清理的缓存项。
+     * 因过期而被清理的缓存项计入淘汰数量。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public CacheStats stats() {
+        lock.readLock().lock();
+        try {
+            return statsCounter.snapshot(dataMap.size() + negativeCache.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     @NotNull
     public Fetcher<K, V> getFetcher() {
         lock.readLock().lock();
@@ -229,6 +424,11 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
         }
     }
 
+    @Nullable
+    public HierarchicalTimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
     public long getTtl() {
         lock.readLock().lock();
         try {
@@ -238,10 +438,21 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
         }
     }
 
+    /**
+     * 设置缓存过期时间。
+     *
+     * <p>
+     * 使用默认的负缓存时，负缓存的过期时间随之更新，原有的记录被丢弃。
+     *
+     * @param ttl 缓存过期时间，单位为毫秒。
+     */
     public void setTtl(long ttl) {
         lock.writeLock().lock();
         try {
             this.ttl = ttl;
+            if (defaultNegativeCache) {
+                this.negativeCache = newDefaultNegativeCache(ttl);
+            }
             refreshCleanupTask();
         } finally {
             lock.writeLock().unlock();
@@ -267,6 +478,128 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
         }
     }
 
+    @Nullable
+    public Executor getRefreshExecutor() {
+        lock.readLock().lock();
+        try {
+            return refreshExecutor;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 设置刷新执行器。
+     *
+     * <p>
+     * 刷新执行器为 <code>null</code> 时，提前刷新模式关闭。
+     *
+     * @param refreshExecutor 刷新执行器。
+     * @since 2.0.0
+     */
+    public void setRefreshExecutor(@Nullable Executor refreshExecutor) {
+        lock.writeLock().lock();
+        try {
+            this.refreshExecutor = refreshExecutor;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long getRefreshThreshold() {
+        lock.readLock().lock();
+        try {
+            return refreshThreshold;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 设置刷新阈值。
+     *
+     * <p>
+     * 刷新阈值为缓存数据写入后至需要刷新的时间，单位为毫秒。刷新阈值小于等于 0 时，提前刷新模式关闭。
+     * 刷新阈值只对此后写入的缓存数据生效。
+     *
+     * @param refreshThreshold 刷新阈值。
+     * @since 2.0.0
+     */
+    public void setRefreshThreshold(long refreshThreshold) {
+        lock.writeLock().lock();
+        try {
+            this.refreshThreshold = refreshThreshold;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @NotNull
+    public NegativeCache<K> getNegativeCache() {
+        lock.readLock().lock();
+        try {
+            return negativeCache;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 设置负缓存。
+     *
+     * <p>
+     * 负缓存用于记录已确认不存在的键，其过期时间与容量限制由负缓存自身决定，与 <code>ttl</code> 无关。
+     * 默认的负缓存使用处理器的 <code>ttl</code> 作为过期时间，且没有容量限制，
+     * 其过期时间随 {@link #setTtl(long)} 更新；设置自定义的负缓存后，负缓存的过期时间不再随 <code>ttl</code> 更新。
+     * 可以设置为 {@link BoundedNegativeCache} 以限制记录的数量与存活时间，
+     * 或设置为 {@link BloomNegativeCache} 以固定其内存占用。设置后，原有的记录被丢弃。
+     *
+     * @param negativeCache 负缓存。
+     * @since 2.0.0
+     */
+    public void setNegativeCache(@NotNull NegativeCache<K> negativeCache) {
+        lock.writeLock().lock();
+        try {
+            this.negativeCache = negativeCache;
+            this.defaultNegativeCache = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @NotNull
+    public StatsCounter getStatsCounter() {
+        return statsCounter;
+    }
+
+    /**
+     * 设置统计计数器。
+     *
+     * <p>
+     * 默认的统计计数器不记录任何统计信息，需要统计信息时，可以设置为 {@link ConcurrentStatsCounter}。
+     *
+     * @param statsCounter 统计计数器。
+     * @since 2.0.0
+     */
+    public void setStatsCounter(@NotNull StatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+    }
+
+    /**
+     * 创建默认的负缓存。
+     *
+     * <p>
+     * 默认的负缓存没有容量限制，记录的过期时间与缓存数据的过期时间相同，
+     * 不存在的键在过期后会被重新抓取。
+     *
+     * @param ttl 缓存过期时间，单位为毫秒。
+     * @param <K> 键的类型。
+     * @return 默认的负缓存。
+     */
+    private static <K> NegativeCache<K> newDefaultNegativeCache(long ttl) {
+        return new BoundedNegativeCache<>(ttl, Long.MAX_VALUE);
+    }
+
     /**
      * 检查指定的键是否已过期。
      *
@@ -292,39 +625,227 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
      */
     private void putData(K key, V value) {
         dataMap.put(key, value);
-        long expireTimestamp = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+        long currentTime = System.currentTimeMillis();
+        long expireTimestamp = ttl > 0 ? currentTime + ttl : Long.MAX_VALUE;
         expireTimestampMap.put(key, expireTimestamp);
+        if (refreshThreshold > 0) {
+            refreshTimestampMap.put(key, currentTime + refreshThreshold);
+        } else {
+            refreshTimestampMap.remove(key);
+        }
+        scheduleExpiration(key, expireTimestamp);
     }
 
     /**
-     * 添加不存在键的记录到缓存中。
+     * 从缓存中移除数据。
      *
      * @param key 指定的键。
      */
-    private void putNotExistsKey(K key) {
-        notExistsKeys.add(key);
-        long expireTimestamp = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
-        expireTimestampMap.put(key, expireTimestamp);
+    private void removeData(K key) {
+        dataMap.remove(key);
+        expireTimestampMap.remove(key);
+        refreshTimestampMap.remove(key);
+        cancelExpiration(key);
     }
 
     /**
-     * 从缓存中移除数据。
+     * 检查指定的键对应的缓存数据是否可以返回给调用者。
+     *
+     * <p>
+     * 未过期的数据，以及正在刷新中的数据，均可以返回给调用者。
+     *
+     * <p>
+     * 调用该方法时，必须保证指定的键存在于缓存中。
      *
      * @param key 指定的键。
+     * @return 指定的键对应的缓存数据是否可以返回给调用者。
      */
-    private void removeData(K key) {
-        dataMap.remove(key);
-        expireTimestampMap.remove(key);
+    private boolean isServable(K key) {
+        return !isExpired(key) || refreshingMap.containsKey(key);
+    }
+
+    /**
+     * 如果指定的键对应的缓存数据超过了刷新阈值，则登记对该数据的刷新。
+     *
+     * <p>
+     * 同一个键同时只会有一个刷新任务。调用该方法时，必须持有读锁或写锁。
+     * 登记的刷新任务需要在释放锁之后通过 {@link #submitRefreshes(Map)} 提交，
+     * 否则在调用者线程中执行任务的刷新执行器会在获取写锁时死锁。
+     *
+     * @param key               指定的键。
+     * @param claimedRefreshMap 登记的键与刷新令牌组成的映射。
+     */
+    private void claimRefresh(K key, Map<K, Object> claimedRefreshMap) {
+        if (Objects.isNull(refreshExecutor)) {
+            return;
+        }
+        Long refreshTimestamp = refreshTimestampMap.get(key);
+        if (Objects.isNull(refreshTimestamp) || System.currentTimeMillis() <= refreshTimestamp) {
+            return;
+        }
+        Object token = new Object();
+        if (Objects.nonNull(refreshingMap.putIfAbsent(key, token))) {
+            return;
+        }
+        claimedRefreshMap.put(key, token);
+    }
+
+    /**
+     * 在刷新执行器中提交登记的刷新任务。
+     *
+     * <p>
+     * 调用该方法时，不能持有读锁或写锁。
+     *
+     * @param claimedRefreshMap 登记的键与刷新令牌组成的映射。
+     */
+    private void submitRefreshes(Map<K, Object> claimedRefreshMap) {
+        if (claimedRefreshMap.isEmpty()) {
+            return;
+        }
+        Executor executor = getRefreshExecutor();
+        for (Map.Entry<K, Object> entry : claimedRefreshMap.entrySet()) {
+            K key = entry.getKey();
+            Object token = entry.getValue();
+            if (Objects.isNull(executor)) {
+                refreshingMap.remove(key, token);
+                continue;
+            }
+            try {
+                executor.execute(() -> refresh(key, token));
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_REFRESH_FAILED, key), e);
+                backOffRefresh(key, token);
+            }
+        }
+    }
+
+    /**
+     * 在刷新失败后推迟指定的键的下一次刷新。
+     *
+     * <p>
+     * 已过期的旧值被移除；未过期的旧值继续保留，并在再经过一个刷新阈值的时间后才会再次发起刷新。
+     *
+     * @param key   指定的键。
+     * @param token 发起刷新时登记的刷新令牌。
+     */
+    private void backOffRefresh(K key, Object token) {
+        lock.writeLock().lock();
+        try {
+            if (!refreshingMap.remove(key, token) || !dataMap.containsKey(key)) {
+                return;
+            }
+            if (isExpired(key)) {
+                removeData(key);
+                statsCounter.recordEvictions(1);
+            } else if (refreshThreshold > 0) {
+                refreshTimestampMap.put(key, System.currentTimeMillis() + refreshThreshold);
+            } else {
+                refreshTimestampMap.remove(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
-     * 从缓存中移除不存在键的记录。
+     * 重新抓取指定的键对应的数据，并更新缓存。
+     *
+     * <p>
+     * 如果刷新期间该键被移除或清除，刷新结果将被丢弃。
+     *
+     * @param key   指定的键。
+     * @param token 发起刷新时登记的刷新令牌。
+     */
+    private void refresh(K key, Object token) {
+        try {
+            FetchResult<V> fetchResult = FetcherUtil.fetch(getFetcher(), key, statsCounter);
+            V value = fetchResult.value();
+            lock.writeLock().lock();
+            try {
+                if (refreshingMap.get(key) != token) {
+                    return;
+                }
+                if (fetchResult.exists()) {
+                    // 日志记录。
+                    LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
+
+                    putData(key, value);
+                } else {
+                    removeData(key);
+                    negativeCache.add(key);
+                }
+            } finally {
+                refreshingMap.remove(key, token);
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_REFRESH_FAILED, key), e);
+            backOffRefresh(key, token);
+        }
+    }
+
+    /**
+     * 向时间轮注册指定的键的过期任务。
+     *
+     * <p>
+     * 未使用时间轮，或缓存项永不过期时，该方法不做任何操作。
+     *
+     * @param key             指定的键。
+     * @param expireTimestamp 过期时间戳。
+     */
+    private void scheduleExpiration(K key, long expireTimestamp) {
+        if (Objects.isNull(timerWheel) || expireTimestamp == Long.MAX_VALUE) {
+            return;
+        }
+        HierarchicalTimerWheel.Timeout timeout = timerWheel.schedule(
+                expireTimestamp, () -> expireByTimerWheel(key, expireTimestamp)
+        );
+        HierarchicalTimerWheel.Timeout oldTimeout = timeoutMap.put(key, timeout);
+        if (Objects.nonNull(oldTimeout)) {
+            oldTimeout.cancel();
+        }
+    }
+
+    /**
+     * 取消指定的键在时间轮中的过期任务。
      *
      * @param key 指定的键。
      */
-    private void removeNotExistsKey(K key) {
-        notExistsKeys.remove(key);
-        expireTimestampMap.remove(key);
+    private void cancelExpiration(K key) {
+        HierarchicalTimerWheel.Timeout timeout = timeoutMap.remove(key);
+        if (Objects.nonNull(timeout)) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * 由时间轮调用，移除指定的已过期的键。
+     *
+     * <p>
+     * 每次调用只处理一个键，只短暂持有写锁，不会长时间阻塞读取。
+     * 如果该键在注册过期任务后被重新写入，则其过期时间戳已发生变化，本次调用不做任何操作。
+     *
+     * @param key             指定的键。
+     * @param expireTimestamp 注册过期任务时的过期时间戳。
+     */
+    private void expireByTimerWheel(K key, long expireTimestamp) {
+        lock.writeLock().lock();
+        try {
+            if (!Objects.equals(expireTimestampMap.get(key), expireTimestamp)) {
+                return;
+            }
+            // 正在刷新的数据在刷新完成前继续保留。
+            if (refreshingMap.containsKey(key)) {
+                return;
+            }
+            dataMap.remove(key);
+            expireTimestampMap.remove(key);
+            refreshTimestampMap.remove(key);
+            timeoutMap.remove(key);
+            statsCounter.recordEvictions(1);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -336,8 +857,8 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
             cleanupTaskFuture.cancel(false);
             cleanupTaskFuture = null;
         }
-        // 如果清理间隔大于 0，启动新的清理任务。
-        if (cleanupInterval > 0) {
+        // 如果未使用时间轮且清理间隔大于 0，启动新的清理任务。
+        if (Objects.isNull(timerWheel) && cleanupInterval > 0) {
             cleanupTaskFuture = scheduler.scheduleWithFixedDelay(
                     this::cleanupExpired, cleanupInterval, cleanupInterval, TimeUnit.MILLISECONDS
             );
@@ -356,15 +877,17 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
             long currentTime = System.currentTimeMillis();
             List<K> expiredKeys = new ArrayList<>();
             for (Map.Entry<K, Long> entry : expireTimestampMap.entrySet()) {
-                if (currentTime > entry.getValue()) {
+                if (currentTime > entry.getValue() && !refreshingMap.containsKey(entry.getKey())) {
                     expiredKeys.add(entry.getKey());
                 }
             }
             for (K key : expiredKeys) {
                 dataMap.remove(key);
-                notExistsKeys.remove(key);
                 expireTimestampMap.remove(key);
+                refreshTimestampMap.remove(key);
+                cancelExpiration(key);
             }
+            statsCounter.recordEvictions(expiredKeys.size());
 
             // 日志记录。
             if (!expiredKeys.isEmpty()) {
@@ -384,12 +907,19 @@ public class ExpirableLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>
         return "ExpirableLocalCacheHandler{" +
                 "fetcher=" + fetcher +
                 ", scheduler=" + scheduler +
+                ", timerWheel=" + timerWheel +
                 ", ttl=" + ttl +
                 ", cleanupInterval=" + cleanupInterval +
+                ", refreshExecutor=" + refreshExecutor +
+                ", refreshThreshold=" + refreshThreshold +
+                ", statsCounter=" + statsCounter +
                 ", lock=" + lock +
                 ", dataMap=" + dataMap +
-                ", notExistsKeys=" + notExistsKeys +
+                ", negativeCache=" + negativeCache +
                 ", expireTimestampMap=" + expireTimestampMap +
+                ", timeoutMap=" + timeoutMap +
+                ", refreshTimestampMap=" + refreshTimestampMap +
+                ", refreshingMap=" + refreshingMap +
                 ", cleanupTaskFuture=" + cleanupTaskFuture +
                 '}';
     }
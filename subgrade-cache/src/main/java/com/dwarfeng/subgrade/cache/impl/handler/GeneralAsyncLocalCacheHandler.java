@@ -0,0 +1,345 @@
+package com.dwarfeng.subgrade.cache.impl.handler;
+
+import com.dwarfeng.subgrade.basic.sdk.exception.HandlerExceptionHelper;
+import com.dwarfeng.subgrade.cache.impl.stats.ConcurrentStatsCounter;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessageKey;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessages;
+import com.dwarfeng.subgrade.cache.internal.loader.FetcherUtil;
+import com.dwarfeng.subgrade.cache.stack.handler.AsyncLocalCacheHandler;
+import com.dwarfeng.subgrade.cache.stack.loader.FetchResult;
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 异步本地缓存处理器的通用实现。
+ *
+ * <p>
+ * 本处理器实现线程安全。未命中的键在加载执行器中调用 {@link Fetcher} 加载，调用线程不会被阻塞。
+ * 未指定加载执行器时，每次加载在一个新的虚拟线程中执行，适合 {@link Fetcher} 以阻塞 IO 访问数据源的场景。
+ *
+ * <p>
+ * 同一个键的并发加载会被合并，所有调用者共享同一次 {@link Fetcher} 调用的结果。
+ * 加载失败时，失败结果不会被缓存，下一次访问将重新加载。
+ *
+ * <p>
+ * 由于内部使用 {@link ConcurrentHashMap}，本处理器不支持 <code>null</code> 键。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class GeneralAsyncLocalCacheHandler<K, V> implements AsyncLocalCacheHandler<K, V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeneralAsyncLocalCacheHandler.class);
+
+    @NotNull
+    private volatile Fetcher<K, V> fetcher;
+
+    @NotNull
+    private volatile Executor executor;
+
+    @NotNull
+    private volatile StatsCounter statsCounter = StatsCounter.disabled();
+
+    private final ConcurrentMap<K, CompletableFuture<CacheEntry<V>>> futureMap = new ConcurrentHashMap<>();
+
+    /**
+     * 构造一个使用虚拟线程加载数据的处理器。
+     *
+     * @param fetcher 抓取器。
+     */
+    public GeneralAsyncLocalCacheHandler(@NotNull Fetcher<K, V> fetcher) {
+        this(fetcher, task -> Thread.ofVirtual().start(task));
+    }
+
+    /**
+     * 构造一个使用指定的执行器加载数据的处理器。
+     *
+     * @param fetcher  抓取器。
+     * @param executor 加载执行器。
+     */
+    public GeneralAsyncLocalCacheHandler(@NotNull Fetcher<K, V> fetcher, @NotNull Executor executor) {
+        this.fetcher = fetcher;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(K key) {
+        return obtain(key).thenApply(CacheEntry::exists);
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        return obtain(key).thenApply(CacheEntry::value);
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getAll(Collection<K> keys) {
+        Map<K, CompletableFuture<CacheEntry<V>>> pendingFutureMap = new LinkedHashMap<>();
+        Map<K, CompletableFuture<CacheEntry<V>>> ownedFutureMap = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (pendingFutureMap.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<CacheEntry<V>> future = futureMap.get(key);
+            if (Objects.isNull(future)) {
+                CompletableFuture<CacheEntry<V>> newFuture = new CompletableFuture<>();
+                future = futureMap.putIfAbsent(key, newFuture);
+                if (Objects.isNull(future)) {
+                    future = newFuture;
+                    ownedFutureMap.put(key, newFuture);
+                }
+            }
+            pendingFutureMap.put(key, future);
+        }
+        // 当前调用负责加载的键合并为一次批量抓取。
+        if (!ownedFutureMap.isEmpty()) {
+            statsCounter.recordMisses(ownedFutureMap.size());
+            submit(() -> loadAll(ownedFutureMap), ownedFutureMap);
+        }
+        return CompletableFuture.allOf(pendingFutureMap.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<K, V> result = new LinkedHashMap<>();
+                    for (Map.Entry<K, CompletableFuture<CacheEntry<V>>> entry : pendingFutureMap.entrySet()) {
+                        CacheEntry<V> cacheEntry = entry.getValue().join();
+                        if (!ownedFutureMap.containsKey(entry.getKey())) {
+                            recordHit(cacheEntry);
+                        }
+                        if (cacheEntry.exists()) {
+                            result.put(entry.getKey(), cacheEntry.value());
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    @Override
+    public boolean remove(K key) {
+        boolean flag = Objects.nonNull(futureMap.remove(key));
+
+        // 记录日志。
+        LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEY, key, flag));
+
+        return flag;
+    }
+
+    @Override
+    public boolean removeAll(Collection<K> keys) {
+        boolean flag = false;
+        for (K key : keys) {
+            flag |= Objects.nonNull(futureMap.remove(key));
+        }
+
+        // 记录日志。
+        LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEYS, keys, flag));
+
+        return flag;
+    }
+
+    @Override
+    public void clear() {
+        futureMap.clear();
+
+        // 记录日志。
+        LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_ALL));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 缓存项数量包括已确认不存在的键的记录，以及正在加载中的键。
+     */
+    @Override
+    public CacheStats stats() {
+        return statsCounter.snapshot(futureMap.size());
+    }
+
+    /**
+     * 获取指定的键对应的缓存项的 future。
+     *
+     * <p>
+     * 如果该键已经加载或正在加载，直接返回对应的 future；否则在加载执行器中发起加载。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的缓存项的 future。
+     */
+    private CompletableFuture<CacheEntry<V>> obtain(K key) {
+        CompletableFuture<CacheEntry<V>> future = futureMap.get(key);
+        if (Objects.nonNull(future)) {
+            return future.thenApply(this::recordHit);
+        }
+        CompletableFuture<CacheEntry<V>> newFuture = new CompletableFuture<>();
+        future = futureMap.putIfAbsent(key, newFuture);
+        if (Objects.nonNull(future)) {
+            return future.thenApply(this::recordHit);
+        }
+        statsCounter.recordMisses(1);
+        submit(() -> load(key, newFuture), Collections.singletonMap(key, newFuture));
+        return newFuture;
+    }
+
+    /**
+     * 记录对指定的缓存项的命中。
+     *
+     * @param entry 指定的缓存项。
+     * @return 指定的缓存项。
+     */
+    private CacheEntry<V> recordHit(CacheEntry<V> entry) {
+        if (entry.exists()) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordNegativeHits(1);
+        }
+        return entry;
+    }
+
+    /**
+     * 向加载执行器提交加载任务。
+     *
+     * <p>
+     * 如果加载执行器拒绝了任务，对应的 future 将被移除并异常完成。
+     *
+     * @param task           加载任务。
+     * @param ownedFutureMap 加载任务负责完成的键与 future 组成的映射。
+     */
+    private void submit(Runnable task, Map<K, CompletableFuture<CacheEntry<V>>> ownedFutureMap) {
+        try {
+            executor.execute(task);
+        } catch (Exception e) {
+            fail(ownedFutureMap, e);
+        }
+    }
+
+    /**
+     * 加载指定的键对应的缓存项，并完成对应的 future。
+     *
+     * @param key    指定的键。
+     * @param future 负责完成的 future。
+     */
+    private void load(K key, CompletableFuture<CacheEntry<V>> future) {
+        try {
+            FetchResult<V> fetchResult = FetcherUtil.fetch(fetcher, key, statsCounter);
+            if (fetchResult.exists()) {
+                V value = fetchResult.value();
+
+                // 日志记录。
+                LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
+
+                future.complete(new CacheEntry<>(true, value));
+            } else {
+                future.complete(new CacheEntry<>(false, null));
+            }
+        } catch (Throwable e) {
+            fail(Collections.singletonMap(key, future), e);
+        }
+    }
+
+    /**
+     * 批量加载指定的键对应的缓存项，并完成对应的 future。
+     *
+     * @param ownedFutureMap 负责完成的键与 future 组成的映射。
+     */
+    private void loadAll(Map<K, CompletableFuture<CacheEntry<V>>> ownedFutureMap) {
+        try {
+            Map<K, V> fetchedMap = FetcherUtil.fetchAll(fetcher, ownedFutureMap.keySet(), statsCounter);
+
+            // 日志记录。
+            LOGGER.info(CacheMessages.message(
+                    CacheMessageKey.LOG_BATCH_FETCH_SUCCEEDED, ownedFutureMap.size(), fetchedMap.size()
+            ));
+
+            for (Map.Entry<K, CompletableFuture<CacheEntry<V>>> entry : ownedFutureMap.entrySet()) {
+                K key = entry.getKey();
+                if (fetchedMap.containsKey(key)) {
+                    entry.getValue().complete(new CacheEntry<>(true, fetchedMap.get(key)));
+                } else {
+                    entry.getValue().complete(new CacheEntry<>(false, null));
+                }
+            }
+        } catch (Throwable e) {
+            fail(ownedFutureMap, e);
+        }
+    }
+
+    /**
+     * 以指定的异常使 future 失败。
+     *
+     * <p>
+     * 失败结果不缓存，先移除再通知等待者，使后续访问能够重新加载。
+     *
+     * @param ownedFutureMap 需要失败的键与 future 组成的映射。
+     * @param e              指定的异常。
+     */
+    private void fail(Map<K, CompletableFuture<CacheEntry<V>>> ownedFutureMap, Throwable e) {
+        Throwable cause = e instanceof Exception exception ? HandlerExceptionHelper.parse(exception) : e;
+        for (Map.Entry<K, CompletableFuture<CacheEntry<V>>> entry : ownedFutureMap.entrySet()) {
+            futureMap.remove(entry.getKey(), entry.getValue());
+            entry.getValue().completeExceptionally(cause);
+        }
+    }
+
+    @NotNull
+    public Fetcher<K, V> getFetcher() {
+        return fetcher;
+    }
+
+    public void setFetcher(@NotNull Fetcher<K, V> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    @NotNull
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    @NotNull
+    public StatsCounter getStatsCounter() {
+        return statsCounter;
+    }
+
+    /**
+     * 设置统计计数器。
+     *
+     * <p>
+     * 默认的统计计数器不记录任何统计信息，需要统计信息时，可以设置为 {@link ConcurrentStatsCounter}。
+     *
+     * @param statsCounter 统计计数器。
+     */
+    public void setStatsCounter(@NotNull StatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+    }
+
+    @Override
+    public String toString() {
+        return "GeneralAsyncLocalCacheHandler{" +
+                "fetcher=" + fetcher +
+                ", executor=" + executor +
+                ", futureMap=" + futureMap +
+                '}';
+    }
+
+    /**
+     * 缓存项。
+     *
+     * @param exists 指定的键对应的值是否存在。
+     * @param value  指定的键对应的值，不存在时为 <code>null</code>。
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private record CacheEntry<V>(boolean exists, V value) {
+    }
+}
@@ -2,15 +2,28 @@ package com.dwarfeng.subgrade.cache.impl.handler;
 
 import com.dwarfeng.subgrade.basic.sdk.exception.HandlerExceptionHelper;
 import com.dwarfeng.subgrade.basic.stack.exception.HandlerException;
+import com.dwarfeng.subgrade.cache.impl.stats.ConcurrentStatsCounter;
+import com.dwarfeng.subgrade.cache.impl.negative.BloomNegativeCache;
+import com.dwarfeng.subgrade.cache.impl.negative.BoundedNegativeCache;
 import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessageKey;
 import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessages;
+import com.dwarfeng.subgrade.cache.internal.loader.FetcherUtil;
+import com.dwarfeng.subgrade.cache.internal.snapshot.SnapshotFileUtil;
+import com.dwarfeng.subgrade.cache.stack.codec.ValueCodec;
 import com.dwarfeng.subgrade.cache.stack.handler.LocalCacheHandler;
+import com.dwarfeng.subgrade.cache.stack.loader.FetchResult;
 import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import com.dwarfeng.subgrade.cache.stack.negative.NegativeCache;
+import com.dwarfeng.subgrade.cache.stack.snapshot.PreloadMode;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -20,6 +33,11 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * <p>
  * 本处理器实现线程安全。
  *
+ * <p>
+ * 本处理器支持将缓存数据保存为快照文件，并在启动时从快照文件预加载，以避免冷启动时大量访问数据源。
+ * 预加载的数据被标记为未验证，在第一次被访问时照常返回，同时在后台重新抓取并更新，
+ * 详见 {@link #saveSnapshot(Path, ValueCodec, ValueCodec)} 与 {@link #preload(Path, ValueCodec, ValueCodec, PreloadMode)}。
+ *
  * @author DwArFeng
  * @since 1.3.0
  */
@@ -30,9 +48,20 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
     @NotNull
     private Fetcher<K, V> fetcher;
 
+    @NotNull
+    private volatile StatsCounter statsCounter = StatsCounter.disabled();
+
+    @NotNull
+    private NegativeCache<K> negativeCache = new BoundedNegativeCache<>();
+
+    @NotNull
+    private Executor snapshotExecutor = task -> Thread.ofVirtual().start(task);
+
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
     private final Map<K, V> dataMap = new HashMap<>();
-    private final Set<K> notExistsKeys = new HashSet<>();
+    private final Map<K, EncodedValue<V>> encodedValueMap = new HashMap<>();
+    private final Set<K> unverifiedKeys = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<K, Object> revalidatingMap = new ConcurrentHashMap<>();
 
     public GeneralLocalCacheHandler(@NotNull Fetcher<K, V> fetcher) {
         this.fetcher = fetcher;
@@ -40,13 +69,17 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
 
     @Override
     public boolean exists(K key) throws HandlerException {
+        Map<K, Object> claimedRevalidationMap = new HashMap<>(1);
         try {
             lock.readLock().lock();
             try {
-                if (dataMap.containsKey(key)) {
+                if (dataMap.containsKey(key) || encodedValueMap.containsKey(key)) {
+                    statsCounter.recordHits(1);
+                    claimRevalidation(key, claimedRevalidationMap);
                     return true;
                 }
-                if (notExistsKeys.contains(key)) {
+                if (negativeCache.contains(key)) {
+                    statsCounter.recordNegativeHits(1);
                     return false;
                 }
             } finally {
@@ -54,14 +87,19 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
             }
             lock.writeLock().lock();
             try {
-                if (dataMap.containsKey(key)) {
+                if (dataMap.containsKey(key) || encodedValueMap.containsKey(key)) {
+                    statsCounter.recordHits(1);
+                    claimRevalidation(key, claimedRevalidationMap);
                     return true;
                 }
-                if (notExistsKeys.contains(key)) {
+                if (negativeCache.contains(key)) {
+                    statsCounter.recordNegativeHits(1);
                     return false;
                 }
-                if (fetcher.exists(key)) {
-                    V value = fetcher.fetch(key);
+                statsCounter.recordMisses(1);
+                FetchResult<V> fetchResult = FetcherUtil.fetch(fetcher, key, statsCounter);
+                if (fetchResult.exists()) {
+                    V value = fetchResult.value();
 
                     // 日志记录。
                     LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
@@ -69,7 +107,7 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
                     dataMap.put(key, value);
                     return true;
                 } else {
-                    notExistsKeys.add(key);
+                    negativeCache.add(key);
                     return false;
                 }
             } finally {
@@ -77,18 +115,24 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
             }
         } catch (Exception e) {
             throw HandlerExceptionHelper.parse(e);
+        } finally {
+            submitRevalidations(claimedRevalidationMap);
         }
     }
 
     @Override
     public V get(K key) throws HandlerException {
+        Map<K, Object> claimedRevalidationMap = new HashMap<>(1);
         try {
             lock.readLock().lock();
             try {
                 if (dataMap.containsKey(key)) {
+                    statsCounter.recordHits(1);
+                    claimRevalidation(key, claimedRevalidationMap);
                     return dataMap.get(key);
                 }
-                if (notExistsKeys.contains(key)) {
+                if (negativeCache.contains(key)) {
+                    statsCounter.recordNegativeHits(1);
                     return null;
                 }
             } finally {
@@ -96,14 +140,19 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
             }
             lock.writeLock().lock();
             try {
-                if (dataMap.containsKey(key)) {
+                if (dataMap.containsKey(key) || decodePreloaded(key)) {
+                    statsCounter.recordHits(1);
+                    claimRevalidation(key, claimedRevalidationMap);
                     return dataMap.get(key);
                 }
-                if (notExistsKeys.contains(key)) {
+                if (negativeCache.contains(key)) {
+                    statsCounter.recordNegativeHits(1);
                     return null;
                 }
-                if (fetcher.exists(key)) {
-                    V value = fetcher.fetch(key);
+                statsCounter.recordMisses(1);
+                FetchResult<V> fetchResult = FetcherUtil.fetch(fetcher, key, statsCounter);
+                if (fetchResult.exists()) {
+                    V value = fetchResult.value();
 
                     // 日志记录。
                     LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
@@ -111,7 +160,7 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
                     dataMap.put(key, value);
                     return value;
                 } else {
-                    notExistsKeys.add(key);
+                    negativeCache.add(key);
                     return null;
                 }
             } finally {
@@ -119,6 +168,83 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
             }
         } catch (Exception e) {
             throw HandlerExceptionHelper.parse(e);
+        } finally {
+            submitRevalidations(claimedRevalidationMap);
+        }
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) throws HandlerException {
+        Map<K, Object> claimedRevalidationMap = new HashMap<>();
+        try {
+            Map<K, V> hitMap = new HashMap<>();
+            Set<K> missingKeys = new LinkedHashSet<>();
+            lock.readLock().lock();
+            try {
+                for (K key : keys) {
+                    if (dataMap.containsKey(key)) {
+                        statsCounter.recordHits(1);
+                        claimRevalidation(key, claimedRevalidationMap);
+                        hitMap.put(key, dataMap.get(key));
+                    } else if (negativeCache.contains(key)) {
+                        statsCounter.recordNegativeHits(1);
+                    } else {
+                        missingKeys.add(key);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (!missingKeys.isEmpty()) {
+                lock.writeLock().lock();
+                try {
+                    // 双重检查。
+                    List<K> fetchKeys = new ArrayList<>();
+                    for (K key : missingKeys) {
+                        if (dataMap.containsKey(key) || decodePreloaded(key)) {
+                            statsCounter.recordHits(1);
+                            claimRevalidation(key, claimedRevalidationMap);
+                            hitMap.put(key, dataMap.get(key));
+                        } else if (negativeCache.contains(key)) {
+                            statsCounter.recordNegativeHits(1);
+                        } else {
+                            fetchKeys.add(key);
+                        }
+                    }
+                    if (!fetchKeys.isEmpty()) {
+                        statsCounter.recordMisses(fetchKeys.size());
+                        Map<K, V> fetchedMap = FetcherUtil.fetchAll(fetcher, fetchKeys, statsCounter);
+
+                        // 日志记录。
+                        LOGGER.info(CacheMessages.message(
+                                CacheMessageKey.LOG_BATCH_FETCH_SUCCEEDED, fetchKeys.size(), fetchedMap.size()
+                        ));
+
+                        for (K key : fetchKeys) {
+                            if (fetchedMap.containsKey(key)) {
+                                V value = fetchedMap.get(key);
+                                dataMap.put(key, value);
+                                hitMap.put(key, value);
+                            } else {
+                                negativeCache.add(key);
+                            }
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            Map<K, V> result = new LinkedHashMap<>();
+            for (K key : keys) {
+                if (hitMap.containsKey(key)) {
+                    result.put(key, hitMap.get(key));
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        } finally {
+            submitRevalidations(claimedRevalidationMap);
         }
     }
 
@@ -127,7 +253,10 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
         lock.writeLock().lock();
         try {
             boolean flag = Objects.nonNull(dataMap.remove(key));
-            flag |= notExistsKeys.remove(key);
+            flag |= Objects.nonNull(encodedValueMap.remove(key));
+            flag |= negativeCache.remove(key);
+            unverifiedKeys.remove(key);
+            revalidatingMap.remove(key);
 
             // 记录日志。
             LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEY, key, flag));
@@ -138,12 +267,37 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
         }
     }
 
+    @Override
+    public boolean removeAll(Collection<K> keys) {
+        lock.writeLock().lock();
+        try {
+            boolean flag = false;
+            for (K key : keys) {
+                flag |= Objects.nonNull(dataMap.remove(key));
+                flag |= Objects.nonNull(encodedValueMap.remove(key));
+                flag |= negativeCache.remove(key);
+                unverifiedKeys.remove(key);
+                revalidatingMap.remove(key);
+            }
+
+            // 记录日志。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEYS, keys, flag));
+
+            return flag;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     @Override
     public void clear() {
         lock.writeLock().lock();
         try {
             dataMap.clear();
-            notExistsKeys.clear();
+            encodedValueMap.clear();
+            negativeCache.clear();
+            unverifiedKeys.clear();
+            revalidatingMap.clear();
 
             // 记录日志。
             LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_ALL));
@@ -152,6 +306,320 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 缓存项数量包括已确认不存在的键的记录。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public CacheStats stats() {
+        lock.readLock().lock();
+        try {
+            return statsCounter.snapshot(dataMap.size() + encodedValueMap.size() + negativeCache.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 将缓存数据保存为快照文件。
+     *
+     * <p>
+     * 只有缓存数据会被保存，已确认不存在的键的记录不会被保存。
+     * 编码在锁外进行，保存期间处理器可以正常访问，快照反映的是开始保存时的缓存数据。
+     * 无法编码的缓存项将被跳过并记录日志。
+     *
+     * <p>
+     * 快照文件先写入同一目录下的临时文件，再原子地替换目标文件，保存失败时不会破坏已有的快照文件。
+     *
+     * @param path       快照文件的路径。
+     * @param keyCodec   键编解码器。
+     * @param valueCodec 值编解码器。
+     * @return 保存的缓存项数量。
+     * @throws HandlerException 处理器异常。
+     * @since 2.0.0
+     */
+    public int saveSnapshot(
+            @NotNull Path path, @NotNull ValueCodec<K> keyCodec, @NotNull ValueCodec<V> valueCodec
+    ) throws HandlerException {
+        try {
+            Map<K, V> dataMapCopy;
+            Map<K, EncodedValue<V>> encodedValueMapCopy;
+            lock.readLock().lock();
+            try {
+                dataMapCopy = new HashMap<>(dataMap);
+                encodedValueMapCopy = new HashMap<>(encodedValueMap);
+            } finally {
+                lock.readLock().unlock();
+            }
+            List<SnapshotFileUtil.SnapshotEntry> entries = new ArrayList<>(
+                    dataMapCopy.size() + encodedValueMapCopy.size()
+            );
+            for (Map.Entry<K, V> entry : dataMapCopy.entrySet()) {
+                K key = entry.getKey();
+                V value = entry.getValue();
+                try {
+                    entries.add(new SnapshotFileUtil.SnapshotEntry(
+                            keyCodec.encode(key), Objects.isNull(value) ? null : valueCodec.encode(value)
+                    ));
+                } catch (Exception e) {
+                    LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_ENTRY_SKIPPED, key), e);
+                }
+            }
+            // 尚未解码的预加载数据，使用相同的编解码器时直接写入原有的字节。
+            for (Map.Entry<K, EncodedValue<V>> entry : encodedValueMapCopy.entrySet()) {
+                K key = entry.getKey();
+                EncodedValue<V> encodedValue = entry.getValue();
+                try {
+                    byte[] bytes = encodedValue.bytes();
+                    if (Objects.nonNull(bytes) && encodedValue.codec() != valueCodec) {
+                        bytes = valueCodec.encode(encodedValue.decode());
+                    }
+                    entries.add(new SnapshotFileUtil.SnapshotEntry(keyCodec.encode(key), bytes));
+                } catch (Exception e) {
+                    LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_ENTRY_SKIPPED, key), e);
+                }
+            }
+            SnapshotFileUtil.write(path, entries);
+
+            // 日志记录。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_SAVED, path, entries.size()));
+
+            return entries.size();
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    /**
+     * 从快照文件预加载缓存数据。
+     *
+     * <p>
+     * 预加载的数据被标记为未验证：第一次被访问时照常返回，同时在快照执行器中重新抓取，
+     * 抓取结果会更新缓存，数据源中已不存在的键会被移入负缓存。
+     * 缓存中已存在、或已被记录为不存在的键不会被快照中的数据覆盖。
+     *
+     * <p>
+     * 预加载模式为 {@link PreloadMode#LAZY} 时，快照文件在调用线程中读取，键被立即解码，值在第一次被访问时才解码，
+     * 方法返回时预加载已经完成；预加载模式为 {@link PreloadMode#BACKGROUND} 时，快照文件的读取与解码在快照执行器中进行，
+     * 方法立即返回。
+     *
+     * <p>
+     * 无法解码的缓存项将被跳过并记录日志；快照文件无法读取时，返回的 {@link CompletableFuture} 以异常结束。
+     * 预加载期间被移除的键仍可能被快照中的数据写入，这些数据会在第一次被访问时得到纠正。
+     *
+     * @param path       快照文件的路径。
+     * @param keyCodec   键编解码器。
+     * @param valueCodec 值编解码器。
+     * @param mode       预加载模式。
+     * @return 预加载完成时结束的 {@link CompletableFuture}，其结果为预加载的缓存项数量。
+     * @since 2.0.0
+     */
+    public CompletableFuture<Integer> preload(
+            @NotNull Path path, @NotNull ValueCodec<K> keyCodec, @NotNull ValueCodec<V> valueCodec,
+            @NotNull PreloadMode mode
+    ) {
+        return switch (mode) {
+            case LAZY -> {
+                try {
+                    yield CompletableFuture.completedFuture(doPreload(path, keyCodec, valueCodec, true));
+                } catch (Exception e) {
+                    LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_PRELOAD_FAILED, path), e);
+                    yield CompletableFuture.failedFuture(HandlerExceptionHelper.parse(e));
+                }
+            }
+            case BACKGROUND -> {
+                CompletableFuture<Integer> future = new CompletableFuture<>();
+                try {
+                    getSnapshotExecutor().execute(() -> {
+                        try {
+                            future.complete(doPreload(path, keyCodec, valueCodec, false));
+                        } catch (Exception e) {
+                            LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_PRELOAD_FAILED, path), e);
+                            future.completeExceptionally(HandlerExceptionHelper.parse(e));
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_PRELOAD_FAILED, path), e);
+                    future.completeExceptionally(HandlerExceptionHelper.parse(e));
+                }
+                yield future;
+            }
+        };
+    }
+
+    private int doPreload(Path path, ValueCodec<K> keyCodec, ValueCodec<V> valueCodec, boolean lazy)
+            throws Exception {
+        List<SnapshotFileUtil.SnapshotEntry> entries = SnapshotFileUtil.read(path);
+        Map<K, EncodedValue<V>> encodedMap = new LinkedHashMap<>();
+        Map<K, V> decodedMap = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            SnapshotFileUtil.SnapshotEntry entry = entries.get(i);
+            K key;
+            try {
+                key = keyCodec.decode(entry.key());
+            } catch (Exception e) {
+                LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_KEY_SKIPPED, path, i), e);
+                continue;
+            }
+            EncodedValue<V> encodedValue = new EncodedValue<>(entry.value(), valueCodec);
+            if (lazy) {
+                encodedMap.put(key, encodedValue);
+                continue;
+            }
+            try {
+                decodedMap.put(key, encodedValue.decode());
+            } catch (Exception e) {
+                LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_ENTRY_SKIPPED, key), e);
+            }
+        }
+        int count = 0;
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<K, EncodedValue<V>> entry : encodedMap.entrySet()) {
+                K key = entry.getKey();
+                if (isAbsent(key)) {
+                    encodedValueMap.put(key, entry.getValue());
+                    unverifiedKeys.add(key);
+                    count++;
+                }
+            }
+            for (Map.Entry<K, V> entry : decodedMap.entrySet()) {
+                K key = entry.getKey();
+                if (isAbsent(key)) {
+                    dataMap.put(key, entry.getValue());
+                    unverifiedKeys.add(key);
+                    count++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // 日志记录。
+        LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_PRELOADED, path, count));
+
+        return count;
+    }
+
+    private boolean isAbsent(K key) {
+        return !dataMap.containsKey(key) && !encodedValueMap.containsKey(key) && !negativeCache.contains(key);
+    }
+
+    /**
+     * 解码指定的键对应的预加载数据，并将其写入缓存。
+     *
+     * <p>
+     * 解码失败时，预加载数据被丢弃，该键将照常从数据源抓取。调用该方法时，必须持有写锁。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的预加载数据是否解码成功。
+     */
+    private boolean decodePreloaded(K key) {
+        EncodedValue<V> encodedValue = encodedValueMap.remove(key);
+        if (Objects.isNull(encodedValue)) {
+            return false;
+        }
+        try {
+            dataMap.put(key, encodedValue.decode());
+            return true;
+        } catch (Exception e) {
+            LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_SNAPSHOT_ENTRY_SKIPPED, key), e);
+            unverifiedKeys.remove(key);
+            return false;
+        }
+    }
+
+    /**
+     * 如果指定的键对应的数据是未验证的预加载数据，则登记对该数据的重新验证。
+     *
+     * <p>
+     * 每个预加载的键只会被重新验证一次。调用该方法时，必须持有读锁或写锁。
+     *
+     * <p>
+     * 重新验证需要获取写锁，而调用该方法时持有的读锁无法升级为写锁，
+     * 如果执行器在调用线程中直接执行任务，持有锁时提交任务会导致死锁。
+     * 因此本方法只登记验证令牌，验证任务由 {@link #submitRevalidations(Map)} 在释放锁之后提交。
+     *
+     * @param key                    指定的键。
+     * @param claimedRevalidationMap 登记的键与验证令牌组成的映射。
+     */
+    private void claimRevalidation(K key, Map<K, Object> claimedRevalidationMap) {
+        if (unverifiedKeys.isEmpty() || !unverifiedKeys.remove(key)) {
+            return;
+        }
+        Object token = new Object();
+        revalidatingMap.put(key, token);
+        claimedRevalidationMap.put(key, token);
+    }
+
+    /**
+     * 提交登记的重新验证任务。
+     *
+     * <p>
+     * 调用该方法时，不能持有读锁或写锁。
+     *
+     * @param claimedRevalidationMap 登记的键与验证令牌组成的映射。
+     */
+    private void submitRevalidations(Map<K, Object> claimedRevalidationMap) {
+        if (claimedRevalidationMap.isEmpty()) {
+            return;
+        }
+        Executor executor = getSnapshotExecutor();
+        for (Map.Entry<K, Object> entry : claimedRevalidationMap.entrySet()) {
+            K key = entry.getKey();
+            Object token = entry.getValue();
+            try {
+                executor.execute(() -> revalidate(key, token));
+            } catch (RejectedExecutionException e) {
+                revalidatingMap.remove(key, token);
+                LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_REVALIDATE_FAILED, key), e);
+            }
+        }
+    }
+
+    /**
+     * 重新抓取指定的键对应的数据，并更新预加载的数据。
+     *
+     * <p>
+     * 如果验证期间该键被移除或清除，验证结果将被丢弃；验证失败时，预加载的数据被保留。
+     *
+     * @param key   指定的键。
+     * @param token 发起验证时登记的验证令牌。
+     */
+    private void revalidate(K key, Object token) {
+        try {
+            FetchResult<V> fetchResult = FetcherUtil.fetch(getFetcher(), key, statsCounter);
+            V value = fetchResult.value();
+            lock.writeLock().lock();
+            try {
+                if (revalidatingMap.get(key) != token) {
+                    return;
+                }
+                if (fetchResult.exists()) {
+                    // 日志记录。
+                    LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
+
+                    encodedValueMap.remove(key);
+                    dataMap.put(key, value);
+                } else {
+                    encodedValueMap.remove(key);
+                    dataMap.remove(key);
+                    negativeCache.add(key);
+                }
+            } finally {
+                revalidatingMap.remove(key, token);
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            revalidatingMap.remove(key, token);
+            LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_REVALIDATE_FAILED, key), e);
+        }
+    }
+
     @NotNull
     public Fetcher<K, V> getFetcher() {
         lock.readLock().lock();
@@ -171,12 +639,111 @@ public class GeneralLocalCacheHandler<K, V> implements LocalCacheHandler<K, V> {
         }
     }
 
+    @NotNull
+    public NegativeCache<K> getNegativeCache() {
+        lock.readLock().lock();
+        try {
+            return negativeCache;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 设置负缓存。
+     *
+     * <p>
+     * 负缓存用于记录已确认不存在的键。默认的负缓存没有容量限制，且记录永不过期。
+     * 可以设置为 {@link BoundedNegativeCache} 以限制记录的数量与存活时间，
+     * 或设置为 {@link BloomNegativeCache} 以固定其内存占用。
+     * 设置后，原有的记录被丢弃。
+     *
+     * @param negativeCache 负缓存。
+     * @since 2.0.0
+     */
+    public void setNegativeCache(@NotNull NegativeCache<K> negativeCache) {
+        lock.writeLock().lock();
+        try {
+            this.negativeCache = negativeCache;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @NotNull
+    public Executor getSnapshotExecutor() {
+        lock.readLock().lock();
+        try {
+            return snapshotExecutor;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 设置快照执行器。
+     *
+     * <p>
+     * 快照执行器用于后台预加载，以及预加载数据的重新验证。默认的快照执行器为每个任务启动一个虚拟线程。
+     *
+     * @param snapshotExecutor 快照执行器。
+     * @since 2.0.0
+     */
+    public void setSnapshotExecutor(@NotNull Executor snapshotExecutor) {
+        lock.writeLock().lock();
+        try {
+            this.snapshotExecutor = snapshotExecutor;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @NotNull
+    public StatsCounter getStatsCounter() {
+        return statsCounter;
+    }
+
+    /**
+     * 设置统计计数器。
+     *
+     * <p>
+     * 默认的统计计数器不记录任何统计信息，需要统计信息时，可以设置为 {@link ConcurrentStatsCounter}。
+     *
+     * @param statsCounter 统计计数器。
+     * @since 2.0.0
+     */
+    public void setStatsCounter(@NotNull StatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+    }
+
     @Override
     public String toString() {
         return "GeneralLocalCacheHandler{" +
                 "fetcher=" + fetcher +
                 ", dataMap=" + dataMap +
-                ", notExistsKeys=" + notExistsKeys +
+                ", negativeCache=" + negativeCache +
+                ", snapshotExecutor=" + snapshotExecutor +
                 '}';
     }
+
+    /**
+     * 懒加载的缓存值。
+     *
+     * <p>
+     * 缓存值以编码后的形式保存，在第一次被访问时才解码。
+     *
+     * @param bytes 编码后的缓存值，缓存值为 <code>null</code> 时为 <code>null</code>。
+     * @param codec 值编解码器。
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private record EncodedValue<V>(byte[] bytes, ValueCodec<V> codec) {
+
+        private V decode() throws Exception {
+            if (Objects.isNull(bytes)) {
+                return null;
+            }
+            return codec.decode(bytes);
+        }
+    }
 }
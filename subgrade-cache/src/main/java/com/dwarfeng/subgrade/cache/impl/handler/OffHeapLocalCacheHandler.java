@@ -0,0 +1,881 @@
+package com.dwarfeng.subgrade.cache.impl.handler;
+
+import com.dwarfeng.subgrade.basic.sdk.exception.HandlerExceptionHelper;
+import com.dwarfeng.subgrade.basic.stack.exception.HandlerException;
+import com.dwarfeng.subgrade.cache.impl.negative.BloomNegativeCache;
+import com.dwarfeng.subgrade.cache.impl.negative.BoundedNegativeCache;
+import com.dwarfeng.subgrade.cache.impl.stats.ConcurrentStatsCounter;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessageKey;
+import com.dwarfeng.subgrade.cache.internal.i18n.CacheMessages;
+import com.dwarfeng.subgrade.cache.internal.loader.FetcherUtil;
+import com.dwarfeng.subgrade.cache.stack.codec.ValueCodec;
+import com.dwarfeng.subgrade.cache.stack.handler.LocalCacheHandler;
+import com.dwarfeng.subgrade.cache.stack.loader.FetchResult;
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import com.dwarfeng.subgrade.cache.stack.negative.NegativeCache;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 堆外本地缓存处理器。
+ *
+ * <p>
+ * 本处理器实现线程安全。缓存值经过 {@link ValueCodec} 编码后保存在堆外内存中，堆内只保留键到堆外位置的紧凑索引，
+ * 读取时再通过 {@link ValueCodec} 解码。大量的缓存数据因此不会增加堆的大小，也不会延长 GC 停顿。
+ *
+ * <p>
+ * 堆外内存以固定大小的内存块（slab）为单位，通过 Foreign Function &amp; Memory API 分配，
+ * 缓存值在当前内存块中顺序追加。当内存块数量达到上限且没有空闲的内存块时，最早写满的内存块连同其中的所有缓存项被整体淘汰，
+ * 随后该内存块被重新使用。每个内存块记录写入其中的键，淘汰内存块时只访问这些键，不需要扫描全部索引。
+ * 编码后长度超过单个内存块容量的值不会被缓存，每次访问都会重新抓取，每次写入被拒绝时记录一条警告日志，并计入淘汰数量。
+ *
+ * <p>
+ * {@link Fetcher} 的调用不在锁内进行，某个键的慢加载不会影响其它键的读取；解码同样在锁外进行。
+ * 同一个键的并发未命中只会触发一次 {@link Fetcher} 调用，等待的调用者各自解码加载得到的值。
+ *
+ * <p>
+ * 本处理器持有堆外内存，不再使用时必须调用 {@link #close()} 释放，释放后不能再使用本处理器。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class OffHeapLocalCacheHandler<K, V> implements LocalCacheHandler<K, V>, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapLocalCacheHandler.class);
+
+    /**
+     * 值为 <code>null</code> 的缓存项在索引中的位置。
+     */
+    private static final long NULL_VALUE_LOCATION = -1L;
+
+    /**
+     * 每个缓存值之前保存其长度的头部大小。
+     */
+    private static final int HEADER_SIZE = Integer.BYTES;
+
+    @NotNull
+    private volatile Fetcher<K, V> fetcher;
+
+    @NotNull
+    private volatile StatsCounter statsCounter = StatsCounter.disabled();
+
+    @NotNull
+    private NegativeCache<K> negativeCache = new BoundedNegativeCache<>();
+
+    @NotNull
+    private final ValueCodec<V> codec;
+
+    private final long slabSize;
+    private final int maximumSlabs;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Arena arena = Arena.ofShared();
+    private final Map<K, Long> locationMap = new HashMap<>();
+    private final List<Slab<K>> slabs = new ArrayList<>();
+    private final Deque<Slab<K>> sealedSlabs = new ArrayDeque<>();
+    private final ConcurrentMap<K, CompletableFuture<FetchResult<byte[]>>> loadingMap = new ConcurrentHashMap<>();
+
+    private Slab<K> currentSlab;
+
+    /**
+     * 构造一个堆外本地缓存处理器。
+     *
+     * @param fetcher      抓取器。
+     * @param codec        值编解码器。
+     * @param slabSize     单个内存块的大小，单位为字节，不能超过 {@link Integer#MAX_VALUE}。
+     * @param maximumSlabs 内存块数量的上限，堆外内存的总大小为 <code>slabSize * maximumSlabs</code>。
+     */
+    public OffHeapLocalCacheHandler(
+            @NotNull Fetcher<K, V> fetcher, @NotNull ValueCodec<V> codec, long slabSize, int maximumSlabs
+    ) {
+        if (slabSize <= HEADER_SIZE || slabSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("内存块大小超出允许的范围: " + slabSize);
+        }
+        if (maximumSlabs <= 0) {
+            throw new IllegalArgumentException("内存块数量的上限必须为正数: " + maximumSlabs);
+        }
+        this.fetcher = fetcher;
+        this.codec = codec;
+        this.slabSize = slabSize;
+        this.maximumSlabs = maximumSlabs;
+    }
+
+    @Override
+    public boolean exists(K key) throws HandlerException {
+        try {
+            lock.readLock().lock();
+            try {
+                if (locationMap.containsKey(key)) {
+                    statsCounter.recordHits(1);
+                    return true;
+                }
+                if (negativeCache.contains(key)) {
+                    statsCounter.recordNegativeHits(1);
+                    return false;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return load(key).exists();
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public V get(K key) throws HandlerException {
+        try {
+            byte[] bytes;
+            lock.readLock().lock();
+            try {
+                Long location = locationMap.get(key);
+                if (Objects.nonNull(location)) {
+                    statsCounter.recordHits(1);
+                    if (location == NULL_VALUE_LOCATION) {
+                        return null;
+                    }
+                    bytes = read(location);
+                } else if (negativeCache.contains(key)) {
+                    statsCounter.recordNegativeHits(1);
+                    return null;
+                } else {
+                    bytes = null;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            // 解码在锁外进行。
+            if (Objects.nonNull(bytes)) {
+                return codec.decode(bytes);
+            }
+            return load(key).value();
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) throws HandlerException {
+        try {
+            Map<K, byte[]> hitBytesMap = new HashMap<>();
+            Set<K> nullValueKeys = new HashSet<>();
+            Set<K> missingKeys = new LinkedHashSet<>();
+            lock.readLock().lock();
+            try {
+                for (K key : keys) {
+                    Long location = locationMap.get(key);
+                    if (Objects.nonNull(location)) {
+                        statsCounter.recordHits(1);
+                        if (location == NULL_VALUE_LOCATION) {
+                            nullValueKeys.add(key);
+                        } else {
+                            hitBytesMap.put(key, read(location));
+                        }
+                    } else if (negativeCache.contains(key)) {
+                        statsCounter.recordNegativeHits(1);
+                    } else {
+                        missingKeys.add(key);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            Map<K, V> valueMap = new HashMap<>();
+            for (Map.Entry<K, byte[]> entry : hitBytesMap.entrySet()) {
+                valueMap.put(entry.getKey(), codec.decode(entry.getValue()));
+            }
+            for (K key : nullValueKeys) {
+                valueMap.put(key, null);
+            }
+            if (!missingKeys.isEmpty()) {
+                loadAll(missingKeys, valueMap);
+            }
+            Map<K, V> result = new LinkedHashMap<>();
+            for (K key : keys) {
+                if (valueMap.containsKey(key)) {
+                    result.put(key, valueMap.get(key));
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            throw HandlerExceptionHelper.parse(e);
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        lock.writeLock().lock();
+        try {
+            boolean flag = removeLocation(key);
+            flag |= negativeCache.remove(key);
+            flag |= Objects.nonNull(loadingMap.remove(key));
+
+            // 记录日志。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEY, key, flag));
+
+            return flag;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<K> keys) {
+        lock.writeLock().lock();
+        try {
+            boolean flag = false;
+            for (K key : keys) {
+                flag |= removeLocation(key);
+                flag |= negativeCache.remove(key);
+                flag |= Objects.nonNull(loadingMap.remove(key));
+            }
+
+            // 记录日志。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_KEYS, keys, flag));
+
+            return flag;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            locationMap.clear();
+            negativeCache.clear();
+            loadingMap.clear();
+            // 内存块不释放，重置后继续使用。
+            sealedSlabs.clear();
+            for (Slab<K> slab : slabs) {
+                slab.reset();
+                sealedSlabs.addLast(slab);
+            }
+            currentSlab = null;
+
+            // 记录日志。
+            LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_CLEAR_ALL));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 释放本处理器持有的全部堆外内存。
+     *
+     * <p>
+     * 释放后不能再使用本处理器。
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            locationMap.clear();
+            negativeCache.clear();
+            loadingMap.clear();
+            slabs.clear();
+            sealedSlabs.clear();
+            currentSlab = null;
+            arena.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 加载指定的键对应的值。
+     *
+     * <p>
+     * 同一个键同时只有一个调用者从数据源加载，其它调用者等待加载完成后解码加载得到的值。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的抓取结果。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private FetchResult<V> load(K key) throws Exception {
+        CompletableFuture<FetchResult<byte[]>> future = loadingMap.get(key);
+        if (Objects.isNull(future)) {
+            CompletableFuture<FetchResult<byte[]>> newFuture = new CompletableFuture<>();
+            future = loadingMap.putIfAbsent(key, newFuture);
+            if (Objects.isNull(future)) {
+                return loadOwned(key, newFuture);
+            }
+        }
+        FetchResult<byte[]> encoded = await(future);
+        recordHit(encoded);
+        return decode(encoded);
+    }
+
+    /**
+     * 从数据源加载指定的键对应的值，写入缓存，并完成对应的 future。
+     *
+     * @param key    指定的键。
+     * @param future 当前线程负责完成的 future。
+     * @return 指定的键对应的抓取结果。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private FetchResult<V> loadOwned(K key, CompletableFuture<FetchResult<byte[]>> future) throws Exception {
+        try {
+            // 未命中之后、登记 future 之前，该键可能已经由其它调用者加载完成。
+            // 加载完成时写入缓存与移除 future 在同一次加写锁中进行，因此登记之后再检查一次缓存即可。
+            FetchResult<byte[]> cached;
+            lock.readLock().lock();
+            try {
+                cached = lookup(key);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (Objects.nonNull(cached)) {
+                loadingMap.remove(key, future);
+                future.complete(cached);
+                return decode(cached);
+            }
+            statsCounter.recordMisses(1);
+            FetchResult<V> fetchResult = FetcherUtil.fetch(fetcher, key, statsCounter);
+            FetchResult<byte[]> encoded;
+            if (fetchResult.exists()) {
+                V value = fetchResult.value();
+
+                // 日志记录。
+                LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_FETCH_SUCCEEDED, key, value));
+
+                encoded = FetchResult.present(Objects.isNull(value) ? null : codec.encode(value));
+            } else {
+                encoded = FetchResult.absent();
+            }
+            lock.writeLock().lock();
+            try {
+                // 加载期间该键可能已被移除，此时不写入缓存，保证移除操作的语义。
+                if (loadingMap.remove(key, future)) {
+                    storeResult(key, encoded);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            future.complete(encoded);
+            return fetchResult;
+        } catch (Throwable e) {
+            loadingMap.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量加载指定的键对应的值。
+     *
+     * <p>
+     * 其它调用者正在加载的键等待其加载完成，其余的键合并为一次批量抓取。
+     *
+     * @param missingKeys 未命中的键组成的集合。
+     * @param valueMap    存在的键与值组成的映射，加载得到的值被写入该映射。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private void loadAll(Set<K> missingKeys, Map<K, V> valueMap) throws Exception {
+        Map<K, CompletableFuture<FetchResult<byte[]>>> pendingFutureMap = new LinkedHashMap<>();
+        Map<K, CompletableFuture<FetchResult<byte[]>>> ownedFutureMap = new LinkedHashMap<>();
+        for (K key : missingKeys) {
+            CompletableFuture<FetchResult<byte[]>> future = loadingMap.get(key);
+            if (Objects.isNull(future)) {
+                CompletableFuture<FetchResult<byte[]>> newFuture = new CompletableFuture<>();
+                future = loadingMap.putIfAbsent(key, newFuture);
+                if (Objects.isNull(future)) {
+                    ownedFutureMap.put(key, newFuture);
+                    continue;
+                }
+            }
+            pendingFutureMap.put(key, future);
+        }
+        if (!ownedFutureMap.isEmpty()) {
+            loadAllOwned(ownedFutureMap, valueMap);
+        }
+        for (Map.Entry<K, CompletableFuture<FetchResult<byte[]>>> entry : pendingFutureMap.entrySet()) {
+            FetchResult<byte[]> encoded = await(entry.getValue());
+            recordHit(encoded);
+            if (encoded.exists()) {
+                valueMap.put(entry.getKey(), decode(encoded).value());
+            }
+        }
+    }
+
+    /**
+     * 批量加载当前线程负责加载的键对应的值，写入缓存，并完成对应的 future。
+     *
+     * @param ownedFutureMap 当前线程负责加载的键与 future 组成的映射。
+     * @param valueMap       存在的键与值组成的映射，加载得到的值被写入该映射。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private void loadAllOwned(
+            Map<K, CompletableFuture<FetchResult<byte[]>>> ownedFutureMap, Map<K, V> valueMap
+    ) throws Exception {
+        try {
+            // 与单个键的加载相同，登记 future 之后再检查一次缓存。
+            Map<K, FetchResult<byte[]>> cachedMap = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                for (K key : ownedFutureMap.keySet()) {
+                    FetchResult<byte[]> cached = lookup(key);
+                    if (Objects.nonNull(cached)) {
+                        cachedMap.put(key, cached);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            for (Map.Entry<K, FetchResult<byte[]>> entry : cachedMap.entrySet()) {
+                loadingMap.remove(entry.getKey(), ownedFutureMap.get(entry.getKey()));
+                ownedFutureMap.get(entry.getKey()).complete(entry.getValue());
+                if (entry.getValue().exists()) {
+                    valueMap.put(entry.getKey(), decode(entry.getValue()).value());
+                }
+            }
+            List<K> fetchKeys = new ArrayList<>();
+            for (K key : ownedFutureMap.keySet()) {
+                if (!cachedMap.containsKey(key)) {
+                    fetchKeys.add(key);
+                }
+            }
+            if (fetchKeys.isEmpty()) {
+                return;
+            }
+            statsCounter.recordMisses(fetchKeys.size());
+            Map<K, V> fetchedMap = FetcherUtil.fetchAll(fetcher, fetchKeys, statsCounter);
+
+            // 日志记录。
+            LOGGER.info(CacheMessages.message(
+                    CacheMessageKey.LOG_BATCH_FETCH_SUCCEEDED, fetchKeys.size(), fetchedMap.size()
+            ));
+
+            Map<K, FetchResult<byte[]>> encodedMap = new LinkedHashMap<>();
+            for (K key : fetchKeys) {
+                if (fetchedMap.containsKey(key)) {
+                    V value = fetchedMap.get(key);
+                    encodedMap.put(key, FetchResult.present(Objects.isNull(value) ? null : codec.encode(value)));
+                } else {
+                    encodedMap.put(key, FetchResult.absent());
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<K, FetchResult<byte[]>> entry : encodedMap.entrySet()) {
+                    if (loadingMap.remove(entry.getKey(), ownedFutureMap.get(entry.getKey()))) {
+                        storeResult(entry.getKey(), entry.getValue());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (Map.Entry<K, FetchResult<byte[]>> entry : encodedMap.entrySet()) {
+                ownedFutureMap.get(entry.getKey()).complete(entry.getValue());
+            }
+            valueMap.putAll(fetchedMap);
+        } catch (Throwable e) {
+            for (Map.Entry<K, CompletableFuture<FetchResult<byte[]>>> entry : ownedFutureMap.entrySet()) {
+                loadingMap.remove(entry.getKey(), entry.getValue());
+                entry.getValue().completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 在缓存中查找指定的键，并记录命中。
+     *
+     * <p>
+     * 调用该方法时，必须持有读锁或写锁。
+     *
+     * @param key 指定的键。
+     * @return 缓存中记录的编码后的抓取结果，缓存中没有该键的记录时返回 <code>null</code>。
+     */
+    private FetchResult<byte[]> lookup(K key) {
+        Long location = locationMap.get(key);
+        if (Objects.nonNull(location)) {
+            statsCounter.recordHits(1);
+            return FetchResult.present(location == NULL_VALUE_LOCATION ? null : read(location));
+        }
+        if (negativeCache.contains(key)) {
+            statsCounter.recordNegativeHits(1);
+            return FetchResult.absent();
+        }
+        return null;
+    }
+
+    /**
+     * 记录对其它调用者加载得到的结果的命中。
+     *
+     * @param encoded 编码后的抓取结果。
+     */
+    private void recordHit(FetchResult<byte[]> encoded) {
+        if (encoded.exists()) {
+            statsCounter.recordHits(1);
+        } else {
+            statsCounter.recordNegativeHits(1);
+        }
+    }
+
+    /**
+     * 解码编码后的抓取结果。
+     *
+     * @param encoded 编码后的抓取结果。
+     * @return 解码后的抓取结果。
+     * @throws Exception 解码过程中出现的任何异常。
+     */
+    private FetchResult<V> decode(FetchResult<byte[]> encoded) throws Exception {
+        if (!encoded.exists()) {
+            return FetchResult.absent();
+        }
+        byte[] bytes = encoded.value();
+        return FetchResult.present(Objects.isNull(bytes) ? null : codec.decode(bytes));
+    }
+
+    /**
+     * 等待指定的 future 完成，并返回其结果。
+     *
+     * @param future 指定的 future。
+     * @return future 的结果。
+     * @throws Exception 加载过程中出现的任何异常。
+     */
+    private FetchResult<byte[]> await(CompletableFuture<FetchResult<byte[]>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 将编码后的抓取结果写入缓存。
+     *
+     * <p>
+     * 调用该方法时，必须持有写锁。
+     *
+     * @param key     指定的键。
+     * @param encoded 编码后的抓取结果。
+     */
+    private void storeResult(K key, FetchResult<byte[]> encoded) {
+        if (encoded.exists()) {
+            store(key, encoded.value());
+        } else {
+            storeNotExists(key);
+        }
+    }
+
+    /**
+     * 读取指定位置的缓存值。
+     *
+     * <p>
+     * 调用该方法时，必须持有读锁或写锁。
+     *
+     * @param location 缓存值在堆外内存中的位置。
+     * @return 缓存值编码后的字节数组。
+     */
+    private byte[] read(long location) {
+        MemorySegment segment = slabs.get(slabIndexOf(location)).segment;
+        long offset = offsetOf(location);
+        int length = segment.get(ValueLayout.JAVA_INT_UNALIGNED, offset);
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset + HEADER_SIZE, bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * 将指定的键与编码后的值写入缓存。
+     *
+     * <p>
+     * 调用该方法时，必须持有写锁。
+     *
+     * @param key   指定的键。
+     * @param bytes 编码后的值，值为 <code>null</code> 时传入 <code>null</code>。
+     */
+    private void store(K key, byte[] bytes) {
+        removeLocation(key);
+        negativeCache.remove(key);
+        if (Objects.isNull(bytes)) {
+            locationMap.put(key, NULL_VALUE_LOCATION);
+            return;
+        }
+        long size = HEADER_SIZE + (long) bytes.length;
+        // 超出单个内存块容量的值不缓存。
+        if (size > slabSize) {
+            statsCounter.recordEvictions(1);
+            LOGGER.warn(CacheMessages.message(CacheMessageKey.LOG_OFF_HEAP_VALUE_TOO_LARGE, key, size, slabSize));
+            return;
+        }
+        Slab<K> slab = slabFor(size);
+        long offset = slab.position;
+        slab.segment.set(ValueLayout.JAVA_INT_UNALIGNED, offset, bytes.length);
+        MemorySegment.copy(bytes, 0, slab.segment, ValueLayout.JAVA_BYTE, offset + HEADER_SIZE, bytes.length);
+        slab.position += size;
+        slab.liveBytes += size;
+        slab.keys.add(key);
+        locationMap.put(key, ((long) slab.index << 32) | offset);
+    }
+
+    /**
+     * 记录指定的键不存在。
+     *
+     * <p>
+     * 调用该方法时，必须持有写锁。
+     *
+     * @param key 指定的键。
+     */
+    private void storeNotExists(K key) {
+        removeLocation(key);
+        negativeCache.add(key);
+    }
+
+    /**
+     * 移除指定的键在堆外内存中的缓存值。
+     *
+     * <p>
+     * 调用该方法时，必须持有写锁。
+     *
+     * @param key 指定的键。
+     * @return 是否移除了缓存值。
+     */
+    private boolean removeLocation(K key) {
+        Long location = locationMap.remove(key);
+        if (Objects.isNull(location)) {
+            return false;
+        }
+        if (location != NULL_VALUE_LOCATION) {
+            Slab<K> slab = slabs.get(slabIndexOf(location));
+            int length = slab.segment.get(ValueLayout.JAVA_INT_UNALIGNED, offsetOf(location));
+            slab.liveBytes -= HEADER_SIZE + (long) length;
+        }
+        return true;
+    }
+
+    /**
+     * 获取能够容纳指定大小的内存块。
+     *
+     * <p>
+     * 当前内存块容量不足时，依次尝试：复用已经没有存活数据的内存块、分配新的内存块、淘汰最早写满的内存块。
+     * 调用该方法时，必须持有写锁。
+     *
+     * @param size 需要的大小。
+     * @return 能够容纳指定大小的内存块。
+     */
+    private Slab<K> slabFor(long size) {
+        if (Objects.nonNull(currentSlab) && currentSlab.position + size <= slabSize) {
+            return currentSlab;
+        }
+        if (Objects.nonNull(currentSlab)) {
+            sealedSlabs.addLast(currentSlab);
+        }
+        Slab<K> slab = null;
+        for (Iterator<Slab<K>> iterator = sealedSlabs.iterator(); iterator.hasNext(); ) {
+            Slab<K> sealedSlab = iterator.next();
+            if (sealedSlab.liveBytes == 0) {
+                iterator.remove();
+                slab = sealedSlab;
+                break;
+            }
+        }
+        if (Objects.isNull(slab) && slabs.size() < maximumSlabs) {
+            slab = new Slab<>(slabs.size(), arena.allocate(slabSize, Long.BYTES));
+            slabs.add(slab);
+        }
+        if (Objects.isNull(slab)) {
+            slab = sealedSlabs.pollFirst();
+            evictSlab(Objects.requireNonNull(slab));
+        }
+        slab.reset();
+        currentSlab = slab;
+        return slab;
+    }
+
+    /**
+     * 淘汰指定的内存块中的所有缓存项。
+     *
+     * <p>
+     * 只访问写入过该内存块的键，其中已被移除或已被重新写入其它位置的键被跳过。
+     * 调用该方法时，必须持有写锁。
+     *
+     * @param slab 指定的内存块。
+     */
+    private void evictSlab(Slab<K> slab) {
+        int count = 0;
+        for (K key : slab.keys) {
+            Long location = locationMap.get(key);
+            if (Objects.nonNull(location) && location != NULL_VALUE_LOCATION && slabIndexOf(location) == slab.index) {
+                locationMap.remove(key);
+                count++;
+            }
+        }
+        statsCounter.recordEvictions(count);
+
+        // 日志记录。
+        LOGGER.info(CacheMessages.message(CacheMessageKey.LOG_OFF_HEAP_SLAB_EVICTED, slab.index, count));
+    }
+
+    private static int slabIndexOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static long offsetOf(long location) {
+        return location & 0xffffffffL;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 缓存项数量包括已确认不存在的键的记录，随内存块一起被淘汰的缓存项，
+     * 以及因超出单个内存块容量而未能写入的值，均计入淘汰数量。
+     */
+    @Override
+    public CacheStats stats() {
+        lock.readLock().lock();
+        try {
+            return statsCounter.snapshot(locationMap.size() + negativeCache.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @NotNull
+    public Fetcher<K, V> getFetcher() {
+        return fetcher;
+    }
+
+    public void setFetcher(@NotNull Fetcher<K, V> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    @NotNull
+    public NegativeCache<K> getNegativeCache() {
+        lock.readLock().lock();
+        try {
+            return negativeCache;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 设置负缓存。
+     *
+     * <p>
+     * 负缓存用于记录已确认不存在的键，保存在堆内。默认的负缓存没有容量限制，且记录永不过期。
+     * 可以设置为 {@link BoundedNegativeCache} 以限制记录的数量与存活时间，
+     * 或设置为 {@link BloomNegativeCache} 以固定其内存占用。设置后，原有的记录被丢弃。
+     *
+     * @param negativeCache 负缓存。
+     */
+    public void setNegativeCache(@NotNull NegativeCache<K> negativeCache) {
+        lock.writeLock().lock();
+        try {
+            this.negativeCache = negativeCache;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @NotNull
+    public StatsCounter getStatsCounter() {
+        return statsCounter;
+    }
+
+    /**
+     * 设置统计计数器。
+     *
+     * <p>
+     * 默认的统计计数器不记录任何统计信息，需要统计信息时，可以设置为 {@link ConcurrentStatsCounter}。
+     *
+     * @param statsCounter 统计计数器。
+     */
+    public void setStatsCounter(@NotNull StatsCounter statsCounter) {
+        this.statsCounter = statsCounter;
+    }
+
+    @NotNull
+    public ValueCodec<V> getCodec() {
+        return codec;
+    }
+
+    public long getSlabSize() {
+        return slabSize;
+    }
+
+    public int getMaximumSlabs() {
+        return maximumSlabs;
+    }
+
+    /**
+     * 获取当前已分配的堆外内存大小。
+     *
+     * @return 当前已分配的堆外内存大小，单位为字节。
+     */
+    public long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return slabs.size() * slabSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapLocalCacheHandler{" +
+                "fetcher=" + fetcher +
+                ", codec=" + codec +
+                ", slabSize=" + slabSize +
+                ", maximumSlabs=" + maximumSlabs +
+                ", allocatedSlabs=" + slabs.size() +
+                '}';
+    }
+
+    /**
+     * 堆外内存块。
+     *
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private static final class Slab<K> {
+
+        private final int index;
+        private final MemorySegment segment;
+        private final List<K> keys = new ArrayList<>();
+
+        private long position;
+        private long liveBytes;
+
+        private Slab(int index, MemorySegment segment) {
+            this.index = index;
+            this.segment = segment;
+        }
+
+        private void reset() {
+            position = 0;
+            liveBytes = 0;
+            keys.clear();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.dwarfeng.subgrade.cache.impl.negative;
+
+import com.dwarfeng.subgrade.cache.stack.negative.NegativeCache;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 基于布隆过滤器的负缓存。
+ *
+ * <p>
+ * 本类实现线程安全。记录保存在计数布隆过滤器中，无论写入多少个键，占用的内存都是固定的，
+ * 适用于需要抵御大量随机键访问的场景。内存占用约为 <code>-n * ln(p) / (ln 2)<sup>2</sup> / 2</code> 字节，
+ * 其中 <code>n</code> 为预期的记录数量，<code>p</code> 为预期的误判率。
+ *
+ * <p>
+ * 本负缓存是概率性的：没有记录过的键有约为 <code>p</code> 的概率被误判为不存在，
+ * 此时处理器会把一个存在的键当作不存在，直至该误判随记录的过期而消失。
+ * 写入的记录数量超过预期时，误判率会上升。使用者应当根据业务对误判的容忍程度选择误判率。
+ *
+ * <p>
+ * 记录的过期通过两代过滤器的轮换实现：每经过 <code>ttl</code> 毫秒，较旧的一代被清空并成为新的一代，
+ * 因此每条记录的实际存活时间介于 <code>ttl</code> 与 <code>2 * ttl</code> 之间。
+ * <code>ttl</code> 小于等于 0 时，只使用一代过滤器，记录永不过期。
+ *
+ * <p>
+ * 计数器支持移除记录，但移除一个被误判为存在的键会使其它键的记录提前消失，这只会导致额外的数据源访问，不会产生误判。
+ * 键的哈希由 {@link Object#hashCode()} 派生，哈希码相同的键无法区分。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class BloomNegativeCache<K> implements NegativeCache<K> {
+
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_LONG = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final long ttl;
+
+    private final int counterCount;
+    private final int hashCount;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Generation currentGeneration;
+    private Generation previousGeneration;
+    private volatile long nextRotateTimestamp;
+
+    /**
+     * 构造一个基于布隆过滤器的负缓存。
+     *
+     * @param expectedInsertions       预期的记录数量，对于有过期时间的负缓存，为每 <code>ttl</code> 内写入的记录数量。
+     * @param falsePositiveProbability 预期的误判率，取值范围为 (0, 1)。
+     * @param ttl                      记录的过期时间，单位为毫秒，小于等于 0 时永不过期。
+     */
+    public BloomNegativeCache(long expectedInsertions, double falsePositiveProbability, long ttl) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("预期的记录数量必须为正数: " + expectedInsertions);
+        }
+        if (!(falsePositiveProbability > 0.0 && falsePositiveProbability < 1.0)) {
+            throw new IllegalArgumentException("预期的误判率必须在 (0, 1) 之间: " + falsePositiveProbability);
+        }
+        double optimalCounterCount = -expectedInsertions * Math.log(falsePositiveProbability) /
+                (Math.log(2) * Math.log(2));
+        if (optimalCounterCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "预期的记录数量过大或误判率过小: " + expectedInsertions + ", " + falsePositiveProbability
+            );
+        }
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.ttl = ttl;
+        this.counterCount = Math.max(COUNTERS_PER_LONG, (int) Math.ceil(optimalCounterCount));
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / expectedInsertions * Math.log(2)));
+        this.currentGeneration = new Generation(counterCount);
+        this.previousGeneration = ttl > 0 ? new Generation(counterCount) : null;
+        this.nextRotateTimestamp = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;
+    }
+
+    @Override
+    public boolean contains(K key) {
+        mayRotate();
+        int[] indexes = indexesOf(key);
+        lock.readLock().lock();
+        try {
+            return currentGeneration.contains(indexes) ||
+                    (Objects.nonNull(previousGeneration) && previousGeneration.contains(indexes));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(K key) {
+        mayRotate();
+        int[] indexes = indexesOf(key);
+        lock.writeLock().lock();
+        try {
+            // 同一代中重复写入的记录不再计数，保证一次移除即可撤销。
+            if (!currentGeneration.contains(indexes)) {
+                currentGeneration.increment(indexes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        mayRotate();
+        int[] indexes = indexesOf(key);
+        lock.writeLock().lock();
+        try {
+            boolean flag = false;
+            if (currentGeneration.contains(indexes)) {
+                currentGeneration.decrement(indexes);
+                flag = true;
+            }
+            if (Objects.nonNull(previousGeneration) && previousGeneration.contains(indexes)) {
+                previousGeneration.decrement(indexes);
+                flag = true;
+            }
+            return flag;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            currentGeneration.clear();
+            if (Objects.nonNull(previousGeneration)) {
+                previousGeneration.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        mayRotate();
+        lock.readLock().lock();
+        try {
+            long size = currentGeneration.insertions;
+            if (Objects.nonNull(previousGeneration)) {
+                size += previousGeneration.insertions;
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 到达轮换时间时，清空较旧的一代过滤器，并将其作为新的一代。
+     */
+    private void mayRotate() {
+        if (System.currentTimeMillis() < nextRotateTimestamp) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long currentTime = System.currentTimeMillis();
+            if (currentTime < nextRotateTimestamp) {
+                return;
+            }
+            // 长时间没有访问时，两代过滤器中的记录均已过期。
+            if (currentTime >= nextRotateTimestamp + ttl) {
+                currentGeneration.clear();
+            }
+            Generation generation = previousGeneration;
+            generation.clear();
+            previousGeneration = currentGeneration;
+            currentGeneration = generation;
+            nextRotateTimestamp = currentTime + ttl;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 计算指定的键对应的计数器下标。
+     *
+     * <p>
+     * 使用双重哈希从一个 64 位哈希值派生出全部下标。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的计数器下标。
+     */
+    private int[] indexesOf(K key) {
+        long hash = Objects.hashCode(key) * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 29;
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        int[] indexes = new int[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            indexes[i] = Math.floorMod(hash1 + i * hash2, counterCount);
+        }
+        return indexes;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public double getFalsePositiveProbability() {
+        return falsePositiveProbability;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    @Override
+    public String toString() {
+        return "BloomNegativeCache{" +
+                "expectedInsertions=" + expectedInsertions +
+                ", falsePositiveProbability=" + falsePositiveProbability +
+                ", ttl=" + ttl +
+                ", counterCount=" + counterCount +
+                ", hashCount=" + hashCount +
+                '}';
+    }
+
+    /**
+     * 一代计数布隆过滤器。
+     *
+     * <p>
+     * 每个计数器占 4 位，达到最大值后不再增减，以避免溢出导致的误删。
+     *
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private static final class Generation {
+
+        private final long[] table;
+
+        private long insertions;
+
+        private Generation(int counterCount) {
+            table = new long[Math.ceilDiv(counterCount, COUNTERS_PER_LONG)];
+        }
+
+        private boolean contains(int[] indexes) {
+            for (int index : indexes) {
+                if (counterAt(index) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void increment(int[] indexes) {
+            for (int index : indexes) {
+                if (counterAt(index) < COUNTER_MASK) {
+                    table[index / COUNTERS_PER_LONG] += 1L << offsetOf(index);
+                }
+            }
+            insertions++;
+        }
+
+        private void decrement(int[] indexes) {
+            for (int index : indexes) {
+                long counter = counterAt(index);
+                if (counter > 0 && counter < COUNTER_MASK) {
+                    table[index / COUNTERS_PER_LONG] -= 1L << offsetOf(index);
+                }
+            }
+            insertions = Math.max(0, insertions - 1);
+        }
+
+        private void clear() {
+            Arrays.fill(table, 0L);
+            insertions = 0;
+        }
+
+        private long counterAt(int index) {
+            return (table[index / COUNTERS_PER_LONG] >>> offsetOf(index)) & COUNTER_MASK;
+        }
+
+        private static int offsetOf(int index) {
+            return (index % COUNTERS_PER_LONG) * COUNTER_BITS;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.dwarfeng.subgrade.cache.impl.negative;
+
+import com.dwarfeng.subgrade.cache.stack.negative.NegativeCache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有界的负缓存。
+ *
+ * <p>
+ * 本类实现线程安全。每条记录在写入 <code>ttl</code> 毫秒后过期，记录数量超过 <code>maximumSize</code> 时，
+ * 最早写入的记录被淘汰。<code>ttl</code> 小于等于 0 时，记录永不过期。
+ *
+ * <p>
+ * 由于所有记录的过期时间相同，按写入顺序排列的记录同时也按过期时间排列，
+ * 每次写入时只需要从队首清理已过期的记录，不需要扫描全部记录，也不需要定时任务。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class BoundedNegativeCache<K> implements NegativeCache<K> {
+
+    private final long ttl;
+    private final long maximumSize;
+
+    private final Lock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Long> expireTimestampMap = new LinkedHashMap<>();
+
+    /**
+     * 构造一个没有容量限制、永不过期的负缓存。
+     */
+    public BoundedNegativeCache() {
+        this(0, Long.MAX_VALUE);
+    }
+
+    /**
+     * 构造一个负缓存。
+     *
+     * @param ttl         记录的过期时间，单位为毫秒，小于等于 0 时永不过期。
+     * @param maximumSize 记录数量的上限。
+     */
+    public BoundedNegativeCache(long ttl, long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("记录数量的上限不能为负数: " + maximumSize);
+        }
+        this.ttl = ttl;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public boolean contains(K key) {
+        lock.lock();
+        try {
+            Long expireTimestamp = expireTimestampMap.get(key);
+            if (Objects.isNull(expireTimestamp)) {
+                return false;
+            }
+            if (System.currentTimeMillis() > expireTimestamp) {
+                expireTimestampMap.remove(key);
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void add(K key) {
+        lock.lock();
+        try {
+            long currentTime = System.currentTimeMillis();
+            // 先移除再写入，使重新写入的记录移动到队尾。
+            expireTimestampMap.remove(key);
+            expireTimestampMap.put(key, ttl > 0 ? currentTime + ttl : Long.MAX_VALUE);
+            Iterator<Map.Entry<K, Long>> iterator = expireTimestampMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Long> eldest = iterator.next();
+                if (expireTimestampMap.size() <= maximumSize && currentTime <= eldest.getValue()) {
+                    break;
+                }
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(K key) {
+        lock.lock();
+        try {
+            return Objects.nonNull(expireTimestampMap.remove(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            expireTimestampMap.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        lock.lock();
+        try {
+            return expireTimestampMap.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedNegativeCache{" +
+                "ttl=" + ttl +
+                ", maximumSize=" + maximumSize +
+                ", size=" + expireTimestampMap.size() +
+                '}';
+    }
+}
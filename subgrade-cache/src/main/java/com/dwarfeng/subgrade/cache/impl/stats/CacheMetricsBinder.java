@@ -0,0 +1,255 @@
+package com.dwarfeng.subgrade.cache.impl.stats;
+
+import com.dwarfeng.subgrade.cache.stack.handler.AsyncLocalCacheHandler;
+import com.dwarfeng.subgrade.cache.stack.handler.LocalCacheHandler;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 缓存指标绑定器。
+ *
+ * <p>
+ * 将本地缓存处理器的统计信息发布为 Micrometer 指标，所有指标均带有 <code>cache</code> 标签，其值为缓存名称：
+ * <ul>
+ *     <li><code>cache.gets</code>：请求次数，按 <code>result</code> 标签区分 <code>hit</code>、
+ *     <code>negative_hit</code> 与 <code>miss</code>。</li>
+ *     <li><code>cache.loads</code>：加载次数，按 <code>result</code> 标签区分 <code>success</code> 与
+ *     <code>failure</code>。</li>
+ *     <li><code>cache.load.duration</code>：加载耗时，以 Micrometer 原生的直方图发布，
+ *     区间上界与 {@link ConcurrentStatsCounter} 默认的区间上界一致。</li>
+ *     <li><code>cache.evictions</code>：淘汰的缓存项数量。</li>
+ *     <li><code>cache.size</code>：当前的缓存项数量。</li>
+ * </ul>
+ *
+ * <p>
+ * 除加载耗时以外，指标的值在注册表采集时从处理器的统计快照中读取，处理器需要设置记录统计信息的统计计数器，
+ * 例如 {@link ConcurrentStatsCounter}。绑定器与指标均对处理器保持弱引用，处理器被回收后指标不再更新。
+ *
+ * <p>
+ * 加载耗时需要逐次记录，无法从统计快照中还原，因此需要使用 {@link #decorate(StatsCounter)}
+ * 装饰处理器的统计计数器，经过装饰的统计计数器在记录加载的同时将耗时记录到每个已绑定的注册表的计时器中：
+ * <pre>{@code
+ * CacheMetricsBinder binder = new CacheMetricsBinder(handler, "user");
+ * handler.setStatsCounter(binder.decorate(new ConcurrentStatsCounter()));
+ * binder.bindTo(registry);
+ * }</pre>
+ *
+ * <p>
+ * Micrometer 是可选依赖，只有使用本类时才需要引入。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class CacheMetricsBinder implements MeterBinder {
+
+    private static final String TAG_CACHE = "cache";
+    private static final String TAG_RESULT = "result";
+
+    @NotNull
+    private final WeakReference<Object> handlerReference;
+
+    @NotNull
+    private final Tags tags;
+
+    private final CopyOnWriteArrayList<Timer> loadTimers = new CopyOnWriteArrayList<>();
+
+    public CacheMetricsBinder(@NotNull LocalCacheHandler<?, ?> handler, @NotNull String cacheName) {
+        this(handler, cacheName, Tags.empty());
+    }
+
+    public CacheMetricsBinder(
+            @NotNull LocalCacheHandler<?, ?> handler, @NotNull String cacheName, @NotNull Iterable<Tag> tags
+    ) {
+        this((Object) handler, cacheName, tags);
+    }
+
+    public CacheMetricsBinder(@NotNull AsyncLocalCacheHandler<?, ?> handler, @NotNull String cacheName) {
+        this(handler, cacheName, Tags.empty());
+    }
+
+    public CacheMetricsBinder(
+            @NotNull AsyncLocalCacheHandler<?, ?> handler, @NotNull String cacheName, @NotNull Iterable<Tag> tags
+    ) {
+        this((Object) handler, cacheName, tags);
+    }
+
+    private CacheMetricsBinder(Object handler, String cacheName, Iterable<Tag> tags) {
+        this.handlerReference = new WeakReference<>(handler);
+        this.tags = Tags.concat(tags, TAG_CACHE, cacheName);
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Object handler = handlerReference.get();
+        if (handler == null) {
+            return;
+        }
+
+        bindCounter(registry, handler, "cache.gets", "hit", "缓存命中次数", CacheStats::hitCount);
+        bindCounter(registry, handler, "cache.gets", "negative_hit", "缓存负命中次数", CacheStats::negativeHitCount);
+        bindCounter(registry, handler, "cache.gets", "miss", "缓存未命中次数", CacheStats::missCount);
+        bindCounter(registry, handler, "cache.loads", "success", "缓存成功加载次数", CacheStats::loadSuccessCount);
+        bindCounter(registry, handler, "cache.loads", "failure", "缓存失败加载次数", CacheStats::loadFailureCount);
+
+        Timer loadTimer = Timer.builder("cache.load.duration")
+                .tags(tags)
+                .description("缓存加载耗时")
+                .serviceLevelObjectives(loadLatencySlos())
+                .register(registry);
+        // 同一个注册表重复绑定时，注册表返回已经注册的计时器，不重复记录。
+        loadTimers.addIfAbsent(loadTimer);
+
+        FunctionCounter.builder("cache.evictions", handler, h -> statsOf(h).evictionCount())
+                .tags(tags)
+                .description("缓存淘汰的缓存项数量")
+                .register(registry);
+        Gauge.builder("cache.size", handler, h -> statsOf(h).size())
+                .tags(tags)
+                .description("当前的缓存项数量")
+                .register(registry);
+    }
+
+    private void bindCounter(
+            MeterRegistry registry, Object handler, String name, String result, String description,
+            ToDoubleFunction<CacheStats> function
+    ) {
+        FunctionCounter.builder(name, handler, h -> function.applyAsDouble(statsOf(h)))
+                .tags(tags)
+                .tag(TAG_RESULT, result)
+                .description(description)
+                .register(registry);
+    }
+
+    private static Duration[] loadLatencySlos() {
+        long[] bounds = ConcurrentStatsCounter.defaultLoadLatencyBounds();
+        Duration[] slos = new Duration[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            slos[i] = Duration.ofNanos(bounds[i]);
+        }
+        return slos;
+    }
+
+    /**
+     * 装饰指定的统计计数器。
+     *
+     * <p>
+     * 返回的统计计数器将全部调用委托给指定的统计计数器，并在记录加载时将加载耗时记录到
+     * 每个已绑定的注册表的 <code>cache.load.duration</code> 计时器中。
+     *
+     * @param statsCounter 指定的统计计数器。
+     * @return 装饰后的统计计数器。
+     */
+    @NotNull
+    public StatsCounter decorate(@NotNull StatsCounter statsCounter) {
+        return new LoadTimingStatsCounter(statsCounter, loadTimers);
+    }
+
+    /**
+     * 获取指定的处理器的统计快照。
+     *
+     * <p>
+     * 指标函数只通过该方法访问处理器，不持有处理器的强引用。
+     *
+     * @param handler 指定的处理器。
+     * @return 统计快照。
+     */
+    private static CacheStats statsOf(Object handler) {
+        if (handler instanceof LocalCacheHandler<?, ?> localCacheHandler) {
+            return localCacheHandler.stats();
+        }
+        return ((AsyncLocalCacheHandler<?, ?>) handler).stats();
+    }
+
+    @Override
+    public String toString() {
+        return "CacheMetricsBinder{" +
+                "handler=" + handlerReference.get() +
+                ", tags=" + tags +
+                '}';
+    }
+
+    /**
+     * 将加载耗时记录到计时器中的统计计数器。
+     *
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    private static final class LoadTimingStatsCounter implements StatsCounter {
+
+        @NotNull
+        private final StatsCounter delegate;
+
+        @NotNull
+        private final List<Timer> loadTimers;
+
+        private LoadTimingStatsCounter(@NotNull StatsCounter delegate, @NotNull List<Timer> loadTimers) {
+            this.delegate = delegate;
+            this.loadTimers = loadTimers;
+        }
+
+        @Override
+        public void recordHits(int count) {
+            delegate.recordHits(count);
+        }
+
+        @Override
+        public void recordMisses(int count) {
+            delegate.recordMisses(count);
+        }
+
+        @Override
+        public void recordNegativeHits(int count) {
+            delegate.recordNegativeHits(count);
+        }
+
+        @Override
+        public void recordLoadSuccess(long loadTime) {
+            delegate.recordLoadSuccess(loadTime);
+            recordLoadTime(loadTime);
+        }
+
+        @Override
+        public void recordLoadFailure(long loadTime) {
+            delegate.recordLoadFailure(loadTime);
+            recordLoadTime(loadTime);
+        }
+
+        @Override
+        public void recordEvictions(int count) {
+            delegate.recordEvictions(count);
+        }
+
+        @Override
+        public CacheStats snapshot(long size) {
+            return delegate.snapshot(size);
+        }
+
+        private void recordLoadTime(long loadTime) {
+            for (Timer loadTimer : loadTimers) {
+                loadTimer.record(loadTime, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "LoadTimingStatsCounter{" +
+                    "delegate=" + delegate +
+                    '}';
+        }
+    }
+}
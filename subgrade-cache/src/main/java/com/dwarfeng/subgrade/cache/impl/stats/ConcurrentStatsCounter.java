@@ -0,0 +1,156 @@
+package com.dwarfeng.subgrade.cache.impl.stats;
+
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于 {@link LongAdder} 的统计计数器。
+ *
+ * <p>
+ * 本类实现线程安全，高并发下的计数不会在同一个变量上产生竞争。
+ *
+ * <p>
+ * 加载耗时直方图的区间上界默认为 100 微秒、500 微秒、1、5、10、50、100、500 毫秒、1、5、10 秒，
+ * 超过最大上界的加载计入最后一个区间。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class ConcurrentStatsCounter implements StatsCounter {
+
+    private static final long[] DEFAULT_LOAD_LATENCY_BOUNDS = {
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.SECONDS.toNanos(5),
+            TimeUnit.SECONDS.toNanos(10),
+    };
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder negativeHitCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final long[] loadLatencyBounds;
+    private final LongAdder[] loadLatencyBuckets;
+
+    /**
+     * 构造一个使用默认直方图区间的统计计数器。
+     */
+    public ConcurrentStatsCounter() {
+        this(DEFAULT_LOAD_LATENCY_BOUNDS);
+    }
+
+    /**
+     * 构造一个使用指定直方图区间的统计计数器。
+     *
+     * @param loadLatencyBounds 加载耗时直方图的区间上界，单位为纳秒，必须严格递增。
+     */
+    public ConcurrentStatsCounter(long[] loadLatencyBounds) {
+        for (int i = 1; i < loadLatencyBounds.length; i++) {
+            if (loadLatencyBounds[i] <= loadLatencyBounds[i - 1]) {
+                throw new IllegalArgumentException("直方图的区间上界必须严格递增: " + Arrays.toString(loadLatencyBounds));
+            }
+        }
+        this.loadLatencyBounds = Arrays.copyOf(loadLatencyBounds, loadLatencyBounds.length + 1);
+        this.loadLatencyBounds[loadLatencyBounds.length] = Long.MAX_VALUE;
+        this.loadLatencyBuckets = new LongAdder[this.loadLatencyBounds.length];
+        for (int i = 0; i < loadLatencyBuckets.length; i++) {
+            loadLatencyBuckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 获取默认的加载耗时直方图的区间上界。
+     *
+     * @return 默认的区间上界，单位为纳秒。
+     */
+    static long[] defaultLoadLatencyBounds() {
+        return DEFAULT_LOAD_LATENCY_BOUNDS.clone();
+    }
+
+    @Override
+    public void recordHits(int count) {
+        hitCount.add(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        missCount.add(count);
+    }
+
+    @Override
+    public void recordNegativeHits(int count) {
+        negativeHitCount.add(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        loadSuccessCount.increment();
+        recordLoadTime(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        loadFailureCount.increment();
+        recordLoadTime(loadTime);
+    }
+
+    @Override
+    public void recordEvictions(int count) {
+        evictionCount.add(count);
+    }
+
+    @Override
+    public CacheStats snapshot(long size) {
+        SortedMap<Long, Long> loadLatencyHistogram = new TreeMap<>();
+        for (int i = 0; i < loadLatencyBounds.length; i++) {
+            loadLatencyHistogram.put(loadLatencyBounds[i], loadLatencyBuckets[i].sum());
+        }
+        return new CacheStats(
+                hitCount.sum(),
+                missCount.sum(),
+                negativeHitCount.sum(),
+                loadSuccessCount.sum(),
+                loadFailureCount.sum(),
+                totalLoadTime.sum(),
+                loadLatencyHistogram,
+                evictionCount.sum(),
+                size
+        );
+    }
+
+    private void recordLoadTime(long loadTime) {
+        totalLoadTime.add(loadTime);
+        int index = Arrays.binarySearch(loadLatencyBounds, loadTime);
+        loadLatencyBuckets[index >= 0 ? index : -index - 1].increment();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentStatsCounter{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", negativeHitCount=" + negativeHitCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+}
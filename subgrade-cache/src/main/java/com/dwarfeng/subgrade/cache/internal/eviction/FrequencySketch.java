@@ -0,0 +1,133 @@
+package com.dwarfeng.subgrade.cache.internal.eviction;
+
+import java.util.Arrays;
+
+/**
+ * 访问频率草图。
+ *
+ * <p>
+ * 基于 4 位计数器的 Count-Min Sketch，用于以较小的内存估计元素的近期访问频率。
+ * 每个元素对应 4 个计数器，估计值取其中的最小值，计数器的上限为 15。
+ *
+ * <p>
+ * 当累计的有效递增次数达到采样大小时，所有计数器减半，使频率估计随时间衰减，从而反映近期的访问情况。
+ *
+ * <p>
+ * 本类不是线程安全的，调用者需要自行保证同步。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class FrequencySketch<E> {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private long[] table = new long[0];
+    private int tableMask;
+    private int sampleSize;
+    private int size;
+
+    /**
+     * 保证草图能够容纳指定数量的元素。
+     *
+     * <p>
+     * 计数器所在的下标由哈希值的低位决定，表的长度加倍后，原下标 <code>i</code> 上的元素只会落在新下标
+     * <code>i</code> 或 <code>i + 原长度</code> 上。因此扩容时将原表复制到新表的每一段中，
+     * 扩容前的频率估计在扩容后保持不变。
+     *
+     * @param maximumSize 预期的元素数量。
+     */
+    public void ensureCapacity(long maximumSize) {
+        int maximum = (int) Math.min(Math.max(maximumSize, 8), MAXIMUM_CAPACITY);
+        if (table.length >= maximum) {
+            return;
+        }
+        long[] oldTable = table;
+        table = new long[Integer.highestOneBit(maximum - 1) << 1];
+        tableMask = table.length - 1;
+        sampleSize = 10 * maximum;
+        if (oldTable.length == 0) {
+            size = 0;
+            return;
+        }
+        for (int i = 0; i < table.length; i += oldTable.length) {
+            System.arraycopy(oldTable, 0, table, i, oldTable.length);
+        }
+    }
+
+    /**
+     * 估计指定元素的访问频率。
+     *
+     * @param e 指定的元素。
+     * @return 指定元素的访问频率，范围为 0 至 15。
+     */
+    public int frequency(E e) {
+        int hash = spread(e.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 增加指定元素的访问频率。
+     *
+     * @param e 指定的元素。
+     */
+    public void increment(E e) {
+        int hash = spread(e.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * 清除所有的频率统计。
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+
+    private int indexOf(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -13,11 +13,23 @@ public enum CacheMessageKey {
 
     SERVICE_EXCEPTION_OPERATION_FAILED(SDK, "service_exception.operation_failed"),
     LOG_FETCH_SUCCEEDED(IMPL, "log.fetch_succeeded"),
+    LOG_BATCH_FETCH_SUCCEEDED(IMPL, "log.batch_fetch_succeeded"),
     LOG_CLEAR_KEY(IMPL, "log.clear_key"),
+    LOG_CLEAR_KEYS(IMPL, "log.clear_keys"),
     LOG_CLEAR_ALL(IMPL, "log.clear_all"),
     LOG_EXPIRE_SCAN_STARTED(IMPL, "log.expire_scan_started"),
     LOG_EXPIRED_REMOVED(IMPL, "log.expired_removed"),
-    LOG_NO_EXPIRED(IMPL, "log.no_expired");
+    LOG_NO_EXPIRED(IMPL, "log.no_expired"),
+    LOG_TIMER_WHEEL_TASK_FAILED(IMPL, "log.timer_wheel_task_failed"),
+    LOG_REFRESH_FAILED(IMPL, "log.refresh_failed"),
+    LOG_OFF_HEAP_SLAB_EVICTED(IMPL, "log.off_heap_slab_evicted"),
+    LOG_OFF_HEAP_VALUE_TOO_LARGE(IMPL, "log.off_heap_value_too_large"),
+    LOG_SNAPSHOT_SAVED(IMPL, "log.snapshot_saved"),
+    LOG_SNAPSHOT_PRELOADED(IMPL, "log.snapshot_preloaded"),
+    LOG_SNAPSHOT_PRELOAD_FAILED(IMPL, "log.snapshot_preload_failed"),
+    LOG_SNAPSHOT_ENTRY_SKIPPED(IMPL, "log.snapshot_entry_skipped"),
+    LOG_SNAPSHOT_KEY_SKIPPED(IMPL, "log.snapshot_key_skipped"),
+    LOG_REVALIDATE_FAILED(IMPL, "log.revalidate_failed");
 
     private final CacheMessages.Catalog catalog;
     private final String key;
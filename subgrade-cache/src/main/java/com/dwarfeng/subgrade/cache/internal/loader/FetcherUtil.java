@@ -0,0 +1,108 @@
+package com.dwarfeng.subgrade.cache.internal.loader;
+
+import com.dwarfeng.subgrade.cache.stack.loader.BatchFetcher;
+import com.dwarfeng.subgrade.cache.stack.loader.FetchResult;
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 抓取器工具类。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class FetcherUtil {
+
+    /**
+     * 使用指定的抓取器抓取指定的键对应的值。
+     *
+     * <p>
+     * 如果抓取器是 {@link BatchFetcher}，则只调用一次 {@link BatchFetcher#fetchAll(Collection)}；
+     * 否则逐个调用 {@link Fetcher#fetchIfExists(Object)}。
+     *
+     * @param fetcher 指定的抓取器。
+     * @param keys    指定的键组成的集合。
+     * @param <K>     键的类型。
+     * @param <V>     值的类型。
+     * @return 存在的键与其对应的值组成的映射。
+     * @throws Exception 抓取值的过程中出现的任何异常。
+     */
+    public static <K, V> Map<K, V> fetchAll(Fetcher<K, V> fetcher, Collection<K> keys) throws Exception {
+        if (fetcher instanceof BatchFetcher<K, V> batchFetcher) {
+            return batchFetcher.fetchAll(keys);
+        }
+        Map<K, V> result = new HashMap<>();
+        for (K key : keys) {
+            FetchResult<V> fetchResult = fetcher.fetchIfExists(key);
+            if (fetchResult.exists()) {
+                result.put(key, fetchResult.value());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 使用指定的抓取器抓取指定的键对应的值，并将加载结果与耗时记录到指定的统计计数器。
+     *
+     * <p>
+     * 抓取通过 {@link Fetcher#fetchIfExists(Object)} 进行，对于覆盖了该方法的抓取器，每次抓取只访问一次数据源。
+     *
+     * @param fetcher      指定的抓取器。
+     * @param key          指定的键。
+     * @param statsCounter 指定的统计计数器。
+     * @param <K>          键的类型。
+     * @param <V>          值的类型。
+     * @return 抓取结果。
+     * @throws Exception 抓取值的过程中出现的任何异常。
+     */
+    public static <K, V> FetchResult<V> fetch(
+            Fetcher<K, V> fetcher, K key, StatsCounter statsCounter
+    ) throws Exception {
+        long startTime = System.nanoTime();
+        try {
+            FetchResult<V> result = fetcher.fetchIfExists(key);
+            statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+            return result;
+        } catch (Exception e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            throw e;
+        }
+    }
+
+    /**
+     * 使用指定的抓取器抓取指定的键对应的值，并将加载结果与耗时记录到指定的统计计数器。
+     *
+     * <p>
+     * 一次批量抓取记录为一次加载。
+     *
+     * @param fetcher      指定的抓取器。
+     * @param keys         指定的键组成的集合。
+     * @param statsCounter 指定的统计计数器。
+     * @param <K>          键的类型。
+     * @param <V>          值的类型。
+     * @return 存在的键与其对应的值组成的映射。
+     * @throws Exception 抓取值的过程中出现的任何异常。
+     * @see #fetchAll(Fetcher, Collection)
+     */
+    public static <K, V> Map<K, V> fetchAll(
+            Fetcher<K, V> fetcher, Collection<K> keys, StatsCounter statsCounter
+    ) throws Exception {
+        long startTime = System.nanoTime();
+        try {
+            Map<K, V> result = fetchAll(fetcher, keys);
+            statsCounter.recordLoadSuccess(System.nanoTime() - startTime);
+            return result;
+        } catch (Exception e) {
+            statsCounter.recordLoadFailure(System.nanoTime() - startTime);
+            throw e;
+        }
+    }
+
+    private FetcherUtil() {
+        throw new IllegalStateException("禁止实例化");
+    }
+}
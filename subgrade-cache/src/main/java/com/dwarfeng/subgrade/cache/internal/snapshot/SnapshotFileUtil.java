@@ -0,0 +1,128 @@
+package com.dwarfeng.subgrade.cache.internal.snapshot;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 快照文件工具类。
+ *
+ * <p>
+ * 快照文件的格式为：魔数、版本号、缓存项数量，随后是每个缓存项的键与值，均以长度前缀的字节数组保存，
+ * 值为 <code>null</code> 时长度为 -1。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class SnapshotFileUtil {
+
+    private static final int MAGIC = 0x53475343;
+    private static final int VERSION = 1;
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * 将指定的缓存项写入快照文件。
+     *
+     * <p>
+     * 数据先写入同一目录下的临时文件，再原子地替换目标文件，写入中途失败不会破坏已有的快照文件。
+     *
+     * @param path    快照文件的路径。
+     * @param entries 缓存项组成的列表。
+     * @throws IOException 写入过程中出现的 IO 异常。
+     */
+    public static void write(Path path, List<SnapshotEntry> entries) throws IOException {
+        Path absolutePath = path.toAbsolutePath();
+        Path directory = absolutePath.getParent();
+        Files.createDirectories(directory);
+        Path tempPath = Files.createTempFile(directory, absolutePath.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempPath))
+            )) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (SnapshotEntry entry : entries) {
+                    writeBytes(out, entry.key());
+                    writeBytes(out, entry.value());
+                }
+            }
+            Files.move(tempPath, absolutePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * 读取快照文件中的全部缓存项。
+     *
+     * @param path 快照文件的路径。
+     * @return 缓存项组成的列表。
+     * @throws IOException 读取过程中出现的 IO 异常，或文件格式不正确。
+     */
+    public static List<SnapshotEntry> read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是有效的快照文件: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("不支持的快照文件版本: " + version);
+            }
+            int size = in.readInt();
+            if (size < 0) {
+                throw new IOException("快照文件已损坏: " + path);
+            }
+            List<SnapshotEntry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                byte[] key = readBytes(in);
+                if (Objects.isNull(key)) {
+                    throw new IOException("快照文件已损坏: " + path);
+                }
+                entries.add(new SnapshotEntry(key, readBytes(in)));
+            }
+            return entries;
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (Objects.isNull(bytes)) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("快照文件已损坏");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private SnapshotFileUtil() {
+        throw new IllegalStateException("禁止实例化");
+    }
+
+    /**
+     * 快照文件中的缓存项。
+     *
+     * @param key   编码后的键。
+     * @param value 编码后的值，值为 <code>null</code> 时为 <code>null</code>。
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    public record SnapshotEntry(byte[] key, byte[] value) {
+    }
+}
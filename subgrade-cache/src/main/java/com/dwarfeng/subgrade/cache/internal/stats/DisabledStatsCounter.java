@@ -0,0 +1,46 @@
+package com.dwarfeng.subgrade.cache.internal.stats;
+
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+import com.dwarfeng.subgrade.cache.stack.stats.StatsCounter;
+
+import java.util.TreeMap;
+
+/**
+ * 不记录任何统计信息的统计计数器。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public enum DisabledStatsCounter implements StatsCounter {
+
+    INSTANCE;
+
+    @Override
+    public void recordHits(int count) {
+    }
+
+    @Override
+    public void recordMisses(int count) {
+    }
+
+    @Override
+    public void recordNegativeHits(int count) {
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+    }
+
+    @Override
+    public void recordEvictions(int count) {
+    }
+
+    @Override
+    public CacheStats snapshot(long size) {
+        return new CacheStats(0, 0, 0, 0, 0, 0, new TreeMap<>(), 0, size);
+    }
+}
@@ -0,0 +1,31 @@
+package com.dwarfeng.subgrade.cache.stack.codec;
+
+/**
+ * 值编解码器。
+ *
+ * <p>
+ * 用于在缓存值与字节数组之间相互转换，供需要以序列化形式保存缓存值的本地缓存处理器使用。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public interface ValueCodec<V> {
+
+    /**
+     * 将指定的值编码为字节数组。
+     *
+     * @param value 指定的值。
+     * @return 编码得到的字节数组。
+     * @throws Exception 编码过程中出现的任何异常。
+     */
+    byte[] encode(V value) throws Exception;
+
+    /**
+     * 将指定的字节数组解码为值。
+     *
+     * @param bytes 指定的字节数组。
+     * @return 解码得到的值。
+     * @throws Exception 解码过程中出现的任何异常。
+     */
+    V decode(byte[] bytes) throws Exception;
+}
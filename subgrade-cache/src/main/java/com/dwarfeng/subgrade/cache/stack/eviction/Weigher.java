@@ -0,0 +1,25 @@
+package com.dwarfeng.subgrade.cache.stack.eviction;
+
+/**
+ * 权重计算器。
+ *
+ * <p>
+ * 用于计算缓存项的权重，有界的本地缓存处理器根据缓存项的权重之和判断是否需要淘汰缓存项。
+ *
+ * <p>
+ * 缓存项的权重在其写入缓存时计算一次，此后不会重新计算。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public interface Weigher<K, V> {
+
+    /**
+     * 计算指定的缓存项的权重。
+     *
+     * @param key   指定的键。
+     * @param value 指定的值。
+     * @return 缓存项的权重，不能为负数。
+     */
+    int weigh(K key, V value);
+}
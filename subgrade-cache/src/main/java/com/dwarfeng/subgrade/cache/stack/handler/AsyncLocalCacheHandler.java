@@ -0,0 +1,92 @@
+package com.dwarfeng.subgrade.cache.stack.handler;
+
+import com.dwarfeng.subgrade.basic.stack.exception.HandlerException;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步本地缓存处理器。
+ *
+ * <p>
+ * {@link LocalCacheHandler} 的异步版本，读取方法立即返回 {@link CompletableFuture}，
+ * 调用者可以同时发起多个查询，再统一等待其结果。
+ *
+ * <p>
+ * 读取过程中出现的异常以 {@link HandlerException} 的形式使返回的 {@link CompletableFuture} 异常完成。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public interface AsyncLocalCacheHandler<K, V> {
+
+    /**
+     * 异步获取指定的键对应的值是否存在。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的值是否存在的 {@link CompletableFuture}。
+     */
+    CompletableFuture<Boolean> exists(K key);
+
+    /**
+     * 异步获取指定的键对应的值。
+     *
+     * <p>
+     * 如果指定的键不存在，则返回的 {@link CompletableFuture} 以 <code>null</code> 完成。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的值的 {@link CompletableFuture}。
+     */
+    CompletableFuture<V> get(K key);
+
+    /**
+     * 异步获取指定的键对应的值。
+     *
+     * <p>
+     * 返回的映射中只包含存在的键，并保持指定的键的迭代顺序。
+     *
+     * @param keys 指定的键组成的集合。
+     * @return 存在的键与其对应的值组成的映射的 {@link CompletableFuture}。
+     */
+    CompletableFuture<Map<K, V>> getAll(Collection<K> keys);
+
+    /**
+     * 移除指定的键对应的本地缓存。
+     *
+     * @param key 指定的键。
+     * @return 该操作是否改变了本地缓存处理器中的数据。
+     * @throws HandlerException 处理器异常。
+     */
+    boolean remove(K key) throws HandlerException;
+
+    /**
+     * 移除指定的键对应的本地缓存。
+     *
+     * @param keys 指定的键组成的集合。
+     * @return 该操作是否改变了本地缓存处理器中的数据。
+     * @throws HandlerException 处理器异常。
+     */
+    boolean removeAll(Collection<K> keys) throws HandlerException;
+
+    /**
+     * 清除本地缓存。
+     *
+     * @throws HandlerException 处理器异常。
+     */
+    void clear() throws HandlerException;
+
+    /**
+     * 获取统计快照。
+     *
+     * <p>
+     * 默认实现不记录任何统计信息，返回空的统计快照。
+     *
+     * @return 统计快照。
+     * @since 2.0.0
+     */
+    default CacheStats stats() {
+        return CacheStats.empty();
+    }
+}
@@ -1,6 +1,11 @@
 package com.dwarfeng.subgrade.cache.stack.handler;
 
 import com.dwarfeng.subgrade.basic.stack.exception.HandlerException;
+import com.dwarfeng.subgrade.cache.stack.stats.CacheStats;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 本地缓存处理器。
@@ -43,10 +48,67 @@ public interface LocalCacheHandler<K, V> {
      */
     boolean remove(K key) throws HandlerException;
 
+    /**
+     * 获取指定的键对应的值。
+     *
+     * <p>
+     * 返回的映射中只包含存在的键，并保持指定的键的迭代顺序，不存在的键不会出现在返回的映射中。
+     *
+     * <p>
+     * 默认实现逐个调用 {@link #exists(Object)} 与 {@link #get(Object)}，实现类可以覆盖该方法，
+     * 将所有未命中的键合并为一次批量抓取。
+     *
+     * @param keys 指定的键组成的集合。
+     * @return 存在的键与其对应的值组成的映射。
+     * @throws HandlerException 处理器异常。
+     * @since 2.0.0
+     */
+    default Map<K, V> getAll(Collection<K> keys) throws HandlerException {
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (exists(key)) {
+                result.put(key, get(key));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 移除指定的键对应的本地缓存。
+     *
+     * <p>
+     * 默认实现逐个调用 {@link #remove(Object)}。
+     *
+     * @param keys 指定的键组成的集合。
+     * @return 该操作是否改变了本地缓存处理器中的数据。
+     * @throws HandlerException 处理器异常。
+     * @since 2.0.0
+     */
+    default boolean removeAll(Collection<K> keys) throws HandlerException {
+        boolean flag = false;
+        for (K key : keys) {
+            flag |= remove(key);
+        }
+        return flag;
+    }
+
     /**
      * 清除本地缓存。
      *
      * @throws HandlerException 处理器异常。
      */
     void clear() throws HandlerException;
+
+    /**
+     * 获取统计快照。
+     *
+     * <p>
+     * 默认实现不记录任何统计信息，返回空的统计快照。
+     *
+     * @return 统计快照。
+     * @since 2.0.0
+     */
+    default CacheStats stats() {
+        return CacheStats.empty();
+    }
 }
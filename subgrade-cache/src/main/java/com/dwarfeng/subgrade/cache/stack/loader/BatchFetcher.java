@@ -0,0 +1,54 @@
+package com.dwarfeng.subgrade.cache.stack.loader;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 批量抓取器。
+ *
+ * <p>
+ * 批量抓取器能够在一次调用中抓取多个键对应的值，本地缓存处理器批量获取数据时，
+ * 会将所有未命中的键合并为一次 {@link #fetchAll(Collection)} 调用，以减少与数据访问层的通信次数。
+ *
+ * <p>
+ * 单个键的 {@link #exists(Object)}、{@link #fetch(Object)} 与 {@link #fetchIfExists(Object)}
+ * 默认委托给 {@link #fetchAll(Collection)}，
+ * 实现者也可以覆盖这些方法以提供更高效的单键实现。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public interface BatchFetcher<K, V> extends Fetcher<K, V> {
+
+    @Override
+    default boolean exists(K key) throws Exception {
+        return fetchAll(Collections.singletonList(key)).containsKey(key);
+    }
+
+    @Override
+    default V fetch(K key) throws Exception {
+        return fetchAll(Collections.singletonList(key)).get(key);
+    }
+
+    @Override
+    default FetchResult<V> fetchIfExists(K key) throws Exception {
+        Map<K, V> fetchedMap = fetchAll(Collections.singletonList(key));
+        if (fetchedMap.containsKey(key)) {
+            return FetchResult.present(fetchedMap.get(key));
+        }
+        return FetchResult.absent();
+    }
+
+    /**
+     * 抓取指定的键对应的值。
+     *
+     * <p>
+     * 返回的映射中只包含存在的键，不存在的键不应出现在返回的映射中。
+     *
+     * @param keys 指定的键组成的集合。
+     * @return 存在的键与其对应的值组成的映射。
+     * @throws Exception 抓取值的过程中出现的任何异常。
+     */
+    Map<K, V> fetchAll(Collection<K> keys) throws Exception;
+}
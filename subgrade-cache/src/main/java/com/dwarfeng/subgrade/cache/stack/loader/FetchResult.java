@@ -0,0 +1,47 @@
+package com.dwarfeng.subgrade.cache.stack.loader;
+
+import java.util.Objects;
+
+/**
+ * 抓取结果。
+ *
+ * <p>
+ * 抓取结果区分键对应的值不存在与键对应的值为 <code>null</code> 两种情况。
+ *
+ * @param exists 指定的键对应的值是否存在。
+ * @param value  指定的键对应的值，不存在时为 <code>null</code>。
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public record FetchResult<V>(boolean exists, V value) {
+
+    private static final FetchResult<?> ABSENT = new FetchResult<>(false, null);
+
+    public FetchResult {
+        if (!exists && Objects.nonNull(value)) {
+            throw new IllegalArgumentException("值不存在的抓取结果不能包含值");
+        }
+    }
+
+    /**
+     * 返回表示值存在的抓取结果。
+     *
+     * @param value 指定的键对应的值。
+     * @param <V>   值的类型。
+     * @return 表示值存在的抓取结果。
+     */
+    public static <V> FetchResult<V> present(V value) {
+        return new FetchResult<>(true, value);
+    }
+
+    /**
+     * 返回表示值不存在的抓取结果。
+     *
+     * @param <V> 值的类型。
+     * @return 表示值不存在的抓取结果。
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> FetchResult<V> absent() {
+        return (FetchResult<V>) ABSENT;
+    }
+}
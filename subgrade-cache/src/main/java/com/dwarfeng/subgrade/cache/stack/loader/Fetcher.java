@@ -25,4 +25,24 @@ public interface Fetcher<K, V> {
      * @throws Exception 抓取值的过程中出现的任何异常。
      */
     V fetch(K key) throws Exception;
+
+    /**
+     * 抓取指定的键对应的值，值不存在时返回表示不存在的抓取结果。
+     *
+     * <p>
+     * 本地缓存处理器在缓存未命中时调用该方法。默认实现依次调用 {@link #exists(Object)} 与 {@link #fetch(Object)}，
+     * 需要两次访问数据源；数据源能够在一次访问中同时判断存在性并读取值时，实现者应当覆盖该方法，
+     * 使每次未命中只访问一次数据源。
+     *
+     * @param key 指定的键。
+     * @return 抓取结果。
+     * @throws Exception 抓取值的过程中出现的任何异常。
+     * @since 2.0.0
+     */
+    default FetchResult<V> fetchIfExists(K key) throws Exception {
+        if (exists(key)) {
+            return FetchResult.present(fetch(key));
+        }
+        return FetchResult.absent();
+    }
 }
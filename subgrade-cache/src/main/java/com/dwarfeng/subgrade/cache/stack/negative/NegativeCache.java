@@ -0,0 +1,59 @@
+package com.dwarfeng.subgrade.cache.stack.negative;
+
+/**
+ * 负缓存。
+ *
+ * <p>
+ * 负缓存记录已确认不存在的键，使本地缓存处理器在这些键被再次访问时不必重新访问数据源，以防止缓存穿透。
+ *
+ * <p>
+ * 负缓存的实现可以有自己的过期时间与容量限制，也可以是概率性的：
+ * 实现可以在任何时候“忘记”一个键，此时处理器只是重新访问数据源；
+ * 但实现如果把没有添加过的键报告为存在（假阳性），处理器将把一个存在的键误判为不存在，使用者应当了解实现的误判率。
+ *
+ * <p>
+ * 负缓存会被多个线程同时访问，包括在处理器的读锁下同时访问，实现必须线程安全。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public interface NegativeCache<K> {
+
+    /**
+     * 判断指定的键是否被记录为不存在。
+     *
+     * @param key 指定的键。
+     * @return 指定的键是否被记录为不存在。
+     */
+    boolean contains(K key);
+
+    /**
+     * 记录指定的键不存在。
+     *
+     * @param key 指定的键。
+     */
+    void add(K key);
+
+    /**
+     * 移除指定的键的记录。
+     *
+     * @param key 指定的键。
+     * @return 该操作是否改变了负缓存中的数据。
+     */
+    boolean remove(K key);
+
+    /**
+     * 清除所有的记录。
+     */
+    void clear();
+
+    /**
+     * 获取当前记录的数量。
+     *
+     * <p>
+     * 概率性的实现可以返回估计值。
+     *
+     * @return 当前记录的数量。
+     */
+    long size();
+}
@@ -0,0 +1,28 @@
+package com.dwarfeng.subgrade.cache.stack.snapshot;
+
+/**
+ * 快照预加载模式。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public enum PreloadMode {
+
+    /**
+     * 懒加载。
+     *
+     * <p>
+     * 预加载时只读取快照文件并解码键，值保持编码后的形式，在第一次被访问时才解码。
+     * 适用于快照较大、且只有部分数据会被访问的场景。
+     */
+    LAZY,
+
+    /**
+     * 后台加载。
+     *
+     * <p>
+     * 预加载在后台执行器中读取快照文件并解码全部数据，调用者不会被阻塞。
+     * 加载完成之前，未命中的访问照常抓取数据。
+     */
+    BACKGROUND,
+}
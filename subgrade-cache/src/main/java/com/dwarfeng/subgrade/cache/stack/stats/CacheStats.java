@@ -0,0 +1,93 @@
+package com.dwarfeng.subgrade.cache.stack.stats;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 缓存统计快照。
+ *
+ * <p>
+ * 加载耗时直方图的键为区间的上界（包含），单位为纳秒，值为耗时落在该区间内的加载次数，
+ * 最后一个区间的上界为 {@link Long#MAX_VALUE}。
+ *
+ * @param hitCount             命中次数。
+ * @param missCount            未命中次数。
+ * @param negativeHitCount     负命中次数，即命中了已确认不存在的键的记录的次数。
+ * @param loadSuccessCount     成功加载的次数。
+ * @param loadFailureCount     失败加载的次数。
+ * @param totalLoadTime        加载耗费的总时间，单位为纳秒。
+ * @param loadLatencyHistogram 加载耗时直方图。
+ * @param evictionCount        淘汰的缓存项数量。
+ * @param size                 当前的缓存项数量。
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public record CacheStats(
+        long hitCount,
+        long missCount,
+        long negativeHitCount,
+        long loadSuccessCount,
+        long loadFailureCount,
+        long totalLoadTime,
+        @NotNull SortedMap<Long, Long> loadLatencyHistogram,
+        long evictionCount,
+        long size
+) {
+
+    /**
+     * 获取空的统计快照。
+     *
+     * @return 空的统计快照。
+     */
+    public static CacheStats empty() {
+        return new CacheStats(0, 0, 0, 0, 0, 0, new TreeMap<>(), 0, 0);
+    }
+
+    public CacheStats {
+        loadLatencyHistogram = Collections.unmodifiableSortedMap(new TreeMap<>(loadLatencyHistogram));
+    }
+
+    /**
+     * 获取请求次数，即命中、负命中与未命中的次数之和。
+     *
+     * @return 请求次数。
+     */
+    public long requestCount() {
+        return hitCount + negativeHitCount + missCount;
+    }
+
+    /**
+     * 获取命中率。
+     *
+     * <p>
+     * 负命中同样视为命中。没有任何请求时，命中率为 1.0。
+     *
+     * @return 命中率。
+     */
+    public double hitRate() {
+        long requestCount = requestCount();
+        return requestCount == 0 ? 1.0 : (double) (hitCount + negativeHitCount) / requestCount;
+    }
+
+    /**
+     * 获取加载次数，即成功与失败加载的次数之和。
+     *
+     * @return 加载次数。
+     */
+    public long loadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    /**
+     * 获取平均加载耗时。
+     *
+     * @return 平均加载耗时，单位为纳秒，没有任何加载时为 0.0。
+     */
+    public double averageLoadPenalty() {
+        long loadCount = loadCount();
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+}
@@ -0,0 +1,83 @@
+package com.dwarfeng.subgrade.cache.stack.stats;
+
+import com.dwarfeng.subgrade.cache.internal.stats.DisabledStatsCounter;
+
+/**
+ * 统计计数器。
+ *
+ * <p>
+ * 本地缓存处理器在访问、加载与淘汰缓存项时调用统计计数器，统计计数器负责累计这些事件，并生成统计快照。
+ *
+ * <p>
+ * 统计计数器的方法会在缓存处理器的热路径上被调用，实现应当线程安全且开销极低，且不应抛出异常。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public interface StatsCounter {
+
+    /**
+     * 获取不记录任何统计信息的统计计数器。
+     *
+     * <p>
+     * 本地缓存处理器默认使用该统计计数器。
+     *
+     * @return 不记录任何统计信息的统计计数器。
+     */
+    static StatsCounter disabled() {
+        return DisabledStatsCounter.INSTANCE;
+    }
+
+    /**
+     * 记录命中。
+     *
+     * @param count 命中的次数。
+     */
+    void recordHits(int count);
+
+    /**
+     * 记录未命中。
+     *
+     * @param count 未命中的次数。
+     */
+    void recordMisses(int count);
+
+    /**
+     * 记录负命中，即命中了已确认不存在的键的记录。
+     *
+     * @param count 负命中的次数。
+     */
+    void recordNegativeHits(int count);
+
+    /**
+     * 记录一次成功的加载。
+     *
+     * @param loadTime 加载耗费的时间，单位为纳秒。
+     */
+    void recordLoadSuccess(long loadTime);
+
+    /**
+     * 记录一次失败的加载。
+     *
+     * @param loadTime 加载耗费的时间，单位为纳秒。
+     */
+    void recordLoadFailure(long loadTime);
+
+    /**
+     * 记录淘汰。
+     *
+     * <p>
+     * 因容量限制而被淘汰的缓存项，以及因过期而被清理的缓存项，均视为淘汰。
+     *
+     * @param count 被淘汰的缓存项的数量。
+     */
+    void recordEvictions(int count);
+
+    /**
+     * 生成统计快照。
+     *
+     * @param size 缓存处理器当前的缓存项数量。
+     * @return 统计快照。
+     */
+    CacheStats snapshot(long size);
+}
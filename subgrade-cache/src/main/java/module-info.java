@@ -4,9 +4,18 @@ module com.dwarfeng.subgrade.cache {
     requires com.dwarfeng.subgrade.basic;
     requires org.slf4j;
     requires static org.jetbrains.annotations;
+    requires static micrometer.core;
 
     exports com.dwarfeng.subgrade.cache.stack.handler;
     exports com.dwarfeng.subgrade.cache.stack.loader;
+    exports com.dwarfeng.subgrade.cache.stack.eviction;
+    exports com.dwarfeng.subgrade.cache.stack.codec;
+    exports com.dwarfeng.subgrade.cache.stack.stats;
+    exports com.dwarfeng.subgrade.cache.stack.negative;
+    exports com.dwarfeng.subgrade.cache.stack.snapshot;
     exports com.dwarfeng.subgrade.cache.sdk.exception;
     exports com.dwarfeng.subgrade.cache.impl.handler;
+    exports com.dwarfeng.subgrade.cache.impl.expiration;
+    exports com.dwarfeng.subgrade.cache.impl.stats;
+    exports com.dwarfeng.subgrade.cache.impl.negative;
 }
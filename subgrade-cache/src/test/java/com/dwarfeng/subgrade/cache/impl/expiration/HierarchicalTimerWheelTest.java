@@ -0,0 +1,112 @@
+package com.dwarfeng.subgrade.cache.impl.expiration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分层时间轮测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class HierarchicalTimerWheelTest {
+
+    private ScheduledExecutorService scheduler;
+    private HierarchicalTimerWheel timerWheel;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        timerWheel = new HierarchicalTimerWheel(scheduler, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timerWheel.shutdown();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldRunTasksNotBeforeExpireTimestamp() throws Exception {
+        long[] delays = {5, 50, 150, 400};
+        CountDownLatch latch = new CountDownLatch(delays.length);
+        Map<Long, Long> lagMap = new ConcurrentHashMap<>();
+        for (long delay : delays) {
+            long expireTimestamp = System.currentTimeMillis() + delay;
+            timerWheel.schedule(expireTimestamp, () -> {
+                lagMap.put(delay, System.currentTimeMillis() - expireTimestamp);
+                latch.countDown();
+            });
+        }
+
+        // 超过 64 个时间刻度的任务需要经过高层时间轮的重新分配。
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (long delay : delays) {
+            assertTrue(lagMap.get(delay) >= 0, "task " + delay + " ran early: " + lagMap.get(delay));
+        }
+    }
+
+    @Test
+    public void shouldRunExpiredTaskAtNextTick() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        timerWheel.schedule(System.currentTimeMillis() - 1000, latch::countDown);
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldNotRunCancelledTask() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        CountDownLatch latch = new CountDownLatch(1);
+        HierarchicalTimerWheel.Timeout timeout = timerWheel.schedule(
+                System.currentTimeMillis() + 30, () -> ran.set(true)
+        );
+        timerWheel.schedule(System.currentTimeMillis() + 60, latch::countDown);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void shouldContinueAfterTaskFailure() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long expireTimestamp = System.currentTimeMillis() + 10;
+        timerWheel.schedule(expireTimestamp, () -> {
+            throw new IllegalStateException("task failed");
+        });
+        timerWheel.schedule(expireTimestamp, latch::countDown);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldNotRunTasksAfterShutdown() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean(false);
+        timerWheel.schedule(System.currentTimeMillis() + 30, () -> ran.set(true));
+
+        timerWheel.shutdown();
+        Thread.sleep(100);
+
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void shouldRejectNonPositiveTickDuration() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimerWheel(scheduler, 0));
+    }
+}
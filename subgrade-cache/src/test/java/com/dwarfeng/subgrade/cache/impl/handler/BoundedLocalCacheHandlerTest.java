@@ -0,0 +1,160 @@
+package com.dwarfeng.subgrade.cache.impl.handler;
+
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 有界的本地缓存处理器测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class BoundedLocalCacheHandlerTest {
+
+    @Test
+    public void shouldLoadOnceForConcurrentMisses() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetchCount = new AtomicInteger();
+        BoundedLocalCacheHandler<String, String> handler = new BoundedLocalCacheHandler<>(
+                new Fetcher<>() {
+                    @Override
+                    public boolean exists(String key) {
+                        return true;
+                    }
+
+                    @Override
+                    public String fetch(String key) throws Exception {
+                        fetchCount.incrementAndGet();
+                        fetching.countDown();
+                        assertTrue(release.await(5, TimeUnit.SECONDS));
+                        return key.toUpperCase();
+                    }
+                }, 100
+        );
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> handler.get("key")));
+            }
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("KEY", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, fetchCount.get());
+        assertEquals("KEY", handler.get("key"));
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    public void shouldNotLoadAgainAfterConcurrentLoadCompleted() throws Exception {
+        AtomicInteger fetchCount = new AtomicInteger();
+        BoundedLocalCacheHandler<Integer, Integer> handler = new BoundedLocalCacheHandler<>(
+                countingFetcher(fetchCount), 1000
+        );
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int key = 0; key < 200; key++) {
+                        assertEquals(key * 2, handler.get(key));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(200, fetchCount.get());
+    }
+
+    @Test
+    public void shouldRespectMaximumSize() throws Exception {
+        AtomicInteger fetchCount = new AtomicInteger();
+        BoundedLocalCacheHandler<Integer, Integer> handler = new BoundedLocalCacheHandler<>(
+                countingFetcher(fetchCount), 100
+        );
+
+        for (int key = 0; key < 1000; key++) {
+            handler.get(key);
+        }
+
+        assertTrue(handler.size() <= 100);
+        assertTrue(handler.weightedSize() <= 100);
+    }
+
+    @Test
+    public void shouldKeepFrequentlyReadEntries() throws Exception {
+        AtomicInteger fetchCount = new AtomicInteger();
+        BoundedLocalCacheHandler<Integer, Integer> handler = new BoundedLocalCacheHandler<>(
+                countingFetcher(fetchCount), 100
+        );
+        for (int round = 0; round < 10; round++) {
+            for (int key = 0; key < 50; key++) {
+                handler.get(key);
+            }
+        }
+
+        // 一次性的扫描访问不应挤出频繁访问的热点数据。
+        for (int key = 1000; key < 3000; key++) {
+            handler.get(key);
+        }
+        int before = fetchCount.get();
+        for (int key = 0; key < 50; key++) {
+            handler.get(key);
+        }
+
+        assertTrue(fetchCount.get() - before < 10, "hot entries reloaded: " + (fetchCount.get() - before));
+    }
+
+    @Test
+    public void shouldNotCacheRemovedEntry() throws Exception {
+        AtomicInteger fetchCount = new AtomicInteger();
+        BoundedLocalCacheHandler<Integer, Integer> handler = new BoundedLocalCacheHandler<>(
+                countingFetcher(fetchCount), 100
+        );
+        handler.get(1);
+
+        assertTrue(handler.remove(1));
+        handler.get(1);
+
+        assertEquals(2, fetchCount.get());
+    }
+
+    private static Fetcher<Integer, Integer> countingFetcher(AtomicInteger fetchCount) {
+        return new Fetcher<>() {
+            @Override
+            public boolean exists(Integer key) {
+                return true;
+            }
+
+            @Override
+            public Integer fetch(Integer key) {
+                fetchCount.incrementAndGet();
+                return key * 2;
+            }
+        };
+    }
+}
@@ -0,0 +1,157 @@
+package com.dwarfeng.subgrade.cache.impl.handler;
+
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 带过期时间的本地缓存处理器测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class ExpirableLocalCacheHandlerTest {
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldRefreshWithCallerRunsExecutor() throws Exception {
+        AtomicInteger fetchCount = new AtomicInteger();
+        ExpirableLocalCacheHandler<String, Integer> handler = new ExpirableLocalCacheHandler<>(
+                new CountingFetcher(fetchCount, new AtomicBoolean(false)), scheduler, 10000, 0
+        );
+        handler.setRefreshExecutor(Runnable::run);
+        handler.setRefreshThreshold(1);
+        handler.get("key");
+        Thread.sleep(10);
+
+        // 在调用者线程中执行的刷新任务不应因为持有读锁而死锁。
+        Integer value = executor.submit(() -> handler.get("key")).get(5, TimeUnit.SECONDS);
+        assertEquals(1, value);
+        // 刷新任务在调用者线程中执行，返回时刷新已经完成。
+        assertEquals(2, fetchCount.get());
+        assertEquals(2, executor.submit(() -> handler.get("key")).get(5, TimeUnit.SECONDS));
+        assertTrue(executor.submit(() -> handler.exists("key")).get(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.submit(() -> handler.getAll(List.of("key")).size()).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldBackOffAfterRefreshFailure() throws Exception {
+        AtomicInteger fetchCount = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean(false);
+        ExpirableLocalCacheHandler<String, Integer> handler = new ExpirableLocalCacheHandler<>(
+                new CountingFetcher(fetchCount, failing), scheduler, 10000, 0
+        );
+        handler.setRefreshExecutor(Runnable::run);
+        handler.setRefreshThreshold(200);
+        handler.get("key");
+        failing.set(true);
+        Thread.sleep(250);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(1, handler.get("key"));
+        }
+
+        // 失败的刷新只发起一次，直到下一个刷新阈值的时间过去。
+        assertEquals(2, fetchCount.get());
+        Thread.sleep(250);
+        handler.get("key");
+        assertEquals(3, fetchCount.get());
+    }
+
+    @Test
+    public void shouldExpireValue() throws Exception {
+        AtomicInteger fetchCount = new AtomicInteger();
+        ExpirableLocalCacheHandler<String, Integer> handler = new ExpirableLocalCacheHandler<>(
+                new CountingFetcher(fetchCount, new AtomicBoolean(false)), scheduler, 50, 0
+        );
+        handler.get("key");
+        handler.get("key");
+        assertEquals(1, fetchCount.get());
+
+        Thread.sleep(100);
+
+        assertEquals(2, handler.get("key"));
+    }
+
+    @Test
+    public void shouldExpireNegativeRecordWithUpdatedTtl() throws Exception {
+        AtomicInteger existsCount = new AtomicInteger();
+        ExpirableLocalCacheHandler<String, Integer> handler = new ExpirableLocalCacheHandler<>(
+                new Fetcher<>() {
+                    @Override
+                    public boolean exists(String key) {
+                        existsCount.incrementAndGet();
+                        return false;
+                    }
+
+                    @Override
+                    public Integer fetch(String key) {
+                        throw new IllegalStateException();
+                    }
+                }, scheduler, 60000, 0
+        );
+        handler.setTtl(50);
+        assertNull(handler.get("key"));
+        assertNull(handler.get("key"));
+        assertEquals(1, existsCount.get());
+
+        Thread.sleep(100);
+
+        // 不存在的键在新的过期时间之后被重新抓取。
+        assertNull(handler.get("key"));
+        assertEquals(2, existsCount.get());
+    }
+
+    /**
+     * 计数的抓取器，返回值为抓取的次数。
+     */
+    private static final class CountingFetcher implements Fetcher<String, Integer> {
+
+        private final AtomicInteger fetchCount;
+        private final AtomicBoolean failing;
+
+        private CountingFetcher(AtomicInteger fetchCount, AtomicBoolean failing) {
+            this.fetchCount = fetchCount;
+            this.failing = failing;
+        }
+
+        @Override
+        public boolean exists(String key) {
+            return true;
+        }
+
+        @Override
+        public Integer fetch(String key) throws Exception {
+            int count = fetchCount.incrementAndGet();
+            if (failing.get()) {
+                throw new Exception("fetch failed");
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.dwarfeng.subgrade.cache.impl.handler;
+
+import com.dwarfeng.subgrade.cache.stack.codec.ValueCodec;
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import com.dwarfeng.subgrade.cache.stack.snapshot.PreloadMode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地缓存处理器的通用实现测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class GeneralLocalCacheHandlerTest {
+
+    private static final ValueCodec<String> CODEC = new ValueCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    @Test
+    public void shouldRevalidateWithCallerRunsExecutor() throws Exception {
+        Path path = Files.createTempFile("general-local-cache-handler-test", ".snapshot");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            GeneralLocalCacheHandler<String, String> source = new GeneralLocalCacheHandler<>(fetcher("old"));
+            source.getAll(List.of("k0", "k1", "k2"));
+            assertEquals(3, source.saveSnapshot(path, CODEC, CODEC));
+
+            GeneralLocalCacheHandler<String, String> handler = new GeneralLocalCacheHandler<>(fetcher("new"));
+            // 在调用线程中直接执行重新验证，持有锁时提交验证任务会导致死锁。
+            handler.setSnapshotExecutor(Runnable::run);
+            assertEquals(3, handler.preload(path, CODEC, CODEC, PreloadMode.LAZY).get(5, TimeUnit.SECONDS));
+
+            Future<String> future = executor.submit(() -> handler.get("k0"));
+            assertEquals("old-k0", future.get(5, TimeUnit.SECONDS));
+            assertEquals("new-k0", handler.get("k0"));
+
+            Future<Boolean> existsFuture = executor.submit(() -> handler.exists("k1"));
+            assertTrue(existsFuture.get(5, TimeUnit.SECONDS));
+            assertEquals("new-k1", handler.get("k1"));
+
+            Future<Map<String, String>> getAllFuture = executor.submit(() -> handler.getAll(List.of("k2")));
+            assertEquals("old-k2", getAllFuture.get(5, TimeUnit.SECONDS).get("k2"));
+            assertEquals("new-k2", handler.get("k2"));
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static Fetcher<String, String> fetcher(String prefix) {
+        return new Fetcher<>() {
+            @Override
+            public boolean exists(String key) {
+                return true;
+            }
+
+            @Override
+            public String fetch(String key) {
+                return prefix + "-" + key;
+            }
+        };
+    }
+}
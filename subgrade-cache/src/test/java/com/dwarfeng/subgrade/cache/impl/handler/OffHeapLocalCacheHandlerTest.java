@@ -0,0 +1,193 @@
+package com.dwarfeng.subgrade.cache.impl.handler;
+
+import com.dwarfeng.subgrade.cache.impl.stats.ConcurrentStatsCounter;
+import com.dwarfeng.subgrade.cache.stack.codec.ValueCodec;
+import com.dwarfeng.subgrade.cache.stack.loader.Fetcher;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 堆外内存本地缓存处理器测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class OffHeapLocalCacheHandlerTest {
+
+    private static final ValueCodec<String> CODEC = new ValueCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    @Test
+    public void shouldLoadOnceForConcurrentMisses() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetchCount = new AtomicInteger();
+        OffHeapLocalCacheHandler<String, String> handler = new OffHeapLocalCacheHandler<>(
+                new Fetcher<>() {
+                    @Override
+                    public boolean exists(String key) {
+                        return true;
+                    }
+
+                    @Override
+                    public String fetch(String key) throws Exception {
+                        fetchCount.incrementAndGet();
+                        fetching.countDown();
+                        assertTrue(release.await(5, TimeUnit.SECONDS));
+                        return key.toUpperCase();
+                    }
+                }, CODEC, 1024, 4
+        );
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> handler.get("key")));
+            }
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("KEY", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+            handler.close();
+        }
+
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    public void shouldEvictOnlyEntriesOfOldestSlab() throws Exception {
+        Map<String, AtomicInteger> fetchCountMap = new ConcurrentHashMap<>();
+        // 每个值占用 4 + 12 = 16 字节，每个内存块容纳 2 个值。
+        OffHeapLocalCacheHandler<String, String> handler = new OffHeapLocalCacheHandler<>(
+                countingFetcher(fetchCountMap), CODEC, 32, 2
+        );
+        handler.setStatsCounter(new ConcurrentStatsCounter());
+        try {
+            for (String key : List.of("k0", "k1", "k2", "k3")) {
+                assertEquals(valueOf(key), handler.get(key));
+            }
+            // 写入第 5 个值时，最早的内存块被淘汰，其中的 k0、k1 被移除，k2、k3 保留。
+            assertEquals(valueOf("k4"), handler.get("k4"));
+            assertEquals(2, handler.stats().evictionCount());
+
+            assertEquals(valueOf("k2"), handler.get("k2"));
+            assertEquals(valueOf("k3"), handler.get("k3"));
+            assertEquals(1, fetchCountMap.get("k2").get());
+            assertEquals(1, fetchCountMap.get("k3").get());
+            assertEquals(valueOf("k0"), handler.get("k0"));
+            assertEquals(2, fetchCountMap.get("k0").get());
+        } finally {
+            handler.close();
+        }
+    }
+
+    @Test
+    public void shouldRecordEvictionForValueLargerThanSlab() throws Exception {
+        Map<String, AtomicInteger> fetchCountMap = new ConcurrentHashMap<>();
+        OffHeapLocalCacheHandler<String, String> handler = new OffHeapLocalCacheHandler<>(
+                new Fetcher<>() {
+                    @Override
+                    public boolean exists(String key) {
+                        return true;
+                    }
+
+                    @Override
+                    public String fetch(String key) {
+                        fetchCountMap.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                        return "x".repeat(64);
+                    }
+                }, CODEC, 32, 2
+        );
+        handler.setStatsCounter(new ConcurrentStatsCounter());
+        try {
+            assertEquals("x".repeat(64), handler.get("large"));
+            assertEquals("x".repeat(64), handler.get("large"));
+            assertEquals(2, fetchCountMap.get("large").get());
+            assertEquals(2, handler.stats().evictionCount());
+            assertEquals(0, handler.allocatedBytes());
+        } finally {
+            handler.close();
+        }
+    }
+
+    @Test
+    public void shouldNotCacheValueRemovedDuringLoad() throws Exception {
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetchCount = new AtomicInteger();
+        OffHeapLocalCacheHandler<String, String> handler = new OffHeapLocalCacheHandler<>(
+                new Fetcher<>() {
+                    @Override
+                    public boolean exists(String key) {
+                        return true;
+                    }
+
+                    @Override
+                    public String fetch(String key) throws Exception {
+                        if (fetchCount.incrementAndGet() == 1) {
+                            fetching.countDown();
+                            assertTrue(release.await(5, TimeUnit.SECONDS));
+                            return "stale";
+                        }
+                        return "fresh";
+                    }
+                }, CODEC, 1024, 4
+        );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> future = executor.submit(() -> handler.get("key"));
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+            handler.remove("key");
+            release.countDown();
+            assertEquals("stale", future.get(5, TimeUnit.SECONDS));
+            assertEquals("fresh", handler.get("key"));
+        } finally {
+            executor.shutdownNow();
+            handler.close();
+        }
+    }
+
+    private static Fetcher<String, String> countingFetcher(Map<String, AtomicInteger> fetchCountMap) {
+        return new Fetcher<>() {
+            @Override
+            public boolean exists(String key) {
+                return true;
+            }
+
+            @Override
+            public String fetch(String key) {
+                fetchCountMap.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                return valueOf(key);
+            }
+        };
+    }
+
+    private static String valueOf(String key) {
+        return "value-" + key + "-xx";
+    }
+}
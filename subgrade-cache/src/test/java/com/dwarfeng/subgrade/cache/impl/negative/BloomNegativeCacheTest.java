@@ -0,0 +1,85 @@
+package com.dwarfeng.subgrade.cache.impl.negative;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 基于布隆过滤器的负缓存测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class BloomNegativeCacheTest {
+
+    @Test
+    public void shouldContainAddedKeys() {
+        BloomNegativeCache<Integer> negativeCache = new BloomNegativeCache<>(1000, 0.01, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            negativeCache.add(i);
+        }
+
+        // 布隆过滤器没有漏判。
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(negativeCache.contains(i), "key " + i);
+        }
+    }
+
+    @Test
+    public void shouldKeepFalsePositiveRateNearExpectation() {
+        BloomNegativeCache<Integer> negativeCache = new BloomNegativeCache<>(1000, 0.01, 0);
+        for (int i = 0; i < 1000; i++) {
+            negativeCache.add(i);
+        }
+
+        int falsePositiveCount = 0;
+        for (int i = 1000; i < 11000; i++) {
+            if (negativeCache.contains(i)) {
+                falsePositiveCount++;
+            }
+        }
+
+        assertTrue(falsePositiveCount < 300, "false positives: " + falsePositiveCount);
+    }
+
+    @Test
+    public void shouldRemoveRecord() {
+        BloomNegativeCache<String> negativeCache = new BloomNegativeCache<>(100, 0.01, 0);
+        negativeCache.add("key");
+        negativeCache.add("key");
+
+        assertTrue(negativeCache.remove("key"));
+
+        assertFalse(negativeCache.contains("key"));
+    }
+
+    @Test
+    public void shouldExpireRecordAfterTwoGenerations() throws Exception {
+        BloomNegativeCache<String> negativeCache = new BloomNegativeCache<>(100, 0.01, 50);
+        negativeCache.add("key");
+
+        Thread.sleep(30);
+        assertTrue(negativeCache.contains("key"));
+        Thread.sleep(150);
+
+        assertFalse(negativeCache.contains("key"));
+    }
+
+    @Test
+    public void shouldClearRecords() {
+        BloomNegativeCache<String> negativeCache = new BloomNegativeCache<>(100, 0.01, 0);
+        negativeCache.add("key");
+
+        negativeCache.clear();
+
+        assertFalse(negativeCache.contains("key"));
+    }
+
+    @Test
+    public void shouldRejectIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomNegativeCache<>(0, 0.01, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomNegativeCache<>(100, 1.0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomNegativeCache<>(100, 0.0, 0));
+    }
+}
@@ -0,0 +1,81 @@
+package com.dwarfeng.subgrade.cache.impl.negative;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 有界的负缓存测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class BoundedNegativeCacheTest {
+
+    @Test
+    public void shouldContainAddedKey() {
+        BoundedNegativeCache<String> negativeCache = new BoundedNegativeCache<>();
+
+        negativeCache.add("key");
+
+        assertTrue(negativeCache.contains("key"));
+        assertFalse(negativeCache.contains("other"));
+        assertEquals(1, negativeCache.size());
+    }
+
+    @Test
+    public void shouldExpireRecordAfterTtl() throws Exception {
+        BoundedNegativeCache<String> negativeCache = new BoundedNegativeCache<>(50, Long.MAX_VALUE);
+        negativeCache.add("key");
+
+        Thread.sleep(100);
+
+        assertFalse(negativeCache.contains("key"));
+    }
+
+    @Test
+    public void shouldEvictEldestRecordWhenFull() {
+        BoundedNegativeCache<Integer> negativeCache = new BoundedNegativeCache<>(0, 3);
+
+        for (int i = 0; i < 5; i++) {
+            negativeCache.add(i);
+        }
+
+        assertEquals(3, negativeCache.size());
+        assertFalse(negativeCache.contains(0));
+        assertFalse(negativeCache.contains(1));
+        assertTrue(negativeCache.contains(4));
+    }
+
+    @Test
+    public void shouldMoveReaddedRecordToTail() {
+        BoundedNegativeCache<Integer> negativeCache = new BoundedNegativeCache<>(0, 2);
+        negativeCache.add(1);
+        negativeCache.add(2);
+
+        negativeCache.add(1);
+        negativeCache.add(3);
+
+        assertTrue(negativeCache.contains(1));
+        assertFalse(negativeCache.contains(2));
+    }
+
+    @Test
+    public void shouldRemoveAndClearRecords() {
+        BoundedNegativeCache<Integer> negativeCache = new BoundedNegativeCache<>();
+        negativeCache.add(1);
+        negativeCache.add(2);
+
+        assertTrue(negativeCache.remove(1));
+        assertFalse(negativeCache.remove(1));
+        negativeCache.clear();
+
+        assertFalse(negativeCache.contains(2));
+        assertEquals(0, negativeCache.size());
+    }
+
+    @Test
+    public void shouldRejectNegativeMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedNegativeCache<>(0, -1));
+    }
+}
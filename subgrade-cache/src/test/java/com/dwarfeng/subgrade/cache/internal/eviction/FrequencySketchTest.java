@@ -0,0 +1,90 @@
+package com.dwarfeng.subgrade.cache.internal.eviction;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 访问频率草图测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class FrequencySketchTest {
+
+    @Test
+    public void shouldCountIncrements() {
+        FrequencySketch<String> sketch = new FrequencySketch<>();
+        sketch.ensureCapacity(64);
+
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("hot");
+        }
+        sketch.increment("cold");
+
+        assertEquals(5, sketch.frequency("hot"));
+        assertEquals(1, sketch.frequency("cold"));
+        assertEquals(0, sketch.frequency("absent"));
+    }
+
+    @Test
+    public void shouldCapFrequencyAtFifteen() {
+        FrequencySketch<String> sketch = new FrequencySketch<>();
+        sketch.ensureCapacity(1024);
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("hot");
+        }
+
+        assertEquals(15, sketch.frequency("hot"));
+    }
+
+    @Test
+    public void shouldHalveFrequenciesAfterSampleSize() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>();
+        sketch.ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(-1);
+        }
+        int before = sketch.frequency(-1);
+
+        // 采样大小为容量的 10 倍，大量不同元素的访问会触发衰减。
+        for (int i = 0; i < 80; i++) {
+            sketch.increment(i);
+        }
+
+        assertTrue(sketch.frequency(-1) < before);
+    }
+
+    @Test
+    public void shouldKeepFrequenciesWhenGrowing() {
+        FrequencySketch<Integer> sketch = new FrequencySketch<>();
+        sketch.ensureCapacity(8);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j <= i; j++) {
+                sketch.increment(i);
+            }
+        }
+        int[] before = new int[4];
+        for (int i = 0; i < 4; i++) {
+            before[i] = sketch.frequency(i);
+        }
+
+        sketch.ensureCapacity(4096);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(before[i], sketch.frequency(i), "key " + i);
+        }
+    }
+
+    @Test
+    public void shouldClearFrequencies() {
+        FrequencySketch<String> sketch = new FrequencySketch<>();
+        sketch.ensureCapacity(64);
+        sketch.increment("hot");
+
+        sketch.clear();
+
+        assertEquals(0, sketch.frequency("hot"));
+    }
+}
@@ -0,0 +1,603 @@
+package com.dwarfeng.subgrade.data.impl.cache;
+
+import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
+import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.data.internal.i18n.DataMessageKey;
+import com.dwarfeng.subgrade.data.internal.i18n.DataMessages;
+import com.dwarfeng.subgrade.data.sdk.redis.formatter.StringKeyFormatter;
+import com.dwarfeng.subgrade.data.stack.cache.BatchBaseCache;
+import com.dwarfeng.subgrade.data.stack.exception.CacheException;
+import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * 带有本地近缓存的 BatchBaseCache。
+ *
+ * <p>
+ * 本类是一个装饰器，在任意基于 Redis 的 {@link BatchBaseCache} 之前维护一个有界的进程内一级缓存，
+ * 热点数据的读取不再访问 Redis。一级缓存按照最近最少使用的顺序淘汰，每个缓存项在本地超时时间到达后过期。
+ *
+ * <p>
+ * 本节点调用推送、删除或清除方法时，除了更新被装饰的缓存并失效一级缓存，还会通过 Redis 发布/订阅向其它节点广播失效消息，
+ * 其它节点收到消息后移除一级缓存中对应的缓存项。发布/订阅不保证送达，连接中断期间的失效消息会丢失，
+ * 此时其它节点的一级缓存最多在本地超时时间后恢复一致，因此本地超时时间应当设置为业务可以容忍的不一致时间。
+ *
+ * <p>
+ * 一级缓存中保存的是实体的副本，命中时返回的也是副本，调用者修改推送或读取得到的实体不会影响一级缓存。
+ * 默认通过 Java 序列化复制实体，可以通过 {@link #setCopier(UnaryOperator)} 设置更高效的复制方式，
+ * 实体不可变时可以设置为 {@link UnaryOperator#identity()}。
+ *
+ * <p>
+ * 从被装饰的缓存读取数据期间发生的失效会阻止读取结果写入一级缓存。失效按键的哈希值分段记录，
+ * 某个键的失效只影响同一段中的键的写入，不会阻止其它键的写入。
+ *
+ * <p>
+ * 推送与删除不写入一级缓存，只在写入被装饰的缓存之前与之后各失效一次一级缓存：并发的写入在被装饰的缓存中的顺序无法在本地确定，
+ * 写入一级缓存可能保留较早的值；写入之后的失效则阻止与写入并发的读取将写入之前的值写入一级缓存。
+ * 推送的数据在下一次读取时从被装饰的缓存载入一级缓存。
+ *
+ * <p>
+ * 本类实现线程安全。失效消息的格式为：第一行为发送节点的标识，第二行为操作类型，其后每行为一个格式化后的键，
+ * 因此格式化后的键中不能包含换行符。
+ *
+ * <p>
+ * 不再使用本类时，应当调用 {@link #close()} 移除注册在监听容器中的失效消息监听。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class NearBatchBaseCache<K extends Key, E extends Entity<K>>
+        implements BatchBaseCache<K, E>, MessageListener, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NearBatchBaseCache.class);
+
+    /**
+     * 默认的一级缓存容量。
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    /**
+     * 默认的本地超时时间，单位为毫秒。
+     */
+    public static final long DEFAULT_LOCAL_TIMEOUT = 5000L;
+
+    private static final String MESSAGE_DELIMITER = "\n";
+    private static final String OPERATION_INVALIDATE = "I";
+    private static final String OPERATION_CLEAR = "C";
+    private static final int VERSION_STRIPES = 64;
+
+    @NotNull
+    private final BatchBaseCache<K, E> delegate;
+    @NotNull
+    private final StringKeyFormatter<K> formatter;
+    @NotNull
+    private final RedisTemplate<String, ?> template;
+    @NotNull
+    private final RedisMessageListenerContainer listenerContainer;
+    @NotNull
+    private final ChannelTopic topic;
+    @NotNull
+    private final String channel;
+    private final int maximumSize;
+    private final long localTimeout;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Lock lock = new ReentrantLock();
+    private final LinkedHashMap<String, LocalEntry<E>> localMap;
+    private final AtomicLongArray invalidationVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    @NotNull
+    private volatile UnaryOperator<E> copier = NearBatchBaseCache::serializationCopy;
+
+    public NearBatchBaseCache(
+            @NotNull BatchBaseCache<K, E> delegate,
+            @NotNull StringKeyFormatter<K> formatter,
+            @NotNull RedisTemplate<String, ?> template,
+            @NotNull RedisMessageListenerContainer listenerContainer,
+            @NotNull String channel
+    ) {
+        this(delegate, formatter, template, listenerContainer, channel, DEFAULT_MAXIMUM_SIZE, DEFAULT_LOCAL_TIMEOUT);
+    }
+
+    /**
+     * 构造一个带有本地近缓存的 BatchBaseCache，并向指定的监听容器注册失效消息的监听。
+     *
+     * @param delegate          被装饰的缓存。
+     * @param formatter         键的格式化器，用于在失效消息中标识缓存项。
+     * @param template          用于发布失效消息的 Redis 模板。
+     * @param listenerContainer 用于订阅失效消息的监听容器。
+     * @param channel           失效消息的频道，共享同一份数据的节点应当使用相同的频道。
+     * @param maximumSize       一级缓存的容量。
+     * @param localTimeout      本地超时时间，单位为毫秒。
+     */
+    public NearBatchBaseCache(
+            @NotNull BatchBaseCache<K, E> delegate,
+            @NotNull StringKeyFormatter<K> formatter,
+            @NotNull RedisTemplate<String, ?> template,
+            @NotNull RedisMessageListenerContainer listenerContainer,
+            @NotNull String channel,
+            int maximumSize,
+            long localTimeout
+    ) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("一级缓存的容量必须为正数: " + maximumSize);
+        }
+        if (localTimeout <= 0) {
+            throw new IllegalArgumentException("本地超时时间必须为正数: " + localTimeout);
+        }
+        this.delegate = delegate;
+        this.formatter = formatter;
+        this.template = template;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(channel);
+        this.channel = channel;
+        this.maximumSize = maximumSize;
+        this.localTimeout = localTimeout;
+        this.localMap = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry<E>> eldest) {
+                return size() > NearBatchBaseCache.this.maximumSize;
+            }
+        };
+        listenerContainer.addMessageListener(this, topic);
+    }
+
+    @Override
+    public boolean exists(K key) throws CacheException {
+        if (Objects.nonNull(getLocal(formatter.format(key)))) {
+            return true;
+        }
+        return delegate.exists(key);
+    }
+
+    @Override
+    public E get(K key) throws CacheException {
+        return internalGet(key, false);
+    }
+
+    @Override
+    public E getIfExists(K key) throws CacheException {
+        return internalGet(key, true);
+    }
+
+    private E internalGet(K key, boolean ifExists) throws CacheException {
+        String formattedKey = formatter.format(key);
+        LocalEntry<E> localEntry = getLocal(formattedKey);
+        if (Objects.nonNull(localEntry)) {
+            return copier.apply(localEntry.value());
+        }
+        Map<String, Long> versionMap = versionsOf(Collections.singletonList(formattedKey));
+        E entity = ifExists ? delegate.getIfExists(key) : delegate.get(key);
+        if (Objects.nonNull(entity)) {
+            putLocalIfUnchanged(Collections.singletonMap(formattedKey, entity), localTimeout, versionMap);
+        }
+        return entity;
+    }
+
+    @Override
+    public void push(E value, long timeout) throws CacheException {
+        String formattedKey = formatter.format(value.getKey());
+        invalidateLocal(Collections.singletonList(formattedKey));
+        delegate.push(value, timeout);
+        invalidateLocal(Collections.singletonList(formattedKey));
+        publish(OPERATION_INVALIDATE, Collections.singletonList(formattedKey));
+    }
+
+    @Override
+    public void delete(K key) throws CacheException {
+        String formattedKey = formatter.format(key);
+        invalidateLocal(Collections.singletonList(formattedKey));
+        delegate.delete(key);
+        invalidateLocal(Collections.singletonList(formattedKey));
+        publish(OPERATION_INVALIDATE, Collections.singletonList(formattedKey));
+    }
+
+    @Override
+    public void clear() throws CacheException {
+        clearLocal();
+        delegate.clear();
+        publish(OPERATION_CLEAR, Collections.emptyList());
+    }
+
+    @Override
+    public void markAbsent(K key, long timeout) throws CacheException {
+        delegate.markAbsent(key, timeout);
+    }
+
+    @Override
+    public boolean isMarkedAbsent(K key) throws CacheException {
+        return delegate.isMarkedAbsent(key);
+    }
+
+    @Override
+    public void batchMarkAbsent(List<K> keys, long timeout) throws CacheException {
+        delegate.batchMarkAbsent(keys, timeout);
+    }
+
+    @Override
+    public BitSet batchIsMarkedAbsent(List<K> keys) throws CacheException {
+        return delegate.batchIsMarkedAbsent(keys);
+    }
+
+    @Override
+    public long getRemainingTimeout(K key) throws CacheException {
+        return delegate.getRemainingTimeout(key);
+    }
+
+    @Override
+    public boolean tryLockRebuild(K key, String token, long timeout) throws CacheException {
+        return delegate.tryLockRebuild(key, token, timeout);
+    }
+
+    @Override
+    public void unlockRebuild(K key, String token) throws CacheException {
+        delegate.unlockRebuild(key, token);
+    }
+
+    @Override
+    public boolean allExists(List<K> keys) throws CacheException {
+        List<K> missingKeys = new ArrayList<>();
+        for (K key : keys) {
+            if (Objects.isNull(getLocal(formatter.format(key)))) {
+                missingKeys.add(key);
+            }
+        }
+        return missingKeys.isEmpty() || delegate.allExists(missingKeys);
+    }
+
+    @Override
+    public boolean nonExists(List<K> keys) throws CacheException {
+        for (K key : keys) {
+            if (Objects.nonNull(getLocal(formatter.format(key)))) {
+                return false;
+            }
+        }
+        return delegate.nonExists(keys);
+    }
+
+    @Override
+    public BitSet batchExists(List<K> keys) throws CacheException {
+        BitSet bitSet = new BitSet(keys.size());
+        List<Integer> missingIndexes = new ArrayList<>();
+        List<K> missingKeys = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            if (Objects.nonNull(getLocal(formatter.format(key)))) {
+                bitSet.set(i);
+            } else {
+                missingIndexes.add(i);
+                missingKeys.add(key);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            BitSet missingBitSet = delegate.batchExists(missingKeys);
+            for (int i = 0; i < missingIndexes.size(); i++) {
+                if (missingBitSet.get(i)) {
+                    bitSet.set(missingIndexes.get(i));
+                }
+            }
+        }
+        return bitSet;
+    }
+
+    @Override
+    public List<E> batchGet(List<K> keys) throws CacheException {
+        return internalBatchGet(keys, false);
+    }
+
+    @Override
+    public List<E> batchGetIfExists(List<K> keys) throws CacheException {
+        return internalBatchGet(keys, true);
+    }
+
+    private List<E> internalBatchGet(List<K> keys, boolean ifExists) throws CacheException {
+        List<E> entities = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        List<Integer> missingIndexes = new ArrayList<>();
+        List<K> missingKeys = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            LocalEntry<E> localEntry = getLocal(formatter.format(key));
+            if (Objects.nonNull(localEntry)) {
+                entities.set(i, copier.apply(localEntry.value()));
+            } else {
+                missingIndexes.add(i);
+                missingKeys.add(key);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            List<String> missingFormattedKeys = new ArrayList<>(missingKeys.size());
+            for (K key : missingKeys) {
+                missingFormattedKeys.add(formatter.format(key));
+            }
+            Map<String, Long> versionMap = versionsOf(missingFormattedKeys);
+            List<E> missingEntities = ifExists
+                    ? delegate.batchGetIfExists(missingKeys) : delegate.batchGet(missingKeys);
+            Map<String, E> loadedMap = new HashMap<>();
+            for (int i = 0; i < missingIndexes.size(); i++) {
+                E entity = missingEntities.get(i);
+                entities.set(missingIndexes.get(i), entity);
+                if (Objects.nonNull(entity)) {
+                    loadedMap.put(missingFormattedKeys.get(i), entity);
+                }
+            }
+            putLocalIfUnchanged(loadedMap, localTimeout, versionMap);
+        }
+        return entities;
+    }
+
+    @Override
+    public void batchPush(List<E> entities, long timeout) throws CacheException {
+        List<String> formattedKeys = new ArrayList<>(entities.size());
+        for (E entity : entities) {
+            formattedKeys.add(formatter.format(entity.getKey()));
+        }
+        invalidateLocal(formattedKeys);
+        delegate.batchPush(entities, timeout);
+        invalidateLocal(formattedKeys);
+        publish(OPERATION_INVALIDATE, formattedKeys);
+    }
+
+    @Override
+    public void batchDelete(List<K> keys) throws CacheException {
+        List<String> formattedKeys = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            formattedKeys.add(formatter.format(key));
+        }
+        invalidateLocal(formattedKeys);
+        delegate.batchDelete(keys);
+        invalidateLocal(formattedKeys);
+        publish(OPERATION_INVALIDATE, formattedKeys);
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        try {
+            String[] lines = new String(message.getBody(), StandardCharsets.UTF_8).split(MESSAGE_DELIMITER, -1);
+            if (lines.length < 2) {
+                throw new IllegalArgumentException("失效消息格式不正确");
+            }
+            // 忽略本节点发出的失效消息，本节点的一级缓存在发出消息之前已经失效。
+            if (Objects.equals(nodeId, lines[0])) {
+                return;
+            }
+            switch (lines[1]) {
+                case OPERATION_CLEAR -> clearLocal();
+                case OPERATION_INVALIDATE -> invalidateLocal(Arrays.asList(lines).subList(2, lines.length));
+                default -> throw new IllegalArgumentException("未知的失效操作: " + lines[1]);
+            }
+        } catch (Exception e) {
+            // 无法解析的消息只能通过清空一级缓存保证一致性。
+            LOGGER.warn(DataMessages.message(DataMessageKey.NEAR_CACHE_MESSAGE_INVALID, channel), e);
+            clearLocal();
+        }
+    }
+
+    private LocalEntry<E> getLocal(String formattedKey) {
+        lock.lock();
+        try {
+            LocalEntry<E> localEntry = localMap.get(formattedKey);
+            if (Objects.isNull(localEntry)) {
+                return null;
+            }
+            if (System.currentTimeMillis() > localEntry.expireTimestamp()) {
+                localMap.remove(formattedKey);
+                return null;
+            }
+            return localEntry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取指定的键所在分段的失效版本。
+     *
+     * @param formattedKeys 格式化后的键组成的列表。
+     * @return 格式化后的键与失效版本组成的映射。
+     */
+    private Map<String, Long> versionsOf(List<String> formattedKeys) {
+        Map<String, Long> versionMap = new HashMap<>();
+        for (String formattedKey : formattedKeys) {
+            versionMap.put(formattedKey, invalidationVersions.get(stripeOf(formattedKey)));
+        }
+        return versionMap;
+    }
+
+    /**
+     * 将指定的数据中，自指定的版本以来所在分段没有发生失效的数据写入一级缓存。
+     *
+     * <p>
+     * 从被装饰的缓存读取数据期间，数据可能被其它线程或节点修改，此时读取到的数据可能已经过时，不应写入一级缓存。
+     * 写入一级缓存的是数据的副本。
+     *
+     * @param entityMap  格式化后的键与数据组成的映射。
+     * @param timeout    数据在一级缓存中的超时时间。
+     * @param versionMap 读取数据之前，格式化后的键与其所在分段的失效版本组成的映射。
+     */
+    private void putLocalIfUnchanged(Map<String, E> entityMap, long timeout, Map<String, Long> versionMap) {
+        if (entityMap.isEmpty() || timeout <= 0) {
+            return;
+        }
+        // 复制在锁外进行。
+        Map<String, E> copiedMap = new LinkedHashMap<>();
+        for (Map.Entry<String, E> entry : entityMap.entrySet()) {
+            copiedMap.put(entry.getKey(), copier.apply(entry.getValue()));
+        }
+        lock.lock();
+        try {
+            long expireTimestamp = System.currentTimeMillis() + timeout;
+            for (Map.Entry<String, E> entry : copiedMap.entrySet()) {
+                String formattedKey = entry.getKey();
+                if (invalidationVersions.get(stripeOf(formattedKey)) != versionMap.get(formattedKey)) {
+                    continue;
+                }
+                localMap.put(formattedKey, new LocalEntry<>(entry.getValue(), expireTimestamp));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void invalidateLocal(List<String> formattedKeys) {
+        lock.lock();
+        try {
+            for (String formattedKey : formattedKeys) {
+                invalidationVersions.incrementAndGet(stripeOf(formattedKey));
+                localMap.remove(formattedKey);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void clearLocal() {
+        lock.lock();
+        try {
+            for (int i = 0; i < VERSION_STRIPES; i++) {
+                invalidationVersions.incrementAndGet(i);
+            }
+            localMap.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int stripeOf(String formattedKey) {
+        int hash = formattedKey.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * 通过 Java 序列化复制指定的实体。
+     *
+     * @param entity 指定的实体。
+     * @param <E>    实体的类型。
+     * @return 实体的副本。
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Entity<?>> E serializationCopy(E entity) {
+        try {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+                objectOutputStream.writeObject(entity);
+            }
+            try (ObjectInputStream objectInputStream = new ObjectInputStream(
+                    new ByteArrayInputStream(byteArrayOutputStream.toByteArray())
+            )) {
+                return (E) objectInputStream.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("无法通过序列化复制实体: " + entity, e);
+        }
+    }
+
+    /**
+     * 移除注册在监听容器中的失效消息监听，并清空一级缓存。
+     *
+     * <p>
+     * 关闭后本节点不再接收其它节点的失效消息，不应再使用本缓存。
+     */
+    @Override
+    public void close() {
+        listenerContainer.removeMessageListener(this, topic);
+        clearLocal();
+    }
+
+    /**
+     * 向其它节点广播失效消息。
+     *
+     * <p>
+     * 被装饰的缓存已经更新，广播失败时只记录日志，其它节点的一级缓存将在本地超时时间后恢复一致。
+     *
+     * @param operation     操作类型。
+     * @param formattedKeys 格式化后的键组成的列表。
+     */
+    private void publish(String operation, List<String> formattedKeys) {
+        StringJoiner joiner = new StringJoiner(MESSAGE_DELIMITER);
+        joiner.add(nodeId).add(operation);
+        formattedKeys.forEach(joiner::add);
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        byte[] messageBytes = joiner.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            template.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, messageBytes));
+        } catch (Exception e) {
+            LOGGER.warn(DataMessages.message(DataMessageKey.NEAR_CACHE_PUBLISH_FAILED, channel), e);
+        }
+    }
+
+    @NotNull
+    public BatchBaseCache<K, E> getDelegate() {
+        return delegate;
+    }
+
+    @NotNull
+    public StringKeyFormatter<K> getFormatter() {
+        return formatter;
+    }
+
+    @NotNull
+    public RedisTemplate<String, ?> getTemplate() {
+        return template;
+    }
+
+    @NotNull
+    public String getChannel() {
+        return channel;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getLocalTimeout() {
+        return localTimeout;
+    }
+
+    @NotNull
+    public UnaryOperator<E> getCopier() {
+        return copier;
+    }
+
+    /**
+     * 设置实体的复制方式。
+     *
+     * <p>
+     * 写入一级缓存时，以及从一级缓存返回实体时，使用该方式复制实体。默认通过 Java 序列化复制实体。
+     *
+     * @param copier 实体的复制方式。
+     */
+    public void setCopier(@NotNull UnaryOperator<E> copier) {
+        this.copier = copier;
+    }
+
+    @Override
+    public String toString() {
+        return "NearBatchBaseCache{" +
+                "delegate=" + delegate +
+                ", formatter=" + formatter +
+                ", template=" + template +
+                ", channel='" + channel + '\'' +
+                ", maximumSize=" + maximumSize +
+                ", localTimeout=" + localTimeout +
+                '}';
+    }
+
+    private record LocalEntry<E>(E value, long expireTimestamp) {
+    }
+}
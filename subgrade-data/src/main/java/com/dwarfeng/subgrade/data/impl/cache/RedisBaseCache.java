@@ -4,16 +4,23 @@ import com.dwarfeng.subgrade.basic.stack.bean.Bean;
 import com.dwarfeng.subgrade.basic.stack.bean.BeanTransformer;
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.data.internal.redis.RedisChunkUtil;
+import com.dwarfeng.subgrade.data.internal.redis.RedisClearSupport;
+import com.dwarfeng.subgrade.data.internal.redis.RedisLockSupport;
+import com.dwarfeng.subgrade.data.internal.redis.RedisTombstoneSupport;
 import com.dwarfeng.subgrade.data.sdk.redis.formatter.StringKeyFormatter;
 import com.dwarfeng.subgrade.data.stack.cache.BaseCache;
 import com.dwarfeng.subgrade.data.stack.exception.CacheException;
 import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.NonNull;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 
 import java.time.Duration;
-import java.util.Collections;
-import java.util.Optional;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 使用 Redis 实现的 BaseCache。
@@ -21,6 +28,12 @@ import java.util.Set;
  * <p>
  * 该类只提供最基本的方法实现，没有添加任何事务，请通过代理的方式在代理类中添加事务。
  *
+ * <p>
+ * 缓存的清除方式由清除模式决定，详见 {@link RedisClearMode}。
+ *
+ * <p>
+ * 推送实体时，与写入实体同一次流水线中删除该实体的不存在标记。
+ *
  * @author DwArFeng
  * @since 0.0.1-beta
  */
@@ -33,6 +46,8 @@ public class RedisBaseCache<K extends Key, E extends Entity<K>, JE extends Bean>
     @NotNull
     private BeanTransformer<E, JE> transformer;
 
+    private final RedisClearSupport clearSupport = new RedisClearSupport();
+
     public RedisBaseCache(
             @NotNull RedisTemplate<String, JE> template,
             @NotNull StringKeyFormatter<K> formatter,
@@ -63,14 +78,32 @@ public class RedisBaseCache<K extends Key, E extends Entity<K>, JE extends Bean>
         }
     }
 
+    @Override
+    public E getIfExists(K key) throws CacheException {
+        try {
+            JE je = template.opsForValue().get(formatKey(key));
+            return Objects.isNull(je) ? null : transformer.reverseTransform(je);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
     @Override
     public void push(E value, long timeout) throws CacheException {
         try {
-            template.opsForValue().set(
-                    formatKey(value.getKey()),
-                    transformer.transform(value),
-                    Duration.ofMillis(timeout)
-            );
+            String formattedKey = formatKey(value.getKey());
+            JE je = transformer.transform(value);
+            Duration duration = Duration.ofMillis(timeout);
+            template.executePipelined(new SessionCallback<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <RK, RV> Object execute(@NonNull RedisOperations<RK, RV> operations) {
+                    RedisOperations<String, JE> redisOperations = (RedisOperations<String, JE>) operations;
+                    redisOperations.opsForValue().set(formattedKey, je, duration);
+                    redisOperations.delete(RedisTombstoneSupport.tombstoneKey(formattedKey));
+                    return null;
+                }
+            });
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -79,7 +112,71 @@ public class RedisBaseCache<K extends Key, E extends Entity<K>, JE extends Bean>
     @Override
     public void delete(K key) throws CacheException {
         try {
-            template.delete(formatKey(key));
+            String formattedKey = formatKey(key);
+            template.delete(Arrays.asList(formattedKey, RedisTombstoneSupport.tombstoneKey(formattedKey)));
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 标记存储在格式化后的键追加 <code>@absent</code> 得到的键中，与实体使用相同的清除方式。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public void markAbsent(K key, long timeout) throws CacheException {
+        try {
+            RedisTombstoneSupport.markAbsent(template, formatKey(key), timeout);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public boolean isMarkedAbsent(K key) throws CacheException {
+        try {
+            return RedisTombstoneSupport.isMarkedAbsent(template, formatKey(key));
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public long getRemainingTimeout(K key) throws CacheException {
+        try {
+            Long remainingTimeout = template.getExpire(formatKey(key), TimeUnit.MILLISECONDS);
+            // 键不存在时返回 -2，没有超时时间时返回 -1。
+            return Objects.isNull(remainingTimeout) || remainingTimeout < 0 ? -1L : remainingTimeout;
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 锁存储在格式化后的键追加 <code>@lock</code> 得到的键中，使用 <code>SET ... NX PX</code> 获取。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public boolean tryLockRebuild(K key, String token, long timeout) throws CacheException {
+        try {
+            return RedisLockSupport.tryLock(template, formatKey(key), token, timeout);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public void unlockRebuild(K key, String token) throws CacheException {
+        try {
+            RedisLockSupport.unlock(template, formatKey(key), token);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -88,15 +185,14 @@ public class RedisBaseCache<K extends Key, E extends Entity<K>, JE extends Bean>
     @Override
     public void clear() throws CacheException {
         try {
-            Set<String> keys = Optional.of(template.keys(formatter.generalFormat())).orElse(Collections.emptySet());
-            template.delete(keys);
+            clearSupport.clear(template, formatter.generalFormat(), RedisChunkUtil.DEFAULT_CHUNK_SIZE);
         } catch (Exception e) {
             throw new CacheException(e);
         }
     }
 
     private String formatKey(K key) {
-        return formatter.format(key);
+        return formatter.format(key) + clearSupport.suffix(template, formatter.generalFormat());
     }
 
     @NotNull
@@ -126,12 +222,69 @@ public class RedisBaseCache<K extends Key, E extends Entity<K>, JE extends Bean>
         this.transformer = transformer;
     }
 
+    @NotNull
+    public RedisClearMode getClearMode() {
+        return clearSupport.getClearMode();
+    }
+
+    /**
+     * 设置清除模式。
+     *
+     * <p>
+     * 默认的清除模式为 {@link RedisClearMode#KEYS}。切换清除模式后，原有的缓存数据可能无法再被访问，
+     * 应当在缓存为空、或缓存数据可以丢弃时切换。
+     *
+     * @param clearMode 清除模式。
+     * @see RedisClearMode
+     * @since 2.0.0
+     */
+    public void setClearMode(@NotNull RedisClearMode clearMode) {
+        clearSupport.setClearMode(clearMode);
+    }
+
+    public String getGenerationKey() {
+        return clearSupport.getGenerationKey();
+    }
+
+    /**
+     * 设置存储代数的键。
+     *
+     * <p>
+     * 仅在清除模式为 {@link RedisClearMode#GENERATION} 时使用。为 <code>null</code> 时，
+     * 使用 <code>subgrade:generation:</code> 与格式化器的通用格式拼接得到的键。
+     *
+     * @param generationKey 存储代数的键。
+     * @since 2.0.0
+     */
+    public void setGenerationKey(String generationKey) {
+        clearSupport.setGenerationKey(generationKey);
+    }
+
+    public long getGenerationRefreshInterval() {
+        return clearSupport.getGenerationRefreshInterval();
+    }
+
+    /**
+     * 设置代数的刷新间隔。
+     *
+     * <p>
+     * 仅在清除模式为 {@link RedisClearMode#GENERATION} 时使用。在刷新间隔内，代数从本地读取；
+     * 为 0 时，每次操作都从 Redis 读取代数，其它节点的清除立即生效，但每次操作多一次网络往返。默认值为 1000。
+     *
+     * @param generationRefreshInterval 代数的刷新间隔，单位为毫秒。
+     * @since 2.0.0
+     */
+    public void setGenerationRefreshInterval(long generationRefreshInterval) {
+        clearSupport.setGenerationRefreshInterval(generationRefreshInterval);
+    }
+
     @Override
     public String toString() {
         return "RedisBaseCache{" +
                 "template=" + template +
                 ", formatter=" + formatter +
                 ", transformer=" + transformer +
+                ", clearSupport=" + clearSupport +
                 '}';
     }
 }
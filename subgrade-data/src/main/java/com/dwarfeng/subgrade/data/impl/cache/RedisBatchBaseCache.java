@@ -4,14 +4,23 @@ import com.dwarfeng.subgrade.basic.stack.bean.Bean;
 import com.dwarfeng.subgrade.basic.stack.bean.BeanTransformer;
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.data.internal.redis.RedisChunkUtil;
+import com.dwarfeng.subgrade.data.internal.redis.RedisClearSupport;
+import com.dwarfeng.subgrade.data.internal.redis.RedisLockSupport;
+import com.dwarfeng.subgrade.data.internal.redis.RedisTombstoneSupport;
 import com.dwarfeng.subgrade.data.sdk.redis.formatter.StringKeyFormatter;
 import com.dwarfeng.subgrade.data.stack.cache.BatchBaseCache;
 import com.dwarfeng.subgrade.data.stack.exception.CacheException;
 import org.jetbrains.annotations.NotNull;
+import org.jspecify.annotations.NonNull;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 使用 Redis 实现的 BaseCache。
@@ -19,6 +28,16 @@ import java.util.*;
  * <p>
  * 该类只提供最基本的方法实现，没有添加任何事务，请通过代理的方式在代理类中添加事务。
  *
+ * <p>
+ * 缓存的清除方式由清除模式决定，详见 {@link RedisClearMode}。在 {@link RedisClearMode#SCAN} 模式下，每批删除的键的数量与块大小相同。
+ *
+ * <p>
+ * 批量操作按块执行，每块只需要一次网络往返：批量获取使用 <code>MGET</code>，批量推送使用流水线化的 <code>SET ... PX</code>，
+ * 批量删除使用多键 <code>DEL</code>。批量存在性查询使用多键 <code>EXISTS</code>，需要逐键结果时使用流水线化的 <code>EXISTS</code>。
+ * 批量查询不存在标记使用 <code>MGET</code>，批量写入不存在标记使用流水线化的 <code>SET ... PX</code>。
+ * 推送实体时，与写入实体同一次流水线中删除该实体的不存在标记。
+ * 块大小可以通过 {@link #setChunkSize(int)} 设置。
+ *
  * @author DwArFeng
  * @since 0.0.1-beta
  */
@@ -31,6 +50,10 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
     @NotNull
     private BeanTransformer<E, JE> transformer;
 
+    private final RedisClearSupport clearSupport = new RedisClearSupport();
+
+    private int chunkSize = RedisChunkUtil.DEFAULT_CHUNK_SIZE;
+
     public RedisBatchBaseCache(
             @NotNull RedisTemplate<String, JE> template,
             @NotNull StringKeyFormatter<K> formatter,
@@ -59,6 +82,16 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
         }
     }
 
+    @Override
+    public E getIfExists(K key) throws CacheException {
+        try {
+            JE je = template.opsForValue().get(formatKey(key));
+            return Objects.isNull(je) ? null : transformer.reverseTransform(je);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
     @Override
     public void push(E value, long timeout) throws CacheException {
         try {
@@ -77,11 +110,102 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 标记存储在格式化后的键追加 <code>@absent</code> 得到的键中，与实体使用相同的清除方式。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public void markAbsent(K key, long timeout) throws CacheException {
+        try {
+            RedisTombstoneSupport.markAbsent(template, formatKey(key), timeout);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public boolean isMarkedAbsent(K key) throws CacheException {
+        try {
+            return RedisTombstoneSupport.isMarkedAbsent(template, formatKey(key));
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public void batchMarkAbsent(List<K> keys, long timeout) throws CacheException {
+        try {
+            for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+                RedisTombstoneSupport.batchMarkAbsent(template, formatKeys(chunk), timeout);
+            }
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public BitSet batchIsMarkedAbsent(List<K> keys) throws CacheException {
+        try {
+            BitSet bitSet = new BitSet(keys.size());
+            int offset = 0;
+            for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+                BitSet chunkBitSet = RedisTombstoneSupport.batchIsMarkedAbsent(template, formatKeys(chunk));
+                for (int i = chunkBitSet.nextSetBit(0); i >= 0; i = chunkBitSet.nextSetBit(i + 1)) {
+                    bitSet.set(offset + i);
+                }
+                offset += chunk.size();
+            }
+            return bitSet;
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public long getRemainingTimeout(K key) throws CacheException {
+        try {
+            Long remainingTimeout = template.getExpire(formatKey(key), TimeUnit.MILLISECONDS);
+            // 键不存在时返回 -2，没有超时时间时返回 -1。
+            return Objects.isNull(remainingTimeout) || remainingTimeout < 0 ? -1L : remainingTimeout;
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 锁存储在格式化后的键追加 <code>@lock</code> 得到的键中，使用 <code>SET ... NX PX</code> 获取。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public boolean tryLockRebuild(K key, String token, long timeout) throws CacheException {
+        try {
+            return RedisLockSupport.tryLock(template, formatKey(key), token, timeout);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public void unlockRebuild(K key, String token) throws CacheException {
+        try {
+            RedisLockSupport.unlock(template, formatKey(key), token);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
     @Override
     public void clear() throws CacheException {
         try {
-            Set<String> keys = Optional.of(template.keys(formatter.generalFormat())).orElse(Collections.emptySet());
-            template.delete(keys);
+            clearSupport.clear(template, formatter.generalFormat(), chunkSize);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -98,22 +222,32 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
     }
 
     private void internalPush(E value, long timeout) {
-        template.opsForValue().set(
-                formatKey(value.getKey()),
-                transformer.transform(value),
-                Duration.ofMillis(timeout)
-        );
+        String formattedKey = formatKey(value.getKey());
+        JE je = transformer.transform(value);
+        Duration duration = Duration.ofMillis(timeout);
+        template.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <RK, RV> Object execute(@NonNull RedisOperations<RK, RV> operations) {
+                RedisOperations<String, JE> redisOperations = (RedisOperations<String, JE>) operations;
+                redisOperations.opsForValue().set(formattedKey, je, duration);
+                redisOperations.delete(RedisTombstoneSupport.tombstoneKey(formattedKey));
+                return null;
+            }
+        });
     }
 
     private void internalDelete(K key) {
-        template.delete(formatKey(key));
+        String formattedKey = formatKey(key);
+        template.delete(Arrays.asList(formattedKey, RedisTombstoneSupport.tombstoneKey(formattedKey)));
     }
 
     @Override
     public boolean allExists(List<K> keys) throws CacheException {
         try {
-            for (K key : keys) {
-                if (!internalExists(key)) return false;
+            for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+                // 多键 EXISTS 对重复的键重复计数，因此计数与块大小相等即表示全部存在。
+                if (countExistingKeys(chunk) != chunk.size()) return false;
             }
             return true;
         } catch (Exception e) {
@@ -124,8 +258,8 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
     @Override
     public boolean nonExists(List<K> keys) throws CacheException {
         try {
-            for (K key : keys) {
-                if (internalExists(key)) return false;
+            for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+                if (countExistingKeys(chunk) != 0) return false;
             }
             return true;
         } catch (Exception e) {
@@ -134,23 +268,105 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
     }
 
     @Override
-    public List<E> batchGet(List<K> keys) throws CacheException {
+    public BitSet batchExists(List<K> keys) throws CacheException {
         try {
-            List<E> entities = new ArrayList<>();
-            for (K key : keys) {
-                entities.add(internalGet(key));
+            BitSet bitSet = new BitSet(keys.size());
+            int offset = 0;
+            for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+                List<String> formattedKeys = formatKeys(chunk);
+                List<Object> results = template.executePipelined(new SessionCallback<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <RK, RV> Object execute(@NonNull RedisOperations<RK, RV> operations) {
+                        RedisOperations<String, JE> redisOperations = (RedisOperations<String, JE>) operations;
+                        for (String formattedKey : formattedKeys) {
+                            redisOperations.hasKey(formattedKey);
+                        }
+                        return null;
+                    }
+                });
+                for (int i = 0; i < results.size(); i++) {
+                    if (Boolean.TRUE.equals(results.get(i))) {
+                        bitSet.set(offset + i);
+                    }
+                }
+                offset += chunk.size();
             }
-            return entities;
+            return bitSet;
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    private long countExistingKeys(List<K> keys) {
+        Long count = template.countExistingKeys(formatKeys(keys));
+        // 在流水线或事务中执行时，返回值为 null。
+        if (Objects.isNull(count)) {
+            throw new IllegalStateException("EXISTS 命令没有返回结果");
+        }
+        return count;
+    }
+
+    @Override
+    public List<E> batchGet(List<K> keys) throws CacheException {
+        try {
+            return internalBatchGet(keys);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public List<E> batchGetIfExists(List<K> keys) throws CacheException {
+        try {
+            return internalBatchGet(keys);
         } catch (Exception e) {
             throw new CacheException(e);
         }
     }
 
+    private List<E> internalBatchGet(List<K> keys) {
+        List<E> entities = new ArrayList<>(keys.size());
+        for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+            List<JE> jes = template.opsForValue().multiGet(formatKeys(chunk));
+            // 在流水线或事务中执行时，返回值为 null。
+            if (Objects.isNull(jes)) {
+                throw new IllegalStateException("MGET 命令没有返回结果");
+            }
+            // 不存在的键对应 null。
+            for (JE je : jes) {
+                entities.add(Objects.isNull(je) ? null : transformer.reverseTransform(je));
+            }
+        }
+        return entities;
+    }
+
     @Override
     public void batchPush(List<E> entities, long timeout) throws CacheException {
         try {
-            for (E entity : entities) {
-                internalPush(entity, timeout);
+            Duration duration = Duration.ofMillis(timeout);
+            for (List<E> chunk : RedisChunkUtil.chunk(entities, chunkSize)) {
+                // 键必须在流水线之外格式化：GENERATION 模式下格式化可能需要读取代数，而流水线中的命令不返回结果。
+                List<K> keys = new ArrayList<>(chunk.size());
+                for (E entity : chunk) {
+                    keys.add(entity.getKey());
+                }
+                List<String> formattedKeys = formatKeys(keys);
+                template.executePipelined(new SessionCallback<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <RK, RV> Object execute(@NonNull RedisOperations<RK, RV> operations) {
+                        RedisOperations<String, JE> redisOperations = (RedisOperations<String, JE>) operations;
+                        ValueOperations<String, JE> valueOperations = redisOperations.opsForValue();
+                        List<String> tombstoneKeys = new ArrayList<>(formattedKeys.size());
+                        for (int i = 0; i < chunk.size(); i++) {
+                            valueOperations.set(formattedKeys.get(i), transformer.transform(chunk.get(i)), duration);
+                            tombstoneKeys.add(RedisTombstoneSupport.tombstoneKey(formattedKeys.get(i)));
+                        }
+                        redisOperations.delete(tombstoneKeys);
+                        return null;
+                    }
+                });
             }
         } catch (Exception e) {
             throw new CacheException(e);
@@ -160,8 +376,14 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
     @Override
     public void batchDelete(List<K> keys) throws CacheException {
         try {
-            for (K key : keys) {
-                internalDelete(key);
+            for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+                List<String> formattedKeys = formatKeys(chunk);
+                List<String> deletedKeys = new ArrayList<>(formattedKeys.size() * 2);
+                for (String formattedKey : formattedKeys) {
+                    deletedKeys.add(formattedKey);
+                    deletedKeys.add(RedisTombstoneSupport.tombstoneKey(formattedKey));
+                }
+                template.delete(deletedKeys);
             }
         } catch (Exception e) {
             throw new CacheException(e);
@@ -169,7 +391,17 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
     }
 
     private String formatKey(K key) {
-        return formatter.format(key);
+        return formatter.format(key) + clearSupport.suffix(template, formatter.generalFormat());
+    }
+
+    private List<String> formatKeys(List<K> keys) {
+        // 一次批量操作只读取一次代数。
+        String suffix = clearSupport.suffix(template, formatter.generalFormat());
+        List<String> formattedKeys = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            formattedKeys.add(formatter.format(key) + suffix);
+        }
+        return formattedKeys;
     }
 
     @NotNull
@@ -199,12 +431,88 @@ public class RedisBatchBaseCache<K extends Key, E extends Entity<K>, JE extends
         this.transformer = transformer;
     }
 
+    @NotNull
+    public RedisClearMode getClearMode() {
+        return clearSupport.getClearMode();
+    }
+
+    /**
+     * 设置清除模式。
+     *
+     * <p>
+     * 默认的清除模式为 {@link RedisClearMode#KEYS}。切换清除模式后，原有的缓存数据可能无法再被访问，
+     * 应当在缓存为空、或缓存数据可以丢弃时切换。
+     *
+     * @param clearMode 清除模式。
+     * @see RedisClearMode
+     * @since 2.0.0
+     */
+    public void setClearMode(@NotNull RedisClearMode clearMode) {
+        clearSupport.setClearMode(clearMode);
+    }
+
+    public String getGenerationKey() {
+        return clearSupport.getGenerationKey();
+    }
+
+    /**
+     * 设置存储代数的键。
+     *
+     * <p>
+     * 仅在清除模式为 {@link RedisClearMode#GENERATION} 时使用。为 <code>null</code> 时，
+     * 使用 <code>subgrade:generation:</code> 与格式化器的通用格式拼接得到的键。
+     *
+     * @param generationKey 存储代数的键。
+     * @since 2.0.0
+     */
+    public void setGenerationKey(String generationKey) {
+        clearSupport.setGenerationKey(generationKey);
+    }
+
+    public long getGenerationRefreshInterval() {
+        return clearSupport.getGenerationRefreshInterval();
+    }
+
+    /**
+     * 设置代数的刷新间隔。
+     *
+     * <p>
+     * 仅在清除模式为 {@link RedisClearMode#GENERATION} 时使用。在刷新间隔内，代数从本地读取；
+     * 为 0 时，每次操作都从 Redis 读取代数，其它节点的清除立即生效，但每次操作多一次网络往返。默认值为 1000。
+     *
+     * @param generationRefreshInterval 代数的刷新间隔，单位为毫秒。
+     * @since 2.0.0
+     */
+    public void setGenerationRefreshInterval(long generationRefreshInterval) {
+        clearSupport.setGenerationRefreshInterval(generationRefreshInterval);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 设置批量操作的块大小。
+     *
+     * <p>
+     * 批量操作中的键按块大小拆分，每块使用一个命令或一次流水线执行。
+     * 较大的块大小减少网络往返次数，但单个命令会占用 Redis 服务器更长的时间。默认值为 500。
+     *
+     * @param chunkSize 块大小，必须为正数。
+     * @since 2.0.0
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = RedisChunkUtil.requireValidChunkSize(chunkSize);
+    }
+
     @Override
     public String toString() {
         return "RedisBatchBaseCache{" +
                 "template=" + template +
                 ", formatter=" + formatter +
                 ", transformer=" + transformer +
+                ", clearSupport=" + clearSupport +
+                ", chunkSize=" + chunkSize +
                 '}';
     }
 }
@@ -0,0 +1,40 @@
+package com.dwarfeng.subgrade.data.impl.cache;
+
+/**
+ * Redis 缓存的清除模式。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public enum RedisClearMode {
+
+    /**
+     * 使用 <code>KEYS</code> 命令查找全部缓存键，并将其删除。
+     *
+     * <p>
+     * <code>KEYS</code> 命令在扫描期间阻塞 Redis 服务器，只适用于数据量较小的场景。
+     */
+    KEYS,
+
+    /**
+     * 使用 <code>SCAN</code> 命令分批查找缓存键，并使用 <code>UNLINK</code> 命令分批删除。
+     *
+     * <p>
+     * 清除期间不会长时间阻塞 Redis 服务器，且缓存数据占用的内存被实际释放，但清除需要多次网络往返，
+     * 清除期间写入的缓存键可能不会被清除。集群部署时，<code>SCAN</code> 命令只扫描单个节点，不适用本模式。
+     */
+    SCAN,
+
+    /**
+     * 递增存储在 Redis 中的代数，使当前代的全部缓存键失效。
+     *
+     * <p>
+     * 格式化后的缓存键中嵌入了当前代数，清除只需要一次 <code>INCR</code> 命令，与缓存键的数量无关。
+     * 旧代的缓存键不再被访问，在其超时时间到达后由 Redis 删除，在此之前仍然占用内存。
+     *
+     * <p>
+     * 各节点在本地缓存代数，并按照刷新间隔从 Redis 重新读取，因此其它节点的清除最多在一个刷新间隔后生效。
+     * 存储代数的键不能设置超时时间，也不能被删除，否则代数归零后，旧代的缓存键可能重新被访问。
+     */
+    GENERATION,
+}
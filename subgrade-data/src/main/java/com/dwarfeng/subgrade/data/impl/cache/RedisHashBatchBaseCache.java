@@ -0,0 +1,524 @@
+package com.dwarfeng.subgrade.data.impl.cache;
+
+import com.dwarfeng.subgrade.basic.stack.bean.Bean;
+import com.dwarfeng.subgrade.basic.stack.bean.BeanTransformer;
+import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
+import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.data.internal.redis.RedisChunkUtil;
+import com.dwarfeng.subgrade.data.sdk.redis.formatter.StringKeyFormatter;
+import com.dwarfeng.subgrade.data.stack.cache.BatchBaseCache;
+import com.dwarfeng.subgrade.data.stack.exception.CacheException;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 使用 Redis 哈希分桶实现的 BatchBaseCache。
+ *
+ * <p>
+ * 该类只提供最基本的方法实现，没有添加任何事务，请通过代理的方式在代理类中添加事务。
+ *
+ * <p>
+ * 与 {@link RedisBatchBaseCache} 为每个实体使用一个独立的 Redis 键不同，该类将实体按格式化后的键的哈希值分散到固定数量的桶中，
+ * 每个桶是一个 Redis 哈希，桶的键为桶键前缀与桶的序号拼接得到的字符串，字段为格式化后的键，值为序列化后的实体。
+ * 元素数量与元素大小均未超过服务器的 <code>hash-max-listpack-entries</code> 与 <code>hash-max-listpack-value</code>
+ * 配置时，Redis 使用紧凑的 listpack 编码存储哈希，省去了每个独立键的键空间条目与过期条目的开销，
+ * 对于大量的小实体可以显著降低内存占用。桶的数量应当根据实体的预期数量设置，使每个桶中的元素数量不超过上述配置，
+ * 例如预期有一百万个实体、<code>hash-max-listpack-entries</code> 为 128 时，桶的数量可以设置为 10000 左右。
+ *
+ * <p>
+ * 桶的键使用模板的键序列化器序列化，字段使用模板的哈希键序列化器序列化，实体使用模板的哈希值序列化器序列化。
+ * 过期的处理方式由过期模式决定，详见 {@link RedisHashExpirationMode}。
+ *
+ * <p>
+ * 批量操作按块执行，每块只需要一次网络往返：块中的键按桶分组，批量获取对每个桶使用流水线化的 <code>HMGET</code>，
+ * 批量推送对每个桶使用流水线化的 <code>HSET</code> 与过期命令，批量删除对每个桶使用流水线化的 <code>HDEL</code>。
+ * 块大小可以通过 {@link #setChunkSize(int)} 设置。
+ *
+ * <p>
+ * 清除缓存时，直接删除全部的桶，不需要查找键，因此不支持 {@link RedisClearMode}，也不支持墓碑。
+ * 桶的数量在构造时确定，不可修改，使用不同的桶的数量访问同一组桶会导致数据错位。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class RedisHashBatchBaseCache<K extends Key, E extends Entity<K>, JE extends Bean>
+        implements BatchBaseCache<K, E> {
+
+    private static final byte[] FIELDS_ARGUMENT = "FIELDS".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NX_ARGUMENT = "NX".getBytes(StandardCharsets.UTF_8);
+
+    @NotNull
+    private RedisTemplate<String, JE> template;
+    @NotNull
+    private StringKeyFormatter<K> formatter;
+    @NotNull
+    private BeanTransformer<E, JE> transformer;
+    @NotNull
+    private String bucketKeyPrefix;
+    private final int bucketCount;
+
+    @NotNull
+    private RedisHashExpirationMode expirationMode = RedisHashExpirationMode.BUCKET;
+    private int chunkSize = RedisChunkUtil.DEFAULT_CHUNK_SIZE;
+
+    /**
+     * 构造器。
+     *
+     * @param template        Redis 模板。
+     * @param formatter       键的格式化器。
+     * @param transformer     实体的转换器。
+     * @param bucketKeyPrefix 桶键前缀，与桶的序号拼接得到桶的键，不应与其它缓存的键冲突。
+     * @param bucketCount     桶的数量，必须为正数。
+     */
+    public RedisHashBatchBaseCache(
+            @NotNull RedisTemplate<String, JE> template,
+            @NotNull StringKeyFormatter<K> formatter,
+            @NotNull BeanTransformer<E, JE> transformer,
+            @NotNull String bucketKeyPrefix,
+            int bucketCount
+    ) {
+        if (bucketCount <= 0) {
+            throw new IllegalArgumentException("桶的数量必须为正数: " + bucketCount);
+        }
+        this.template = template;
+        this.formatter = formatter;
+        this.transformer = transformer;
+        this.bucketKeyPrefix = bucketKeyPrefix;
+        this.bucketCount = bucketCount;
+    }
+
+    @Override
+    public boolean exists(K key) throws CacheException {
+        try {
+            return internalExists(key);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public E get(K key) throws CacheException {
+        try {
+            return internalGet(key);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public E getIfExists(K key) throws CacheException {
+        try {
+            JE je = internalGetJe(key);
+            return Objects.isNull(je) ? null : transformer.reverseTransform(je);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public void push(E value, long timeout) throws CacheException {
+        try {
+            internalBatchPush(Collections.singletonList(value), timeout);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public void delete(K key) throws CacheException {
+        try {
+            internalBatchDelete(Collections.singletonList(key));
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public void clear() throws CacheException {
+        try {
+            List<String> bucketKeys = new ArrayList<>(bucketCount);
+            for (int i = 0; i < bucketCount; i++) {
+                bucketKeys.add(bucketKeyPrefix + i);
+            }
+            for (List<String> chunk : RedisChunkUtil.chunk(bucketKeys, chunkSize)) {
+                template.delete(chunk);
+            }
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    private boolean internalExists(K key) {
+        String field = formatter.format(key);
+        byte[] rawBucketKey = rawBucketKey(bucketKey(field));
+        byte[] rawField = rawField(field);
+        return Boolean.TRUE.equals(template.execute(
+                (RedisCallback<Boolean>) connection -> connection.hashCommands().hExists(rawBucketKey, rawField)
+        ));
+    }
+
+    private E internalGet(K key) {
+        return transformer.reverseTransform(internalGetJe(key));
+    }
+
+    private JE internalGetJe(K key) {
+        String field = formatter.format(key);
+        byte[] rawBucketKey = rawBucketKey(bucketKey(field));
+        byte[] rawField = rawField(field);
+        byte[] rawValue = template.execute(
+                (RedisCallback<byte[]>) connection -> connection.hashCommands().hGet(rawBucketKey, rawField)
+        );
+        return deserializeValue(rawValue);
+    }
+
+    @Override
+    public boolean allExists(List<K> keys) throws CacheException {
+        try {
+            return internalBatchExists(keys).cardinality() == keys.size();
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public boolean nonExists(List<K> keys) throws CacheException {
+        try {
+            return internalBatchExists(keys).isEmpty();
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public BitSet batchExists(List<K> keys) throws CacheException {
+        try {
+            return internalBatchExists(keys);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    private BitSet internalBatchExists(List<K> keys) {
+        BitSet bitSet = new BitSet(keys.size());
+        int offset = 0;
+        for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+            List<byte[]> rawBucketKeys = new ArrayList<>(chunk.size());
+            List<byte[]> rawFields = new ArrayList<>(chunk.size());
+            for (K key : chunk) {
+                String field = formatter.format(key);
+                rawBucketKeys.add(rawBucketKey(bucketKey(field)));
+                rawFields.add(rawField(field));
+            }
+            List<Object> results = executePipelined(connection -> {
+                for (int i = 0; i < rawFields.size(); i++) {
+                    connection.hashCommands().hExists(rawBucketKeys.get(i), rawFields.get(i));
+                }
+            });
+            for (int i = 0; i < results.size(); i++) {
+                if (Boolean.TRUE.equals(results.get(i))) {
+                    bitSet.set(offset + i);
+                }
+            }
+            offset += chunk.size();
+        }
+        return bitSet;
+    }
+
+    @Override
+    public List<E> batchGet(List<K> keys) throws CacheException {
+        try {
+            return internalBatchGet(keys);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public List<E> batchGetIfExists(List<K> keys) throws CacheException {
+        try {
+            return internalBatchGet(keys);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    private List<E> internalBatchGet(List<K> keys) {
+        List<E> entities = new ArrayList<>(keys.size());
+        for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+            List<String> fields = new ArrayList<>(chunk.size());
+            for (K key : chunk) {
+                fields.add(formatter.format(key));
+            }
+            Map<String, List<Integer>> indicesByBucket = groupByBucket(fields);
+            List<byte[]> rawBucketKeys = new ArrayList<>(indicesByBucket.size());
+            List<byte[][]> rawFieldArrays = new ArrayList<>(indicesByBucket.size());
+            for (Map.Entry<String, List<Integer>> entry : indicesByBucket.entrySet()) {
+                rawBucketKeys.add(rawBucketKey(entry.getKey()));
+                List<Integer> indices = entry.getValue();
+                byte[][] rawFields = new byte[indices.size()][];
+                for (int i = 0; i < indices.size(); i++) {
+                    rawFields[i] = rawField(fields.get(indices.get(i)));
+                }
+                rawFieldArrays.add(rawFields);
+            }
+            List<Object> results = executePipelined(connection -> {
+                for (int i = 0; i < rawBucketKeys.size(); i++) {
+                    connection.hashCommands().hMGet(rawBucketKeys.get(i), rawFieldArrays.get(i));
+                }
+            });
+            // 按桶取得的结果需要还原为键在块中的顺序。
+            List<JE> jes = new ArrayList<>(Collections.nCopies(chunk.size(), null));
+            int bucketIndex = 0;
+            for (List<Integer> indices : indicesByBucket.values()) {
+                List<?> rawValues = (List<?>) results.get(bucketIndex++);
+                for (int i = 0; i < indices.size(); i++) {
+                    jes.set(indices.get(i), deserializeValue((byte[]) rawValues.get(i)));
+                }
+            }
+            // 不存在的键对应 null。
+            for (JE je : jes) {
+                entities.add(Objects.isNull(je) ? null : transformer.reverseTransform(je));
+            }
+        }
+        return entities;
+    }
+
+    @Override
+    public void batchPush(List<E> entities, long timeout) throws CacheException {
+        try {
+            internalBatchPush(entities, timeout);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    private void internalBatchPush(List<E> entities, long timeout) {
+        byte[] rawTimeout = String.valueOf(timeout).getBytes(StandardCharsets.UTF_8);
+        for (List<E> chunk : RedisChunkUtil.chunk(entities, chunkSize)) {
+            // 同一个桶中的相同字段以最后一次出现的实体为准。
+            Map<String, Map<String, E>> entitiesByBucket = new LinkedHashMap<>();
+            for (E entity : chunk) {
+                String field = formatter.format(entity.getKey());
+                entitiesByBucket.computeIfAbsent(bucketKey(field), k -> new LinkedHashMap<>()).put(field, entity);
+            }
+            List<byte[]> rawBucketKeys = new ArrayList<>(entitiesByBucket.size());
+            List<Map<byte[], byte[]>> rawHashes = new ArrayList<>(entitiesByBucket.size());
+            for (Map.Entry<String, Map<String, E>> bucketEntry : entitiesByBucket.entrySet()) {
+                rawBucketKeys.add(rawBucketKey(bucketEntry.getKey()));
+                Map<byte[], byte[]> rawHash = new LinkedHashMap<>();
+                for (Map.Entry<String, E> entry : bucketEntry.getValue().entrySet()) {
+                    rawHash.put(rawField(entry.getKey()), serializeValue(transformer.transform(entry.getValue())));
+                }
+                rawHashes.add(rawHash);
+            }
+            RedisHashExpirationMode currentExpirationMode = expirationMode;
+            executePipelined(connection -> {
+                for (int i = 0; i < rawBucketKeys.size(); i++) {
+                    byte[] rawBucketKey = rawBucketKeys.get(i);
+                    Map<byte[], byte[]> rawHash = rawHashes.get(i);
+                    connection.hashCommands().hMSet(rawBucketKey, rawHash);
+                    if (currentExpirationMode == RedisHashExpirationMode.FIELD) {
+                        connection.execute("HPEXPIRE", fieldExpireArguments(rawBucketKey, rawTimeout, rawHash.keySet()));
+                    } else {
+                        // 只在桶没有超时时间时设置，持续写入的桶不会因为重置超时时间而永不过期。
+                        connection.execute("PEXPIRE", rawBucketKey, rawTimeout, NX_ARGUMENT);
+                    }
+                }
+            });
+        }
+    }
+
+    private byte[][] fieldExpireArguments(byte[] rawBucketKey, byte[] rawTimeout, Set<byte[]> rawFields) {
+        // HPEXPIRE key milliseconds FIELDS numfields field [field ...]
+        byte[][] arguments = new byte[rawFields.size() + 4][];
+        arguments[0] = rawBucketKey;
+        arguments[1] = rawTimeout;
+        arguments[2] = FIELDS_ARGUMENT;
+        arguments[3] = String.valueOf(rawFields.size()).getBytes(StandardCharsets.UTF_8);
+        int index = 4;
+        for (byte[] rawField : rawFields) {
+            arguments[index++] = rawField;
+        }
+        return arguments;
+    }
+
+    @Override
+    public void batchDelete(List<K> keys) throws CacheException {
+        try {
+            internalBatchDelete(keys);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    private void internalBatchDelete(List<K> keys) {
+        for (List<K> chunk : RedisChunkUtil.chunk(keys, chunkSize)) {
+            List<String> fields = new ArrayList<>(chunk.size());
+            for (K key : chunk) {
+                fields.add(formatter.format(key));
+            }
+            Map<String, List<Integer>> indicesByBucket = groupByBucket(fields);
+            List<byte[]> rawBucketKeys = new ArrayList<>(indicesByBucket.size());
+            List<byte[][]> rawFieldArrays = new ArrayList<>(indicesByBucket.size());
+            for (Map.Entry<String, List<Integer>> entry : indicesByBucket.entrySet()) {
+                rawBucketKeys.add(rawBucketKey(entry.getKey()));
+                List<Integer> indices = entry.getValue();
+                byte[][] rawFields = new byte[indices.size()][];
+                for (int i = 0; i < indices.size(); i++) {
+                    rawFields[i] = rawField(fields.get(indices.get(i)));
+                }
+                rawFieldArrays.add(rawFields);
+            }
+            executePipelined(connection -> {
+                for (int i = 0; i < rawBucketKeys.size(); i++) {
+                    connection.hashCommands().hDel(rawBucketKeys.get(i), rawFieldArrays.get(i));
+                }
+            });
+        }
+    }
+
+    private Map<String, List<Integer>> groupByBucket(List<String> fields) {
+        Map<String, List<Integer>> indicesByBucket = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            indicesByBucket.computeIfAbsent(bucketKey(fields.get(i)), k -> new ArrayList<>()).add(i);
+        }
+        return indicesByBucket;
+    }
+
+    private String bucketKey(String field) {
+        // String 的哈希算法是规范的一部分，不同的 JVM 计算得到的桶一致。
+        return bucketKeyPrefix + Math.floorMod(field.hashCode(), bucketCount);
+    }
+
+    private List<Object> executePipelined(PipelineAction action) {
+        // 使用字节数组序列化器，使流水线返回原始的字节，再由哈希值序列化器反序列化。
+        return template.executePipelined((RedisCallback<Object>) connection -> {
+            action.execute(connection);
+            return null;
+        }, RedisSerializer.byteArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawBucketKey(String bucketKey) {
+        return ((RedisSerializer<String>) Objects.requireNonNull(template.getKeySerializer())).serialize(bucketKey);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawField(String field) {
+        return ((RedisSerializer<String>) Objects.requireNonNull(template.getHashKeySerializer())).serialize(field);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(JE je) {
+        return ((RedisSerializer<JE>) Objects.requireNonNull(template.getHashValueSerializer())).serialize(je);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JE deserializeValue(byte[] rawValue) {
+        if (Objects.isNull(rawValue)) {
+            return null;
+        }
+        return ((RedisSerializer<JE>) Objects.requireNonNull(template.getHashValueSerializer())).deserialize(rawValue);
+    }
+
+    @NotNull
+    public RedisTemplate<String, JE> getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(@NotNull RedisTemplate<String, JE> template) {
+        this.template = template;
+    }
+
+    @NotNull
+    public StringKeyFormatter<K> getFormatter() {
+        return formatter;
+    }
+
+    public void setFormatter(@NotNull StringKeyFormatter<K> formatter) {
+        this.formatter = formatter;
+    }
+
+    @NotNull
+    public BeanTransformer<E, JE> getTransformer() {
+        return transformer;
+    }
+
+    public void setTransformer(@NotNull BeanTransformer<E, JE> transformer) {
+        this.transformer = transformer;
+    }
+
+    @NotNull
+    public String getBucketKeyPrefix() {
+        return bucketKeyPrefix;
+    }
+
+    public void setBucketKeyPrefix(@NotNull String bucketKeyPrefix) {
+        this.bucketKeyPrefix = bucketKeyPrefix;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    @NotNull
+    public RedisHashExpirationMode getExpirationMode() {
+        return expirationMode;
+    }
+
+    /**
+     * 设置过期模式。
+     *
+     * <p>
+     * 默认的过期模式为 {@link RedisHashExpirationMode#BUCKET}，Redis 服务器的版本需要在 7.0 及以上。
+     * 使用 {@link RedisHashExpirationMode#FIELD} 时，Redis 服务器的版本需要在 7.4 及以上。
+     *
+     * @param expirationMode 过期模式。
+     * @see RedisHashExpirationMode
+     */
+    public void setExpirationMode(@NotNull RedisHashExpirationMode expirationMode) {
+        this.expirationMode = expirationMode;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 设置批量操作的块大小。
+     *
+     * <p>
+     * 批量操作中的键按块大小拆分，每块使用一次流水线执行。
+     * 较大的块大小减少网络往返次数，但单次流水线会占用 Redis 服务器更长的时间。默认值为 500。
+     *
+     * @param chunkSize 块大小，必须为正数。
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = RedisChunkUtil.requireValidChunkSize(chunkSize);
+    }
+
+    @Override
+    public String toString() {
+        return "RedisHashBatchBaseCache{" +
+                "template=" + template +
+                ", formatter=" + formatter +
+                ", transformer=" + transformer +
+                ", bucketKeyPrefix='" + bucketKeyPrefix + '\'' +
+                ", bucketCount=" + bucketCount +
+                ", expirationMode=" + expirationMode +
+                ", chunkSize=" + chunkSize +
+                '}';
+    }
+
+    @FunctionalInterface
+    private interface PipelineAction {
+
+        void execute(RedisConnection connection);
+    }
+}
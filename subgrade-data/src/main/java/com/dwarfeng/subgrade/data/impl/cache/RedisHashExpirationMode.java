@@ -0,0 +1,30 @@
+package com.dwarfeng.subgrade.data.impl.cache;
+
+/**
+ * Redis 哈希分桶缓存的过期模式。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public enum RedisHashExpirationMode {
+
+    /**
+     * 按桶过期。
+     *
+     * <p>
+     * 向桶中写入数据时，使用 <code>PEXPIRE ... NX</code> 命令，只在桶没有超时时间时将桶的超时时间设置为本次写入的超时时间，
+     * 已有的超时时间不会被重置，因此持续写入的桶同样会按时过期，过时的数据不会无限期地留在桶中。
+     * 桶过期时其中的数据全部失效，单个数据的实际存活时间可能短于其超时时间，这对于缓存是安全的，
+     * 失效的数据会在下一次读取时重新载入。需要 Redis 7.0 及以上版本的服务器。
+     */
+    BUCKET,
+
+    /**
+     * 按字段过期。
+     *
+     * <p>
+     * 每次向桶中写入数据时，使用 <code>HPEXPIRE</code> 命令为写入的字段单独设置超时时间，
+     * 每个数据都在其超时时间之后准确地过期。需要 Redis 7.4 及以上版本的服务器。
+     */
+    FIELD,
+}
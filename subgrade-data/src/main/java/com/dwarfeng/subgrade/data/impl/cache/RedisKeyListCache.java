@@ -1,17 +1,21 @@
 package com.dwarfeng.subgrade.data.impl.cache;
 
+import com.dwarfeng.subgrade.basic.sdk.bean.dto.PagingUtil;
 import com.dwarfeng.subgrade.basic.stack.bean.Bean;
 import com.dwarfeng.subgrade.basic.stack.bean.BeanTransformer;
+import com.dwarfeng.subgrade.basic.stack.bean.dto.PagedData;
 import com.dwarfeng.subgrade.basic.stack.bean.dto.PagingInfo;
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.data.internal.redis.RedisChunkUtil;
+import com.dwarfeng.subgrade.data.internal.redis.RedisClearSupport;
+import com.dwarfeng.subgrade.data.internal.redis.RedisListSupport;
 import com.dwarfeng.subgrade.data.sdk.redis.formatter.StringKeyFormatter;
 import com.dwarfeng.subgrade.data.stack.cache.KeyListCache;
 import com.dwarfeng.subgrade.data.stack.exception.CacheException;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.redis.core.RedisTemplate;
 
-import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -21,6 +25,15 @@ import java.util.stream.Collectors;
  * <p>
  * 该类只提供最基本的方法实现，没有添加任何事务，请通过代理的方式在代理类中添加事务。
  *
+ * <p>
+ * 缓存的清除方式由清除模式决定，默认使用 <code>KEYS</code> 命令，数据量较大时应当切换为其它清除模式，详见 {@link RedisClearMode}。
+ *
+ * <p>
+ * 设置列表时，新的列表先写入临时键，再通过 <code>RENAME</code> 原子地替换原有的列表，读取方不会读到空列表或只写入了一部分的列表。
+ *
+ * <p>
+ * 列表被设置为空时，写入空列表标记，此时列表视为存在且为空，不会因为 Redis 中不存在空列表而被反复重建。
+ *
  * @author DwArFeng
  * @since 0.0.3-beta
  */
@@ -34,6 +47,10 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
     @NotNull
     private BeanTransformer<E, JE> transformer;
 
+    private final RedisClearSupport clearSupport = new RedisClearSupport();
+
+    private int chunkSize = RedisChunkUtil.DEFAULT_CHUNK_SIZE;
+
     public RedisKeyListCache(
             @NotNull RedisTemplate<String, JE> template,
             @NotNull StringKeyFormatter<K> formatter,
@@ -47,8 +64,7 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
     @Override
     public boolean exists(K key) throws CacheException {
         try {
-            // 获得装箱后的结果，拆箱并返回。
-            return template.hasKey(formatKey(key));
+            return RedisListSupport.exists(template, formatKey(key));
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -67,21 +83,12 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
         }
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     public List<E> get(K key) throws CacheException {
         try {
             String formatKey = formatKey(key);
-            Long totalSize = template.opsForList().size(formatKey);
-            if (Objects.isNull(totalSize) || totalSize == 0) {
-                return new ArrayList<>();
-            } else {
-                List<JE> range = template.opsForList().range(formatKey, 0, totalSize - 1);
-                if (Objects.isNull(range)) {
-                    return new ArrayList<>();
-                }
-                return range.stream().map(transformer::reverseTransform).collect(Collectors.toList());
-            }
+            return RedisListSupport.all(template, formatKey).stream()
+                    .map(transformer::reverseTransform).collect(Collectors.toList());
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -102,52 +109,42 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
         }
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     public List<E> get(K key, PagingInfo pagingInfo) throws CacheException {
         try {
             String formatKey = formatKey(key);
-            Long totalSize = template.opsForList().size(formatKey);
-            if (Objects.isNull(totalSize) || totalSize == 0) {
-                return Collections.emptyList();
-            }
-
-            int rows = pagingInfo.getRows();
-            int page = pagingInfo.getPage();
-
-            List<JE> jes;
-            // 每页行数大于 0 时，按照正常的逻辑查询数据。
-            if (rows > 0) {
-                long beginIndex = (long) rows * page;
-                long endIndex = Math.min(totalSize, beginIndex + rows) - 1;
-                jes = template.opsForList().range(formatKey, beginIndex, endIndex);
-            }
-            // 否则返回空列表。
-            else {
-                jes = Collections.emptyList();
-            }
+            return RedisListSupport.page(template, formatKey, pagingInfo).stream()
+                    .map(transformer::reverseTransform).collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
 
-            if (Objects.isNull(jes)) {
-                return Collections.emptyList();
-            }
-            return jes.stream().map(transformer::reverseTransform).collect(Collectors.toList());
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 列表的长度与子列表在一次流水线中读取。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public PagedData<E> getPaged(K key, PagingInfo pagingInfo) throws CacheException {
+        try {
+            String formatKey = formatKey(key);
+            RedisListSupport.ListPage<JE> page = RedisListSupport.sizedPage(template, formatKey, pagingInfo);
+            List<E> entities = page.values().stream().map(transformer::reverseTransform).collect(Collectors.toList());
+            return PagingUtil.pagedData(pagingInfo, (int) page.size(), entities);
         } catch (Exception e) {
             throw new CacheException(e);
         }
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     public void set(K key, Collection<E> entities, long timeout) throws CacheException {
         try {
-            String formatKey = formatKey(key);
-            template.delete(formatKey);
-            if (entities.isEmpty()) {
-                return;
-            }
             List<JE> collect = entities.stream().map(transformer::transform).collect(Collectors.toList());
-            template.opsForList().rightPushAll(formatKey, collect);
-            template.expire(formatKey, Duration.ofMillis(timeout));
+            RedisListSupport.replace(template, formatKey(key), collect, timeout, chunkSize);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -156,13 +153,8 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
     @Override
     public void leftPush(K key, Collection<E> entities, long timeout) throws CacheException {
         try {
-            if (entities.isEmpty()) {
-                return;
-            }
-            String formatKey = formatKey(key);
             List<JE> collect = entities.stream().map(transformer::transform).collect(Collectors.toList());
-            template.opsForList().leftPushAll(formatKey, collect);
-            template.expire(formatKey, Duration.ofMillis(timeout));
+            RedisListSupport.push(template, formatKey(key), collect, timeout, true);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -171,13 +163,8 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
     @Override
     public void rightPush(K key, Collection<E> entities, long timeout) throws CacheException {
         try {
-            if (entities.isEmpty()) {
-                return;
-            }
-            String formatKey = formatKey(key);
             List<JE> collect = entities.stream().map(transformer::transform).collect(Collectors.toList());
-            template.opsForList().rightPushAll(formatKey, collect);
-            template.expire(formatKey, Duration.ofMillis(timeout));
+            RedisListSupport.push(template, formatKey(key), collect, timeout, false);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -186,7 +173,7 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
     @Override
     public void delete(K key) throws CacheException {
         try {
-            template.delete(formatKey(key));
+            RedisListSupport.delete(template, formatKey(key));
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -195,15 +182,14 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
     @Override
     public void clear() throws CacheException {
         try {
-            Set<String> keys = Optional.of(template.keys(formatter.generalFormat())).orElse(Collections.emptySet());
-            template.delete(keys);
+            clearSupport.clear(template, formatter.generalFormat(), chunkSize);
         } catch (Exception e) {
             throw new CacheException(e);
         }
     }
 
     private String formatKey(K key) {
-        return formatter.format(key);
+        return formatter.format(key) + clearSupport.suffix(template, formatter.generalFormat());
     }
 
     @NotNull
@@ -233,12 +219,89 @@ public class RedisKeyListCache<K extends Key, E extends Entity<? extends Key>, J
         this.transformer = transformer;
     }
 
+    @NotNull
+    public RedisClearMode getClearMode() {
+        return clearSupport.getClearMode();
+    }
+
+    /**
+     * 设置清除模式。
+     *
+     * <p>
+     * 默认的清除模式为 {@link RedisClearMode#KEYS}。切换清除模式后，原有的缓存数据可能无法再被访问，
+     * 应当在缓存为空、或缓存数据可以丢弃时切换。
+     *
+     * @param clearMode 清除模式。
+     * @see RedisClearMode
+     * @since 2.0.0
+     */
+    public void setClearMode(@NotNull RedisClearMode clearMode) {
+        clearSupport.setClearMode(clearMode);
+    }
+
+    public String getGenerationKey() {
+        return clearSupport.getGenerationKey();
+    }
+
+    /**
+     * 设置存储代数的键。
+     *
+     * <p>
+     * 仅在清除模式为 {@link RedisClearMode#GENERATION} 时使用。为 <code>null</code> 时，
+     * 使用 <code>subgrade:generation:</code> 与格式化器的通用格式拼接得到的键。
+     *
+     * @param generationKey 存储代数的键。
+     * @since 2.0.0
+     */
+    public void setGenerationKey(String generationKey) {
+        clearSupport.setGenerationKey(generationKey);
+    }
+
+    public long getGenerationRefreshInterval() {
+        return clearSupport.getGenerationRefreshInterval();
+    }
+
+    /**
+     * 设置代数的刷新间隔。
+     *
+     * <p>
+     * 仅在清除模式为 {@link RedisClearMode#GENERATION} 时使用。在刷新间隔内，代数从本地读取；
+     * 为 0 时，每次操作都从 Redis 读取代数，其它节点的清除立即生效，但每次操作多一次网络往返。默认值为 1000。
+     *
+     * @param generationRefreshInterval 代数的刷新间隔，单位为毫秒。
+     * @since 2.0.0
+     */
+    public void setGenerationRefreshInterval(long generationRefreshInterval) {
+        clearSupport.setGenerationRefreshInterval(generationRefreshInterval);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 设置块大小。
+     *
+     * <p>
+     * 设置列表时，值按块大小分块写入，每块使用一个 <code>RPUSH</code> 命令，全部命令在一次流水线中执行；
+     * 在 {@link RedisClearMode#SCAN} 模式下，清除缓存时每批删除的键的数量与块大小相同。
+     * 较大的块大小减少命令的数量，但单个命令会占用 Redis 服务器更长的时间。默认值为 500。
+     *
+     * @param chunkSize 块大小，必须为正数。
+     * @since 2.0.0
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = RedisChunkUtil.requireValidChunkSize(chunkSize);
+    }
+
     @Override
     public String toString() {
         return "RedisKeyListCache{" +
                 "template=" + template +
                 ", formatter=" + formatter +
                 ", transformer=" + transformer +
+                ", clearSupport=" + clearSupport +
+                ", chunkSize=" + chunkSize +
                 '}';
     }
 }
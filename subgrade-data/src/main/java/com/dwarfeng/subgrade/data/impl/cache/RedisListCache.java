@@ -1,15 +1,19 @@
 package com.dwarfeng.subgrade.data.impl.cache;
 
+import com.dwarfeng.subgrade.basic.sdk.bean.dto.PagingUtil;
 import com.dwarfeng.subgrade.basic.stack.bean.Bean;
 import com.dwarfeng.subgrade.basic.stack.bean.BeanTransformer;
+import com.dwarfeng.subgrade.basic.stack.bean.dto.PagedData;
 import com.dwarfeng.subgrade.basic.stack.bean.dto.PagingInfo;
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
+import com.dwarfeng.subgrade.data.internal.redis.RedisChunkUtil;
+import com.dwarfeng.subgrade.data.internal.redis.RedisListSupport;
+import com.dwarfeng.subgrade.data.internal.redis.RedisLockSupport;
 import com.dwarfeng.subgrade.data.stack.cache.ListCache;
 import com.dwarfeng.subgrade.data.stack.exception.CacheException;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.redis.core.RedisTemplate;
 
-import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,6 +23,12 @@ import java.util.stream.Collectors;
  * <p>
  * 该类只提供最基本的方法实现，没有添加任何事务，请通过代理的方式在代理类中添加事务。
  *
+ * <p>
+ * 设置列表时，新的列表先写入临时键，再通过 <code>RENAME</code> 原子地替换原有的列表，读取方不会读到空列表或只写入了一部分的列表。
+ *
+ * <p>
+ * 列表被设置为空时，写入空列表标记，此时列表视为存在且为空，不会因为 Redis 中不存在空列表而被反复重建。
+ *
  * @author DwArFeng
  * @since 0.0.3-beta
  */
@@ -31,6 +41,8 @@ public class RedisListCache<E extends Entity<?>, JE extends Bean> implements Lis
     @NotNull
     private BeanTransformer<E, JE> transformer;
 
+    private int chunkSize = RedisChunkUtil.DEFAULT_CHUNK_SIZE;
+
     public RedisListCache(
             @NotNull String key,
             @NotNull RedisTemplate<String, JE> template,
@@ -44,8 +56,7 @@ public class RedisListCache<E extends Entity<?>, JE extends Bean> implements Lis
     @Override
     public boolean exists() throws CacheException {
         try {
-            // 获得装箱后的结果，拆箱并返回。
-            return template.hasKey(key);
+            return RedisListSupport.exists(template, key);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -63,20 +74,11 @@ public class RedisListCache<E extends Entity<?>, JE extends Bean> implements Lis
         }
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     public List<E> get() throws CacheException {
         try {
-            Long totalSize = template.opsForList().size(key);
-            if (Objects.isNull(totalSize) || totalSize == 0) {
-                return new ArrayList<>();
-            } else {
-                List<JE> range = template.opsForList().range(key, 0, totalSize - 1);
-                if (Objects.isNull(range)) {
-                    return new ArrayList<>();
-                }
-                return range.stream().map(transformer::reverseTransform).collect(Collectors.toList());
-            }
+            return RedisListSupport.all(template, key).stream()
+                    .map(transformer::reverseTransform).collect(Collectors.toList());
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -96,50 +98,62 @@ public class RedisListCache<E extends Entity<?>, JE extends Bean> implements Lis
         }
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     public List<E> get(PagingInfo pagingInfo) throws CacheException {
         try {
-            Long totalSize = template.opsForList().size(key);
-            if (Objects.isNull(totalSize) || totalSize == 0) {
-                return Collections.emptyList();
-            }
-
-            int page = pagingInfo.getPage();
-            int rows = pagingInfo.getRows();
+            return RedisListSupport.page(template, key, pagingInfo).stream()
+                    .map(transformer::reverseTransform).collect(Collectors.toList());
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
 
-            List<JE> jes;
-            // 每页行数大于 0 时，按照正常的逻辑查询数据。
-            if (rows > 0) {
-                long beginIndex = (long) rows * page;
-                long endIndex = Math.min(totalSize, beginIndex + rows) - 1;
-                jes = template.opsForList().range(key, beginIndex, endIndex);
-            }
-            // 否则返回空列表。
-            else {
-                jes = Collections.emptyList();
-            }
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 列表的长度与子列表在一次流水线中读取。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public PagedData<E> getPaged(PagingInfo pagingInfo) throws CacheException {
+        try {
+            RedisListSupport.ListPage<JE> page = RedisListSupport.sizedPage(template, key, pagingInfo);
+            List<E> entities = page.values().stream().map(transformer::reverseTransform).collect(Collectors.toList());
+            return PagingUtil.pagedData(pagingInfo, (int) page.size(), entities);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
 
-            if (Objects.isNull(jes)) {
-                return Collections.emptyList();
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 列表的长度、子列表与空列表标记在一次流水线中读取。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public PagedData<E> getPagedIfExists(PagingInfo pagingInfo) throws CacheException {
+        try {
+            RedisListSupport.ListPage<JE> page = RedisListSupport.sizedPage(template, key, pagingInfo);
+            if (!page.exists()) {
+                return null;
             }
-            return jes.stream().map(transformer::reverseTransform).collect(Collectors.toList());
+            List<E> entities = page.values().stream().map(transformer::reverseTransform).collect(Collectors.toList());
+            return PagingUtil.pagedData(pagingInfo, (int) page.size(), entities);
         } catch (Exception e) {
             throw new CacheException(e);
         }
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @Override
     public void set(Collection<E> entities, long timeout) throws CacheException {
         try {
-            template.delete(key);
-            if (entities.isEmpty()) {
-                return;
-            }
             List<JE> collect = entities.stream().map(transformer::transform).collect(Collectors.toList());
-            template.opsForList().rightPushAll(key, collect);
-            template.expire(key, Duration.ofMillis(timeout));
+            RedisListSupport.replace(template, key, collect, timeout, chunkSize);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -148,12 +162,8 @@ public class RedisListCache<E extends Entity<?>, JE extends Bean> implements Lis
     @Override
     public void leftPush(Collection<E> entities, long timeout) throws CacheException {
         try {
-            if (entities.isEmpty()) {
-                return;
-            }
             List<JE> collect = entities.stream().map(transformer::transform).collect(Collectors.toList());
-            template.opsForList().leftPushAll(key, collect);
-            template.expire(key, Duration.ofMillis(timeout));
+            RedisListSupport.push(template, key, collect, timeout, true);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -162,12 +172,34 @@ public class RedisListCache<E extends Entity<?>, JE extends Bean> implements Lis
     @Override
     public void rightPush(Collection<E> entities, long timeout) throws CacheException {
         try {
-            if (entities.isEmpty()) {
-                return;
-            }
             List<JE> collect = entities.stream().map(transformer::transform).collect(Collectors.toList());
-            template.opsForList().rightPushAll(key, collect);
-            template.expire(key, Duration.ofMillis(timeout));
+            RedisListSupport.push(template, key, collect, timeout, false);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 锁存储在列表的键追加 <code>@lock</code> 得到的键中，使用 <code>SET ... NX PX</code> 获取。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public boolean tryLockRebuild(String token, long timeout) throws CacheException {
+        try {
+            return RedisLockSupport.tryLock(template, key, token, timeout);
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    @Override
+    public void unlockRebuild(String token) throws CacheException {
+        try {
+            RedisLockSupport.unlock(template, key, token);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -176,7 +208,7 @@ public class RedisListCache<E extends Entity<?>, JE extends Bean> implements Lis
     @Override
     public void clear() throws CacheException {
         try {
-            template.delete(key);
+            RedisListSupport.delete(template, key);
         } catch (Exception e) {
             throw new CacheException(e);
         }
@@ -209,12 +241,31 @@ public class RedisListCache<E extends Entity<?>, JE extends Bean> implements Lis
         this.transformer = transformer;
     }
 
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 设置块大小。
+     *
+     * <p>
+     * 设置列表时，值按块大小分块写入，每块使用一个 <code>RPUSH</code> 命令，全部命令在一次流水线中执行。
+     * 较大的块大小减少命令的数量，但单个命令会占用 Redis 服务器更长的时间。默认值为 500。
+     *
+     * @param chunkSize 块大小，必须为正数。
+     * @since 2.0.0
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = RedisChunkUtil.requireValidChunkSize(chunkSize);
+    }
+
     @Override
     public String toString() {
         return "RedisListCache{" +
                 "key='" + key + '\'' +
                 ", template=" + template +
                 ", transformer=" + transformer +
+                ", chunkSize=" + chunkSize +
                 '}';
     }
 }
@@ -141,6 +141,16 @@ public class HibernateBaseDao<K extends Key, PK extends Bean, E extends Entity<K
         }
     }
 
+    @Override
+    public E getIfExists(K key) throws DaoException {
+        try {
+            PE pe = internalGet(key);
+            return Objects.isNull(pe) ? null : reverseTransformEntity(pe);
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     private PE internalGet(K key) {
         PK pk = transformKey(key);
         return template.get(classPE, pk);
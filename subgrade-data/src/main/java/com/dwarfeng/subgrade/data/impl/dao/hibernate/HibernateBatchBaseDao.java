@@ -189,6 +189,16 @@ public class HibernateBatchBaseDao<K extends Key, PK extends Bean, E extends Ent
         }
     }
 
+    @Override
+    public E getIfExists(K key) throws DaoException {
+        try {
+            PE pe = internalGet(key);
+            return Objects.isNull(pe) ? null : reverseTransformEntity(pe);
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     private PE internalGet(K key) {
         PK pk = transformKey(key);
         return template.get(classPE, pk);
@@ -325,6 +335,20 @@ public class HibernateBatchBaseDao<K extends Key, PK extends Bean, E extends Ent
         }
     }
 
+    @Override
+    public List<E> batchGetIfExists(List<K> keys) throws DaoException {
+        try {
+            List<E> elements = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                PE pe = internalGet(key);
+                elements.add(Objects.isNull(pe) ? null : reverseTransformEntity(pe));
+            }
+            return elements;
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     private PK transformKey(K k) {
         return keyBeanTransformer.transform(k);
     }
@@ -104,6 +104,22 @@ public class JdbcBaseDao<K extends Key, E extends Entity<K>> implements BaseDao<
         }
     }
 
+    // SQL 的安全性由 BaseProcessor 保证。
+    @SuppressWarnings("SqlSourceToSinkFlow")
+    @Override
+    public E getIfExists(K key) throws DaoException {
+        try {
+            SQLAndParameter sqlAndParameter = processor.provideGet(key);
+            return template.query(
+                    sqlAndParameter.getSql(),
+                    new ArgumentPreparedStatementSetter(sqlAndParameter.getFirstParameters()),
+                    processor::resolveGetIfExists
+            );
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     public JdbcTemplate getTemplate() {
         return template;
     }
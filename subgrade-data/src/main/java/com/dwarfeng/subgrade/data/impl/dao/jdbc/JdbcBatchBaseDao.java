@@ -2,6 +2,7 @@ package com.dwarfeng.subgrade.data.impl.dao.jdbc;
 
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.data.internal.dao.EntityAlignUtil;
 import com.dwarfeng.subgrade.data.sdk.jdbc.processor.BatchBaseProcessor;
 import com.dwarfeng.subgrade.data.sdk.jdbc.processor.SQLAndParameter;
 import com.dwarfeng.subgrade.data.stack.dao.BatchBaseDao;
@@ -117,6 +118,24 @@ public class JdbcBatchBaseDao<K extends Key, E extends Entity<K>> implements Bat
         );
     }
 
+    @Override
+    public E getIfExists(K key) throws DaoException {
+        try {
+            return internalGetIfExists(key);
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
+    private E internalGetIfExists(K key) {
+        SQLAndParameter sqlAndParameter = processor.provideGet(key);
+        return template.query(
+                sqlAndParameter.getSql(),
+                new ArgumentPreparedStatementSetter(sqlAndParameter.getFirstParameters()),
+                processor::resolveGetIfExists
+        );
+    }
+
     // SQL 的安全性由 BaseProcessor 保证。
     @SuppressWarnings("SqlSourceToSinkFlow")
     @Override
@@ -261,6 +280,42 @@ public class JdbcBatchBaseDao<K extends Key, E extends Entity<K>> implements Bat
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 处理器逐个获取实体时，逐个查询实体；否则执行一次批量获取的查询，基于 <code>IN</code> 条件的查询只返回存在的实体，
+     * 查询结果按照实体的键对齐到指定的键的顺序。
+     *
+     * @since 2.0.0
+     */
+    // SQL 的安全性由 BaseProcessor 保证。
+    @SuppressWarnings("SqlSourceToSinkFlow")
+    @Override
+    public List<E> batchGetIfExists(List<K> keys) throws DaoException {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            if (processor.loopGet()) {
+                List<E> elements = new ArrayList<>(keys.size());
+                for (K key : keys) {
+                    elements.add(internalGetIfExists(key));
+                }
+                return elements;
+            }
+            SQLAndParameter sqlAndParameter = processor.provideBatchGet(keys);
+            List<E> elements = template.query(
+                    sqlAndParameter.getSql(),
+                    new ArgumentPreparedStatementSetter(sqlAndParameter.getFirstParameters()),
+                    processor::resolveBatchGet
+            );
+            return EntityAlignUtil.alignByKey(keys, Objects.requireNonNull(elements));
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     public JdbcTemplate getTemplate() {
         return template;
     }
@@ -80,6 +80,11 @@ public class MemoryBaseDao<K extends Key, E extends Entity<K>> implements BaseDa
         return memory.get(key);
     }
 
+    @Override
+    public E getIfExists(K key) {
+        return memory.get(key);
+    }
+
     /**
      * 填充数据。
      *
@@ -81,6 +81,11 @@ public class MemoryBatchBaseDao<K extends Key, E extends Entity<K>> implements B
         return memory.get(key);
     }
 
+    @Override
+    public E getIfExists(K key) {
+        return memory.get(key);
+    }
+
     @Override
     public List<K> batchInsert(List<E> elements) throws DaoException {
         List<K> collect = elements.stream().map(E::getKey).collect(Collectors.toList());
@@ -140,6 +145,11 @@ public class MemoryBatchBaseDao<K extends Key, E extends Entity<K>> implements B
         return elements;
     }
 
+    @Override
+    public List<E> batchGetIfExists(List<K> keys) {
+        return batchGet(keys);
+    }
+
     /**
      * 填充数据。
      *
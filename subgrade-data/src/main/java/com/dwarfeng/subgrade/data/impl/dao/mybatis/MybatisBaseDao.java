@@ -99,6 +99,23 @@ public class MybatisBaseDao<K extends Key, E extends Entity<K>> implements BaseD
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 获取实体的语句在实体不存在时不返回数据，因此直接使用该语句查询。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public E getIfExists(K key) throws DaoException {
+        try {
+            return template.selectOne(concatId(getId), key);
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     private String concatId(String id) {
         return namespace + '.' + id;
     }
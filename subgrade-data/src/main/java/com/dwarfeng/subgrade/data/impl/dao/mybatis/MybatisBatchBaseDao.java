@@ -2,6 +2,7 @@ package com.dwarfeng.subgrade.data.impl.dao.mybatis;
 
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.data.internal.dao.EntityAlignUtil;
 import com.dwarfeng.subgrade.data.stack.dao.BatchBaseDao;
 import com.dwarfeng.subgrade.data.stack.exception.DaoException;
 import org.jetbrains.annotations.NotNull;
@@ -149,6 +150,23 @@ public class MybatisBatchBaseDao<K extends Key, E extends Entity<K>> implements
         return template.selectOne(concatId(getId), key);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 获取实体的语句在实体不存在时不返回数据，因此直接使用该语句查询。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public E getIfExists(K key) throws DaoException {
+        try {
+            return internalGet(key);
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     @Override
     public List<K> batchInsert(List<E> elements) throws DaoException {
         try {
@@ -234,7 +252,35 @@ public class MybatisBatchBaseDao<K extends Key, E extends Entity<K>> implements
                 }
                 return elements;
             }
-            return template.selectList(concatId(nonExistsId), keys);
+            return template.selectList(concatId(batchGetId), keys);
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * 批量获取与获取使用相同的语句时，逐个查询实体；否则执行一次批量获取的查询，
+     * 基于 <code>IN</code> 条件的查询只返回存在的实体，查询结果按照实体的键对齐到指定的键的顺序。
+     *
+     * @since 2.0.0
+     */
+    @Override
+    public List<E> batchGetIfExists(List<K> keys) throws DaoException {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            if (Objects.equals(getId, batchGetId)) {
+                List<E> elements = new ArrayList<>(keys.size());
+                for (K key : keys) {
+                    elements.add(internalGet(key));
+                }
+                return elements;
+            }
+            return EntityAlignUtil.alignByKey(keys, template.<E>selectList(concatId(batchGetId), keys));
         } catch (Exception e) {
             throw new DaoException(e);
         }
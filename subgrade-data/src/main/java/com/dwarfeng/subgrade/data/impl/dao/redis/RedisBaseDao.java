@@ -10,6 +10,8 @@ import com.dwarfeng.subgrade.data.stack.exception.DaoException;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import java.util.Objects;
+
 /**
  * 通过 Redis 实现的基础数据访问层。
  *
@@ -110,6 +112,18 @@ public class RedisBaseDao<K extends Key, E extends Entity<K>, JE extends Bean> i
         }
     }
 
+    @Override
+    public E getIfExists(K key) throws DaoException {
+        try {
+            String format = formatter.format(key);
+            @SuppressWarnings("unchecked")
+            JE je = (JE) template.opsForHash().get(dbKey, format);
+            return Objects.isNull(je) ? null : transformer.reverseTransform(je);
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     @NotNull
     public RedisTemplate<String, JE> getTemplate() {
         return template;
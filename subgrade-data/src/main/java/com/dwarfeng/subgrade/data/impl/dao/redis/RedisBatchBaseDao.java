@@ -12,6 +12,7 @@ import org.springframework.data.redis.core.RedisTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -114,6 +115,18 @@ public class RedisBatchBaseDao<K extends Key, E extends Entity<K>, JE extends Be
         }
     }
 
+    @Override
+    public E getIfExists(K key) throws DaoException {
+        try {
+            String format = formatter.format(key);
+            @SuppressWarnings("unchecked")
+            JE je = (JE) template.opsForHash().get(dbKey, format);
+            return Objects.isNull(je) ? null : transformer.reverseTransform(je);
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     @SuppressWarnings("DuplicatedCode")
     @Override
     public List<K> batchInsert(List<E> elements) throws DaoException {
@@ -216,6 +229,29 @@ public class RedisBatchBaseDao<K extends Key, E extends Entity<K>, JE extends Be
         }
     }
 
+    @Override
+    public List<E> batchGetIfExists(List<K> keys) throws DaoException {
+        try {
+            if (keys.isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<Object> formats = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                formats.add(formatter.format(key));
+            }
+            List<Object> jes = template.opsForHash().multiGet(dbKey, formats);
+            List<E> elements = new ArrayList<>(jes.size());
+            for (Object object : jes) {
+                @SuppressWarnings("unchecked")
+                JE je = (JE) object;
+                elements.add(Objects.isNull(je) ? null : transformer.reverseTransform(je));
+            }
+            return elements;
+        } catch (Exception e) {
+            throw new DaoException(e);
+        }
+    }
+
     @NotNull
     public RedisTemplate<String, JE> getTemplate() {
         return template;
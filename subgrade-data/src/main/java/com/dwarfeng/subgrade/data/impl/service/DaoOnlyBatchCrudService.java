@@ -104,10 +104,11 @@ public class DaoOnlyBatchCrudService<K extends Key, E extends Entity<K>> extends
     }
 
     private E internalGet(K key) throws Exception {
-        if (!dao.exists(key)) {
+        E entity = dao.getIfExists(key);
+        if (Objects.isNull(entity)) {
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
         }
-        return dao.get(key);
+        return entity;
     }
 
     @Override
@@ -151,7 +152,7 @@ public class DaoOnlyBatchCrudService<K extends Key, E extends Entity<K>> extends
 
     @Override
     protected E doGetIfExists(K key) throws Exception {
-        return internalExists(key) ? internalGet(key) : null;
+        return dao.getIfExists(key);
     }
 
     @Override
@@ -216,9 +217,9 @@ public class DaoOnlyBatchCrudService<K extends Key, E extends Entity<K>> extends
     }
 
     private List<E> internalBatchGet(List<K> keys) throws Exception {
-        List<E> entities = new ArrayList<>();
-        for (K key : keys) {
-            entities.add(internalGet(key));
+        List<E> entities = dao.batchGetIfExists(keys);
+        if (entities.stream().anyMatch(Objects::isNull)) {
+            throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
         }
         return entities;
     }
@@ -293,13 +294,7 @@ public class DaoOnlyBatchCrudService<K extends Key, E extends Entity<K>> extends
 
     @Override
     protected List<E> doBatchGetIfExists(List<K> keys) throws Exception {
-        List<K> existsKeys = new ArrayList<>();
-        for (K key : keys) {
-            if (internalExists(key)) {
-                existsKeys.add(key);
-            }
-        }
-        return internalBatchGet(existsKeys);
+        return dao.batchGetIfExists(keys).stream().filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     @Override
@@ -92,10 +92,11 @@ public class DaoOnlyCrudService<K extends Key, E extends Entity<K>> extends Abst
     }
 
     private E internalGet(K key) throws Exception {
-        if (!dao.exists(key)) {
+        E entity = dao.getIfExists(key);
+        if (Objects.isNull(entity)) {
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
         }
-        return dao.get(key);
+        return entity;
     }
 
     @Override
@@ -139,7 +140,7 @@ public class DaoOnlyCrudService<K extends Key, E extends Entity<K>> extends Abst
 
     @Override
     protected E doGetIfExists(K key) throws Exception {
-        return internalExists(key) ? internalGet(key) : null;
+        return dao.getIfExists(key);
     }
 
     @Override
@@ -8,16 +8,20 @@ import com.dwarfeng.subgrade.basic.stack.exception.ServiceException;
 import com.dwarfeng.subgrade.basic.stack.exception.ServiceExceptionMapper;
 import com.dwarfeng.subgrade.basic.stack.generation.KeyGenerator;
 import com.dwarfeng.subgrade.basic.stack.log.LogLevel;
+import com.dwarfeng.subgrade.data.internal.service.CacheExpirationSupport;
 import com.dwarfeng.subgrade.data.sdk.exception.ServiceExceptionCodeSuppliers;
 import com.dwarfeng.subgrade.data.sdk.service.AbstractBatchCrudService;
+import com.dwarfeng.subgrade.data.stack.cache.BaseCache;
 import com.dwarfeng.subgrade.data.stack.cache.BatchBaseCache;
 import com.dwarfeng.subgrade.data.stack.dao.BatchBaseDao;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -32,12 +36,34 @@ import java.util.stream.Collectors;
  * <p>
  * 该类只提供最基本的方法实现，没有添加任何事务，请通过代理的方式在代理类中添加事务。
  *
+ * <p>
+ * 设置了不存在标记超时时间后，数据访问层中不存在的实体会在缓存中被标记为不存在，
+ * 标记有效期间对该实体的查询不再访问数据访问层，详见 {@link #setAbsentCacheTimeout(long)}。
+ * 插入之前的存在性判断直接访问缓存与数据访问层，不读取、也不写入不存在标记。
+ *
+ * <p>
+ * 设置了重建锁超时时间后，缓存未命中的实体只由获取到重建锁的调用者从数据访问层加载，
+ * 其它调用者等待重建完成后重新读取缓存，详见 {@link #setRebuildLockTimeout(long)}。
+ *
+ * <p>
+ * 缓存超时时间可以添加随机抖动，缓存命中时也可以按照 XFetch 算法在过期之前提前重新加载实体，
+ * 详见 {@link #setCacheTimeoutJitter(double)} 与 {@link #setEarlyRecomputeBeta(double)}。
+ *
+ * <p>
+ * 批量方法以集合操作的方式访问缓存与数据访问层：先批量查询缓存，再对未命中的实体批量访问数据访问层，
+ * 网络往返的次数不随实体的数量增长。批量获取不使用重建锁，也不进行提前重算。
+ *
  * @author DwArFeng
  * @since 0.0.1-beta
  */
 @SuppressWarnings("DuplicatedCode")
 public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends AbstractBatchCrudService<K, E> {
 
+    /**
+     * 等待重建时，重新读取缓存的间隔（毫秒）。
+     */
+    private static final long REBUILD_WAIT_INTERVAL = 20L;
+
     @NotNull
     private BatchBaseDao<K, E> dao;
 
@@ -50,6 +76,17 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
     @Range(from = 0, to = Long.MAX_VALUE)
     private long cacheTimeout;
 
+    @Range(from = 0, to = Long.MAX_VALUE)
+    private long absentCacheTimeout;
+
+    private final CacheExpirationSupport expirationSupport = new CacheExpirationSupport();
+
+    @Range(from = 0, to = Long.MAX_VALUE)
+    private long rebuildLockTimeout;
+
+    @Range(from = 0, to = Long.MAX_VALUE)
+    private long rebuildWaitTimeout = 500L;
+
     /**
      * 构造器方法。
      *
@@ -118,7 +155,52 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
         if (cache.exists(key)) {
             return true;
         }
-        return dao.exists(key);
+        if (isKnownAbsent(key)) {
+            return false;
+        }
+        return daoExists(key);
+    }
+
+    /**
+     * 插入之前判断指定的主键是否存在。
+     *
+     * <p>
+     * 不存在标记可能已经过时，而即将插入的实体会使新写入的标记立即失效，
+     * 因此插入之前的判断不读取、也不写入不存在标记。
+     *
+     * @param key 指定的主键。
+     * @return 指定的主键是否存在。
+     * @throws Exception 任何可能的异常。
+     */
+    private boolean internalExistsForInsert(K key) throws Exception {
+        return cache.exists(key) || dao.exists(key);
+    }
+
+    private boolean isKnownAbsent(K key) throws Exception {
+        return absentCacheTimeout > 0 && cache.isMarkedAbsent(key);
+    }
+
+    private BitSet batchKnownAbsent(List<K> keys) throws Exception {
+        if (absentCacheTimeout <= 0 || keys.isEmpty()) {
+            return new BitSet();
+        }
+        return cache.batchIsMarkedAbsent(keys);
+    }
+
+    private void batchMarkAbsent(List<K> keys) throws Exception {
+        if (absentCacheTimeout > 0 && !keys.isEmpty()) {
+            cache.batchMarkAbsent(keys, absentCacheTimeout);
+        }
+    }
+
+    private boolean daoExists(K key) throws Exception {
+        if (dao.exists(key)) {
+            return true;
+        }
+        if (absentCacheTimeout > 0) {
+            cache.markAbsent(key, absentCacheTimeout);
+        }
+        return false;
     }
 
     @Override
@@ -127,17 +209,144 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
     }
 
     private E internalGet(K key) throws Exception {
-        if (cache.exists(key)) {
-            return cache.get(key);
-        }
-        if (!dao.exists(key)) {
+        E entity = internalGetIfExists(key);
+        if (Objects.isNull(entity)) {
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
         }
-        E entity = dao.get(key);
-        cache.push(entity, cacheTimeout);
         return entity;
     }
 
+    private E internalGetIfExists(K key) throws Exception {
+        E entity = cache.getIfExists(key);
+        if (Objects.nonNull(entity)) {
+            if (expirationSupport.isEarlyRecomputeEnabled()
+                    && expirationSupport.shouldRecomputeEarly(cache.getRemainingTimeout(key))) {
+                return recomputeEarly(key, entity);
+            }
+            return entity;
+        }
+        if (isKnownAbsent(key)) {
+            return null;
+        }
+        if (rebuildLockTimeout > 0) {
+            return rebuildWithLock(key);
+        }
+        return rebuild(key);
+    }
+
+    private E rebuild(K key) throws Exception {
+        E entity = load(key);
+        if (Objects.isNull(entity) && absentCacheTimeout > 0) {
+            cache.markAbsent(key, absentCacheTimeout);
+        }
+        return entity;
+    }
+
+    private E recomputeEarly(K key, E cachedEntity) throws Exception {
+        if (rebuildLockTimeout <= 0) {
+            return reload(key);
+        }
+        String token = UUID.randomUUID().toString();
+        if (!cache.tryLockRebuild(key, token, rebuildLockTimeout)) {
+            // 其它调用者正在重新加载，返回缓存中当前的实体。
+            return cachedEntity;
+        }
+        try {
+            return reload(key);
+        } finally {
+            cache.unlockRebuild(key, token);
+        }
+    }
+
+    private E reload(K key) throws Exception {
+        E entity = load(key);
+        if (Objects.isNull(entity)) {
+            // 实体已经通过其它途径被删除，缓存中的实体不再有效。
+            cache.delete(key);
+        }
+        return entity;
+    }
+
+    private E load(K key) throws Exception {
+        long startTime = System.currentTimeMillis();
+        E entity = dao.getIfExists(key);
+        expirationSupport.recordRecomputeTime(System.currentTimeMillis() - startTime);
+        if (Objects.nonNull(entity)) {
+            pushToCache(entity);
+        }
+        return entity;
+    }
+
+    private void pushToCache(E entity) throws Exception {
+        cache.push(entity, expirationSupport.jitteredTimeout(cacheTimeout));
+    }
+
+    /**
+     * 将指定的实体批量写入缓存。
+     *
+     * <p>
+     * 设置了缓存超时时间的抖动时，实体被随机分为若干组，每组使用各自的超时时间写入。
+     *
+     * @param entities 指定的实体组成的列表。
+     * @throws Exception 任何可能的异常。
+     * @since 2.0.0
+     */
+    protected void batchPushToCache(List<E> entities) throws Exception {
+        for (List<E> group : expirationSupport.jitterGroups(entities)) {
+            cache.batchPush(group, expirationSupport.jitteredTimeout(cacheTimeout));
+        }
+    }
+
+    private E rebuildWithLock(K key) throws Exception {
+        String token = UUID.randomUUID().toString();
+        if (cache.tryLockRebuild(key, token, rebuildLockTimeout)) {
+            try {
+                // 获取锁之前，其它调用者可能已经完成了重建。
+                E entity = cache.getIfExists(key);
+                if (Objects.nonNull(entity)) {
+                    return entity;
+                }
+                entity = load(key);
+                if (Objects.isNull(entity)) {
+                    // 实体不存在时也要写入标记，否则等待的调用者只能在等待超时后各自访问数据访问层。
+                    cache.markAbsent(key, rebuildAbsentTimeout());
+                }
+                return entity;
+            } finally {
+                cache.unlockRebuild(key, token);
+            }
+        }
+        // 等待持有锁的调用者完成重建，并重新读取缓存；不存在标记同样表示重建已经完成。
+        long deadline = System.currentTimeMillis() + rebuildWaitTimeout;
+        long remaining;
+        while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+            sleepForRebuild(remaining);
+            E entity = cache.getIfExists(key);
+            if (Objects.nonNull(entity)) {
+                return entity;
+            }
+            if (cache.isMarkedAbsent(key)) {
+                return null;
+            }
+        }
+        // 等待超时，自行从数据访问层加载。
+        return rebuild(key);
+    }
+
+    private long rebuildAbsentTimeout() {
+        // 没有设置不存在标记超时时间时，标记只需要覆盖其它调用者的等待时间。
+        return absentCacheTimeout > 0 ? absentCacheTimeout : Math.max(rebuildWaitTimeout, 1L);
+    }
+
+    private void sleepForRebuild(long remaining) throws InterruptedException {
+        try {
+            Thread.sleep(Math.min(REBUILD_WAIT_INTERVAL, remaining));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
     @Override
     protected K doInsert(E entity) throws Exception {
         return internalInsert(entity);
@@ -146,11 +355,11 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
     private K internalInsert(E entity) throws Exception {
         if (Objects.isNull(entity.getKey())) {
             entity.setKey(keyGenerator.generate());
-        } else if (internalExists(entity.getKey())) {
+        } else if (internalExistsForInsert(entity.getKey())) {
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_EXISTED.get());
         }
         K key = dao.insert(entity);
-        cache.push(entity, cacheTimeout);
+        pushToCache(entity);
         return key;
     }
 
@@ -165,7 +374,7 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
         }
 
         dao.update(entity);
-        cache.push(entity, cacheTimeout);
+        pushToCache(entity);
     }
 
     @Override
@@ -186,12 +395,12 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
 
     @Override
     protected E doGetIfExists(K key) throws Exception {
-        return internalExists(key) ? internalGet(key) : null;
+        return internalGetIfExists(key);
     }
 
     @Override
     protected K doInsertIfNotExists(E entity) throws Exception {
-        if (Objects.isNull(entity.getKey()) || !internalExists(entity.getKey())) {
+        if (Objects.isNull(entity.getKey()) || !internalExistsForInsert(entity.getKey())) {
             return internalInsert(entity);
         }
         return null;
@@ -213,7 +422,7 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
 
     @Override
     protected K doInsertOrUpdate(E entity) throws Exception {
-        if (Objects.isNull(entity.getKey()) || !internalExists(entity.getKey())) {
+        if (Objects.isNull(entity.getKey()) || !internalExistsForInsert(entity.getKey())) {
             return internalInsert(entity);
         } else {
             internalUpdate(entity);
@@ -227,10 +436,21 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
     }
 
     private boolean internalAllExists(List<K> keys) throws Exception {
-        for (K key : keys) {
-            if (!internalExists(key)) return false;
+        if (keys.isEmpty()) {
+            return true;
         }
-        return true;
+        BitSet hits = cache.batchExists(keys);
+        List<K> misses = new ArrayList<>();
+        for (int i = hits.nextClearBit(0); i < keys.size(); i = hits.nextClearBit(i + 1)) {
+            misses.add(keys.get(i));
+        }
+        if (misses.isEmpty()) {
+            return true;
+        }
+        if (!batchKnownAbsent(misses).isEmpty()) {
+            return false;
+        }
+        return dao.allExists(misses);
     }
 
     @Override
@@ -239,25 +459,199 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
     }
 
     private boolean internalNonExists(List<K> keys) throws Exception {
-        for (K key : keys) {
-            if (internalExists(key)) return false;
+        if (keys.isEmpty()) {
+            return true;
+        }
+        if (!cache.batchExists(keys).isEmpty()) {
+            return false;
         }
+        BitSet knownAbsent = batchKnownAbsent(keys);
+        List<K> misses = new ArrayList<>();
+        for (int i = knownAbsent.nextClearBit(0); i < keys.size(); i = knownAbsent.nextClearBit(i + 1)) {
+            misses.add(keys.get(i));
+        }
+        if (misses.isEmpty()) {
+            return true;
+        }
+        if (!dao.nonExists(misses)) {
+            return false;
+        }
+        batchMarkAbsent(misses);
         return true;
     }
 
+    /**
+     * 插入之前批量判断指定的主键是否全部不存在。
+     *
+     * <p>
+     * 与 {@link #internalExistsForInsert(Key)} 相同，不读取、也不写入不存在标记。
+     *
+     * @param keys 指定的主键组成的列表。
+     * @return 指定的主键是否全部不存在。
+     * @throws Exception 任何可能的异常。
+     */
+    private boolean internalNonExistsForInsert(List<K> keys) throws Exception {
+        if (keys.isEmpty()) {
+            return true;
+        }
+        return cache.batchExists(keys).isEmpty() && dao.nonExists(keys);
+    }
+
+    /**
+     * 批量判断指定的主键是否存在。
+     *
+     * <p>
+     * 先通过一次缓存的批量查询得到命中的主键，再对未命中且没有被标记为不存在的主键调用一次数据访问层的
+     * {@link BatchBaseDao#batchGetIfExists(List)}，区分每个实体是否存在，不逐个查询数据访问层；
+     * 不存在的实体通过一次 {@link BatchBaseCache#batchMarkAbsent(List, long)} 标记。
+     *
+     * <p>
+     * 用于插入之前的判断时，不读取、也不写入不存在标记。
+     *
+     * @param keys      指定的主键组成的列表。
+     * @param forInsert 是否用于插入之前的判断。
+     * @return 表示指定的主键是否存在的位图。
+     * @throws Exception 任何可能的异常。
+     */
+    private BitSet internalBatchExists(List<K> keys, boolean forInsert) throws Exception {
+        if (keys.isEmpty()) {
+            return new BitSet();
+        }
+        BitSet result = cache.batchExists(keys);
+        List<Integer> misses = new ArrayList<>();
+        for (int i = result.nextClearBit(0); i < keys.size(); i = result.nextClearBit(i + 1)) {
+            misses.add(i);
+        }
+        BitSet knownAbsent = forInsert ? new BitSet() : batchKnownAbsent(pick(keys, misses));
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = knownAbsent.nextClearBit(0); i < misses.size(); i = knownAbsent.nextClearBit(i + 1)) {
+            candidates.add(misses.get(i));
+        }
+        if (candidates.isEmpty()) {
+            return result;
+        }
+        List<K> candidateKeys = pick(keys, candidates);
+        List<E> entities = dao.batchGetIfExists(candidateKeys);
+        List<K> absentKeys = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (Objects.nonNull(entities.get(i))) {
+                result.set(candidates.get(i));
+            } else {
+                absentKeys.add(candidateKeys.get(i));
+            }
+        }
+        if (!forInsert) {
+            batchMarkAbsent(absentKeys);
+        }
+        return result;
+    }
+
+    /**
+     * 批量判断指定的实体是否存在。
+     *
+     * <p>
+     * 没有主键的实体视为不存在。
+     *
+     * @param entities  指定的实体组成的列表。
+     * @param forInsert 是否用于插入之前的判断。
+     * @return 表示指定的实体是否存在的位图。
+     * @throws Exception 任何可能的异常。
+     */
+    private BitSet internalBatchExistsByEntities(List<E> entities, boolean forInsert) throws Exception {
+        List<Integer> keyedIndices = new ArrayList<>();
+        List<K> keys = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            K key = entities.get(i).getKey();
+            if (Objects.nonNull(key)) {
+                keyedIndices.add(i);
+                keys.add(key);
+            }
+        }
+        BitSet keyedExists = internalBatchExists(keys, forInsert);
+        BitSet result = new BitSet(entities.size());
+        for (int i = keyedExists.nextSetBit(0); i >= 0; i = keyedExists.nextSetBit(i + 1)) {
+            result.set(keyedIndices.get(i));
+        }
+        return result;
+    }
+
     @Override
     protected List<E> doBatchGet(List<K> keys) throws Exception {
         return internalBatchGet(keys);
     }
 
     private List<E> internalBatchGet(List<K> keys) throws Exception {
-        List<E> entities = new ArrayList<>();
-        for (K key : keys) {
-            entities.add(internalGet(key));
+        return internalBatchResolve(keys, true);
+    }
+
+    /**
+     * 批量获取指定的主键对应的实体。
+     *
+     * <p>
+     * 缓存命中的实体通过一次 {@link BatchBaseCache#batchGetIfExists(List)} 读取；未命中且没有被标记为不存在的实体，
+     * 通过一次 {@link BatchBaseDao#batchGetIfExists(List)} 加载，并通过一次批量推送写入缓存，
+     * 数据访问层中不存在的实体在缓存中被标记为不存在。
+     *
+     * <p>
+     * 批量获取不使用重建锁，也不进行提前重算。
+     *
+     * @param keys       指定的主键组成的列表。
+     * @param requireAll 是否要求全部实体存在，为 <code>true</code> 时，任何实体不存在都会抛出异常。
+     * @return 与主键一一对应的实体组成的列表，不存在的实体对应 <code>null</code>。
+     * @throws Exception 任何可能的异常。
+     */
+    private List<E> internalBatchResolve(List<K> keys, boolean requireAll) throws Exception {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<E> entities = new ArrayList<>(cache.batchGetIfExists(keys));
+        List<Integer> misses = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (Objects.isNull(entities.get(i))) {
+                misses.add(i);
+            }
+        }
+        BitSet knownAbsent = batchKnownAbsent(pick(keys, misses));
+        if (requireAll && !knownAbsent.isEmpty()) {
+            throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
+        }
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = knownAbsent.nextClearBit(0); i < misses.size(); i = knownAbsent.nextClearBit(i + 1)) {
+            candidates.add(misses.get(i));
+        }
+        if (candidates.isEmpty()) {
+            return entities;
+        }
+        List<E> loadedEntities = dao.batchGetIfExists(pick(keys, candidates));
+        List<E> entities2Push = new ArrayList<>(loadedEntities.size());
+        List<K> absentKeys = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            E entity = loadedEntities.get(i);
+            if (Objects.nonNull(entity)) {
+                entities.set(candidates.get(i), entity);
+                entities2Push.add(entity);
+            } else {
+                absentKeys.add(keys.get(candidates.get(i)));
+            }
+        }
+        if (!entities2Push.isEmpty()) {
+            batchPushToCache(entities2Push);
+        }
+        batchMarkAbsent(absentKeys);
+        if (!absentKeys.isEmpty() && requireAll) {
+            throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
         }
         return entities;
     }
 
+    private List<K> pick(List<K> keys, List<Integer> indices) {
+        List<K> picked = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            picked.add(keys.get(index));
+        }
+        return picked;
+    }
+
     @Override
     protected List<K> doBatchInsert(List<E> entities) throws Exception {
         return internalBatchInsert(entities);
@@ -267,16 +661,30 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
         List<K> collect = entities.stream().filter(
                 e -> Objects.nonNull(e.getKey())).map(E::getKey).collect(Collectors.toList()
         );
-        if (!internalNonExists(collect)) {
+        if (!internalNonExistsForInsert(collect)) {
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_EXISTED.get());
         }
 
+        return uncheckedBatchInsert(entities);
+    }
+
+    /**
+     * 批量插入已知不存在的实体，不再检查实体是否存在。
+     *
+     * @param entities 实体组成的列表。
+     * @return 插入的实体对应的主键。
+     * @throws Exception 任何可能的异常。
+     */
+    private List<K> uncheckedBatchInsert(List<E> entities) throws Exception {
+        if (entities.isEmpty()) {
+            return new ArrayList<>();
+        }
         List<E> nonKeyEntities = entities.stream().filter(e -> Objects.isNull(e.getKey())).collect(Collectors.toList());
         // 根据 nonKeyEntities 的大小，选择性生成主键。
         mayGenerateKeys(nonKeyEntities);
 
         List<K> ks = dao.batchInsert(entities);
-        cache.batchPush(entities, cacheTimeout);
+        batchPushToCache(entities);
         return ks;
     }
 
@@ -303,8 +711,21 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
         }
 
+        uncheckedBatchUpdate(entities);
+    }
+
+    /**
+     * 批量更新已知存在的实体，不再检查实体是否存在。
+     *
+     * @param entities 实体组成的列表。
+     * @throws Exception 任何可能的异常。
+     */
+    private void uncheckedBatchUpdate(List<E> entities) throws Exception {
+        if (entities.isEmpty()) {
+            return;
+        }
         dao.batchUpdate(entities);
-        cache.batchPush(entities, cacheTimeout);
+        batchPushToCache(entities);
     }
 
     @Override
@@ -317,67 +738,78 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
         }
 
+        uncheckedBatchDelete(keys);
+    }
+
+    /**
+     * 批量删除已知存在的实体，不再检查实体是否存在。
+     *
+     * @param keys 主键组成的列表。
+     * @throws Exception 任何可能的异常。
+     */
+    private void uncheckedBatchDelete(List<K> keys) throws Exception {
+        if (keys.isEmpty()) {
+            return;
+        }
         cache.batchDelete(keys);
         dao.batchDelete(keys);
     }
 
     @Override
     protected List<E> doBatchGetIfExists(List<K> keys) throws Exception {
-        List<K> existsKeys = new ArrayList<>();
-        for (K key : keys) {
-            if (internalExists(key)) {
-                existsKeys.add(key);
-            }
-        }
-        return internalBatchGet(existsKeys);
+        return internalBatchResolve(keys, false).stream().filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     @Override
     protected List<K> doBatchInsertIfNotExists(List<E> entities) throws Exception {
+        BitSet exists = internalBatchExistsByEntities(entities, true);
         List<E> entities2Insert = new ArrayList<>();
-        for (E entity : entities) {
-            if (Objects.isNull(entity.getKey()) || !internalExists(entity.getKey())) {
-                entities2Insert.add(entity);
+        for (int i = 0; i < entities.size(); i++) {
+            if (!exists.get(i)) {
+                entities2Insert.add(entities.get(i));
             }
         }
-        return internalBatchInsert(entities2Insert);
+        // 存在性已经确定，不再重复检查。
+        return uncheckedBatchInsert(entities2Insert);
     }
 
     @Override
     protected void doBatchUpdateIfExists(List<E> entities) throws Exception {
+        BitSet exists = internalBatchExistsByEntities(entities, false);
         List<E> entities2Update = new ArrayList<>();
-        for (E entity : entities) {
-            if (internalExists(entity.getKey())) {
-                entities2Update.add(entity);
-            }
+        for (int i = exists.nextSetBit(0); i >= 0; i = exists.nextSetBit(i + 1)) {
+            entities2Update.add(entities.get(i));
         }
-        internalBatchUpdate(entities2Update);
+        // 存在性已经确定，不再重复检查。
+        uncheckedBatchUpdate(entities2Update);
     }
 
     @Override
     protected void doBatchDeleteIfExists(List<K> keys) throws Exception {
+        BitSet exists = internalBatchExists(keys, false);
         List<K> keys2Delete = new ArrayList<>();
-        for (K key : keys) {
-            if (internalExists(key)) {
-                keys2Delete.add(key);
-            }
+        for (int i = exists.nextSetBit(0); i >= 0; i = exists.nextSetBit(i + 1)) {
+            keys2Delete.add(keys.get(i));
         }
-        internalBatchDelete(keys2Delete);
+        // 存在性已经确定，不再重复检查。
+        uncheckedBatchDelete(keys2Delete);
     }
 
     @Override
     protected List<K> doBatchInsertOrUpdate(List<E> entities) throws Exception {
+        BitSet exists = internalBatchExistsByEntities(entities, true);
         List<E> entities2Insert = new ArrayList<>();
         List<E> entities2Update = new ArrayList<>();
-        for (E entity : entities) {
-            if (Objects.isNull(entity.getKey()) || !internalExists(entity.getKey())) {
-                entities2Insert.add(entity);
+        for (int i = 0; i < entities.size(); i++) {
+            if (exists.get(i)) {
+                entities2Update.add(entities.get(i));
             } else {
-                entities2Update.add(entity);
+                entities2Insert.add(entities.get(i));
             }
         }
-        internalBatchUpdate(entities2Update);
-        return internalBatchInsert(entities2Insert);
+        // 存在性已经确定，不再重复检查。
+        uncheckedBatchUpdate(entities2Update);
+        return uncheckedBatchInsert(entities2Insert);
     }
 
     /**
@@ -395,13 +827,11 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
     }
 
     private void internalDumpCache(K key) throws Exception {
-        E entity;
-        if (cache.exists(key)) {
-            entity = cache.get(key);
-        } else {
+        E entity = cache.getIfExists(key);
+        if (Objects.isNull(entity)) {
             entity = dao.get(key);
         }
-        cache.push(entity, cacheTimeout);
+        pushToCache(entity);
     }
 
     /**
@@ -455,6 +885,118 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
         this.cacheTimeout = cacheTimeout;
     }
 
+    public long getAbsentCacheTimeout() {
+        return absentCacheTimeout;
+    }
+
+    /**
+     * 设置不存在标记的超时时间。
+     *
+     * <p>
+     * 大于 0 时，数据访问层中不存在的实体会通过 {@link BaseCache#markAbsent(Key, long)} 在缓存中被标记为不存在，
+     * 标记有效期间，对该实体的查询直接返回不存在，不再访问数据访问层；为 0 时不使用标记，这也是默认值。
+     *
+     * <p>
+     * 实体被插入后，缓存中的实体优先于标记，因此该超时时间应当远小于缓存超时时间。
+     * 通过其它途径（例如其它服务或直接操作数据库）插入的实体，最多在该超时时间后可见。
+     *
+     * @param absentCacheTimeout 不存在标记的超时时间（毫秒）。
+     * @since 2.0.0
+     */
+    public void setAbsentCacheTimeout(@Range(from = 0, to = Long.MAX_VALUE) long absentCacheTimeout) {
+        this.absentCacheTimeout = absentCacheTimeout;
+    }
+
+    public long getRebuildLockTimeout() {
+        return rebuildLockTimeout;
+    }
+
+    /**
+     * 设置重建锁的超时时间。
+     *
+     * <p>
+     * 大于 0 时，缓存未命中的实体只由通过 {@link BaseCache#tryLockRebuild(Key, String, long)} 获取到重建锁的调用者
+     * 从数据访问层加载并写入缓存，其它调用者（包括其它节点中的调用者）在重建等待时间内等待重建完成，并重新读取缓存，
+     * 以防止热点实体过期时大量请求同时访问数据访问层；为 0 时不使用重建锁，这也是默认值。
+     *
+     * <p>
+     * 该超时时间应当大于从数据访问层加载一个实体所需的时间，以免锁在重建完成之前被释放。
+     *
+     * <p>
+     * 获取到重建锁的调用者发现实体不存在时，会在释放锁之前写入不存在标记，等待的调用者读取到该标记后直接返回不存在。
+     * 没有设置不存在标记的超时时间时，该标记的有效期为重建等待时间。
+     *
+     * @param rebuildLockTimeout 重建锁的超时时间（毫秒）。
+     * @see #setRebuildWaitTimeout(long)
+     * @since 2.0.0
+     */
+    public void setRebuildLockTimeout(@Range(from = 0, to = Long.MAX_VALUE) long rebuildLockTimeout) {
+        this.rebuildLockTimeout = rebuildLockTimeout;
+    }
+
+    public long getRebuildWaitTimeout() {
+        return rebuildWaitTimeout;
+    }
+
+    /**
+     * 设置重建等待时间。
+     *
+     * <p>
+     * 仅在重建锁的超时时间大于 0 时使用。没有获取到重建锁的调用者最多等待该时间，
+     * 超过该时间仍未重建完成时，自行从数据访问层加载实体。默认值为 500。
+     *
+     * @param rebuildWaitTimeout 重建等待时间（毫秒）。
+     * @since 2.0.0
+     */
+    public void setRebuildWaitTimeout(@Range(from = 0, to = Long.MAX_VALUE) long rebuildWaitTimeout) {
+        this.rebuildWaitTimeout = rebuildWaitTimeout;
+    }
+
+    public double getCacheTimeoutJitter() {
+        return expirationSupport.getJitter();
+    }
+
+    /**
+     * 设置缓存超时时间的抖动。
+     *
+     * <p>
+     * 大于 0 时，写入缓存的超时时间在 <code>cacheTimeout * (1 - cacheTimeoutJitter)</code> 与 <code>cacheTimeout</code>
+     * 之间随机分布，同时写入的实体（例如同一次批量插入的实体）不会同时过期，重新加载被分散到不同的时间；
+     * 为 0 时使用固定的缓存超时时间，这也是默认值。
+     *
+     * <p>
+     * 批量写入时，实体被随机分为若干组，每组使用各自的超时时间写入。
+     *
+     * @param cacheTimeoutJitter 缓存超时时间的抖动，取值范围为 [0, 1)。
+     * @since 2.0.0
+     */
+    public void setCacheTimeoutJitter(double cacheTimeoutJitter) {
+        expirationSupport.setJitter(cacheTimeoutJitter);
+    }
+
+    public double getEarlyRecomputeBeta() {
+        return expirationSupport.getEarlyRecomputeBeta();
+    }
+
+    /**
+     * 设置提前重算系数。
+     *
+     * <p>
+     * 大于 0 时，缓存命中后根据 {@link BaseCache#getRemainingTimeout(Key)} 返回的剩余超时时间与最近从数据访问层加载实体所耗费的时间，
+     * 按照 XFetch 算法以一定的概率在过期之前提前重新加载实体，剩余超时时间越短，概率越大；
+     * 系数越大，提前重算发生得越早，通常取 1。为 0 时不提前重算，这也是默认值。
+     *
+     * <p>
+     * 启用后，每次缓存命中多一次读取剩余超时时间的操作。缓存不支持剩余超时时间时，不会提前重算。
+     * 设置了重建锁的超时时间时，提前重算同样需要获取重建锁，没有获取到锁的调用者直接返回缓存中当前的实体。
+     *
+     * @param earlyRecomputeBeta 提前重算系数，必须为非负的有限数。
+     * @since 2.0.0
+     */
+    public void setEarlyRecomputeBeta(double earlyRecomputeBeta) {
+        expirationSupport.setEarlyRecomputeBeta(earlyRecomputeBeta);
+    }
+
     @Override
     public String toString() {
         return "GeneralBatchCrudService{" +
@@ -464,6 +1006,10 @@ public class GeneralBatchCrudService<K extends Key, E extends Entity<K>> extends
                 ", sem=" + sem +
                 ", exceptionLogLevel=" + exceptionLogLevel +
                 ", cacheTimeout=" + cacheTimeout +
+                ", absentCacheTimeout=" + absentCacheTimeout +
+                ", expirationSupport=" + expirationSupport +
+                ", rebuildLockTimeout=" + rebuildLockTimeout +
+                ", rebuildWaitTimeout=" + rebuildWaitTimeout +
                 ", sem=" + sem +
                 ", exceptionLogLevel=" + exceptionLogLevel +
                 '}';
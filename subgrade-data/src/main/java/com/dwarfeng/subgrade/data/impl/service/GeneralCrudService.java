@@ -7,6 +7,7 @@ import com.dwarfeng.subgrade.basic.stack.exception.ServiceException;
 import com.dwarfeng.subgrade.basic.stack.exception.ServiceExceptionMapper;
 import com.dwarfeng.subgrade.basic.stack.generation.KeyGenerator;
 import com.dwarfeng.subgrade.basic.stack.log.LogLevel;
+import com.dwarfeng.subgrade.data.internal.service.CacheExpirationSupport;
 import com.dwarfeng.subgrade.data.sdk.exception.ServiceExceptionCodeSuppliers;
 import com.dwarfeng.subgrade.data.sdk.service.AbstractCrudService;
 import com.dwarfeng.subgrade.data.stack.cache.BaseCache;
@@ -28,6 +29,15 @@ import java.util.Objects;
  * <p>
  * 该类只提供最基本的方法实现，没有添加任何事务，请通过代理的方式在代理类中添加事务。
  *
+ * <p>
+ * 设置了不存在标记超时时间后，数据访问层中不存在的实体会在缓存中被标记为不存在，
+ * 标记有效期间对该实体的查询不再访问数据访问层，详见 {@link #setAbsentCacheTimeout(long)}。
+ * 插入之前的存在性判断直接访问缓存与数据访问层，不读取、也不写入不存在标记。
+ *
+ * <p>
+ * 缓存超时时间可以添加随机抖动，缓存命中时也可以按照 XFetch 算法在过期之前提前重新加载实体，
+ * 详见 {@link #setCacheTimeoutJitter(double)} 与 {@link #setEarlyRecomputeBeta(double)}。
+ *
  * @author DwArFeng
  * @since 0.0.1-beta
  */
@@ -46,6 +56,11 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
     @Range(from = 0, to = Long.MAX_VALUE)
     private long cacheTimeout;
 
+    @Range(from = 0, to = Long.MAX_VALUE)
+    private long absentCacheTimeout;
+
+    private final CacheExpirationSupport expirationSupport = new CacheExpirationSupport();
+
     /**
      * 构造器方法。
      *
@@ -118,7 +133,39 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
         if (cache.exists(key)) {
             return true;
         }
-        return dao.exists(key);
+        if (isKnownAbsent(key)) {
+            return false;
+        }
+        return daoExists(key);
+    }
+
+    /**
+     * 插入之前判断指定的主键是否存在。
+     *
+     * <p>
+     * 不存在标记可能已经过时，而即将插入的实体会使新写入的标记立即失效，
+     * 因此插入之前的判断不读取、也不写入不存在标记。
+     *
+     * @param key 指定的主键。
+     * @return 指定的主键是否存在。
+     * @throws Exception 任何可能的异常。
+     */
+    private boolean internalExistsForInsert(K key) throws Exception {
+        return cache.exists(key) || dao.exists(key);
+    }
+
+    private boolean isKnownAbsent(K key) throws Exception {
+        return absentCacheTimeout > 0 && cache.isMarkedAbsent(key);
+    }
+
+    private boolean daoExists(K key) throws Exception {
+        if (dao.exists(key)) {
+            return true;
+        }
+        if (absentCacheTimeout > 0) {
+            cache.markAbsent(key, absentCacheTimeout);
+        }
+        return false;
     }
 
     @Override
@@ -127,17 +174,55 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
     }
 
     private E internalGet(K key) throws Exception {
-        if (cache.exists(key)) {
-            return cache.get(key);
-        }
-        if (!dao.exists(key)) {
+        E entity = internalGetIfExists(key);
+        if (Objects.isNull(entity)) {
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
         }
-        E entity = dao.get(key);
-        cache.push(entity, cacheTimeout);
         return entity;
     }
 
+    private E internalGetIfExists(K key) throws Exception {
+        E entity = cache.getIfExists(key);
+        if (Objects.nonNull(entity)) {
+            if (expirationSupport.isEarlyRecomputeEnabled()
+                    && expirationSupport.shouldRecomputeEarly(cache.getRemainingTimeout(key))) {
+                return reload(key);
+            }
+            return entity;
+        }
+        if (isKnownAbsent(key)) {
+            return null;
+        }
+        entity = load(key);
+        if (Objects.isNull(entity) && absentCacheTimeout > 0) {
+            cache.markAbsent(key, absentCacheTimeout);
+        }
+        return entity;
+    }
+
+    private E reload(K key) throws Exception {
+        E entity = load(key);
+        if (Objects.isNull(entity)) {
+            // 实体已经通过其它途径被删除，缓存中的实体不再有效。
+            cache.delete(key);
+        }
+        return entity;
+    }
+
+    private E load(K key) throws Exception {
+        long startTime = System.currentTimeMillis();
+        E entity = dao.getIfExists(key);
+        expirationSupport.recordRecomputeTime(System.currentTimeMillis() - startTime);
+        if (Objects.nonNull(entity)) {
+            pushToCache(entity);
+        }
+        return entity;
+    }
+
+    private void pushToCache(E entity) throws Exception {
+        cache.push(entity, expirationSupport.jitteredTimeout(cacheTimeout));
+    }
+
     @Override
     protected K doInsert(E entity) throws Exception {
         return internalInsert(entity);
@@ -146,11 +231,11 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
     private K internalInsert(E entity) throws Exception {
         if (Objects.isNull(entity.getKey())) {
             entity.setKey(keyGenerator.generate());
-        } else if (internalExists(entity.getKey())) {
+        } else if (internalExistsForInsert(entity.getKey())) {
             throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_EXISTED.get());
         }
         K key = dao.insert(entity);
-        cache.push(entity, cacheTimeout);
+        pushToCache(entity);
         return key;
     }
 
@@ -165,7 +250,7 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
         }
 
         dao.update(entity);
-        cache.push(entity, cacheTimeout);
+        pushToCache(entity);
     }
 
     @Override
@@ -186,12 +271,12 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
 
     @Override
     protected E doGetIfExists(K key) throws Exception {
-        return internalExists(key) ? internalGet(key) : null;
+        return internalGetIfExists(key);
     }
 
     @Override
     protected K doInsertIfNotExists(E entity) throws Exception {
-        if (Objects.isNull(entity.getKey()) || !internalExists(entity.getKey())) {
+        if (Objects.isNull(entity.getKey()) || !internalExistsForInsert(entity.getKey())) {
             return internalInsert(entity);
         }
         return null;
@@ -213,7 +298,7 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
 
     @Override
     protected K doInsertOrUpdate(E entity) throws Exception {
-        if (Objects.isNull(entity.getKey()) || !internalExists(entity.getKey())) {
+        if (Objects.isNull(entity.getKey()) || !internalExistsForInsert(entity.getKey())) {
             return internalInsert(entity);
         } else {
             internalUpdate(entity);
@@ -229,13 +314,11 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
      */
     public void dumpCache(K key) throws ServiceException {
         try {
-            E entity;
-            if (cache.exists(key)) {
-                entity = cache.get(key);
-            } else {
+            E entity = cache.getIfExists(key);
+            if (Objects.isNull(entity)) {
                 entity = dao.get(key);
             }
-            cache.push(entity, cacheTimeout);
+            pushToCache(entity);
         } catch (Exception e) {
             throw ServiceExceptionHelper.logParse("将实体存入缓存时发生异常", exceptionLogLevel, e, sem);
         }
@@ -276,6 +359,72 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
         this.cacheTimeout = cacheTimeout;
     }
 
+    public long getAbsentCacheTimeout() {
+        return absentCacheTimeout;
+    }
+
+    /**
+     * 设置不存在标记的超时时间。
+     *
+     * <p>
+     * 大于 0 时，数据访问层中不存在的实体会通过 {@link BaseCache#markAbsent(Key, long)} 在缓存中被标记为不存在，
+     * 标记有效期间，对该实体的查询直接返回不存在，不再访问数据访问层；为 0 时不使用标记，这也是默认值。
+     *
+     * <p>
+     * 实体被插入后，缓存中的实体优先于标记，因此该超时时间应当远小于缓存超时时间。
+     * 通过其它途径（例如其它服务或直接操作数据库）插入的实体，最多在该超时时间后可见。
+     *
+     * @param absentCacheTimeout 不存在标记的超时时间（毫秒）。
+     * @since 2.0.0
+     */
+    public void setAbsentCacheTimeout(@Range(from = 0, to = Long.MAX_VALUE) long absentCacheTimeout) {
+        this.absentCacheTimeout = absentCacheTimeout;
+    }
+
+    public double getCacheTimeoutJitter() {
+        return expirationSupport.getJitter();
+    }
+
+    /**
+     * 设置缓存超时时间的抖动。
+     *
+     * <p>
+     * 大于 0 时，写入缓存的超时时间在 <code>cacheTimeout * (1 - cacheTimeoutJitter)</code> 与 <code>cacheTimeout</code>
+     * 之间随机分布，同时写入的实体（例如同一次批量插入的实体）不会同时过期，重新加载被分散到不同的时间；
+     * 为 0 时使用固定的缓存超时时间，这也是默认值。
+     *
+     * <p>
+     * 批量写入时，实体被随机分为若干组，每组使用各自的超时时间写入。
+     *
+     * @param cacheTimeoutJitter 缓存超时时间的抖动，取值范围为 [0, 1)。
+     * @since 2.0.0
+     */
+    public void setCacheTimeoutJitter(double cacheTimeoutJitter) {
+        expirationSupport.setJitter(cacheTimeoutJitter);
+    }
+
+    public double getEarlyRecomputeBeta() {
+        return expirationSupport.getEarlyRecomputeBeta();
+    }
+
+    /**
+     * 设置提前重算系数。
+     *
+     * <p>
+     * 大于 0 时，缓存命中后根据 {@link BaseCache#getRemainingTimeout(Key)} 返回的剩余超时时间与最近从数据访问层加载实体所耗费的时间，
+     * 按照 XFetch 算法以一定的概率在过期之前提前重新加载实体，剩余超时时间越短，概率越大；
+     * 系数越大，提前重算发生得越早，通常取 1。为 0 时不提前重算，这也是默认值。
+     *
+     * <p>
+     * 启用后，每次缓存命中多一次读取剩余超时时间的操作。缓存不支持剩余超时时间时，不会提前重算。
+     *
+     * @param earlyRecomputeBeta 提前重算系数，必须为非负的有限数。
+     * @since 2.0.0
+     */
+    public void setEarlyRecomputeBeta(double earlyRecomputeBeta) {
+        expirationSupport.setEarlyRecomputeBeta(earlyRecomputeBeta);
+    }
+
     @Override
     public String toString() {
         return "GeneralCrudService{" +
@@ -283,6 +432,8 @@ public class GeneralCrudService<K extends Key, E extends Entity<K>> extends Abst
                 ", cache=" + cache +
                 ", keyGenerator=" + keyGenerator +
                 ", cacheTimeout=" + cacheTimeout +
+                ", absentCacheTimeout=" + absentCacheTimeout +
+                ", expirationSupport=" + expirationSupport +
                 ", sem=" + sem +
                 ", exceptionLogLevel=" + exceptionLogLevel +
                 '}';
@@ -13,6 +13,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 
 /**
  * 通用的全体实体查询服务。
@@ -23,11 +25,20 @@ import java.util.List;
  * <p>
  * 该类只提供最基本的方法实现，没有添加任何事务，请通过代理的方式在代理类中添加事务。
  *
+ * <p>
+ * 设置了重建锁超时时间后，缓存未命中时只由获取到重建锁的调用者从数据访问层加载全体实体，
+ * 其它调用者等待重建完成后重新读取缓存，详见 {@link #setRebuildLockTimeout(long)}。
+ *
  * @author DwArFeng
  * @since 0.0.3-beta
  */
 public class GeneralEntireLookupService<E extends Entity<?>> extends AbstractEntireLookupService<E> {
 
+    /**
+     * 等待重建时，重新读取缓存的间隔（毫秒）。
+     */
+    private static final long REBUILD_WAIT_INTERVAL = 20L;
+
     @NotNull
     private EntireLookupDao<E> dao;
 
@@ -37,6 +48,12 @@ public class GeneralEntireLookupService<E extends Entity<?>> extends AbstractEnt
     @Range(from = 0, to = Long.MAX_VALUE)
     private long cacheTimeout;
 
+    @Range(from = 0, to = Long.MAX_VALUE)
+    private long rebuildLockTimeout;
+
+    @Range(from = 0, to = Long.MAX_VALUE)
+    private long rebuildWaitTimeout = 500L;
+
     /**
      * 构造器方法。
      *
@@ -95,20 +112,19 @@ public class GeneralEntireLookupService<E extends Entity<?>> extends AbstractEnt
         if (cache.exists()) {
             return PagingUtil.pagedData(cache.get());
         }
-        List<E> lookup = dao.lookup();
-        cache.set(lookup, cacheTimeout);
+        List<E> lookup = rebuild();
         return PagingUtil.pagedData(lookup);
     }
 
     @Override
     protected PagedData<E> doLookup(PagingInfo pagingInfo) throws Exception {
         pagingInfo = PagingFixHelper.mayFixPagingInfo(pagingInfo);
-        if (cache.exists()) {
-            return PagingUtil.pagedData(pagingInfo, cache.size(), cache.get(pagingInfo));
+        PagedData<E> pagedData = cache.getPagedIfExists(pagingInfo);
+        if (Objects.nonNull(pagedData)) {
+            return pagedData;
         }
-        List<E> lookup = dao.lookup();
-        cache.set(lookup, cacheTimeout);
-        return PagingUtil.pagedData(pagingInfo, cache.size(), cache.get(pagingInfo));
+        List<E> lookup = rebuild();
+        return PagingUtil.pagedData(pagingInfo, lookup.size(), PagingUtil.subList(lookup, pagingInfo));
     }
 
     @Override
@@ -116,8 +132,7 @@ public class GeneralEntireLookupService<E extends Entity<?>> extends AbstractEnt
         if (cache.exists()) {
             return cache.get();
         }
-        List<E> lookup = dao.lookup();
-        cache.set(lookup, cacheTimeout);
+        List<E> lookup = rebuild();
         return lookup;
     }
 
@@ -127,8 +142,7 @@ public class GeneralEntireLookupService<E extends Entity<?>> extends AbstractEnt
         if (cache.exists()) {
             return cache.get(pagingInfo);
         }
-        List<E> lookup = dao.lookup();
-        cache.set(lookup, cacheTimeout);
+        rebuild();
         return cache.get(pagingInfo);
     }
 
@@ -137,8 +151,7 @@ public class GeneralEntireLookupService<E extends Entity<?>> extends AbstractEnt
         if (cache.exists()) {
             return cache.get(PagingInfo.FIRST_ONE).stream().findFirst().orElse(null);
         }
-        List<E> lookup = dao.lookup();
-        cache.set(lookup, cacheTimeout);
+        List<E> lookup = rebuild();
         return lookup.stream().findFirst().orElse(null);
     }
 
@@ -147,9 +160,52 @@ public class GeneralEntireLookupService<E extends Entity<?>> extends AbstractEnt
         if (cache.exists()) {
             return cache.get().size();
         }
+        List<E> lookup = rebuild();
+        return lookup.size();
+    }
+
+    private List<E> rebuild() throws Exception {
+        if (rebuildLockTimeout <= 0) {
+            return loadAndSet();
+        }
+        String token = UUID.randomUUID().toString();
+        if (cache.tryLockRebuild(token, rebuildLockTimeout)) {
+            try {
+                // 获取锁之前，其它调用者可能已经完成了重建。
+                if (cache.exists()) {
+                    return cache.get();
+                }
+                return loadAndSet();
+            } finally {
+                cache.unlockRebuild(token);
+            }
+        }
+        // 等待持有锁的调用者完成重建，并重新读取缓存；列表为空时，缓存中的空列表标记同样表示重建已经完成。
+        long deadline = System.currentTimeMillis() + rebuildWaitTimeout;
+        long remaining;
+        while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+            sleepForRebuild(remaining);
+            if (cache.exists()) {
+                return cache.get();
+            }
+        }
+        // 等待超时，自行从数据访问层加载。
+        return loadAndSet();
+    }
+
+    private List<E> loadAndSet() throws Exception {
         List<E> lookup = dao.lookup();
         cache.set(lookup, cacheTimeout);
-        return lookup.size();
+        return lookup;
+    }
+
+    private void sleepForRebuild(long remaining) throws InterruptedException {
+        try {
+            Thread.sleep(Math.min(REBUILD_WAIT_INTERVAL, remaining));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
     }
 
     @NotNull
@@ -178,12 +234,59 @@ public class GeneralEntireLookupService<E extends Entity<?>> extends AbstractEnt
         this.cacheTimeout = cacheTimeout;
     }
 
+    public long getRebuildLockTimeout() {
+        return rebuildLockTimeout;
+    }
+
+    /**
+     * 设置重建锁的超时时间。
+     *
+     * <p>
+     * 大于 0 时，缓存未命中时只由通过 {@link ListCache#tryLockRebuild(String, long)} 获取到重建锁的调用者
+     * 从数据访问层加载全体实体并写入缓存，其它调用者（包括其它节点中的调用者）在重建等待时间内等待重建完成，
+     * 并重新读取缓存；为 0 时不使用重建锁，这也是默认值。
+     *
+     * <p>
+     * 该超时时间应当大于从数据访问层加载全体实体所需的时间，以免锁在重建完成之前被释放。
+     *
+     * <p>
+     * 全体实体为空时，获取到重建锁的调用者仍然将空列表写入缓存，等待的调用者读取到空列表后直接返回，
+     * 这要求缓存按照 {@link ListCache#set(java.util.Collection, long)} 的约定保存空列表。
+     *
+     * @param rebuildLockTimeout 重建锁的超时时间（毫秒）。
+     * @see #setRebuildWaitTimeout(long)
+     * @since 2.0.0
+     */
+    public void setRebuildLockTimeout(@Range(from = 0, to = Long.MAX_VALUE) long rebuildLockTimeout) {
+        this.rebuildLockTimeout = rebuildLockTimeout;
+    }
+
+    public long getRebuildWaitTimeout() {
+        return rebuildWaitTimeout;
+    }
+
+    /**
+     * 设置重建等待时间。
+     *
+     * <p>
+     * 仅在重建锁的超时时间大于 0 时使用。没有获取到重建锁的调用者最多等待该时间，
+     * 超过该时间仍未重建完成时，自行从数据访问层加载全体实体。默认值为 500。
+     *
+     * @param rebuildWaitTimeout 重建等待时间（毫秒）。
+     * @since 2.0.0
+     */
+    public void setRebuildWaitTimeout(@Range(from = 0, to = Long.MAX_VALUE) long rebuildWaitTimeout) {
+        this.rebuildWaitTimeout = rebuildWaitTimeout;
+    }
+
     @Override
     public String toString() {
         return "GeneralEntireLookupService{" +
                 "dao=" + dao +
                 ", cache=" + cache +
                 ", cacheTimeout=" + cacheTimeout +
+                ", rebuildLockTimeout=" + rebuildLockTimeout +
+                ", rebuildWaitTimeout=" + rebuildWaitTimeout +
                 ", sem=" + sem +
                 ", exceptionLogLevel=" + exceptionLogLevel +
                 '}';
@@ -0,0 +1,746 @@
+package com.dwarfeng.subgrade.data.impl.service;
+
+import com.dwarfeng.subgrade.basic.sdk.exception.ServiceExceptionHelper;
+import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
+import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.basic.stack.exception.ServiceException;
+import com.dwarfeng.subgrade.basic.stack.exception.ServiceExceptionMapper;
+import com.dwarfeng.subgrade.basic.stack.generation.KeyGenerator;
+import com.dwarfeng.subgrade.basic.stack.log.LogLevel;
+import com.dwarfeng.subgrade.data.internal.i18n.DataMessageKey;
+import com.dwarfeng.subgrade.data.internal.i18n.DataMessages;
+import com.dwarfeng.subgrade.data.sdk.exception.ServiceExceptionCodeSuppliers;
+import com.dwarfeng.subgrade.data.stack.cache.BatchBaseCache;
+import com.dwarfeng.subgrade.data.stack.dao.BatchBaseDao;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 写回模式的通用批量实体增删改查服务。
+ *
+ * <p>
+ * 启动后，实体的更新立即写入缓存，随后暂存在内存中，由后台任务按照写回间隔批量写回数据访问层；
+ * 暂存的实体数量达到批次大小时，立即触发一次异步写回。同一实体在写回之前的多次更新会被合并，只写回最后一次更新。
+ * 更新方法在返回之前仍然检查实体是否存在，因此暂存的实体在数据访问层中总是存在的，写回只需要批量更新。
+ * 存在性检查与暂存在删除所使用的锁中进行，并发的删除不会使已经删除的实体被重新写回。
+ *
+ * <p>
+ * 暂存的实体数量达到上限时，更新的调用者同步执行一次写回，以此限制暂存的实体数量，并对调用者施加背压。
+ *
+ * <p>
+ * 只有更新使用写回模式，插入与删除等其它写操作仍然同步执行：插入等操作执行之前先写回涉及的实体的暂存更新，
+ * 删除则直接丢弃被删除的实体的暂存更新，保证数据访问层中的操作顺序与调用顺序一致。读取实体时，暂存的实体优先于缓存与数据访问层，
+ * 缓存中的实体过期后也不会读到写回之前的旧值。
+ *
+ * <p>
+ * 调用者处于 Spring 管理的事务中时，实体在事务提交之后才写入缓存并暂存，事务回滚时更新被直接丢弃。
+ * 写回在调度器的线程中执行，不在调用者的事务之内，需要在事务中写回时，
+ * 详见 {@link #setFlushTransactionOperations(TransactionOperations)}。
+ *
+ * <p>
+ * 写回失败的实体会从缓存中清除，使之后的读取回到数据访问层中的值，
+ * 同时通过 {@link FlushFailureListener} 报告，详见 {@link #setFlushFailureListener(FlushFailureListener)}。
+ *
+ * <p>
+ * 服务通过 {@link #start()} 启动写回模式，通过 {@link #stop()} 停止写回模式并写回全部暂存的实体；
+ * 未启动时，服务的行为与 {@link GeneralBatchCrudService} 一致。暂存的实体只保存在本地内存中，
+ * 进程异常退出时，尚未写回的更新会丢失，因此该服务只适用于可以容忍这种丢失的数据。
+ *
+ * <p>
+ * 暂存的实体直接引用调用者传入的对象，调用者在更新之后不应再修改该对象。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class WriteBehindBatchCrudService<K extends Key, E extends Entity<K>> extends GeneralBatchCrudService<K, E> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindBatchCrudService.class);
+
+    /**
+     * 默认的写回间隔（毫秒）。
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000L;
+
+    /**
+     * 默认的批次大小。
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * 默认的暂存实体数量上限。
+     */
+    public static final int DEFAULT_MAX_PENDING_SIZE = 10000;
+
+    @NotNull
+    private final ScheduledExecutorService scheduler;
+
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int maxPendingSize = DEFAULT_MAX_PENDING_SIZE;
+
+    @NotNull
+    private FlushFailureListener<K, E> flushFailureListener = (entities, exception) -> {
+    };
+
+    @NotNull
+    private TransactionOperations flushTransactionOperations = TransactionOperations.withoutTransaction();
+
+    private final Lock pendingLock = new ReentrantLock();
+    private final Map<K, E> pendingEntities = new LinkedHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+    /**
+     * 删除锁。
+     *
+     * <p>
+     * 更新在读锁中检查实体是否存在并暂存实体，删除在写锁中丢弃暂存的实体并删除实体。
+     */
+    private final ReadWriteLock deleteLock = new ReentrantReadWriteLock();
+    private final AtomicLong deleteSequence = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    private volatile boolean running;
+    private ScheduledFuture<?> flushFuture;
+
+    /**
+     * 构造器方法。
+     *
+     * @param sem               服务异常映射器。
+     * @param exceptionLogLevel 异常的日志级别。
+     * @param dao               基础数据访问层。
+     * @param cache             基础缓存接口。
+     * @param keyGenerator      主键生成器。
+     * @param cacheTimeout      缓存超时时间。
+     * @param scheduler         执行写回任务的调度器。
+     */
+    public WriteBehindBatchCrudService(
+            @NotNull ServiceExceptionMapper sem,
+            @NotNull LogLevel exceptionLogLevel,
+            @NotNull BatchBaseDao<K, E> dao,
+            @NotNull BatchBaseCache<K, E> cache,
+            @NotNull KeyGenerator<K> keyGenerator,
+            @Range(from = 0, to = Long.MAX_VALUE) long cacheTimeout,
+            @NotNull ScheduledExecutorService scheduler
+    ) {
+        super(sem, exceptionLogLevel, dao, cache, keyGenerator, cacheTimeout);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 启动写回模式。
+     *
+     * <p>
+     * 启动后，按照写回间隔周期性地写回暂存的实体。服务已经启动时，调用该方法不产生任何效果。
+     */
+    public void start() {
+        pendingLock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            flushFuture = scheduler.scheduleWithFixedDelay(
+                    this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS
+            );
+            running = true;
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * 停止写回模式，并写回全部暂存的实体。
+     *
+     * <p>
+     * 停止后，更新重新同步写入数据访问层。服务未启动时，该方法只写回暂存的实体。
+     */
+    public void stop() {
+        pendingLock.lock();
+        try {
+            if (running) {
+                running = false;
+                flushFuture.cancel(false);
+                flushFuture = null;
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+        flush();
+    }
+
+    /**
+     * 立即写回全部暂存的实体。
+     *
+     * <p>
+     * 实体按照批次大小分批写回，写回失败的批次通过 {@link FlushFailureListener} 报告，该方法本身不会抛出异常。
+     * 写回期间被再次更新的实体会继续暂存，在下一次写回时写回。
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<E> entities;
+            pendingLock.lock();
+            try {
+                entities = new ArrayList<>(pendingEntities.values());
+            } finally {
+                pendingLock.unlock();
+            }
+            for (int i = 0; i < entities.size(); i += batchSize) {
+                writeBack(entities.subList(i, Math.min(i + batchSize, entities.size())));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeBack(List<E> entities) {
+        ServiceException exception = null;
+        try {
+            batchUpdateDao(entities);
+        } catch (Exception e) {
+            exception = ServiceExceptionHelper.logParse("写回实体时发生异常", exceptionLogLevel, e, sem);
+        }
+        // 只移除写回期间没有被再次更新的实体，被再次更新的实体留待下一次写回。
+        List<E> removedEntities = new ArrayList<>(entities.size());
+        pendingLock.lock();
+        try {
+            for (E entity : entities) {
+                if (pendingEntities.remove(entity.getKey(), entity)) {
+                    removedEntities.add(entity);
+                }
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+        if (Objects.isNull(exception)) {
+            return;
+        }
+        evictAndReport(removedEntities, exception);
+    }
+
+    /**
+     * 通过写回的事务操作批量更新数据访问层中的实体。
+     *
+     * @param entities 实体组成的列表。
+     * @throws Exception 任何可能的异常。
+     */
+    private void batchUpdateDao(List<E> entities) throws Exception {
+        try {
+            flushTransactionOperations.executeWithoutResult(status -> {
+                try {
+                    getDao().batchUpdate(entities);
+                } catch (Exception e) {
+                    // 抛出非受检异常，使事务回滚。
+                    throw new WriteBackException(e);
+                }
+            });
+        } catch (WriteBackException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private void evictAndReport(List<E> entities, ServiceException exception) {
+        try {
+            getCache().batchDelete(entities.stream().map(E::getKey).collect(Collectors.toList()));
+        } catch (Exception e) {
+            LOGGER.warn(DataMessages.message(DataMessageKey.WRITE_BEHIND_EVICT_FAILED, entities.size()), e);
+        }
+        try {
+            flushFailureListener.onFlushFailed(Collections.unmodifiableList(entities), exception);
+        } catch (Exception e) {
+            LOGGER.warn(DataMessages.message(DataMessageKey.WRITE_BEHIND_LISTENER_FAILED), e);
+        }
+    }
+
+    private void writeBackKeys(List<K> keys) {
+        List<E> entities = new ArrayList<>();
+        pendingLock.lock();
+        try {
+            if (pendingEntities.isEmpty()) {
+                return;
+            }
+            for (K key : keys) {
+                E entity = pendingEntities.get(key);
+                if (Objects.nonNull(entity)) {
+                    entities.add(entity);
+                }
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+        if (!entities.isEmpty()) {
+            writeBack(entities);
+        }
+    }
+
+    private <T> T writeThrough(List<K> keys, Callable<T> callable) throws Exception {
+        flushLock.lock();
+        try {
+            writeBackKeys(keys);
+            return callable.call();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void deleteThrough(List<K> keys, Callable<?> callable) throws Exception {
+        Lock lock = deleteLock.writeLock();
+        lock.lock();
+        try {
+            deleteSequence.incrementAndGet();
+            // 持有写回锁，等待正在进行的写回完成，被删除的实体不会在删除之后被写回。
+            flushLock.lock();
+            try {
+                discardPending(keys);
+                callable.call();
+            } finally {
+                flushLock.unlock();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discardPending(List<K> keys) {
+        pendingLock.lock();
+        try {
+            if (pendingEntities.isEmpty()) {
+                return;
+            }
+            keys.forEach(pendingEntities::remove);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private boolean isPending(K key) {
+        pendingLock.lock();
+        try {
+            return pendingEntities.containsKey(key);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private List<K> nonPendingKeys(List<K> keys) {
+        pendingLock.lock();
+        try {
+            if (pendingEntities.isEmpty()) {
+                return keys;
+            }
+            return keys.stream().filter(key -> !pendingEntities.containsKey(key)).collect(Collectors.toList());
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private E pendingEntity(K key) {
+        pendingLock.lock();
+        try {
+            return pendingEntities.get(key);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private List<E> overlay(List<E> entities) {
+        pendingLock.lock();
+        try {
+            if (pendingEntities.isEmpty()) {
+                return entities;
+            }
+            List<E> result = new ArrayList<>(entities.size());
+            for (E entity : entities) {
+                result.add(Objects.isNull(entity) ? null : pendingEntities.getOrDefault(entity.getKey(), entity));
+            }
+            return result;
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    private void update(List<E> entities) throws Exception {
+        if (entities.isEmpty()) {
+            return;
+        }
+        List<K> keys = entities.stream().map(E::getKey).collect(Collectors.toList());
+        if (!running) {
+            writeThrough(keys, () -> {
+                super.doBatchUpdate(entities);
+                return null;
+            });
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            long checkedDeleteSequence = deleteSequence.get();
+            checkExists(keys);
+            // 调用者处于事务中时，在事务提交之后暂存实体，回滚的更新不会被写回。
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueueAfterCommit(keys, entities, checkedDeleteSequence);
+                }
+            });
+            return;
+        }
+        Lock lock = deleteLock.readLock();
+        lock.lock();
+        try {
+            checkExists(keys);
+            enqueue(keys, entities);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkExists(List<K> keys) throws Exception {
+        if (!super.doAllExists(nonPendingKeys(keys))) {
+            throw new ServiceException(ServiceExceptionCodeSuppliers.ENTITY_NOT_EXIST.get());
+        }
+    }
+
+    private void enqueueAfterCommit(List<K> keys, List<E> entities, long checkedDeleteSequence) {
+        Lock lock = deleteLock.readLock();
+        lock.lock();
+        try {
+            // 检查之后发生过删除时，重新检查实体是否存在。
+            if (deleteSequence.get() != checkedDeleteSequence) {
+                checkExists(keys);
+            }
+            enqueue(keys, entities);
+        } catch (Exception e) {
+            evictAndReport(entities, ServiceExceptionHelper.logParse("暂存实体时发生异常", exceptionLogLevel, e, sem));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(List<K> keys, List<E> entities) throws Exception {
+        batchPushToCache(entities);
+        int pendingSize;
+        pendingLock.lock();
+        try {
+            // 检查之后服务可能已经停止，此时同步写入数据访问层。
+            if (running) {
+                for (E entity : entities) {
+                    // 先移除再放入，使被合并的实体按照最后一次更新的顺序写回。
+                    pendingEntities.remove(entity.getKey());
+                    pendingEntities.put(entity.getKey(), entity);
+                }
+                pendingSize = pendingEntities.size();
+            } else {
+                pendingSize = -1;
+            }
+        } finally {
+            pendingLock.unlock();
+        }
+        if (pendingSize < 0) {
+            writeThrough(keys, () -> {
+                batchUpdateDao(entities);
+                return null;
+            });
+            return;
+        }
+        if (pendingSize >= maxPendingSize) {
+            flush();
+        } else if (pendingSize >= batchSize) {
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 调度器拒绝执行时，暂存的实体由周期性的写回任务或背压写回。
+            flushScheduled.set(false);
+        }
+    }
+
+    @Override
+    protected E doGet(K key) throws Exception {
+        E entity = pendingEntity(key);
+        return Objects.nonNull(entity) ? entity : super.doGet(key);
+    }
+
+    @Override
+    protected void doUpdate(E entity) throws Exception {
+        update(Collections.singletonList(entity));
+    }
+
+    @Override
+    protected void doDelete(K key) throws Exception {
+        deleteThrough(Collections.singletonList(key), () -> {
+            super.doDelete(key);
+            return null;
+        });
+    }
+
+    @Override
+    protected E doGetIfExists(K key) throws Exception {
+        E entity = pendingEntity(key);
+        return Objects.nonNull(entity) ? entity : super.doGetIfExists(key);
+    }
+
+    @Override
+    protected void doUpdateIfExists(E entity) throws Exception {
+        if (isPending(entity.getKey()) || super.doExists(entity.getKey())) {
+            update(Collections.singletonList(entity));
+        }
+    }
+
+    @Override
+    protected void doDeleteIfExists(K key) throws Exception {
+        deleteThrough(Collections.singletonList(key), () -> {
+            super.doDeleteIfExists(key);
+            return null;
+        });
+    }
+
+    @Override
+    protected K doInsertOrUpdate(E entity) throws Exception {
+        if (Objects.isNull(entity.getKey())) {
+            return super.doInsertOrUpdate(entity);
+        }
+        return writeThrough(Collections.singletonList(entity.getKey()), () -> super.doInsertOrUpdate(entity));
+    }
+
+    @Override
+    protected List<E> doBatchGet(List<K> keys) throws Exception {
+        return overlay(super.doBatchGet(keys));
+    }
+
+    @Override
+    protected void doBatchUpdate(List<E> entities) throws Exception {
+        update(entities);
+    }
+
+    @Override
+    protected void doBatchDelete(List<K> keys) throws Exception {
+        deleteThrough(keys, () -> {
+            super.doBatchDelete(keys);
+            return null;
+        });
+    }
+
+    @Override
+    protected List<E> doBatchGetIfExists(List<K> keys) throws Exception {
+        return overlay(super.doBatchGetIfExists(keys));
+    }
+
+    @Override
+    protected void doBatchUpdateIfExists(List<E> entities) throws Exception {
+        List<K> keys = entities.stream().map(E::getKey).collect(Collectors.toList());
+        writeThrough(keys, () -> {
+            super.doBatchUpdateIfExists(entities);
+            return null;
+        });
+    }
+
+    @Override
+    protected void doBatchDeleteIfExists(List<K> keys) throws Exception {
+        deleteThrough(keys, () -> {
+            super.doBatchDeleteIfExists(keys);
+            return null;
+        });
+    }
+
+    @Override
+    protected List<K> doBatchInsertOrUpdate(List<E> entities) throws Exception {
+        List<K> keys = entities.stream().map(E::getKey).filter(Objects::nonNull).collect(Collectors.toList());
+        return writeThrough(keys, () -> super.doBatchInsertOrUpdate(entities));
+    }
+
+    /**
+     * 返回暂存的实体数量。
+     *
+     * @return 暂存的实体数量。
+     */
+    public int getPendingSize() {
+        pendingLock.lock();
+        try {
+            return pendingEntities.size();
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @NotNull
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * 设置写回间隔。
+     *
+     * <p>
+     * 写回间隔在下一次启动时生效。
+     *
+     * @param flushInterval 写回间隔（毫秒），必须为正数。
+     */
+    public void setFlushInterval(long flushInterval) {
+        if (flushInterval <= 0) {
+            throw new IllegalArgumentException("写回间隔必须为正数: " + flushInterval);
+        }
+        this.flushInterval = flushInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 设置批次大小。
+     *
+     * <p>
+     * 每一批写回的实体数量不超过批次大小；暂存的实体数量达到批次大小时，立即触发一次异步写回。
+     *
+     * @param batchSize 批次大小，必须为正数。
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须为正数: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxPendingSize() {
+        return maxPendingSize;
+    }
+
+    /**
+     * 设置暂存实体数量的上限。
+     *
+     * <p>
+     * 暂存的实体数量达到上限时，更新的调用者同步执行一次写回。
+     *
+     * @param maxPendingSize 暂存实体数量的上限，必须为正数。
+     */
+    public void setMaxPendingSize(int maxPendingSize) {
+        if (maxPendingSize <= 0) {
+            throw new IllegalArgumentException("暂存实体数量的上限必须为正数: " + maxPendingSize);
+        }
+        this.maxPendingSize = maxPendingSize;
+    }
+
+    @NotNull
+    public FlushFailureListener<K, E> getFlushFailureListener() {
+        return flushFailureListener;
+    }
+
+    /**
+     * 设置写回失败监听器。
+     *
+     * <p>
+     * 写回失败时，失败的实体已经从暂存中移除，并从缓存中清除，监听器可以据此重试或记录丢失的更新。
+     * 监听器在写回的线程中被调用，不应执行耗时的操作；监听器抛出的异常会被记录后忽略。默认的监听器不做任何事。
+     *
+     * @param flushFailureListener 写回失败监听器。
+     */
+    public void setFlushFailureListener(@NotNull FlushFailureListener<K, E> flushFailureListener) {
+        this.flushFailureListener = flushFailureListener;
+    }
+
+    @NotNull
+    public TransactionOperations getFlushTransactionOperations() {
+        return flushTransactionOperations;
+    }
+
+    /**
+     * 设置写回的事务操作。
+     *
+     * <p>
+     * 写回在调度器的线程中执行，不经过服务的事务代理。设置事务操作（例如 <code>TransactionTemplate</code>）后，
+     * 每一批实体在一个独立的事务中写回，写回失败时该事务回滚。默认不使用事务。
+     *
+     * @param flushTransactionOperations 写回的事务操作。
+     */
+    public void setFlushTransactionOperations(@NotNull TransactionOperations flushTransactionOperations) {
+        this.flushTransactionOperations = flushTransactionOperations;
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBehindBatchCrudService{" +
+                "scheduler=" + scheduler +
+                ", flushInterval=" + flushInterval +
+                ", batchSize=" + batchSize +
+                ", maxPendingSize=" + maxPendingSize +
+                ", flushFailureListener=" + flushFailureListener +
+                ", flushTransactionOperations=" + flushTransactionOperations +
+                ", running=" + running +
+                ", super=" + super.toString() +
+                '}';
+    }
+
+    /**
+     * 写回失败监听器。
+     *
+     * @param <K> 主键的类型。
+     * @param <E> 实体的类型。
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    @FunctionalInterface
+    public interface FlushFailureListener<K extends Key, E extends Entity<K>> {
+
+        /**
+         * 写回失败时调用。
+         *
+         * @param entities  写回失败的实体组成的列表。
+         * @param exception 写回失败的原因。
+         */
+        void onFlushFailed(List<E> entities, ServiceException exception);
+    }
+
+    /**
+     * 在事务操作中传递写回时发生的异常。
+     */
+    private static final class WriteBackException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private WriteBackException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.dwarfeng.subgrade.data.internal.dao;
+
+import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
+import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 实体对齐工具类。
+ *
+ * <p>
+ * 基于 <code>IN</code> 条件的批量查询只返回存在的实体，返回的顺序与指定的键的顺序不一定一致，重复的键也只返回一个实体。
+ * 该工具类按照实体的键将查询结果重新对齐到指定的键的顺序。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class EntityAlignUtil {
+
+    /**
+     * 按照实体的键将实体对齐到指定的键的顺序。
+     *
+     * @param keys     指定的键组成的列表。
+     * @param elements 查询得到的实体，其中的 <code>null</code> 会被忽略。
+     * @param <K>      键的类型。
+     * @param <E>      实体的类型。
+     * @return 与指定的键一一对应的实体组成的列表，不存在的实体对应 <code>null</code>。
+     */
+    public static <K extends Key, E extends Entity<K>> List<E> alignByKey(List<K> keys, Collection<E> elements) {
+        Map<K, E> elementMap = new HashMap<>(Math.max(elements.size(), 16));
+        for (E element : elements) {
+            if (Objects.nonNull(element)) {
+                elementMap.put(element.getKey(), element);
+            }
+        }
+        List<E> alignedElements = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            alignedElements.add(elementMap.get(key));
+        }
+        return alignedElements;
+    }
+
+    private EntityAlignUtil() {
+        throw new IllegalStateException("禁止实例化");
+    }
+}
@@ -16,10 +16,16 @@ public enum DataMessageKey {
     SERVICE_EXCEPTION_ENTITY_NOT_EXIST(SDK, "service_exception.entity_not_exist"),
     SERVICE_EXCEPTION_DATABASE_FAILED(SDK, "service_exception.database_failed"),
     FAST_JSON_DESERIALIZATION_FAILED(SDK, "fast_json.deserialization_failed"),
+    COMPRESSION_DECOMPRESSION_FAILED(SDK, "compression.decompression_failed"),
+    COMPRESSION_DICTIONARY_MISMATCH(SDK, "compression.dictionary_mismatch"),
     ENTITY_EXISTED_DETAIL(STACK, "entity.existed_detail"),
     ENTITY_NOT_EXIST_DETAIL(STACK, "entity.not_exist_detail"),
     PAGING_PAGE_FIXED(IMPL, "paging.page_fixed"),
-    PAGING_ROWS_FIXED(IMPL, "paging.rows_fixed");
+    PAGING_ROWS_FIXED(IMPL, "paging.rows_fixed"),
+    NEAR_CACHE_PUBLISH_FAILED(IMPL, "near_cache.publish_failed"),
+    NEAR_CACHE_MESSAGE_INVALID(IMPL, "near_cache.message_invalid"),
+    WRITE_BEHIND_EVICT_FAILED(IMPL, "write_behind.evict_failed"),
+    WRITE_BEHIND_LISTENER_FAILED(IMPL, "write_behind.listener_failed");
 
     private final DataMessages.Catalog catalog;
     private final String key;
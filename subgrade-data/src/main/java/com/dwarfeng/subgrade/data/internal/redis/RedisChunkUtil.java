@@ -0,0 +1,66 @@
+package com.dwarfeng.subgrade.data.internal.redis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Redis 分块工具类。
+ *
+ * <p>
+ * 批量命令中的键过多时，单个命令会长时间占用 Redis 服务器，因此批量操作按固定的块大小拆分为多个命令。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class RedisChunkUtil {
+
+    /**
+     * 默认的块大小。
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * 将指定的列表按指定的块大小拆分。
+     *
+     * <p>
+     * 返回的每个块都是原列表的视图，原列表在使用期间不应被修改。
+     * 列表为空时返回空列表，不产生任何块，调用者不会向 Redis 发送不带键的多键命令。
+     *
+     * @param list      指定的列表。
+     * @param chunkSize 块大小。
+     * @param <T>       元素的类型。
+     * @return 拆分得到的块组成的列表。
+     */
+    public static <T> List<List<T>> chunk(List<T> list, int chunkSize) {
+        if (list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (list.size() <= chunkSize) {
+            return List.of(list);
+        }
+        List<List<T>> chunks = new ArrayList<>((list.size() + chunkSize - 1) / chunkSize);
+        for (int i = 0; i < list.size(); i += chunkSize) {
+            chunks.add(list.subList(i, Math.min(i + chunkSize, list.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 检查块大小是否合法。
+     *
+     * @param chunkSize 块大小。
+     * @return 块大小。
+     * @throws IllegalArgumentException 块大小不是正数。
+     */
+    public static int requireValidChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("块大小必须为正数: " + chunkSize);
+        }
+        return chunkSize;
+    }
+
+    private RedisChunkUtil() {
+        throw new IllegalStateException("禁止实例化");
+    }
+}
@@ -0,0 +1,157 @@
+package com.dwarfeng.subgrade.data.internal.redis;
+
+import com.dwarfeng.subgrade.data.impl.cache.RedisClearMode;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.util.*;
+
+/**
+ * Redis 缓存清除支持。
+ *
+ * <p>
+ * 维护 Redis 缓存的清除模式与代数，供按键前缀组织数据的 Redis 缓存共用。
+ * 清除模式为 {@link RedisClearMode#GENERATION} 时，格式化后的缓存键需要追加 {@link #suffix(RedisOperations, String)}
+ * 返回的后缀。未设置代数键时，代数键由匹配全部缓存键的模式生成。
+ *
+ * <p>
+ * 本类实现线程安全。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class RedisClearSupport {
+
+    /**
+     * 默认的代数刷新间隔，单位为毫秒。
+     */
+    public static final long DEFAULT_GENERATION_REFRESH_INTERVAL = 1000L;
+
+    private static final String GENERATION_KEY_PREFIX = "subgrade:generation:";
+    private static final String GENERATION_SUFFIX_DELIMITER = "@g";
+
+    private volatile RedisClearMode clearMode = RedisClearMode.KEYS;
+    private volatile String generationKey;
+    private volatile long generationRefreshInterval = DEFAULT_GENERATION_REFRESH_INTERVAL;
+
+    private volatile GenerationSnapshot generationSnapshot;
+
+    /**
+     * 返回格式化后的缓存键需要追加的后缀。
+     *
+     * <p>
+     * 清除模式不是 {@link RedisClearMode#GENERATION} 时，返回空字符串。
+     * 代数中不包含后缀的分隔符，因此追加后缀后的缓存键与原缓存键一一对应。
+     *
+     * @param template       Redis 操作。
+     * @param generalPattern 匹配全部缓存键的模式，未设置代数键时用于生成默认的代数键。
+     * @return 格式化后的缓存键需要追加的后缀。
+     */
+    public String suffix(RedisOperations<String, ?> template, String generalPattern) {
+        if (clearMode != RedisClearMode.GENERATION) {
+            return "";
+        }
+        return GENERATION_SUFFIX_DELIMITER + generation(template, generalPattern);
+    }
+
+    /**
+     * 按照清除模式清除缓存。
+     *
+     * @param template       Redis 操作。
+     * @param generalPattern 匹配全部缓存键的模式。
+     * @param chunkSize      块大小。
+     */
+    public void clear(RedisOperations<String, ?> template, String generalPattern, int chunkSize) {
+        switch (clearMode) {
+            case KEYS -> {
+                Set<String> keys = Optional.ofNullable(template.keys(generalPattern)).orElse(Collections.emptySet());
+                template.delete(keys);
+            }
+            case SCAN -> {
+                ScanOptions scanOptions = ScanOptions.scanOptions().match(generalPattern).count(chunkSize).build();
+                try (Cursor<String> cursor = template.scan(scanOptions)) {
+                    List<String> keys = new ArrayList<>(chunkSize);
+                    while (cursor.hasNext()) {
+                        keys.add(cursor.next());
+                        if (keys.size() >= chunkSize) {
+                            template.unlink(keys);
+                            keys.clear();
+                        }
+                    }
+                    if (!keys.isEmpty()) {
+                        template.unlink(keys);
+                    }
+                }
+            }
+            case GENERATION -> {
+                Long generation = template.opsForValue().increment(generationKeyOf(generalPattern));
+                if (Objects.isNull(generation)) {
+                    throw new IllegalStateException("INCR 命令没有返回结果");
+                }
+                generationSnapshot = new GenerationSnapshot(generation, System.currentTimeMillis());
+            }
+        }
+    }
+
+    private long generation(RedisOperations<String, ?> template, String generalPattern) {
+        GenerationSnapshot snapshot = generationSnapshot;
+        long currentTime = System.currentTimeMillis();
+        if (Objects.nonNull(snapshot) && currentTime - snapshot.timestamp() < generationRefreshInterval) {
+            return snapshot.generation();
+        }
+        // 增加 0 即可读取代数，不存在时将其初始化为 0，且不需要对代数进行反序列化。
+        Long generation = template.opsForValue().increment(generationKeyOf(generalPattern), 0L);
+        if (Objects.isNull(generation)) {
+            throw new IllegalStateException("INCRBY 命令没有返回结果");
+        }
+        generationSnapshot = new GenerationSnapshot(generation, currentTime);
+        return generation;
+    }
+
+    private String generationKeyOf(String generalPattern) {
+        String key = generationKey;
+        return Objects.isNull(key) ? GENERATION_KEY_PREFIX + generalPattern : key;
+    }
+
+    public RedisClearMode getClearMode() {
+        return clearMode;
+    }
+
+    public void setClearMode(RedisClearMode clearMode) {
+        this.clearMode = Objects.requireNonNull(clearMode);
+        generationSnapshot = null;
+    }
+
+    public String getGenerationKey() {
+        return generationKey;
+    }
+
+    public void setGenerationKey(String generationKey) {
+        this.generationKey = generationKey;
+        generationSnapshot = null;
+    }
+
+    public long getGenerationRefreshInterval() {
+        return generationRefreshInterval;
+    }
+
+    public void setGenerationRefreshInterval(long generationRefreshInterval) {
+        if (generationRefreshInterval < 0) {
+            throw new IllegalArgumentException("代数刷新间隔不能为负数: " + generationRefreshInterval);
+        }
+        this.generationRefreshInterval = generationRefreshInterval;
+    }
+
+    @Override
+    public String toString() {
+        return "RedisClearSupport{" +
+                "clearMode=" + clearMode +
+                ", generationKey='" + generationKey + '\'' +
+                ", generationRefreshInterval=" + generationRefreshInterval +
+                '}';
+    }
+
+    private record GenerationSnapshot(long generation, long timestamp) {
+    }
+}
@@ -0,0 +1,305 @@
+package com.dwarfeng.subgrade.data.internal.redis;
+
+import com.dwarfeng.subgrade.basic.stack.bean.dto.PagingInfo;
+import org.jspecify.annotations.NonNull;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Redis 列表支持。
+ *
+ * <p>
+ * Redis 中不存在空列表，列表被设置为空时，改为写入目标键追加 {@link #EMPTY_MARKER_SUFFIX} 得到的空列表标记，
+ * 标记存在时，列表视为存在且为空。标记的值是固定的字节，不经过模板的值序列化器。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class RedisListSupport {
+
+    /**
+     * 空列表标记的键的后缀。
+     */
+    public static final String EMPTY_MARKER_SUFFIX = "@empty";
+
+    private static final String TEMP_KEY_SUFFIX = "@tmp:";
+
+    private static final byte[] EMPTY_MARKER_VALUE = "1".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 返回指定的键对应的空列表标记的键。
+     *
+     * @param key 目标键。
+     * @return 空列表标记的键。
+     */
+    public static String emptyMarkerKey(String key) {
+        return key + EMPTY_MARKER_SUFFIX;
+    }
+
+    /**
+     * 判断指定的键中的列表是否存在。
+     *
+     * <p>
+     * 目标键或空列表标记存在时，列表存在。两个键在一次流水线中查询。
+     *
+     * @param template Redis 操作。
+     * @param key      目标键。
+     * @return 列表是否存在。
+     */
+    public static boolean exists(RedisOperations<String, ?> template, String key) {
+        List<Object> results = template.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <RK, RV> Object execute(@NonNull RedisOperations<RK, RV> operations) {
+                RedisOperations<String, ?> redisOperations = (RedisOperations<String, ?>) operations;
+                redisOperations.hasKey(key);
+                redisOperations.hasKey(emptyMarkerKey(key));
+                return null;
+            }
+        });
+        return results.stream().anyMatch(Boolean.TRUE::equals);
+    }
+
+    /**
+     * 删除指定的键中的列表，以及对应的空列表标记。
+     *
+     * @param template Redis 操作。
+     * @param key      目标键。
+     */
+    public static void delete(RedisOperations<String, ?> template, String key) {
+        template.delete(Arrays.asList(key, emptyMarkerKey(key)));
+    }
+
+    /**
+     * 向指定的键中的列表推入指定的值。
+     *
+     * <p>
+     * 推入、设置超时时间与删除空列表标记在一次流水线中执行。值为空时不执行任何操作。
+     *
+     * @param template Redis 操作。
+     * @param key      目标键。
+     * @param values   推入的值组成的列表。
+     * @param timeout  超时时间，单位为毫秒。
+     * @param left     是否推入列表的左侧。
+     * @param <V>      值的类型。
+     */
+    public static <V> void push(
+            RedisOperations<String, V> template, String key, List<V> values, long timeout, boolean left
+    ) {
+        if (values.isEmpty()) {
+            return;
+        }
+        Duration duration = Duration.ofMillis(timeout);
+        template.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <RK, RV> Object execute(@NonNull RedisOperations<RK, RV> operations) {
+                RedisOperations<String, V> redisOperations = (RedisOperations<String, V>) operations;
+                if (left) {
+                    redisOperations.opsForList().leftPushAll(key, values);
+                } else {
+                    redisOperations.opsForList().rightPushAll(key, values);
+                }
+                redisOperations.expire(key, duration);
+                redisOperations.delete(emptyMarkerKey(key));
+                return null;
+            }
+        });
+    }
+
+
+    /**
+     * 使用指定的值替换指定的键中的列表。
+     *
+     * <p>
+     * 值按块大小分块写入一个临时键，设置超时时间后通过 <code>RENAME</code> 原子地替换目标键，
+     * 全部命令在一次流水线中执行。替换完成之前，读取方始终读到原有的列表，不会读到空列表或只写入了一部分的列表。
+     * 超时时间在第一块写入之后立即设置在临时键上，流水线中途失败时，残留的临时键也会在超时后被清除。
+     *
+     * <p>
+     * 值为空时，删除目标键并写入空列表标记；值不为空时，替换完成后删除空列表标记。
+     *
+     * <p>
+     * 超时时间不大于 0 时，写入的列表会立即过期，因此直接删除目标键与空列表标记。
+     *
+     * @param template  Redis 操作。
+     * @param key       目标键。
+     * @param values    新的值组成的列表。
+     * @param timeout   超时时间，单位为毫秒。
+     * @param chunkSize 块大小。
+     * @param <V>       值的类型。
+     */
+    public static <V> void replace(
+            RedisOperations<String, V> template, String key, List<V> values, long timeout, int chunkSize
+    ) {
+        // 超时时间不大于 0 时，EXPIRE 会立即删除临时键，后续的 RENAME 失败或写入没有超时时间的部分列表。
+        if (timeout <= 0) {
+            delete(template, key);
+            return;
+        }
+        if (values.isEmpty()) {
+            markEmpty(template, key, timeout);
+            return;
+        }
+        String tempKey = tempKey(key);
+        Duration duration = Duration.ofMillis(timeout);
+        List<List<V>> chunks = RedisChunkUtil.chunk(values, chunkSize);
+        template.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <RK, RV> Object execute(@NonNull RedisOperations<RK, RV> operations) {
+                RedisOperations<String, V> redisOperations = (RedisOperations<String, V>) operations;
+                ListOperations<String, V> listOperations = redisOperations.opsForList();
+                listOperations.rightPushAll(tempKey, chunks.getFirst());
+                redisOperations.expire(tempKey, duration);
+                for (int i = 1; i < chunks.size(); i++) {
+                    listOperations.rightPushAll(tempKey, chunks.get(i));
+                }
+                // RENAME 保留源键的超时时间。
+                redisOperations.rename(tempKey, key);
+                redisOperations.delete(emptyMarkerKey(key));
+                return null;
+            }
+        });
+    }
+
+    private static void markEmpty(RedisOperations<String, ?> template, String key, long timeout) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) template.getKeySerializer();
+        byte[] rawKey = Objects.requireNonNull(keySerializer).serialize(key);
+        byte[] rawMarkerKey = keySerializer.serialize(emptyMarkerKey(key));
+        Expiration expiration = Expiration.milliseconds(timeout);
+        template.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(rawKey);
+            connection.stringCommands().set(
+                    rawMarkerKey, EMPTY_MARKER_VALUE, expiration, RedisStringCommands.SetOption.upsert()
+            );
+            return null;
+        });
+    }
+
+    /**
+     * 读取指定的键中的全部值。
+     *
+     * @param template Redis 操作。
+     * @param key      指定的键。
+     * @param <V>      值的类型。
+     * @return 全部值组成的列表。
+     */
+    public static <V> List<V> all(RedisOperations<String, V> template, String key) {
+        List<V> values = template.opsForList().range(key, 0, -1);
+        return Objects.isNull(values) ? Collections.emptyList() : values;
+    }
+
+    /**
+     * 读取指定的键中分页信息对应的值。
+     *
+     * <p>
+     * <code>LRANGE</code> 会将超出列表范围的下标截断，因此不需要事先读取列表的长度。
+     *
+     * @param template   Redis 操作。
+     * @param key        指定的键。
+     * @param pagingInfo 分页信息。
+     * @param <V>        值的类型。
+     * @return 分页信息对应的值组成的列表。
+     */
+    public static <V> List<V> page(RedisOperations<String, V> template, String key, PagingInfo pagingInfo) {
+        int rows = pagingInfo.getRows();
+        // 每页行数不大于 0 时返回空列表。
+        if (rows <= 0) {
+            return Collections.emptyList();
+        }
+        long beginIndex = (long) rows * pagingInfo.getPage();
+        List<V> values = template.opsForList().range(key, beginIndex, beginIndex + rows - 1);
+        return Objects.isNull(values) ? Collections.emptyList() : values;
+    }
+
+    /**
+     * 在一次流水线中读取指定的键中列表的长度、分页信息对应的值，以及列表是否存在。
+     *
+     * <p>
+     * 列表的长度大于 0，或者空列表标记存在时，列表存在。
+     *
+     * @param template   Redis 操作。
+     * @param key        指定的键。
+     * @param pagingInfo 分页信息。
+     * @param <V>        值的类型。
+     * @return 列表的长度与分页信息对应的值。
+     */
+    public static <V> ListPage<V> sizedPage(RedisOperations<String, V> template, String key, PagingInfo pagingInfo) {
+        int rows = pagingInfo.getRows();
+        long beginIndex = (long) rows * pagingInfo.getPage();
+        List<Object> results = template.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <RK, RV> Object execute(@NonNull RedisOperations<RK, RV> operations) {
+                RedisOperations<String, V> redisOperations = (RedisOperations<String, V>) operations;
+                ListOperations<String, V> listOperations = redisOperations.opsForList();
+                listOperations.size(key);
+                redisOperations.hasKey(emptyMarkerKey(key));
+                // 每页行数不大于 0 时只读取长度。
+                if (rows > 0) {
+                    listOperations.range(key, beginIndex, beginIndex + rows - 1);
+                }
+                return null;
+            }
+        });
+        long size = results.getFirst() instanceof Long l ? l : 0L;
+        boolean exists = size > 0 || Boolean.TRUE.equals(results.get(1));
+        if (rows <= 0 || results.size() < 3 || Objects.isNull(results.get(2))) {
+            return new ListPage<>(exists, size, Collections.emptyList());
+        }
+        @SuppressWarnings("unchecked")
+        List<V> values = (List<V>) results.get(2);
+        return new ListPage<>(exists, size, values);
+    }
+
+    /**
+     * 返回指定的键对应的临时键。
+     *
+     * <p>
+     * 集群部署时，<code>RENAME</code> 要求两个键位于同一个槽中。目标键不含哈希标签时，
+     * 临时键使用整个目标键作为哈希标签，使其与目标键位于同一个槽中；目标键含有哈希标签时，
+     * 临时键在目标键之后追加后缀，保留原有的哈希标签。
+     *
+     * @param key 目标键。
+     * @return 临时键。
+     */
+    static String tempKey(String key) {
+        String suffix = TEMP_KEY_SUFFIX + UUID.randomUUID();
+        if (key.indexOf('{') < 0 && key.indexOf('}') < 0) {
+            return "{" + key + "}" + suffix;
+        }
+        return key + suffix;
+    }
+
+    private RedisListSupport() {
+        throw new IllegalStateException("禁止实例化");
+    }
+
+    /**
+     * 列表是否存在、列表的长度与其中一页的值。
+     *
+     * @param exists 列表是否存在。
+     * @param size   列表的长度。
+     * @param values 一页的值。
+     * @param <V>    值的类型。
+     * @author DwArFeng
+     * @since 2.0.0
+     */
+    public record ListPage<V>(boolean exists, long size, List<V> values) {
+    }
+}
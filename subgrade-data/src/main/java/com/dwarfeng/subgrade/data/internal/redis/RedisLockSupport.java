@@ -0,0 +1,79 @@
+package com.dwarfeng.subgrade.data.internal.redis;
+
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Redis 重建锁支持。
+ *
+ * <p>
+ * 重建锁存储在格式化后的键追加 {@link #LOCK_SUFFIX} 得到的键中，值为锁的令牌。
+ * 获取锁使用 <code>SET ... NX PX</code>，释放锁使用脚本比较令牌后删除，
+ * 不会误删超时后被其它调用者获取的锁。令牌不经过模板的值序列化器。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class RedisLockSupport {
+
+    /**
+     * 锁键的后缀。
+     */
+    public static final String LOCK_SUFFIX = "@lock";
+
+    private static final byte[] UNLOCK_SCRIPT = (
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 尝试获取指定的格式化后的键对应的锁。
+     *
+     * @param template     Redis 操作。
+     * @param formattedKey 格式化后的键。
+     * @param token        锁的令牌。
+     * @param timeout      锁的超时时间，单位为毫秒。
+     * @return 是否获取成功。
+     */
+    public static boolean tryLock(
+            RedisOperations<String, ?> template, String formattedKey, String token, long timeout
+    ) {
+        byte[] rawKey = rawLockKey(template, formattedKey);
+        byte[] rawToken = token.getBytes(StandardCharsets.UTF_8);
+        Boolean result = template.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                rawKey, rawToken, Expiration.milliseconds(timeout), RedisStringCommands.SetOption.ifAbsent()
+        ));
+        return Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * 释放指定的格式化后的键对应的锁。
+     *
+     * @param template     Redis 操作。
+     * @param formattedKey 格式化后的键。
+     * @param token        获取锁时使用的令牌。
+     */
+    public static void unlock(RedisOperations<String, ?> template, String formattedKey, String token) {
+        byte[] rawKey = rawLockKey(template, formattedKey);
+        byte[] rawToken = token.getBytes(StandardCharsets.UTF_8);
+        template.execute((RedisCallback<Long>) connection -> connection.scriptingCommands().eval(
+                UNLOCK_SCRIPT, ReturnType.INTEGER, 1, rawKey, rawToken
+        ));
+    }
+
+    private static byte[] rawLockKey(RedisOperations<String, ?> template, String formattedKey) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) template.getKeySerializer();
+        return Objects.requireNonNull(keySerializer).serialize(formattedKey + LOCK_SUFFIX);
+    }
+
+    private RedisLockSupport() {
+        throw new IllegalStateException("禁止实例化");
+    }
+}
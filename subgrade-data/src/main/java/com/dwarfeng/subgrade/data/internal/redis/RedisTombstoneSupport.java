@@ -0,0 +1,148 @@
+package com.dwarfeng.subgrade.data.internal.redis;
+
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Redis 墓碑支持。
+ *
+ * <p>
+ * 墓碑用于记录已确认不存在的实体，存储在格式化后的键追加 {@link #TOMBSTONE_SUFFIX} 得到的键中，
+ * 因此与实体本身的键匹配相同的通用格式，清除缓存时墓碑会一同被清除。
+ * 墓碑的值是固定的字节，不经过模板的值序列化器。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class RedisTombstoneSupport {
+
+    /**
+     * 墓碑键的后缀。
+     */
+    public static final String TOMBSTONE_SUFFIX = "@absent";
+
+    private static final byte[] TOMBSTONE_VALUE = "1".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 返回指定的格式化后的键对应的墓碑键。
+     *
+     * @param formattedKey 格式化后的键。
+     * @return 墓碑键。
+     */
+    public static String tombstoneKey(String formattedKey) {
+        return formattedKey + TOMBSTONE_SUFFIX;
+    }
+
+    /**
+     * 写入指定的格式化后的键对应的墓碑。
+     *
+     * @param template     Redis 操作。
+     * @param formattedKey 格式化后的键。
+     * @param timeout      墓碑的超时时间，单位为毫秒。
+     */
+    public static void markAbsent(RedisOperations<String, ?> template, String formattedKey, long timeout) {
+        if (timeout <= 0) {
+            return;
+        }
+        byte[] rawKey = rawTombstoneKey(template, formattedKey);
+        template.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                rawKey, TOMBSTONE_VALUE, Expiration.milliseconds(timeout), RedisStringCommands.SetOption.upsert()
+        ));
+    }
+
+    /**
+     * 批量写入指定的格式化后的键对应的墓碑。
+     *
+     * <p>
+     * 所有墓碑通过一次流水线化的 <code>SET ... PX</code> 写入，调用者负责按块拆分过多的键。
+     *
+     * @param template      Redis 操作。
+     * @param formattedKeys 格式化后的键组成的列表。
+     * @param timeout       墓碑的超时时间，单位为毫秒。
+     */
+    public static void batchMarkAbsent(
+            RedisOperations<String, ?> template, List<String> formattedKeys, long timeout
+    ) {
+        if (timeout <= 0 || formattedKeys.isEmpty()) {
+            return;
+        }
+        byte[][] rawKeys = rawTombstoneKeys(template, formattedKeys);
+        Expiration expiration = Expiration.milliseconds(timeout);
+        template.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] rawKey : rawKeys) {
+                connection.stringCommands().set(
+                        rawKey, TOMBSTONE_VALUE, expiration, RedisStringCommands.SetOption.upsert()
+                );
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 判断指定的格式化后的键对应的墓碑是否存在。
+     *
+     * @param template     Redis 操作。
+     * @param formattedKey 格式化后的键。
+     * @return 墓碑是否存在。
+     */
+    public static boolean isMarkedAbsent(RedisOperations<String, ?> template, String formattedKey) {
+        return Boolean.TRUE.equals(template.hasKey(tombstoneKey(formattedKey)));
+    }
+
+    /**
+     * 批量判断指定的格式化后的键对应的墓碑是否存在。
+     *
+     * <p>
+     * 所有墓碑通过一次 <code>MGET</code> 读取，调用者负责按块拆分过多的键。
+     *
+     * @param template      Redis 操作。
+     * @param formattedKeys 格式化后的键组成的列表。
+     * @return 表示墓碑是否存在的位图，第 i 位对应列表中的第 i 个键。
+     */
+    public static BitSet batchIsMarkedAbsent(RedisOperations<String, ?> template, List<String> formattedKeys) {
+        BitSet bitSet = new BitSet(formattedKeys.size());
+        if (formattedKeys.isEmpty()) {
+            return bitSet;
+        }
+        byte[][] rawKeys = rawTombstoneKeys(template, formattedKeys);
+        List<byte[]> values = template.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys)
+        );
+        // 在流水线或事务中执行时，返回值为 null。
+        if (Objects.isNull(values)) {
+            throw new IllegalStateException("MGET 命令没有返回结果");
+        }
+        for (int i = 0; i < values.size(); i++) {
+            if (Objects.nonNull(values.get(i))) {
+                bitSet.set(i);
+            }
+        }
+        return bitSet;
+    }
+
+    private static byte[] rawTombstoneKey(RedisOperations<String, ?> template, String formattedKey) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) template.getKeySerializer();
+        return Objects.requireNonNull(keySerializer).serialize(tombstoneKey(formattedKey));
+    }
+
+    private static byte[][] rawTombstoneKeys(RedisOperations<String, ?> template, List<String> formattedKeys) {
+        byte[][] rawKeys = new byte[formattedKeys.size()][];
+        for (int i = 0; i < formattedKeys.size(); i++) {
+            rawKeys[i] = rawTombstoneKey(template, formattedKeys.get(i));
+        }
+        return rawKeys;
+    }
+
+    private RedisTombstoneSupport() {
+        throw new IllegalStateException("禁止实例化");
+    }
+}
@@ -0,0 +1,156 @@
+package com.dwarfeng.subgrade.data.internal.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 缓存过期支持。
+ *
+ * <p>
+ * 为使用缓存的服务提供超时时间抖动与概率提前重算（XFetch）。
+ *
+ * <p>
+ * 超时时间抖动使写入缓存的超时时间在 <code>cacheTimeout * (1 - jitter)</code> 与 <code>cacheTimeout</code> 之间随机分布，
+ * 同时写入的缓存不会同时过期。
+ *
+ * <p>
+ * 提前重算在缓存命中时，以 <code>-delta * beta * ln(rand())</code> 不小于剩余超时时间为条件决定是否提前重新加载，
+ * 其中 <code>delta</code> 为最近从数据访问层加载实体所耗费的时间的指数移动平均值，<code>rand()</code> 是 (0, 1] 中的随机数。
+ * 剩余超时时间越短、加载越慢，提前重算的概率越大，重新加载在过期之前被分散到不同的请求中。
+ *
+ * <p>
+ * 本类实现线程安全。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class CacheExpirationSupport {
+
+    /**
+     * 批量写入时，实体被随机分配到的超时时间分组的最大数量。
+     */
+    public static final int MAX_JITTER_GROUP_COUNT = 8;
+
+    private static final int DELTA_SMOOTHING_FACTOR = 8;
+
+    private volatile double jitter;
+    private volatile double earlyRecomputeBeta;
+
+    private volatile long delta;
+
+    /**
+     * 返回经过抖动的超时时间。
+     *
+     * @param cacheTimeout 缓存超时时间。
+     * @return 经过抖动的超时时间。
+     */
+    public long jitteredTimeout(long cacheTimeout) {
+        double currentJitter = jitter;
+        if (currentJitter <= 0 || cacheTimeout <= 1) {
+            return cacheTimeout;
+        }
+        long reduction = (long) (cacheTimeout * currentJitter * ThreadLocalRandom.current().nextDouble());
+        return Math.max(1L, cacheTimeout - reduction);
+    }
+
+    /**
+     * 将元素随机分配到不同的超时时间分组中。
+     *
+     * <p>
+     * 批量写入缓存时，同一次写入只能使用一个超时时间，因此将元素随机分为若干组，每组分别使用经过抖动的超时时间写入。
+     * 未设置抖动时，返回只包含原列表的分组。
+     *
+     * @param elements 元素组成的列表。
+     * @param <T>      元素的类型。
+     * @return 分组组成的列表，不包含空的分组。
+     */
+    public <T> List<List<T>> jitterGroups(List<T> elements) {
+        int groupCount = Math.min(elements.size(), MAX_JITTER_GROUP_COUNT);
+        if (jitter <= 0 || groupCount <= 1) {
+            return List.of(elements);
+        }
+        List<List<T>> groups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            groups.add(new ArrayList<>());
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (T element : elements) {
+            groups.get(random.nextInt(groupCount)).add(element);
+        }
+        groups.removeIf(List::isEmpty);
+        return groups;
+    }
+
+    /**
+     * 判断是否启用了提前重算。
+     *
+     * @return 是否启用了提前重算。
+     */
+    public boolean isEarlyRecomputeEnabled() {
+        return earlyRecomputeBeta > 0;
+    }
+
+    /**
+     * 判断是否需要提前重算。
+     *
+     * @param remainingTimeout 缓存的剩余超时时间，为负数时表示未知。
+     * @return 是否需要提前重算。
+     */
+    public boolean shouldRecomputeEarly(long remainingTimeout) {
+        double beta = earlyRecomputeBeta;
+        long currentDelta = delta;
+        if (beta <= 0 || currentDelta <= 0 || remainingTimeout < 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return -currentDelta * beta * Math.log(random) >= remainingTimeout;
+    }
+
+    /**
+     * 记录一次从数据访问层加载所耗费的时间。
+     *
+     * @param elapsed 耗费的时间，单位为毫秒。
+     */
+    public void recordRecomputeTime(long elapsed) {
+        long sample = Math.max(1L, elapsed);
+        long currentDelta = delta;
+        // 并发更新时可能丢失个别样本，对平均值的影响可以忽略。
+        delta = currentDelta <= 0 ? sample : currentDelta + (sample - currentDelta) / DELTA_SMOOTHING_FACTOR;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(double jitter) {
+        if (!(jitter >= 0 && jitter < 1)) {
+            throw new IllegalArgumentException("超时时间抖动必须在 [0, 1) 范围内: " + jitter);
+        }
+        this.jitter = jitter;
+    }
+
+    public double getEarlyRecomputeBeta() {
+        return earlyRecomputeBeta;
+    }
+
+    public void setEarlyRecomputeBeta(double earlyRecomputeBeta) {
+        if (!(earlyRecomputeBeta >= 0) || Double.isInfinite(earlyRecomputeBeta)) {
+            throw new IllegalArgumentException("提前重算系数必须为非负的有限数: " + earlyRecomputeBeta);
+        }
+        this.earlyRecomputeBeta = earlyRecomputeBeta;
+    }
+
+    public long getDelta() {
+        return delta;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheExpirationSupport{" +
+                "jitter=" + jitter +
+                ", earlyRecomputeBeta=" + earlyRecomputeBeta +
+                ", delta=" + delta +
+                '}';
+    }
+}
@@ -3,8 +3,11 @@ package com.dwarfeng.subgrade.data.sdk.jdbc.processor;
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 基础处理器。
@@ -27,4 +30,49 @@ public interface BaseProcessor<K extends Key, E extends Entity<K>> {
     SQLAndParameter provideGet(K key);
 
     E resolveGet(ResultSet resultSet) throws SQLException;
+
+    /**
+     * 解析 {@link #provideGet(Key)} 提供的语句的查询结果，结果集中没有数据时返回 <code>null</code>。
+     *
+     * <p>
+     * 默认实现通过 {@link ResultSet#next()} 判断结果集中是否有数据，再调用 {@link #resolveGet(ResultSet)}。
+     * {@link ResultSet#isBeforeFirst()} 对只能向前移动的结果集是可选的，因此不使用该方法。
+     * 传入 {@link #resolveGet(ResultSet)} 的结果集的第一次 {@link ResultSet#next()} 调用不再移动游标，
+     * 因此 {@link #resolveGet(ResultSet)} 可以像往常一样先调用 {@link ResultSet#next()} 再读取数据。
+     *
+     * @param resultSet 结果集。
+     * @return 结果集中的实体，结果集中没有数据时返回 <code>null</code>。
+     * @throws SQLException SQL 异常。
+     * @since 2.0.0
+     */
+    default E resolveGetIfExists(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) {
+            return null;
+        }
+        return resolveGet(advancedResultSet(resultSet));
+    }
+
+    /**
+     * 返回已经移动到第一行的结果集的包装，包装的第一次 {@link ResultSet#next()} 调用不移动游标，直接返回 <code>true</code>。
+     *
+     * @param resultSet 已经移动到第一行的结果集。
+     * @return 结果集的包装。
+     */
+    private static ResultSet advancedResultSet(ResultSet resultSet) {
+        AtomicBoolean pending = new AtomicBoolean(true);
+        return (ResultSet) Proxy.newProxyInstance(
+                BaseProcessor.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    boolean next = "next".equals(method.getName()) && method.getParameterCount() == 0;
+                    if (next && pending.getAndSet(false)) {
+                        return true;
+                    }
+                    try {
+                        return method.invoke(resultSet, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+        );
+    }
 }
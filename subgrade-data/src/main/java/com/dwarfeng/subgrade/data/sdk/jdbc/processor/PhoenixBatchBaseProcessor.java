@@ -198,6 +198,18 @@ public class PhoenixBatchBaseProcessor<K extends Key, E extends Entity<K>> imple
     @Override
     public E resolveGet(ResultSet resultSet) throws SQLException {
         resultSet.next();
+        return resolveEntity(resultSet);
+    }
+
+    @Override
+    public E resolveGetIfExists(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) {
+            return null;
+        }
+        return resolveEntity(resultSet);
+    }
+
+    private E resolveEntity(ResultSet resultSet) throws SQLException {
         E entity = handle.newInstance();
         List<ColumnDefinition> columnDefinitions = tableDefinition.getColumnDefinitions();
         for (int i = 0; i < columnDefinitions.size(); i++) {
@@ -0,0 +1,227 @@
+package com.dwarfeng.subgrade.data.sdk.redis.serialize;
+
+import com.dwarfeng.subgrade.data.internal.i18n.DataMessageKey;
+import com.dwarfeng.subgrade.data.internal.i18n.DataMessages;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 压缩 Redis 序列化器。
+ *
+ * <p>
+ * 包装另一个 Redis 序列化器，对代理序列化器输出的、长度不小于阈值的数据使用 Deflate 算法进行压缩。
+ * 压缩使用 JDK 内置的 {@link Deflater} 与 {@link Inflater}，不依赖额外的本地库。
+ *
+ * <p>
+ * 压缩后的数据以一个头部字节开头，随后是 4 字节的原始长度与 zlib 格式的压缩数据；
+ * 未压缩的数据与代理序列化器的输出完全一致，不添加头部字节。
+ * 头部字节使用在 UTF-8 编码中不可能出现的 <code>0xC0</code> 与 <code>0xC1</code>，
+ * 因此只要代理序列化器输出 UTF-8 文本（例如 {@link FastJsonRedisSerializer}），
+ * 反序列化时即可根据第一个字节区分压缩与未压缩的数据，启用压缩之前写入的数据可以与压缩后的数据共存。
+ *
+ * <p>
+ * 对于结构相似的小型 JSON 数据，可以通过预设字典提高压缩率。字典应当包含数据中常见的字段名与取值，
+ * 例如一条或几条典型数据的序列化结果。使用字典压缩的数据只能由使用相同字典的序列化器解压缩，
+ * 字典不一致时，反序列化会抛出异常。更换字典时，应当在缓存数据可以丢弃时进行。
+ *
+ * <p>
+ * 压缩后的数据不小于原始数据时，直接保存原始数据。
+ *
+ * @param <T> 序列化的对象类型。
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class CompressingRedisSerializer<T> implements RedisSerializer<T> {
+
+    /**
+     * 默认的压缩阈值。
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private static final byte HEADER_DEFLATE = (byte) 0xC1;
+    private static final byte HEADER_DEFLATE_DICTIONARY = (byte) 0xC0;
+    private static final int HEADER_LENGTH = 5;
+    private static final int BUFFER_SIZE = 4096;
+
+    private final RedisSerializer<T> delegate;
+    private final int threshold;
+    private final int level;
+    private final byte[] dictionary;
+    private final int dictionaryId;
+
+    public CompressingRedisSerializer(RedisSerializer<T> delegate) {
+        this(delegate, DEFAULT_THRESHOLD);
+    }
+
+    public CompressingRedisSerializer(RedisSerializer<T> delegate, int threshold) {
+        this(delegate, threshold, Deflater.DEFAULT_COMPRESSION, null);
+    }
+
+    /**
+     * 构造压缩 Redis 序列化器。
+     *
+     * @param delegate   代理序列化器，其输出不应以 <code>0xC0</code> 或 <code>0xC1</code> 开头。
+     * @param threshold  压缩阈值，代理序列化器输出的数据长度不小于该值时才进行压缩，不能为负数。
+     * @param level      压缩级别，取值范围为 0 到 9，或 {@link Deflater#DEFAULT_COMPRESSION}。
+     * @param dictionary 预设字典，为 <code>null</code> 或空数组时不使用字典。
+     */
+    public CompressingRedisSerializer(RedisSerializer<T> delegate, int threshold, int level, byte[] dictionary) {
+        if (Objects.isNull(delegate)) {
+            throw new IllegalArgumentException("代理序列化器不能为 null");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("压缩阈值不能为负数: " + threshold);
+        }
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+                && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("非法的压缩级别: " + level);
+        }
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.level = level;
+        if (Objects.isNull(dictionary) || dictionary.length == 0) {
+            this.dictionary = null;
+            this.dictionaryId = 0;
+        } else {
+            this.dictionary = Arrays.copyOf(dictionary, dictionary.length);
+            Adler32 adler32 = new Adler32();
+            adler32.update(this.dictionary);
+            // 与 Inflater#getAdler() 的返回值一致，取校验和的低 32 位。
+            this.dictionaryId = (int) adler32.getValue();
+        }
+    }
+
+    @NullMarked
+    @Override
+    public byte[] serialize(T t) throws SerializationException {
+        byte[] bytes = delegate.serialize(t);
+        if (Objects.isNull(bytes) || bytes.length == 0 || bytes.length < threshold) {
+            return bytes;
+        }
+        byte[] compressed = compress(bytes);
+        return compressed.length < bytes.length ? compressed : bytes;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (Objects.isNull(bytes) || bytes.length == 0) {
+            return delegate.deserialize(bytes);
+        }
+        if (bytes[0] != HEADER_DEFLATE && bytes[0] != HEADER_DEFLATE_DICTIONARY) {
+            return delegate.deserialize(bytes);
+        }
+        return delegate.deserialize(decompress(bytes));
+    }
+
+    private byte[] compress(byte[] bytes) {
+        Deflater deflater = new Deflater(level);
+        try {
+            if (Objects.nonNull(dictionary)) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(bytes.length, BUFFER_SIZE));
+            out.write(Objects.nonNull(dictionary) ? HEADER_DEFLATE_DICTIONARY : HEADER_DEFLATE);
+            out.write(bytes.length >>> 24);
+            out.write(bytes.length >>> 16);
+            out.write(bytes.length >>> 8);
+            out.write(bytes.length);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH) {
+            throw decompressionFailed(null);
+        }
+        int originalLength = ((bytes[1] & 0xFF) << 24) | ((bytes[2] & 0xFF) << 16)
+                | ((bytes[3] & 0xFF) << 8) | (bytes[4] & 0xFF);
+        if (originalLength < 0) {
+            throw decompressionFailed(null);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            byte[] result = new byte[originalLength];
+            // 结果数组写满后，使用一个字节的缓冲区继续解压缩，以读取流的结尾，并检查数据是否超过头部记录的原始长度。
+            byte[] overflow = new byte[1];
+            int offset = 0;
+            while (!inflater.finished()) {
+                int count;
+                if (offset < result.length) {
+                    count = inflater.inflate(result, offset, result.length - offset);
+                } else if (inflater.inflate(overflow) > 0) {
+                    throw decompressionFailed(null);
+                } else {
+                    count = 0;
+                }
+                if (count == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (Objects.isNull(dictionary) || inflater.getAdler() != dictionaryId) {
+                            throw new SerializationException(
+                                    DataMessages.message(DataMessageKey.COMPRESSION_DICTIONARY_MISMATCH)
+                            );
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (!inflater.finished()) {
+                        throw decompressionFailed(null);
+                    }
+                }
+                offset += count;
+            }
+            if (offset != originalLength) {
+                throw decompressionFailed(null);
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw decompressionFailed(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private SerializationException decompressionFailed(Throwable cause) {
+        return new SerializationException(
+                DataMessages.message(DataMessageKey.COMPRESSION_DECOMPRESSION_FAILED), cause
+        );
+    }
+
+    public RedisSerializer<T> getDelegate() {
+        return delegate;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressingRedisSerializer{" +
+                "delegate=" + delegate +
+                ", threshold=" + threshold +
+                ", level=" + level +
+                ", dictionaryLength=" + (Objects.isNull(dictionary) ? 0 : dictionary.length) +
+                '}';
+    }
+}
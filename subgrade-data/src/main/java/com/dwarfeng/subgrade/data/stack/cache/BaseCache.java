@@ -28,11 +28,29 @@ public interface BaseCache<K extends Key, E extends Entity<K>> extends Cache<E>
      */
     E get(K key) throws CacheException;
 
+    /**
+     * 获取缓存中指定键对应的值，指定的键不存在时返回 <code>null</code>。
+     *
+     * <p>
+     * 该方法将 {@link #exists(Key)} 与 {@link #get(Key)} 合并为一次操作，调用者不必在获取值之前查询键是否存在。
+     *
+     * <p>
+     * 默认实现依次调用 {@link #exists(Key)} 与 {@link #get(Key)}，实现者应当覆盖该方法，以在一次网络往返内完成操作。
+     *
+     * @param key 指定的键。
+     * @return 指定的键对应的值，指定的键不存在时返回 <code>null</code>。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default E getIfExists(K key) throws CacheException {
+        return exists(key) ? get(key) : null;
+    }
+
     /**
      * 向缓存中推送指定的键与值。
      *
      * <p>
-     * 如果指定的键不存在，则创建。
+     * 如果指定的键不存在，则创建。如果指定的键被标记为不存在，实现者应当一并删除该标记。
      *
      * @param entity  指定的键对应的值。
      * @param timeout 超时时间（毫秒）。
@@ -42,7 +60,100 @@ public interface BaseCache<K extends Key, E extends Entity<K>> extends Cache<E>
     /**
      * 从缓存中删除指定的键。
      *
+     * <p>
+     * 如果指定的键被标记为不存在，该标记也一并删除。
+     *
      * @param key 指定的键。
      */
     void delete(K key) throws CacheException;
+
+    /**
+     * 将指定的键标记为不存在。
+     *
+     * <p>
+     * 标记用于记录数据访问层中已确认不存在的实体，使服务在标记有效期间不必重复访问数据访问层，以防止缓存穿透。
+     * 指定的键在缓存中存在时，以缓存中的值为准，标记不产生任何影响。
+     *
+     * <p>
+     * 默认实现不记录任何标记。
+     *
+     * @param key     指定的键。
+     * @param timeout 标记的超时时间（毫秒），应当远小于实体的超时时间。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default void markAbsent(K key, long timeout) throws CacheException {
+    }
+
+    /**
+     * 获取指定的键是否被标记为不存在。
+     *
+     * <p>
+     * 默认实现总是返回 <code>false</code>。
+     *
+     * @param key 指定的键。
+     * @return 指定的键是否被标记为不存在。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default boolean isMarkedAbsent(K key) throws CacheException {
+        return false;
+    }
+
+    /**
+     * 获取指定的键的剩余超时时间。
+     *
+     * <p>
+     * 剩余超时时间用于在缓存过期之前提前重新加载实体。
+     *
+     * <p>
+     * 默认实现总是返回 -1。
+     *
+     * @param key 指定的键。
+     * @return 剩余超时时间（毫秒），指定的键不存在、没有超时时间或缓存不支持时返回 -1。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default long getRemainingTimeout(K key) throws CacheException {
+        return -1L;
+    }
+
+    /**
+     * 尝试获取指定的键的重建锁。
+     *
+     * <p>
+     * 重建锁用于在缓存未命中时，使多个调用者（可能位于不同的节点中）中只有一个从数据访问层加载实体并写入缓存，
+     * 以防止热点实体过期时大量请求同时访问数据访问层。锁在超时时间后自动释放，
+     * 即使持有者在释放之前异常退出，也不会使其它调用者永久等待。
+     *
+     * <p>
+     * 默认实现不提供互斥，总是返回 <code>true</code>。
+     *
+     * @param key     指定的键。
+     * @param token   锁的令牌，用于在释放时确认锁仍由调用者持有，每次获取都应当使用不同的令牌。
+     * @param timeout 锁的超时时间（毫秒）。
+     * @return 是否获取成功。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default boolean tryLockRebuild(K key, String token, long timeout) throws CacheException {
+        return true;
+    }
+
+    /**
+     * 释放指定的键的重建锁。
+     *
+     * <p>
+     * 只有锁仍由指定的令牌持有时才会被释放，锁已经超时并被其它调用者获取时，不产生任何影响。
+     *
+     * <p>
+     * 默认实现不执行任何操作。
+     *
+     * @param key   指定的键。
+     * @param token 获取锁时使用的令牌。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default void unlockRebuild(K key, String token) throws CacheException {
+    }
 }
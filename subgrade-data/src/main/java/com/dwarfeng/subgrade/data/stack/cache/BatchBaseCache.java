@@ -4,6 +4,9 @@ import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
 import com.dwarfeng.subgrade.data.stack.exception.CacheException;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -32,6 +35,30 @@ public interface BatchBaseCache<K extends Key, E extends Entity<K>> extends Base
      */
     boolean nonExists(List<K> keys) throws CacheException;
 
+    /**
+     * 批量查询指定的主键是否存在。
+     *
+     * <p>
+     * 返回的位图中，第 i 位表示列表中第 i 个主键是否存在，调用者可以据此只获取缺失的元素。
+     *
+     * <p>
+     * 默认实现逐个调用 {@link #exists(Key)}，实现者应当覆盖该方法以在少量的网络往返内完成查询。
+     *
+     * @param keys 指定的主键组成的列表。
+     * @return 表示指定的主键是否存在的位图。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default BitSet batchExists(List<K> keys) throws CacheException {
+        BitSet bitSet = new BitSet(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (exists(keys.get(i))) {
+                bitSet.set(i);
+            }
+        }
+        return bitSet;
+    }
+
     /**
      * 批量获取指定的键对应的元素。
      *
@@ -41,6 +68,37 @@ public interface BatchBaseCache<K extends Key, E extends Entity<K>> extends Base
      */
     List<E> batchGet(List<K> keys) throws CacheException;
 
+    /**
+     * 批量获取指定的键对应的元素，不存在的键对应 <code>null</code>。
+     *
+     * <p>
+     * 默认实现先调用 {@link #batchExists(List)}，再对存在的键调用 {@link #batchGet(List)}，
+     * 实现者应当覆盖该方法，以在一次网络往返内完成操作。
+     *
+     * @param keys 指定的键组成的列表。
+     * @return 与指定的键一一对应的元素组成的列表，不存在的键对应 <code>null</code>。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default List<E> batchGetIfExists(List<K> keys) throws CacheException {
+        List<E> entities = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        BitSet bitSet = batchExists(keys);
+        if (bitSet.isEmpty()) {
+            return entities;
+        }
+        List<Integer> indexes = new ArrayList<>(bitSet.cardinality());
+        List<K> existingKeys = new ArrayList<>(bitSet.cardinality());
+        for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+            indexes.add(i);
+            existingKeys.add(keys.get(i));
+        }
+        List<E> existingEntities = batchGet(existingKeys);
+        for (int i = 0; i < indexes.size(); i++) {
+            entities.set(indexes.get(i), existingEntities.get(i));
+        }
+        return entities;
+    }
+
     /**
      * 向缓存中批量推送指定的键值对。
      *
@@ -60,4 +118,47 @@ public interface BatchBaseCache<K extends Key, E extends Entity<K>> extends Base
      * @throws CacheException 缓存异常。
      */
     void batchDelete(List<K> keys) throws CacheException;
+
+    /**
+     * 将指定的键批量标记为不存在。
+     *
+     * <p>
+     * 默认实现逐个调用 {@link #markAbsent(Key, long)}，实现者应当覆盖该方法以在少量的网络往返内完成操作。
+     *
+     * @param keys    指定的键组成的列表。
+     * @param timeout 标记的超时时间（毫秒），应当远小于实体的超时时间。
+     * @throws CacheException 缓存异常。
+     * @see #markAbsent(Key, long)
+     * @since 2.0.0
+     */
+    default void batchMarkAbsent(List<K> keys, long timeout) throws CacheException {
+        for (K key : keys) {
+            markAbsent(key, timeout);
+        }
+    }
+
+    /**
+     * 批量查询指定的键是否被标记为不存在。
+     *
+     * <p>
+     * 返回的位图中，第 i 位表示列表中第 i 个键是否被标记为不存在。
+     *
+     * <p>
+     * 默认实现逐个调用 {@link #isMarkedAbsent(Key)}，实现者应当覆盖该方法以在少量的网络往返内完成查询。
+     *
+     * @param keys 指定的键组成的列表。
+     * @return 表示指定的键是否被标记为不存在的位图。
+     * @throws CacheException 缓存异常。
+     * @see #isMarkedAbsent(Key)
+     * @since 2.0.0
+     */
+    default BitSet batchIsMarkedAbsent(List<K> keys) throws CacheException {
+        BitSet bitSet = new BitSet(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (isMarkedAbsent(keys.get(i))) {
+                bitSet.set(i);
+            }
+        }
+        return bitSet;
+    }
 }
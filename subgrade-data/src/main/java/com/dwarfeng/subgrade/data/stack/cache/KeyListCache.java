@@ -1,5 +1,7 @@
 package com.dwarfeng.subgrade.data.stack.cache;
 
+import com.dwarfeng.subgrade.basic.sdk.bean.dto.PagingUtil;
+import com.dwarfeng.subgrade.basic.stack.bean.dto.PagedData;
 import com.dwarfeng.subgrade.basic.stack.bean.dto.PagingInfo;
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
@@ -66,6 +68,25 @@ public interface KeyListCache<K extends Key, E extends Entity<? extends Key>> ex
      */
     List<E> get(K key, PagingInfo pagingInfo) throws CacheException;
 
+    /**
+     * 获取缓存中指定的分页信息对应的分页数据。
+     *
+     * <p>
+     * 分页数据中同时包含指定的键对应的实体列表的元素总数与指定的分页信息对应的子列表，服务层可以直接返回，不必再单独查询元素总数。
+     *
+     * <p>
+     * 默认实现依次调用 {@link #size(Key)} 与 {@link #get(Key, PagingInfo)}，实现类可以在一次网络往返中完成查询。
+     *
+     * @param key        指定的键。
+     * @param pagingInfo 指定的分页信息。
+     * @return 指定的分页信息对应的分页数据。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default PagedData<E> getPaged(K key, PagingInfo pagingInfo) throws CacheException {
+        return PagingUtil.pagedData(pagingInfo, size(key), get(key, pagingInfo));
+    }
+
     /**
      * 将指定的键对应的列表设置为指定的集合。
      *
@@ -1,5 +1,7 @@
 package com.dwarfeng.subgrade.data.stack.cache;
 
+import com.dwarfeng.subgrade.basic.sdk.bean.dto.PagingUtil;
+import com.dwarfeng.subgrade.basic.stack.bean.dto.PagedData;
 import com.dwarfeng.subgrade.basic.stack.bean.dto.PagingInfo;
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.data.stack.exception.CacheException;
@@ -56,9 +58,49 @@ public interface ListCache<E extends Entity<?>> extends Cache<E> {
      */
     List<E> get(PagingInfo pagingInfo) throws CacheException;
 
+    /**
+     * 获取缓存中指定的分页信息对应的分页数据。
+     *
+     * <p>
+     * 分页数据中同时包含列表的元素总数与指定的分页信息对应的子列表，服务层可以直接返回，不必再单独查询元素总数。
+     *
+     * <p>
+     * 默认实现依次调用 {@link #size()} 与 {@link #get(PagingInfo)}，实现类可以在一次网络往返中完成查询。
+     *
+     * @param pagingInfo 指定的分页信息。
+     * @return 指定的分页信息对应的分页数据。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default PagedData<E> getPaged(PagingInfo pagingInfo) throws CacheException {
+        return PagingUtil.pagedData(pagingInfo, size(), get(pagingInfo));
+    }
+
+    /**
+     * 获取缓存中指定的分页信息对应的分页数据，列表不存在时返回 <code>null</code>。
+     *
+     * <p>
+     * 该方法将 {@link #exists()} 与 {@link #getPaged(PagingInfo)} 合并为一次操作，调用者不必在获取分页数据之前查询列表是否存在。
+     *
+     * <p>
+     * 默认实现依次调用 {@link #exists()} 与 {@link #getPaged(PagingInfo)}，实现者应当覆盖该方法，以在一次网络往返内完成操作。
+     *
+     * @param pagingInfo 指定的分页信息。
+     * @return 指定的分页信息对应的分页数据，列表不存在时返回 <code>null</code>。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default PagedData<E> getPagedIfExists(PagingInfo pagingInfo) throws CacheException {
+        return exists() ? getPaged(pagingInfo) : null;
+    }
+
     /**
      * 将列表设置为指定的集合。
      *
+     * <p>
+     * 指定的集合为空时，实现者应当保证超时时间内 {@link #exists()} 返回 <code>true</code>，
+     * 以免空列表在每次查询时都被重新加载。
+     *
      * @param entities 指定的实体集合。
      * @param timeout  超时时间。
      * @throws CacheException 缓存异常。
@@ -82,4 +124,37 @@ public interface ListCache<E extends Entity<?>> extends Cache<E> {
      * @throws CacheException 缓存异常。
      */
     void rightPush(Collection<E> entities, long timeout) throws CacheException;
+
+    /**
+     * 尝试获取列表的重建锁。
+     *
+     * <p>
+     * 重建锁用于在缓存未命中时，使多个调用者（可能位于不同的节点中）中只有一个从数据访问层加载列表并写入缓存，
+     * 以防止列表过期时大量请求同时访问数据访问层。锁在超时时间后自动释放。
+     *
+     * <p>
+     * 默认实现不提供互斥，总是返回 <code>true</code>。
+     *
+     * @param token   锁的令牌，用于在释放时确认锁仍由调用者持有，每次获取都应当使用不同的令牌。
+     * @param timeout 锁的超时时间（毫秒）。
+     * @return 是否获取成功。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default boolean tryLockRebuild(String token, long timeout) throws CacheException {
+        return true;
+    }
+
+    /**
+     * 释放列表的重建锁。
+     *
+     * <p>
+     * 只有锁仍由指定的令牌持有时才会被释放。默认实现不执行任何操作。
+     *
+     * @param token 获取锁时使用的令牌。
+     * @throws CacheException 缓存异常。
+     * @since 2.0.0
+     */
+    default void unlockRebuild(String token) throws CacheException {
+    }
 }
@@ -33,4 +33,22 @@ public interface BaseDao<K extends Key, E extends Entity<K>> extends ReadOnlyDao
      * @param key 实体的键。
      */
     void delete(K key) throws DaoException;
+
+    /**
+     * 获取指定的键对应的实体，实体不存在时返回 <code>null</code>。
+     *
+     * <p>
+     * 该方法将 {@link #exists(Key)} 与 {@link #get(Key)} 合并为一次操作，调用者不必在获取实体之前查询实体是否存在。
+     *
+     * <p>
+     * 默认实现依次调用 {@link #exists(Key)} 与 {@link #get(Key)}，实现者应当覆盖该方法，以在一次查询内完成操作。
+     *
+     * @param key 实体的键。
+     * @return 实体的键对应的实体，实体不存在时返回 <code>null</code>。
+     * @throws DaoException 数据访问层异常。
+     * @since 2.0.0
+     */
+    default E getIfExists(K key) throws DaoException {
+        return exists(key) ? get(key) : null;
+    }
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.dwarfeng.subgrade.data.stack.dao;
 
 import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
 import com.dwarfeng.subgrade.basic.stack.bean.key.Key;
+import com.dwarfeng.subgrade.data.internal.dao.EntityAlignUtil;
 import com.dwarfeng.subgrade.data.stack.exception.DaoException;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -38,4 +40,34 @@ public interface BatchBaseDao<K extends Key, E extends Entity<K>> extends BaseDa
      * @throws DaoException 数据访问层异常。
      */
     void batchDelete(List<K> keys) throws DaoException;
+
+    /**
+     * 批量获取指定的键对应的实体，不存在的实体对应 <code>null</code>。
+     *
+     * <p>
+     * 默认实现先调用 {@link #allExists(List)}，实体全部存在时调用 {@link #batchGet(List)}，
+     * 否则逐个调用 {@link #getIfExists(Key)}。实现者应当覆盖该方法，以在一次查询内完成操作。
+     *
+     * <p>
+     * {@link #batchGet(List)} 的部分实现（例如基于 <code>IN</code> 条件的查询）返回的实体与指定的键的顺序不一致，
+     * 重复的键也只返回一个实体，因此默认实现按照实体的键将结果重新对齐到指定的键的顺序。
+     *
+     * @param keys 指定的键组成的列表。
+     * @return 与指定的键一一对应的实体组成的列表，不存在的实体对应 <code>null</code>。
+     * @throws DaoException 数据访问层异常。
+     * @since 2.0.0
+     */
+    default List<E> batchGetIfExists(List<K> keys) throws DaoException {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (allExists(keys)) {
+            return EntityAlignUtil.alignByKey(keys, batchGet(keys));
+        }
+        List<E> elements = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            elements.add(getIfExists(key));
+        }
+        return elements;
+    }
 }
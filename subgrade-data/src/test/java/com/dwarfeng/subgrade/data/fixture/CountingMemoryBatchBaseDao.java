@@ -0,0 +1,120 @@
+package com.dwarfeng.subgrade.data.fixture;
+
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.data.impl.dao.memory.MemoryBatchBaseDao;
+import com.dwarfeng.subgrade.data.stack.exception.DaoException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 记录调用次数的内存数据访问层。
+ *
+ * <p>
+ * 在 {@link MemoryBatchBaseDao} 的基础上记录存在性查询的次数与每一次批量更新的实体，并可以模拟批量更新失败。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class CountingMemoryBatchBaseDao extends MemoryBatchBaseDao<LongIdKey, TestEntity> {
+
+    private final List<List<TestEntity>> updatedBatches = new ArrayList<>();
+
+    private int existsCount;
+    private int getIfExistsCount;
+    private int allExistsCount;
+    private int nonExistsCount;
+    private int batchGetIfExistsCount;
+    private boolean failing;
+
+    /**
+     * 放入实体，不经过数据访问层的接口，也不计数。
+     *
+     * @param entity 实体。
+     */
+    public void put(TestEntity entity) {
+        getMemory().put(entity.getKey(), entity);
+    }
+
+    @Override
+    public boolean exists(LongIdKey key) {
+        existsCount++;
+        return super.exists(key);
+    }
+
+    @Override
+    public TestEntity getIfExists(LongIdKey key) {
+        getIfExistsCount++;
+        return super.getIfExists(key);
+    }
+
+    @Override
+    public void batchUpdate(List<TestEntity> elements) throws DaoException {
+        if (failing) {
+            throw new DaoException("模拟的批量更新失败");
+        }
+        super.batchUpdate(elements);
+        updatedBatches.add(new ArrayList<>(elements));
+    }
+
+    @Override
+    public boolean allExists(List<LongIdKey> keys) {
+        allExistsCount++;
+        return super.allExists(keys);
+    }
+
+    @Override
+    public boolean nonExists(List<LongIdKey> keys) {
+        nonExistsCount++;
+        return super.nonExists(keys);
+    }
+
+    @Override
+    public List<TestEntity> batchGetIfExists(List<LongIdKey> keys) {
+        batchGetIfExistsCount++;
+        return super.batchGetIfExists(keys);
+    }
+
+    /**
+     * 清零全部计数。
+     */
+    public void resetCounts() {
+        existsCount = 0;
+        getIfExistsCount = 0;
+        allExistsCount = 0;
+        nonExistsCount = 0;
+        batchGetIfExistsCount = 0;
+    }
+
+    public List<List<TestEntity>> getUpdatedBatches() {
+        return updatedBatches;
+    }
+
+    public int getExistsCount() {
+        return existsCount;
+    }
+
+    public int getGetIfExistsCount() {
+        return getIfExistsCount;
+    }
+
+    public int getAllExistsCount() {
+        return allExistsCount;
+    }
+
+    public int getNonExistsCount() {
+        return nonExistsCount;
+    }
+
+    public int getBatchGetIfExistsCount() {
+        return batchGetIfExistsCount;
+    }
+
+    public boolean isFailing() {
+        return failing;
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+}
@@ -0,0 +1,220 @@
+package com.dwarfeng.subgrade.data.fixture;
+
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.data.stack.cache.BatchBaseCache;
+import com.dwarfeng.subgrade.data.stack.exception.CacheException;
+
+import java.util.*;
+
+/**
+ * 基于映射的缓存。
+ *
+ * <p>
+ * 保存与返回的均为实体的副本，支持不存在标记与重建锁，并记录读取与存在性查询的次数。
+ * 读取与推送时可以执行指定的动作，用于模拟与之并发的操作。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class MapBatchBaseCache implements BatchBaseCache<LongIdKey, TestEntity> {
+
+    private final Map<LongIdKey, TestEntity> entityMap = new LinkedHashMap<>();
+    private final Set<LongIdKey> absentKeys = new HashSet<>();
+
+    private int getCount;
+    private int batchExistsCount;
+    private int markAbsentCount;
+    private int batchMarkAbsentCount;
+    private int isMarkedAbsentCount;
+    private int batchIsMarkedAbsentCount;
+    private boolean lockHeld;
+    private Action onGet = () -> {
+    };
+    private Action onPush = () -> {
+    };
+
+    @Override
+    public boolean exists(LongIdKey key) {
+        return entityMap.containsKey(key);
+    }
+
+    @Override
+    public TestEntity get(LongIdKey key) throws CacheException {
+        getCount++;
+        TestEntity entity = entityMap.get(key);
+        run(onGet);
+        return Objects.isNull(entity) ? null : entity.copy();
+    }
+
+    @Override
+    public void push(TestEntity entity, long timeout) throws CacheException {
+        entityMap.put(entity.getKey(), entity.copy());
+        absentKeys.remove(entity.getKey());
+        run(onPush);
+    }
+
+    @Override
+    public void delete(LongIdKey key) {
+        entityMap.remove(key);
+        absentKeys.remove(key);
+    }
+
+    @Override
+    public void markAbsent(LongIdKey key, long timeout) {
+        markAbsentCount++;
+        absentKeys.add(key);
+    }
+
+    @Override
+    public boolean isMarkedAbsent(LongIdKey key) {
+        isMarkedAbsentCount++;
+        return absentKeys.contains(key);
+    }
+
+    @Override
+    public void batchMarkAbsent(List<LongIdKey> keys, long timeout) {
+        batchMarkAbsentCount++;
+        absentKeys.addAll(keys);
+    }
+
+    @Override
+    public BitSet batchIsMarkedAbsent(List<LongIdKey> keys) {
+        batchIsMarkedAbsentCount++;
+        BitSet bitSet = new BitSet(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (absentKeys.contains(keys.get(i))) {
+                bitSet.set(i);
+            }
+        }
+        return bitSet;
+    }
+
+    @Override
+    public boolean tryLockRebuild(LongIdKey key, String token, long timeout) {
+        return !lockHeld;
+    }
+
+    @Override
+    public void clear() {
+        entityMap.clear();
+        absentKeys.clear();
+    }
+
+    @Override
+    public boolean allExists(List<LongIdKey> keys) {
+        return keys.stream().allMatch(entityMap::containsKey);
+    }
+
+    @Override
+    public boolean nonExists(List<LongIdKey> keys) {
+        return keys.stream().noneMatch(entityMap::containsKey);
+    }
+
+    @Override
+    public BitSet batchExists(List<LongIdKey> keys) {
+        batchExistsCount++;
+        BitSet bitSet = new BitSet(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (entityMap.containsKey(keys.get(i))) {
+                bitSet.set(i);
+            }
+        }
+        return bitSet;
+    }
+
+    @Override
+    public List<TestEntity> batchGet(List<LongIdKey> keys) throws CacheException {
+        List<TestEntity> entities = new ArrayList<>();
+        for (LongIdKey key : keys) {
+            entities.add(get(key));
+        }
+        return entities;
+    }
+
+    @Override
+    public void batchPush(List<TestEntity> entities, long timeout) throws CacheException {
+        for (TestEntity entity : entities) {
+            push(entity, timeout);
+        }
+    }
+
+    @Override
+    public void batchDelete(List<LongIdKey> keys) {
+        keys.forEach(this::delete);
+    }
+
+    private static void run(Action action) throws CacheException {
+        try {
+            action.run();
+        } catch (CacheException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CacheException(e);
+        }
+    }
+
+    /**
+     * 清零全部计数。
+     */
+    public void resetCounts() {
+        getCount = 0;
+        batchExistsCount = 0;
+        markAbsentCount = 0;
+        batchMarkAbsentCount = 0;
+        isMarkedAbsentCount = 0;
+        batchIsMarkedAbsentCount = 0;
+    }
+
+    public Map<LongIdKey, TestEntity> getEntityMap() {
+        return entityMap;
+    }
+
+    public Set<LongIdKey> getAbsentKeys() {
+        return absentKeys;
+    }
+
+    public int getGetCount() {
+        return getCount;
+    }
+
+    public int getBatchExistsCount() {
+        return batchExistsCount;
+    }
+
+    public int getMarkAbsentCount() {
+        return markAbsentCount;
+    }
+
+    public int getBatchMarkAbsentCount() {
+        return batchMarkAbsentCount;
+    }
+
+    public int getIsMarkedAbsentCount() {
+        return isMarkedAbsentCount;
+    }
+
+    public int getBatchIsMarkedAbsentCount() {
+        return batchIsMarkedAbsentCount;
+    }
+
+    public void setLockHeld(boolean lockHeld) {
+        this.lockHeld = lockHeld;
+    }
+
+    public void setOnGet(Action onGet) {
+        this.onGet = onGet;
+    }
+
+    public void setOnPush(Action onPush) {
+        this.onPush = onPush;
+    }
+
+    /**
+     * 读取或推送时执行的动作。
+     */
+    @FunctionalInterface
+    public interface Action {
+
+        void run() throws Exception;
+    }
+}
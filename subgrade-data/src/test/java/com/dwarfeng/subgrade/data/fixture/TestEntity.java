@@ -0,0 +1,62 @@
+package com.dwarfeng.subgrade.data.fixture;
+
+import com.dwarfeng.subgrade.basic.stack.bean.entity.Entity;
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+
+/**
+ * 测试使用的实体。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public final class TestEntity implements Entity<LongIdKey> {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongIdKey key;
+    private String name;
+
+    public TestEntity(long id, String name) {
+        this(new LongIdKey(id), name);
+    }
+
+    public TestEntity(LongIdKey key, String name) {
+        this.key = key;
+        this.name = name;
+    }
+
+    /**
+     * 返回实体的副本。
+     *
+     * @return 实体的副本。
+     */
+    public TestEntity copy() {
+        return new TestEntity(key, name);
+    }
+
+    @Override
+    public LongIdKey getKey() {
+        return key;
+    }
+
+    @Override
+    public void setKey(LongIdKey key) {
+        this.key = key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "TestEntity{" +
+                "key=" + key +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,209 @@
+package com.dwarfeng.subgrade.data.impl.cache;
+
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.data.fixture.MapBatchBaseCache;
+import com.dwarfeng.subgrade.data.fixture.TestEntity;
+import com.dwarfeng.subgrade.data.sdk.redis.formatter.LongIdStringKeyFormatter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 带有本地近缓存的 BatchBaseCache 测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class NearBatchBaseCacheTest {
+
+    private static final String CHANNEL = "near-cache-test";
+    private static final long TIMEOUT = 60000L;
+
+    @Test
+    public void shouldKeepLocalEntriesIsolatedFromCallers() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        MapBatchBaseCache delegate = new MapBatchBaseCache();
+        NearBatchBaseCache<LongIdKey, TestEntity> cache = redis.nearCache(delegate);
+
+        TestEntity entity = new TestEntity(new LongIdKey(1L), "origin");
+        cache.push(entity, TIMEOUT);
+        entity.setName("changed after push");
+        TestEntity got = cache.get(new LongIdKey(1L));
+        got.setName("changed after get");
+
+        assertEquals("origin", cache.get(new LongIdKey(1L)).getName());
+        assertEquals("origin", cache.batchGet(List.of(new LongIdKey(1L))).get(0).getName());
+        // 推送不写入一级缓存，第一次读取从被装饰的缓存载入。
+        assertEquals(1, delegate.getGetCount());
+    }
+
+    @Test
+    public void shouldNotKeepStaleValueOfConcurrentPush() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        MapBatchBaseCache delegate = new MapBatchBaseCache();
+        NearBatchBaseCache<LongIdKey, TestEntity> cache = redis.nearCache(delegate);
+
+        // 推送 v1 期间，另一个线程推送 v2，被装饰的缓存中最终保存 v2。
+        delegate.setOnPush(() -> {
+            delegate.setOnPush(() -> {
+            });
+            cache.push(new TestEntity(new LongIdKey(1L), "v2"), TIMEOUT);
+        });
+        cache.push(new TestEntity(new LongIdKey(1L), "v1"), TIMEOUT);
+
+        assertEquals("v2", cache.get(new LongIdKey(1L)).getName());
+        assertEquals("v2", cache.get(new LongIdKey(1L)).getName());
+        assertEquals(1, delegate.getGetCount());
+
+        // 批量推送同样不保留过时的值。
+        delegate.setOnPush(() -> {
+            delegate.setOnPush(() -> {
+            });
+            cache.batchPush(List.of(new TestEntity(new LongIdKey(1L), "v4")), TIMEOUT);
+        });
+        cache.batchPush(List.of(new TestEntity(new LongIdKey(1L), "v3")), TIMEOUT);
+
+        assertEquals("v4", cache.batchGet(List.of(new LongIdKey(1L))).get(0).getName());
+    }
+
+    @Test
+    public void shouldInvalidateOtherNodes() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        MapBatchBaseCache delegate = new MapBatchBaseCache();
+        NearBatchBaseCache<LongIdKey, TestEntity> node1 = redis.nearCache(delegate);
+        NearBatchBaseCache<LongIdKey, TestEntity> node2 = redis.nearCache(delegate);
+
+        node1.push(new TestEntity(new LongIdKey(1L), "v1"), TIMEOUT);
+        assertEquals("v1", node2.get(new LongIdKey(1L)).getName());
+        node1.push(new TestEntity(new LongIdKey(1L), "v2"), TIMEOUT);
+        assertEquals("v2", node2.get(new LongIdKey(1L)).getName());
+
+        node1.delete(new LongIdKey(1L));
+        assertFalse(node2.exists(new LongIdKey(1L)));
+    }
+
+    @Test
+    public void shouldOnlyDiscardFillsOfInvalidatedKeys() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        MapBatchBaseCache delegate = new MapBatchBaseCache();
+        NearBatchBaseCache<LongIdKey, TestEntity> cache = redis.nearCache(delegate);
+        delegate.push(new TestEntity(new LongIdKey(1L), "v1"), TIMEOUT);
+        delegate.push(new TestEntity(new LongIdKey(2L), "v2"), TIMEOUT);
+
+        // 读取键 1 期间失效键 2，键 1 的读取结果仍然写入一级缓存。
+        delegate.setOnGet(() -> redis.invalidate(Collections.singletonList("near:2")));
+        cache.get(new LongIdKey(1L));
+        delegate.setOnGet(() -> {
+        });
+        cache.get(new LongIdKey(1L));
+        assertEquals(1, delegate.getGetCount());
+
+        // 读取键 2 期间失效键 2，键 2 的读取结果不写入一级缓存。
+        delegate.setOnGet(() -> redis.invalidate(Collections.singletonList("near:2")));
+        cache.get(new LongIdKey(2L));
+        delegate.setOnGet(() -> {
+        });
+        cache.get(new LongIdKey(2L));
+        assertEquals(3, delegate.getGetCount());
+    }
+
+    @Test
+    public void shouldRemoveListenerWhenClosed() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        MapBatchBaseCache delegate = new MapBatchBaseCache();
+        NearBatchBaseCache<LongIdKey, TestEntity> node1 = redis.nearCache(delegate);
+        NearBatchBaseCache<LongIdKey, TestEntity> node2 = redis.nearCache(delegate);
+        assertEquals(2, redis.listeners.size());
+
+        node2.close();
+
+        assertEquals(1, redis.listeners.size());
+        node1.push(new TestEntity(new LongIdKey(1L), "v1"), TIMEOUT);
+    }
+
+    /**
+     * 只支持发布/订阅的 Redis 替身，发布的消息同步地投递给所有监听者。
+     */
+    private static final class FakeRedis {
+
+        private final List<MessageListener> listeners = new CopyOnWriteArrayList<>();
+
+        private final RedisConnection connection = (RedisConnection) Proxy.newProxyInstance(
+                RedisConnection.class.getClassLoader(), new Class<?>[]{RedisConnection.class},
+                (proxy, method, args) -> {
+                    if (!"publish".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    byte[] channel = (byte[]) args[0];
+                    byte[] body = (byte[]) args[1];
+                    for (MessageListener listener : listeners) {
+                        listener.onMessage(new Message() {
+                            @Override
+                            public byte[] getBody() {
+                                return body;
+                            }
+
+                            @Override
+                            public byte[] getChannel() {
+                                return channel;
+                            }
+                        }, null);
+                    }
+                    return (long) listeners.size();
+                }
+        );
+
+        private final RedisTemplate<String, Object> template = new RedisTemplate<>() {
+            @Override
+            public <T> T execute(RedisCallback<T> action) {
+                return action.doInRedis(connection);
+            }
+        };
+
+        private final RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer() {
+            @Override
+            public void addMessageListener(MessageListener listener, Topic topic) {
+                assertEquals(CHANNEL, topic.getTopic());
+                listeners.add(listener);
+            }
+
+            @Override
+            public void removeMessageListener(MessageListener listener, Topic topic) {
+                assertEquals(CHANNEL, topic.getTopic());
+                listeners.remove(listener);
+            }
+        };
+
+        private NearBatchBaseCache<LongIdKey, TestEntity> nearCache(MapBatchBaseCache delegate) {
+            return new NearBatchBaseCache<>(
+                    delegate, new LongIdStringKeyFormatter("near:"), template, listenerContainer, CHANNEL
+            );
+        }
+
+        /**
+         * 模拟其它节点发出的失效消息。
+         */
+        private void invalidate(List<String> formattedKeys) {
+            StringJoiner joiner = new StringJoiner("\n");
+            joiner.add("other-node").add("I");
+            formattedKeys.forEach(joiner::add);
+            connection.publish(
+                    CHANNEL.getBytes(StandardCharsets.UTF_8), joiner.toString().getBytes(StandardCharsets.UTF_8)
+            );
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.dwarfeng.subgrade.data.impl.cache;
+
+import com.dwarfeng.subgrade.basic.stack.bean.BeanTransformer;
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.data.fixture.TestEntity;
+import com.dwarfeng.subgrade.data.sdk.redis.formatter.LongIdStringKeyFormatter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用 Redis 哈希分桶实现的 BatchBaseCache 测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class RedisHashBatchBaseCacheTest {
+
+    private static final String BUCKET_KEY_PREFIX = "bucket:";
+    private static final int BUCKET_COUNT = 4;
+    private static final long TIMEOUT = 60000L;
+
+    @Test
+    public void shouldRestoreKeyOrderAcrossBuckets() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        RedisHashBatchBaseCache<LongIdKey, TestEntity, TestEntity> cache = redis.hashCache();
+        List<TestEntity> entities = new ArrayList<>();
+        for (long id = 1L; id <= 10L; id++) {
+            entities.add(new TestEntity(new LongIdKey(id), "name-" + id));
+        }
+        cache.batchPush(entities, TIMEOUT);
+        List<LongIdKey> keys = List.of(
+                new LongIdKey(7L), new LongIdKey(2L), new LongIdKey(99L), new LongIdKey(10L), new LongIdKey(2L),
+                new LongIdKey(5L), new LongIdKey(1L), new LongIdKey(8L)
+        );
+        redis.commands.clear();
+        redis.pipelineCount = 0;
+
+        List<TestEntity> result = cache.batchGet(keys);
+
+        assertEquals(keys.size(), result.size());
+        for (int i = 0; i < keys.size(); i++) {
+            LongIdKey key = keys.get(i);
+            if (key.getLongId() > 10L) {
+                assertNull(result.get(i));
+            } else {
+                assertEquals("name-" + key.getLongId(), result.get(i).getName());
+            }
+        }
+        // 每个桶只需要一次 HMGET，全部命令在同一次流水线中执行。
+        assertEquals(bucketCountOf(keys), redis.commands.size());
+        assertTrue(redis.commands.stream().allMatch(command -> command.startsWith("HMGET")));
+        assertEquals(1, redis.pipelineCount);
+    }
+
+    @Test
+    public void shouldRestoreKeyOrderAcrossChunks() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        RedisHashBatchBaseCache<LongIdKey, TestEntity, TestEntity> cache = redis.hashCache();
+        cache.setChunkSize(3);
+        List<TestEntity> entities = new ArrayList<>();
+        for (long id = 1L; id <= 7L; id++) {
+            entities.add(new TestEntity(new LongIdKey(id), "name-" + id));
+        }
+        cache.batchPush(entities, TIMEOUT);
+        List<LongIdKey> keys = new ArrayList<>();
+        for (long id = 7L; id >= 1L; id--) {
+            keys.add(new LongIdKey(id));
+        }
+        redis.pipelineCount = 0;
+
+        List<TestEntity> result = cache.batchGetIfExists(keys);
+
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals("name-" + keys.get(i).getLongId(), result.get(i).getName());
+        }
+        assertEquals(3, redis.pipelineCount);
+    }
+
+    @Test
+    public void shouldNotResetBucketTimeoutOnWrite() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        RedisHashBatchBaseCache<LongIdKey, TestEntity, TestEntity> cache = redis.hashCache();
+        String bucketKey = bucketKey(new LongIdKey(1L));
+
+        cache.push(new TestEntity(new LongIdKey(1L), "v1"), 1000L);
+        assertEquals(1000L, redis.bucketTimeouts.get(bucketKey));
+
+        // 桶已经有超时时间，再次写入不重置桶的超时时间。
+        cache.push(new TestEntity(new LongIdKey(1L), "v2"), 5000L);
+        assertEquals(1000L, redis.bucketTimeouts.get(bucketKey));
+        assertEquals("v2", cache.get(new LongIdKey(1L)).getName());
+    }
+
+    @Test
+    public void shouldExpireFieldsInFieldMode() throws Exception {
+        FakeRedis redis = new FakeRedis();
+        RedisHashBatchBaseCache<LongIdKey, TestEntity, TestEntity> cache = redis.hashCache();
+        cache.setExpirationMode(RedisHashExpirationMode.FIELD);
+
+        cache.push(new TestEntity(new LongIdKey(1L), "v1"), 1000L);
+
+        assertTrue(redis.bucketTimeouts.isEmpty());
+        assertEquals(1000L, redis.fieldTimeouts.get("test:1"));
+    }
+
+    private static int bucketCountOf(List<LongIdKey> keys) {
+        Set<String> bucketKeys = new HashSet<>();
+        for (LongIdKey key : keys) {
+            bucketKeys.add(bucketKey(key));
+        }
+        return bucketKeys.size();
+    }
+
+    private static String bucketKey(LongIdKey key) {
+        return BUCKET_KEY_PREFIX + Math.floorMod(("test:" + key.getLongId()).hashCode(), BUCKET_COUNT);
+    }
+
+    /**
+     * 只支持哈希命令与过期命令的 Redis 替身，记录流水线的次数与每条哈希命令。
+     */
+    private static final class FakeRedis {
+
+        private final Map<String, Map<String, byte[]>> buckets = new HashMap<>();
+        private final Map<String, Long> bucketTimeouts = new HashMap<>();
+        private final Map<String, Long> fieldTimeouts = new HashMap<>();
+        private final List<String> commands = new ArrayList<>();
+        private int pipelineCount;
+
+        private final RedisHashCommands hashCommands = (RedisHashCommands) Proxy.newProxyInstance(
+                RedisHashCommands.class.getClassLoader(), new Class<?>[]{RedisHashCommands.class},
+                (proxy, method, args) -> {
+                    String bucketKey = string((byte[]) args[0]);
+                    Map<String, byte[]> bucket = buckets.computeIfAbsent(bucketKey, k -> new HashMap<>());
+                    switch (method.getName()) {
+                        case "hMSet" -> {
+                            @SuppressWarnings("unchecked")
+                            Map<byte[], byte[]> hash = (Map<byte[], byte[]>) args[1];
+                            hash.forEach((field, value) -> bucket.put(string(field), value));
+                            return null;
+                        }
+                        case "hMGet" -> {
+                            commands.add("HMGET " + bucketKey);
+                            List<byte[]> values = new ArrayList<>();
+                            for (byte[] field : (byte[][]) args[1]) {
+                                values.add(bucket.get(string(field)));
+                            }
+                            return values;
+                        }
+                        case "hGet" -> {
+                            return bucket.get(string((byte[]) args[1]));
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+
+        private final RedisConnection connection = (RedisConnection) Proxy.newProxyInstance(
+                RedisConnection.class.getClassLoader(), new Class<?>[]{RedisConnection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCommands" -> hashCommands;
+                    case "execute" -> executeCommand((String) args[0], (byte[][]) args[1]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+
+        private final RedisTemplate<String, TestEntity> template = new RedisTemplate<>() {
+            @Override
+            public <T> T execute(RedisCallback<T> action) {
+                return action.doInRedis(connection);
+            }
+
+            @Override
+            public List<Object> executePipelined(RedisCallback<?> action, RedisSerializer<?> resultSerializer) {
+                pipelineCount++;
+                List<Object> results = new ArrayList<>();
+                RedisConnection pipelinedConnection = (RedisConnection) Proxy.newProxyInstance(
+                        RedisConnection.class.getClassLoader(), new Class<?>[]{RedisConnection.class},
+                        (proxy, method, args) -> {
+                            if (!"hashCommands".equals(method.getName())) {
+                                results.add(method.invoke(connection, args));
+                                return null;
+                            }
+                            return Proxy.newProxyInstance(
+                                    RedisHashCommands.class.getClassLoader(), new Class<?>[]{RedisHashCommands.class},
+                                    (hashProxy, hashMethod, hashArgs) -> {
+                                        results.add(hashMethod.invoke(hashCommands, hashArgs));
+                                        return null;
+                                    }
+                            );
+                        }
+                );
+                action.doInRedis(pipelinedConnection);
+                return results;
+            }
+
+            @Override
+            public RedisSerializer<?> getKeySerializer() {
+                return STRING_SERIALIZER;
+            }
+
+            @Override
+            public RedisSerializer<?> getHashKeySerializer() {
+                return STRING_SERIALIZER;
+            }
+
+            @Override
+            public RedisSerializer<?> getHashValueSerializer() {
+                return ENTITY_SERIALIZER;
+            }
+        };
+
+        private Object executeCommand(String command, byte[][] args) {
+            String bucketKey = string(args[0]);
+            long timeout = Long.parseLong(string(args[1]));
+            switch (command) {
+                case "PEXPIRE" -> {
+                    assertEquals("NX", string(args[2]));
+                    return bucketTimeouts.putIfAbsent(bucketKey, timeout) == null ? 1L : 0L;
+                }
+                case "HPEXPIRE" -> {
+                    for (int i = 4; i < args.length; i++) {
+                        fieldTimeouts.put(string(args[i]), timeout);
+                    }
+                    return Collections.nCopies(args.length - 4, 1L);
+                }
+                default -> throw new UnsupportedOperationException(command);
+            }
+        }
+
+        private RedisHashBatchBaseCache<LongIdKey, TestEntity, TestEntity> hashCache() {
+            return new RedisHashBatchBaseCache<>(
+                    template, new LongIdStringKeyFormatter("test:"), IDENTITY_TRANSFORMER, BUCKET_KEY_PREFIX,
+                    BUCKET_COUNT
+            );
+        }
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final RedisSerializer<String> STRING_SERIALIZER = new RedisSerializer<>() {
+        @Override
+        public byte[] serialize(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] bytes) {
+            return string(bytes);
+        }
+    };
+
+    private static final RedisSerializer<TestEntity> ENTITY_SERIALIZER = new RedisSerializer<>() {
+        @Override
+        public byte[] serialize(TestEntity value) {
+            return (value.getKey().getLongId() + "\n" + value.getName()).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public TestEntity deserialize(byte[] bytes) {
+            String[] parts = string(bytes).split("\n", 2);
+            return new TestEntity(new LongIdKey(Long.parseLong(parts[0])), parts[1]);
+        }
+    };
+
+    private static final BeanTransformer<TestEntity, TestEntity> IDENTITY_TRANSFORMER = new BeanTransformer<>() {
+        @Override
+        public TestEntity transform(TestEntity entity) {
+            return entity;
+        }
+
+        @Override
+        public TestEntity reverseTransform(TestEntity entity) {
+            return entity;
+        }
+    };
+}
@@ -0,0 +1,175 @@
+package com.dwarfeng.subgrade.data.impl.service;
+
+import com.dwarfeng.subgrade.basic.impl.exception.MapServiceExceptionMapper;
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.basic.stack.exception.ServiceException;
+import com.dwarfeng.subgrade.basic.stack.log.LogLevel;
+import com.dwarfeng.subgrade.data.fixture.CountingMemoryBatchBaseDao;
+import com.dwarfeng.subgrade.data.fixture.MapBatchBaseCache;
+import com.dwarfeng.subgrade.data.fixture.TestEntity;
+import com.dwarfeng.subgrade.data.sdk.exception.ServiceExceptionCodeSuppliers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 通用的实体增删改查服务测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class GeneralBatchCrudServiceTest {
+
+    private static final long CACHE_TIMEOUT = 60000L;
+    private static final long ABSENT_CACHE_TIMEOUT = 1000L;
+    private static final Supplier<ServiceException.Code> UNDEFINED =
+            com.dwarfeng.subgrade.basic.sdk.exception.ServiceExceptionCodeSuppliers.UNDEFINED;
+
+    private CountingMemoryBatchBaseDao dao;
+    private MapBatchBaseCache cache;
+    private GeneralBatchCrudService<LongIdKey, TestEntity> service;
+
+    @BeforeEach
+    public void setUp() {
+        dao = new CountingMemoryBatchBaseDao();
+        cache = new MapBatchBaseCache();
+        AtomicLong idGenerator = new AtomicLong(1000L);
+        service = new GeneralBatchCrudService<>(
+                new MapServiceExceptionMapper(Collections.emptyMap(), UNDEFINED),
+                LogLevel.DEBUG, dao, cache, () -> new LongIdKey(idGenerator.incrementAndGet()), CACHE_TIMEOUT
+        );
+        service.setAbsentCacheTimeout(ABSENT_CACHE_TIMEOUT);
+    }
+
+    @Test
+    public void shouldNotMarkAbsentBeforeInsert() throws Exception {
+        service.insert(new TestEntity(1L, "e1"));
+        service.insertIfNotExists(new TestEntity(2L, "e2"));
+        service.insertOrUpdate(new TestEntity(3L, "e3"));
+        service.batchInsert(List.of(new TestEntity(4L, "e4"), new TestEntity(5L, "e5")));
+        service.batchInsertIfNotExists(List.of(new TestEntity(6L, "e6")));
+        service.batchInsertOrUpdate(List.of(new TestEntity(7L, "e7")));
+
+        assertEquals(0, cache.getMarkAbsentCount());
+        assertTrue(cache.getAbsentKeys().isEmpty());
+        for (long id = 1L; id <= 7L; id++) {
+            assertTrue(cache.getEntityMap().containsKey(new LongIdKey(id)));
+        }
+    }
+
+    @Test
+    public void shouldIgnoreStaleMarkBeforeInsert() throws Exception {
+        dao.put(new TestEntity(1L, "existing"));
+        cache.getAbsentKeys().add(new LongIdKey(1L));
+
+        ServiceException exception = assertThrows(
+                ServiceException.class, () -> service.insert(new TestEntity(1L, "duplicated"))
+        );
+        assertEquals(ServiceExceptionCodeSuppliers.ENTITY_EXISTED.get().getCode(), exception.getCode().getCode());
+        assertEquals("existing", dao.getMemory().get(new LongIdKey(1L)).getName());
+    }
+
+    @Test
+    public void shouldReadAndWriteMarksInBatches() throws Exception {
+        dao.put(new TestEntity(1L, "e1"));
+        cache.getAbsentKeys().add(new LongIdKey(2L));
+
+        List<TestEntity> entities = service.batchGetIfExists(List.of(
+                new LongIdKey(1L), new LongIdKey(2L), new LongIdKey(3L), new LongIdKey(4L)
+        ));
+
+        assertEquals(1, entities.size());
+        assertEquals("e1", entities.get(0).getName());
+        assertEquals(1, cache.getBatchIsMarkedAbsentCount());
+        assertEquals(0, cache.getIsMarkedAbsentCount());
+        assertEquals(1, cache.getBatchMarkAbsentCount());
+        assertEquals(0, cache.getMarkAbsentCount());
+        assertEquals(Set.of(new LongIdKey(2L), new LongIdKey(3L), new LongIdKey(4L)), cache.getAbsentKeys());
+        assertFalse(service.nonExists(List.of(new LongIdKey(1L))));
+        assertTrue(service.nonExists(List.of(new LongIdKey(2L), new LongIdKey(3L))));
+        assertEquals(0, cache.getIsMarkedAbsentCount());
+    }
+
+    @Test
+    public void shouldResolveMixedExistenceWithoutPerKeyQueries() throws Exception {
+        List<LongIdKey> keys = new ArrayList<>();
+        for (long id = 0; id < 64; id++) {
+            keys.add(new LongIdKey(id));
+            if (id % 16 == 0) {
+                dao.put(new TestEntity(id, "e" + id));
+            }
+        }
+
+        service.batchDeleteIfExists(keys);
+
+        assertTrue(dao.getMemory().isEmpty());
+        assertEquals(0, dao.getExistsCount());
+        assertEquals(0, dao.getGetIfExistsCount());
+        assertEquals(1, dao.getBatchGetIfExistsCount());
+        assertEquals(1, cache.getBatchMarkAbsentCount());
+        assertEquals(0, cache.getMarkAbsentCount());
+        assertEquals(60, cache.getAbsentKeys().size());
+        for (long id = 0; id < 64; id += 16) {
+            assertFalse(cache.getAbsentKeys().contains(new LongIdKey(id)));
+        }
+    }
+
+    @Test
+    public void shouldCheckExistenceOnceForConditionalBatchWrites() throws Exception {
+        for (long id = 0; id < 4; id++) {
+            dao.put(new TestEntity(id, "origin"));
+        }
+        cache.push(new TestEntity(0L, "origin"), CACHE_TIMEOUT);
+
+        service.batchUpdateIfExists(List.of(new TestEntity(0L, "u"), new TestEntity(1L, "u"), new TestEntity(9L, "u")));
+        assertExistenceCheckedOnce();
+        assertEquals("u", dao.getMemory().get(new LongIdKey(1L)).getName());
+        assertFalse(dao.getMemory().containsKey(new LongIdKey(9L)));
+
+        service.batchInsertOrUpdate(List.of(new TestEntity(2L, "w"), new TestEntity(8L, "w")));
+        assertExistenceCheckedOnce();
+        assertEquals("w", dao.getMemory().get(new LongIdKey(2L)).getName());
+        assertEquals("w", dao.getMemory().get(new LongIdKey(8L)).getName());
+
+        service.batchDeleteIfExists(List.of(new LongIdKey(3L), new LongIdKey(7L)));
+        assertExistenceCheckedOnce();
+        assertFalse(dao.getMemory().containsKey(new LongIdKey(3L)));
+    }
+
+    private void assertExistenceCheckedOnce() {
+        assertEquals(1, cache.getBatchExistsCount());
+        assertEquals(1, dao.getBatchGetIfExistsCount());
+        assertEquals(0, dao.getAllExistsCount());
+        assertEquals(0, dao.getNonExistsCount());
+        assertEquals(0, dao.getExistsCount());
+        cache.resetCounts();
+        dao.resetCounts();
+    }
+
+    @Test
+    public void shouldMarkAbsentBeforeReleasingRebuildLock() throws Exception {
+        GeneralBatchCrudService<LongIdKey, TestEntity> lockedService = new GeneralBatchCrudService<>(
+                new MapServiceExceptionMapper(Collections.emptyMap(), UNDEFINED),
+                LogLevel.DEBUG, dao, cache, () -> new LongIdKey(0L), CACHE_TIMEOUT
+        );
+        lockedService.setRebuildLockTimeout(1000L);
+        lockedService.setRebuildWaitTimeout(5000L);
+
+        // 不存在标记的超时时间为 0 时，持有锁的调用者仍然写入标记，供等待的调用者读取。
+        assertNull(lockedService.getIfExists(new LongIdKey(1L)));
+        assertEquals(1, dao.getGetIfExistsCount());
+        assertTrue(cache.getAbsentKeys().contains(new LongIdKey(1L)));
+
+        // 没有获取到锁的调用者读取到标记后直接返回，不等待超时，也不访问数据访问层。
+        cache.setLockHeld(true);
+        long startTime = System.currentTimeMillis();
+        assertNull(lockedService.getIfExists(new LongIdKey(1L)));
+        assertTrue(System.currentTimeMillis() - startTime < 5000L);
+        assertEquals(1, dao.getGetIfExistsCount());
+    }
+}
@@ -0,0 +1,171 @@
+package com.dwarfeng.subgrade.data.impl.service;
+
+import com.dwarfeng.subgrade.basic.impl.exception.MapServiceExceptionMapper;
+import com.dwarfeng.subgrade.basic.sdk.bean.dto.PagingUtil;
+import com.dwarfeng.subgrade.basic.sdk.exception.ServiceExceptionCodeSuppliers;
+import com.dwarfeng.subgrade.basic.stack.bean.dto.PagedData;
+import com.dwarfeng.subgrade.basic.stack.bean.dto.PagingInfo;
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.basic.stack.log.LogLevel;
+import com.dwarfeng.subgrade.data.fixture.TestEntity;
+import com.dwarfeng.subgrade.data.impl.dao.memory.MemoryEntireLookupDao;
+import com.dwarfeng.subgrade.data.stack.cache.ListCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 通用的全体实体查询服务测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class GeneralEntireLookupServiceTest {
+
+    private CountingLookupDao dao;
+    private ListMapCache cache;
+    private GeneralEntireLookupService<TestEntity> service;
+
+    @BeforeEach
+    public void setUp() {
+        dao = new CountingLookupDao();
+        cache = new ListMapCache();
+        service = new GeneralEntireLookupService<>(
+                new MapServiceExceptionMapper(Collections.emptyMap(), ServiceExceptionCodeSuppliers.UNDEFINED),
+                LogLevel.DEBUG, dao, cache, 60000L
+        );
+    }
+
+    @Test
+    public void shouldPageCachedListWithoutExistenceCheck() throws Exception {
+        cache.set(entities(5), 60000L);
+
+        PagedData<TestEntity> pagedData = service.lookup(new PagingInfo(1, 2));
+
+        assertEquals(5, pagedData.getCount());
+        assertEquals(List.of(2L, 3L), ids(pagedData.getData()));
+        assertEquals(0, cache.existsCount);
+        assertEquals(1, cache.getPagedIfExistsCount);
+        assertEquals(0, dao.lookupCount);
+    }
+
+    @Test
+    public void shouldPageRebuiltListWithoutReadingCacheAgain() throws Exception {
+        for (TestEntity entity : entities(5)) {
+            dao.getMemory().put(entity.getKey(), entity);
+        }
+
+        PagedData<TestEntity> pagedData = service.lookup(new PagingInfo(2, 2));
+
+        assertEquals(5, pagedData.getCount());
+        assertEquals(3, pagedData.getTotalPages());
+        assertEquals(List.of(4L), ids(pagedData.getData()));
+        assertEquals(1, dao.lookupCount);
+        assertEquals(1, cache.getPagedIfExistsCount);
+        assertEquals(5, cache.list.size());
+    }
+
+    @Test
+    public void shouldTreatCachedEmptyListAsHit() throws Exception {
+        assertEquals(0, service.lookup(new PagingInfo(0, 10)).getCount());
+        assertEquals(1, dao.lookupCount);
+
+        assertEquals(0, service.lookup(new PagingInfo(0, 10)).getCount());
+        assertEquals(1, dao.lookupCount);
+    }
+
+    private static List<TestEntity> entities(int count) {
+        List<TestEntity> entities = new ArrayList<>();
+        for (long id = 0; id < count; id++) {
+            entities.add(new TestEntity(id, "e" + id));
+        }
+        return entities;
+    }
+
+    private static List<Long> ids(List<TestEntity> entities) {
+        List<Long> ids = new ArrayList<>();
+        for (TestEntity entity : entities) {
+            ids.add(entity.getKey().getLongId());
+        }
+        return ids;
+    }
+
+    /**
+     * 记录全体查询次数的内存数据访问层。
+     */
+    private static final class CountingLookupDao extends MemoryEntireLookupDao<LongIdKey, TestEntity> {
+
+        private int lookupCount;
+
+        @Override
+        public List<TestEntity> lookup() {
+            lookupCount++;
+            return super.lookup();
+        }
+    }
+
+    /**
+     * 基于列表的缓存替身，空列表同样视为存在。
+     */
+    private static final class ListMapCache implements ListCache<TestEntity> {
+
+        private List<TestEntity> list;
+        private int existsCount;
+        private int getPagedIfExistsCount;
+
+        @Override
+        public boolean exists() {
+            existsCount++;
+            return Objects.nonNull(list);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public List<TestEntity> get() {
+            return new ArrayList<>(list);
+        }
+
+        @Override
+        public List<TestEntity> get(int beginIndex, int maxEntity) {
+            return new ArrayList<>(list.subList(beginIndex, Math.min(list.size(), beginIndex + maxEntity)));
+        }
+
+        @Override
+        public List<TestEntity> get(PagingInfo pagingInfo) {
+            return new ArrayList<>(PagingUtil.subList(list, pagingInfo));
+        }
+
+        @Override
+        public PagedData<TestEntity> getPagedIfExists(PagingInfo pagingInfo) {
+            getPagedIfExistsCount++;
+            return Objects.isNull(list) ? null : PagingUtil.pagedData(pagingInfo, list.size(), get(pagingInfo));
+        }
+
+        @Override
+        public void set(Collection<TestEntity> entities, long timeout) {
+            list = new ArrayList<>(entities);
+        }
+
+        @Override
+        public void leftPush(Collection<TestEntity> entities, long timeout) {
+            list.addAll(0, entities);
+        }
+
+        @Override
+        public void rightPush(Collection<TestEntity> entities, long timeout) {
+            list.addAll(entities);
+        }
+
+        @Override
+        public void clear() {
+            list = null;
+        }
+    }
+}
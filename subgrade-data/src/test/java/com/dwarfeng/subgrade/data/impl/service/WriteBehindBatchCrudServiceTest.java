@@ -0,0 +1,264 @@
+package com.dwarfeng.subgrade.data.impl.service;
+
+import com.dwarfeng.subgrade.basic.impl.exception.MapServiceExceptionMapper;
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.basic.stack.exception.ServiceException;
+import com.dwarfeng.subgrade.basic.stack.log.LogLevel;
+import com.dwarfeng.subgrade.data.fixture.CountingMemoryBatchBaseDao;
+import com.dwarfeng.subgrade.data.fixture.MapBatchBaseCache;
+import com.dwarfeng.subgrade.data.fixture.TestEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 写回模式的实体增删改查服务测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class WriteBehindBatchCrudServiceTest {
+
+    private static final long CACHE_TIMEOUT = 60000L;
+    private static final long FLUSH_INTERVAL = 3600000L;
+    private static final Supplier<ServiceException.Code> UNDEFINED =
+            com.dwarfeng.subgrade.basic.sdk.exception.ServiceExceptionCodeSuppliers.UNDEFINED;
+
+    private ScheduledExecutorService scheduler;
+    private CountingMemoryBatchBaseDao dao;
+    private MapBatchBaseCache cache;
+    private List<List<TestEntity>> failedEntities;
+    private WriteBehindBatchCrudService<LongIdKey, TestEntity> service;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        dao = new CountingMemoryBatchBaseDao();
+        cache = new MapBatchBaseCache();
+        failedEntities = new ArrayList<>();
+        AtomicLong idGenerator = new AtomicLong(1000L);
+        service = new WriteBehindBatchCrudService<>(
+                new MapServiceExceptionMapper(Collections.emptyMap(), UNDEFINED),
+                LogLevel.DEBUG, dao, cache, () -> new LongIdKey(idGenerator.incrementAndGet()), CACHE_TIMEOUT,
+                scheduler
+        );
+        service.setFlushInterval(FLUSH_INTERVAL);
+        service.setFlushFailureListener((entities, exception) -> failedEntities.add(new ArrayList<>(entities)));
+        for (long id = 1L; id <= 3L; id++) {
+            dao.put(new TestEntity(id, "origin"));
+        }
+        service.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.stop();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldCoalesceUpdatesOfSameEntity() throws Exception {
+        service.update(new TestEntity(1L, "a"));
+        service.update(new TestEntity(1L, "b"));
+        service.update(new TestEntity(1L, "c"));
+
+        assertEquals(1, service.getPendingSize());
+        assertEquals("c", service.get(new LongIdKey(1L)).getName());
+        assertTrue(dao.getUpdatedBatches().isEmpty());
+
+        service.flush();
+
+        assertEquals(0, service.getPendingSize());
+        assertEquals(1, dao.getUpdatedBatches().size());
+        assertEquals(List.of("c"), names(dao.getUpdatedBatches().get(0)));
+        assertEquals("c", dao.getMemory().get(new LongIdKey(1L)).getName());
+    }
+
+    @Test
+    public void shouldFlushWhenPendingSizeReachesLimit() throws Exception {
+        service.setBatchSize(100);
+        service.setMaxPendingSize(3);
+
+        service.update(new TestEntity(1L, "a"));
+        service.update(new TestEntity(2L, "b"));
+        assertEquals(2, service.getPendingSize());
+        assertTrue(dao.getUpdatedBatches().isEmpty());
+
+        service.update(new TestEntity(3L, "c"));
+
+        assertEquals(0, service.getPendingSize());
+        assertEquals(1, dao.getUpdatedBatches().size());
+        assertEquals(List.of("a", "b", "c"), names(dao.getUpdatedBatches().get(0)));
+    }
+
+    @Test
+    public void shouldEvictAndReportFailedEntities() throws Exception {
+        service.update(new TestEntity(1L, "a"));
+        service.update(new TestEntity(2L, "b"));
+        assertTrue(cache.getEntityMap().containsKey(new LongIdKey(1L)));
+        dao.setFailing(true);
+
+        service.flush();
+
+        assertEquals(0, service.getPendingSize());
+        assertEquals(1, failedEntities.size());
+        assertEquals(List.of("a", "b"), names(failedEntities.get(0)));
+        assertFalse(cache.getEntityMap().containsKey(new LongIdKey(1L)));
+        assertFalse(cache.getEntityMap().containsKey(new LongIdKey(2L)));
+        assertEquals("origin", dao.getMemory().get(new LongIdKey(1L)).getName());
+    }
+
+    @Test
+    public void shouldWriteBackInOrderOfLastUpdate() throws Exception {
+        service.update(new TestEntity(1L, "a1"));
+        service.update(new TestEntity(2L, "b"));
+        service.update(new TestEntity(1L, "a2"));
+
+        service.flush();
+
+        assertEquals(1, dao.getUpdatedBatches().size());
+        assertEquals(List.of("b", "a2"), names(dao.getUpdatedBatches().get(0)));
+    }
+
+    @Test
+    public void shouldNotResurrectDeletedEntity() throws Exception {
+        service.update(new TestEntity(1L, "a"));
+
+        service.delete(new LongIdKey(1L));
+
+        assertEquals(0, service.getPendingSize());
+        assertFalse(service.exists(new LongIdKey(1L)));
+        service.flush();
+        assertTrue(dao.getUpdatedBatches().isEmpty());
+        assertFalse(dao.getMemory().containsKey(new LongIdKey(1L)));
+        assertThrows(ServiceException.class, () -> service.update(new TestEntity(1L, "b")));
+        assertEquals(0, service.getPendingSize());
+    }
+
+    @Test
+    public void shouldDiscardUpdateOfRolledBackTransaction() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        service.update(new TestEntity(1L, "a"));
+
+        // 事务提交之前，更新既不写入缓存，也不暂存。
+        assertEquals(0, service.getPendingSize());
+        assertFalse(cache.getEntityMap().containsKey(new LongIdKey(1L)));
+        completeTransaction(false);
+
+        assertEquals(0, service.getPendingSize());
+        service.flush();
+        assertTrue(dao.getUpdatedBatches().isEmpty());
+        assertEquals("origin", dao.getMemory().get(new LongIdKey(1L)).getName());
+    }
+
+    @Test
+    public void shouldEnqueueUpdateAfterCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        service.update(new TestEntity(1L, "a"));
+        completeTransaction(true);
+
+        assertEquals(1, service.getPendingSize());
+        assertEquals("a", cache.getEntityMap().get(new LongIdKey(1L)).getName());
+        service.flush();
+        assertEquals("a", dao.getMemory().get(new LongIdKey(1L)).getName());
+    }
+
+    @Test
+    public void shouldReportUpdateOfEntityDeletedBeforeCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        service.update(new TestEntity(1L, "a"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        service.delete(new LongIdKey(1L));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(0, service.getPendingSize());
+        assertEquals(1, failedEntities.size());
+        assertEquals(List.of("a"), names(failedEntities.get(0)));
+        assertFalse(cache.getEntityMap().containsKey(new LongIdKey(1L)));
+        service.flush();
+        assertFalse(dao.getMemory().containsKey(new LongIdKey(1L)));
+    }
+
+    @Test
+    public void shouldWriteBackWithFlushTransactionOperations() throws Exception {
+        CountingTransactionOperations transactionOperations = new CountingTransactionOperations();
+        service.setFlushTransactionOperations(transactionOperations);
+        service.setBatchSize(2);
+        for (long id = 1L; id <= 3L; id++) {
+            service.update(new TestEntity(id, "a"));
+        }
+
+        service.flush();
+
+        // 每一批实体在一个独立的事务中写回。
+        assertEquals(List.of(2, 1), transactionOperations.writtenBatchSizes);
+        assertEquals(2, dao.getUpdatedBatches().size());
+
+        service.update(new TestEntity(1L, "b"));
+        dao.setFailing(true);
+        service.flush();
+
+        assertEquals(1, transactionOperations.rollbackCount);
+        assertEquals(1, failedEntities.size());
+    }
+
+    private void completeTransaction(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = committed ? TransactionSynchronization.STATUS_COMMITTED :
+                TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static List<String> names(List<TestEntity> entities) {
+        List<String> names = new ArrayList<>();
+        for (TestEntity entity : entities) {
+            names.add(entity.getName());
+        }
+        return names;
+    }
+
+    /**
+     * 记录每一次事务中写回的实体数量以及回滚次数的事务操作替身。
+     */
+    private final class CountingTransactionOperations implements TransactionOperations {
+
+        private final List<Integer> writtenBatchSizes = new ArrayList<>();
+        private int rollbackCount;
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            int batchCount = dao.getUpdatedBatches().size();
+            T result;
+            try {
+                result = action.doInTransaction(null);
+            } catch (RuntimeException e) {
+                rollbackCount++;
+                throw e;
+            }
+            assertEquals(batchCount + 1, dao.getUpdatedBatches().size());
+            writtenBatchSizes.add(dao.getUpdatedBatches().get(batchCount).size());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.dwarfeng.subgrade.data.internal.redis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redis 分块工具类测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class RedisChunkUtilTest {
+
+    @Test
+    public void shouldReturnSingleChunkWhenListFits() {
+        List<Integer> list = List.of(1, 2, 3);
+
+        assertEquals(List.of(list), RedisChunkUtil.chunk(list, 3));
+    }
+
+    @Test
+    public void shouldReturnNoChunkWhenListIsEmpty() {
+        assertTrue(RedisChunkUtil.chunk(List.of(), 3).isEmpty());
+    }
+
+    @Test
+    public void shouldSplitListIntoOrderedChunks() {
+        List<Integer> list = List.of(1, 2, 3, 4, 5, 6, 7);
+
+        List<List<Integer>> chunks = RedisChunkUtil.chunk(list, 3);
+
+        assertEquals(List.of(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7)), chunks);
+    }
+
+    @Test
+    public void shouldSplitIntoFullChunksWhenSizeDivides() {
+        List<List<Integer>> chunks = RedisChunkUtil.chunk(List.of(1, 2, 3, 4), 2);
+
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4)), chunks);
+    }
+
+    @Test
+    public void shouldRejectNonPositiveChunkSize() {
+        assertEquals(1, RedisChunkUtil.requireValidChunkSize(1));
+        assertThrows(IllegalArgumentException.class, () -> RedisChunkUtil.requireValidChunkSize(0));
+        assertThrows(IllegalArgumentException.class, () -> RedisChunkUtil.requireValidChunkSize(-1));
+    }
+}
@@ -0,0 +1,49 @@
+package com.dwarfeng.subgrade.data.internal.redis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisOperations;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redis 列表支持测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class RedisListSupportTest {
+
+    @Test
+    public void shouldDeleteListWhenReplacingWithoutTimeout() {
+        for (List<String> values : List.of(List.<String>of(), List.of("a"), List.of("a", "b", "c"))) {
+            List<String> commands = new ArrayList<>();
+
+            RedisListSupport.replace(recordingOperations(commands), "list", values, 0L, 2);
+
+            // 不写入临时键，只删除目标键与空列表标记。
+            assertEquals(List.of("delete [list, list@empty]"), commands);
+        }
+    }
+
+    /**
+     * 只支持删除命令的 Redis 操作，记录每一次调用。
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisOperations<String, String> recordingOperations(List<String> commands) {
+        return (RedisOperations<String, String>) Proxy.newProxyInstance(
+                RedisOperations.class.getClassLoader(), new Class<?>[]{RedisOperations.class},
+                (proxy, method, args) -> {
+                    if (!"delete".equals(method.getName()) || !(args[0] instanceof Collection<?> keys)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    commands.add("delete " + keys);
+                    return (long) keys.size();
+                }
+        );
+    }
+}
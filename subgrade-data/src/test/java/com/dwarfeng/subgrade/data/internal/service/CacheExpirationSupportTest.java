@@ -0,0 +1,142 @@
+package com.dwarfeng.subgrade.data.internal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓存过期支持测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class CacheExpirationSupportTest {
+
+    private static final int SAMPLE_COUNT = 10000;
+
+    @Test
+    public void shouldNotJitterByDefault() {
+        CacheExpirationSupport support = new CacheExpirationSupport();
+
+        assertEquals(1000L, support.jitteredTimeout(1000L));
+        List<Integer> elements = List.of(1, 2, 3, 4, 5);
+        assertEquals(List.of(elements), support.jitterGroups(elements));
+    }
+
+    @Test
+    public void shouldKeepJitteredTimeoutInRange() {
+        CacheExpirationSupport support = new CacheExpirationSupport();
+        support.setJitter(0.2);
+
+        Set<Long> timeouts = new HashSet<>();
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            long timeout = support.jitteredTimeout(1000L);
+            assertTrue(timeout > 800L && timeout <= 1000L, "超时时间超出范围: " + timeout);
+            timeouts.add(timeout);
+        }
+        // 超时时间应当分散在整个区间中，而不是集中在少数几个值上。
+        assertTrue(timeouts.size() > 100);
+        assertEquals(1L, support.jitteredTimeout(1L));
+        assertEquals(0L, support.jitteredTimeout(0L));
+    }
+
+    @Test
+    public void shouldSplitElementsIntoNonEmptyGroups() {
+        CacheExpirationSupport support = new CacheExpirationSupport();
+        support.setJitter(0.5);
+        List<Integer> elements = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+        List<List<Integer>> groups = support.jitterGroups(elements);
+
+        assertTrue(groups.size() > 1 && groups.size() <= CacheExpirationSupport.MAX_JITTER_GROUP_COUNT);
+        List<Integer> merged = new ArrayList<>();
+        for (List<Integer> group : groups) {
+            assertFalse(group.isEmpty());
+            merged.addAll(group);
+        }
+        merged.sort(null);
+        assertEquals(elements, merged);
+        assertEquals(List.of(List.of(7)), support.jitterGroups(List.of(7)));
+    }
+
+    @Test
+    public void shouldRejectInvalidParameters() {
+        CacheExpirationSupport support = new CacheExpirationSupport();
+
+        assertThrows(IllegalArgumentException.class, () -> support.setJitter(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> support.setJitter(1.0));
+        assertThrows(IllegalArgumentException.class, () -> support.setJitter(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> support.setEarlyRecomputeBeta(-1.0));
+        assertThrows(IllegalArgumentException.class, () -> support.setEarlyRecomputeBeta(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> support.setEarlyRecomputeBeta(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void shouldNotRecomputeEarlyWithoutBetaOrDelta() {
+        CacheExpirationSupport support = new CacheExpirationSupport();
+        assertFalse(support.isEarlyRecomputeEnabled());
+        support.recordRecomputeTime(100L);
+        assertFalse(support.shouldRecomputeEarly(0L));
+
+        support = new CacheExpirationSupport();
+        support.setEarlyRecomputeBeta(1.0);
+        assertTrue(support.isEarlyRecomputeEnabled());
+        // 没有加载耗时的样本时，不提前重算。
+        assertFalse(support.shouldRecomputeEarly(0L));
+        support.recordRecomputeTime(100L);
+        // 剩余超时时间未知时，不提前重算。
+        assertFalse(support.shouldRecomputeEarly(-1L));
+    }
+
+    @Test
+    public void shouldRecomputeEarlyWithExpectedProbability() {
+        CacheExpirationSupport support = new CacheExpirationSupport();
+        support.setEarlyRecomputeBeta(1.0);
+        support.recordRecomputeTime(100L);
+
+        // 提前重算的概率为 exp(-remainingTimeout / (delta * beta))。
+        assertEquals(SAMPLE_COUNT, countRecomputes(support, 0L));
+        assertEquals(0, countRecomputes(support, 100000L));
+        double probability = (double) countRecomputes(support, 100L) / SAMPLE_COUNT;
+        assertEquals(Math.exp(-1.0), probability, 0.05);
+
+        // 系数越大，提前重算的概率越大。
+        support.setEarlyRecomputeBeta(2.0);
+        double largerProbability = (double) countRecomputes(support, 100L) / SAMPLE_COUNT;
+        assertEquals(Math.exp(-0.5), largerProbability, 0.05);
+    }
+
+    @Test
+    public void shouldSmoothRecomputeTime() {
+        CacheExpirationSupport support = new CacheExpirationSupport();
+
+        support.recordRecomputeTime(0L);
+        assertEquals(1L, support.getDelta());
+        support = new CacheExpirationSupport();
+        support.recordRecomputeTime(100L);
+        assertEquals(100L, support.getDelta());
+        support.recordRecomputeTime(900L);
+        assertEquals(200L, support.getDelta());
+        for (int i = 0; i < 100; i++) {
+            support.recordRecomputeTime(900L);
+        }
+        assertTrue(support.getDelta() > 850L && support.getDelta() <= 900L);
+    }
+
+    private static int countRecomputes(CacheExpirationSupport support, long remainingTimeout) {
+        int count = 0;
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            if (support.shouldRecomputeEarly(remainingTimeout)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
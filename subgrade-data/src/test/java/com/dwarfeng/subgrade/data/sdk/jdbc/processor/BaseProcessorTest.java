@@ -0,0 +1,89 @@
+package com.dwarfeng.subgrade.data.sdk.jdbc.processor;
+
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.data.fixture.TestEntity;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 基础处理器测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class BaseProcessorTest {
+
+    @Test
+    public void shouldResolveGetIfExistsOnForwardOnlyResultSet() throws Exception {
+        TestProcessor processor = new TestProcessor();
+
+        TestEntity entity = processor.resolveGetIfExists(forwardOnlyResultSet(List.of(7L, 8L)));
+
+        assertEquals(new LongIdKey(7L), entity.getKey());
+        assertNull(processor.resolveGetIfExists(forwardOnlyResultSet(List.of())));
+    }
+
+    /**
+     * 返回只能向前移动的结果集，其中的 {@link ResultSet#isBeforeFirst()} 不受支持。
+     */
+    private static ResultSet forwardOnlyResultSet(List<Long> ids) {
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++cursor[0] < ids.size();
+                    case "getLong" -> ids.get(cursor[0]);
+                    default -> throw new SQLFeatureNotSupportedException(method.getName());
+                }
+        );
+    }
+
+    /**
+     * 与 {@link PhoenixBatchBaseProcessor} 相同，在 {@link #resolveGet(ResultSet)} 中先移动游标再读取数据的处理器。
+     */
+    private static final class TestProcessor implements BaseProcessor<LongIdKey, TestEntity> {
+
+        @Override
+        public SQLAndParameter provideInsert(TestEntity element) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SQLAndParameter provideUpdate(TestEntity element) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SQLAndParameter provideDelete(LongIdKey key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SQLAndParameter provideExists(LongIdKey key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean resolveExists(ResultSet resultSet) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SQLAndParameter provideGet(LongIdKey key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TestEntity resolveGet(ResultSet resultSet) throws SQLException {
+            assertTrue(resultSet.next());
+            return new TestEntity(resultSet.getLong(1), "e" + resultSet.getLong(1));
+        }
+    }
+}
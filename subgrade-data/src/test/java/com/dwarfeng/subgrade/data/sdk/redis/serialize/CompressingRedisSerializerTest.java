@@ -0,0 +1,114 @@
+package com.dwarfeng.subgrade.data.sdk.redis.serialize;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 压缩 Redis 序列化器测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class CompressingRedisSerializerTest {
+
+    private static final String LARGE_VALUE = "subgrade-".repeat(512);
+
+    @Test
+    public void shouldKeepSmallValueUncompressed() {
+        FastJsonRedisSerializer<TestBean> delegate = new FastJsonRedisSerializer<>(TestBean.class);
+        CompressingRedisSerializer<TestBean> serializer = new CompressingRedisSerializer<>(delegate);
+        TestBean source = new TestBean("value");
+
+        byte[] bytes = serializer.serialize(source);
+
+        assertArrayEquals(delegate.serialize(source), bytes);
+        assertEquals(source.getValue(), serializer.deserialize(bytes).getValue());
+    }
+
+    @Test
+    public void shouldCompressLargeValue() {
+        FastJsonRedisSerializer<TestBean> delegate = new FastJsonRedisSerializer<>(TestBean.class);
+        CompressingRedisSerializer<TestBean> serializer = new CompressingRedisSerializer<>(delegate);
+        TestBean source = new TestBean(LARGE_VALUE);
+
+        byte[] bytes = serializer.serialize(source);
+
+        assertTrue(bytes.length < delegate.serialize(source).length);
+        assertEquals(source.getValue(), serializer.deserialize(bytes).getValue());
+    }
+
+    @Test
+    public void shouldReadValueWrittenWithoutCompression() {
+        FastJsonRedisSerializer<TestBean> delegate = new FastJsonRedisSerializer<>(TestBean.class);
+        CompressingRedisSerializer<TestBean> serializer = new CompressingRedisSerializer<>(delegate);
+        TestBean source = new TestBean(LARGE_VALUE);
+
+        TestBean target = serializer.deserialize(delegate.serialize(source));
+
+        assertEquals(source.getValue(), target.getValue());
+    }
+
+    @Test
+    public void shouldRestoreValueCompressedWithDictionary() {
+        FastJsonRedisSerializer<TestBean> delegate = new FastJsonRedisSerializer<>(TestBean.class);
+        byte[] dictionary = delegate.serialize(new TestBean("dictionary-value"));
+        CompressingRedisSerializer<TestBean> serializer = new CompressingRedisSerializer<>(
+                delegate, 0, Deflater.BEST_COMPRESSION, dictionary
+        );
+        TestBean source = new TestBean("dictionary-value-1");
+
+        TestBean target = serializer.deserialize(serializer.serialize(source));
+
+        assertEquals(source.getValue(), target.getValue());
+    }
+
+    @Test
+    public void shouldRejectValueCompressedWithDifferentDictionary() {
+        FastJsonRedisSerializer<TestBean> delegate = new FastJsonRedisSerializer<>(TestBean.class);
+        byte[] dictionary = LARGE_VALUE.getBytes(StandardCharsets.UTF_8);
+        CompressingRedisSerializer<TestBean> writer = new CompressingRedisSerializer<>(
+                delegate, 0, Deflater.DEFAULT_COMPRESSION, dictionary
+        );
+        CompressingRedisSerializer<TestBean> reader = new CompressingRedisSerializer<>(delegate, 0);
+
+        byte[] bytes = writer.serialize(new TestBean(LARGE_VALUE));
+
+        assertThrows(SerializationException.class, () -> reader.deserialize(bytes));
+    }
+
+    @Test
+    public void shouldRejectTruncatedValue() {
+        FastJsonRedisSerializer<TestBean> delegate = new FastJsonRedisSerializer<>(TestBean.class);
+        CompressingRedisSerializer<TestBean> serializer = new CompressingRedisSerializer<>(delegate);
+        byte[] bytes = serializer.serialize(new TestBean(LARGE_VALUE));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+    }
+
+    public static class TestBean {
+
+        private String value;
+
+        public TestBean() {
+        }
+
+        public TestBean(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.dwarfeng.subgrade.data.stack.dao;
+
+import com.dwarfeng.subgrade.basic.stack.bean.key.LongIdKey;
+import com.dwarfeng.subgrade.data.fixture.TestEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 可批量操作的基础数据访问层测试。
+ *
+ * @author DwArFeng
+ * @since 2.0.0
+ */
+public class BatchBaseDaoTest {
+
+    @Test
+    public void shouldAlignBatchGetResultsWithKeys() throws Exception {
+        InClauseDao dao = new InClauseDao();
+        for (long id = 1L; id <= 5L; id++) {
+            dao.entityMap.put(new LongIdKey(id), new TestEntity(id, "e" + id));
+        }
+        List<LongIdKey> keys = List.of(
+                new LongIdKey(4L), new LongIdKey(1L), new LongIdKey(4L), new LongIdKey(3L), new LongIdKey(1L)
+        );
+
+        List<TestEntity> entities = dao.batchGetIfExists(keys);
+
+        assertEquals(1, dao.batchGetCount);
+        assertEquals(keys.size(), entities.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.get(i), entities.get(i).getKey());
+        }
+    }
+
+    @Test
+    public void shouldReturnNullForMissingEntities() throws Exception {
+        InClauseDao dao = new InClauseDao();
+        dao.entityMap.put(new LongIdKey(2L), new TestEntity(2L, "e2"));
+
+        List<TestEntity> entities = dao.batchGetIfExists(List.of(
+                new LongIdKey(3L), new LongIdKey(2L), new LongIdKey(3L)
+        ));
+
+        assertEquals(3, entities.size());
+        assertNull(entities.get(0));
+        assertEquals(new LongIdKey(2L), entities.get(1).getKey());
+        assertNull(entities.get(2));
+        assertTrue(dao.batchGetIfExists(Collections.emptyList()).isEmpty());
+    }
+
+    /**
+     * 模拟基于 <code>IN</code> 条件查询的数据访问层：批量获取的结果按照主键排序，重复的主键只返回一个实体。
+     */
+    private static final class InClauseDao implements BatchBaseDao<LongIdKey, TestEntity> {
+
+        private final Map<LongIdKey, TestEntity> entityMap = new HashMap<>();
+        private int batchGetCount;
+
+        @Override
+        public LongIdKey insert(TestEntity element) {
+            entityMap.put(element.getKey(), element);
+            return element.getKey();
+        }
+
+        @Override
+        public void update(TestEntity element) {
+            entityMap.put(element.getKey(), element);
+        }
+
+        @Override
+        public void delete(LongIdKey key) {
+            entityMap.remove(key);
+        }
+
+        @Override
+        public boolean exists(LongIdKey key) {
+            return entityMap.containsKey(key);
+        }
+
+        @Override
+        public TestEntity get(LongIdKey key) {
+            return entityMap.get(key);
+        }
+
+        @Override
+        public List<LongIdKey> batchInsert(List<TestEntity> elements) {
+            elements.forEach(this::insert);
+            return elements.stream().map(TestEntity::getKey).toList();
+        }
+
+        @Override
+        public void batchUpdate(List<TestEntity> elements) {
+            elements.forEach(this::update);
+        }
+
+        @Override
+        public void batchDelete(List<LongIdKey> keys) {
+            keys.forEach(entityMap::remove);
+        }
+
+        @Override
+        public boolean allExists(List<LongIdKey> keys) {
+            return keys.stream().allMatch(entityMap::containsKey);
+        }
+
+        @Override
+        public boolean nonExists(List<LongIdKey> keys) {
+            return keys.stream().noneMatch(entityMap::containsKey);
+        }
+
+        @Override
+        public List<TestEntity> batchGet(List<LongIdKey> keys) {
+            batchGetCount++;
+            Set<LongIdKey> distinctKeys = new TreeSet<>(Comparator.comparingLong(LongIdKey::getLongId));
+            distinctKeys.addAll(keys);
+            return distinctKeys.stream().map(entityMap::get).filter(Objects::nonNull).toList();
+        }
+    }
+}